@@ -0,0 +1,42 @@
+-- One-off migration of retirement_staging.lifestyle_deposits to lowercased, unique lifestyle types.
+--
+-- schema.sql creates the unique index lifestyle_deposits_lifestyle_type_key on every startup and
+-- fails on a table that still holds mixed-case or duplicate types. Run this script once, by hand,
+-- on such a table before starting the application:
+--
+--   psql -d mydatabase -v ON_ERROR_STOP=1 -f normalize_lifestyle_types.sql
+--
+-- Of each set of duplicates the most recent row (highest id) is kept. The removed rows are copied
+-- to retirement_staging.lifestyle_deposits_removed_duplicates first, and the script prints them.
+
+BEGIN;
+
+CREATE TABLE IF NOT EXISTS retirement_staging.lifestyle_deposits_removed_duplicates (
+    LIKE retirement_staging.lifestyle_deposits,
+    removed_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT now()
+);
+
+UPDATE retirement_staging.lifestyle_deposits
+SET lifestyle_type = LOWER(TRIM(lifestyle_type))
+WHERE lifestyle_type <> LOWER(TRIM(lifestyle_type));
+
+INSERT INTO retirement_staging.lifestyle_deposits_removed_duplicates (id, lifestyle_type, monthly_deposit)
+SELECT older.id, older.lifestyle_type, older.monthly_deposit
+FROM retirement_staging.lifestyle_deposits older
+WHERE EXISTS (SELECT 1 FROM retirement_staging.lifestyle_deposits newer
+              WHERE newer.lifestyle_type = older.lifestyle_type AND newer.id > older.id);
+
+DELETE FROM retirement_staging.lifestyle_deposits older
+WHERE EXISTS (SELECT 1 FROM retirement_staging.lifestyle_deposits newer
+              WHERE newer.lifestyle_type = older.lifestyle_type AND newer.id > older.id);
+
+-- now() is the start of this transaction, so this lists the rows removed by this run
+SELECT id, lifestyle_type, monthly_deposit
+FROM retirement_staging.lifestyle_deposits_removed_duplicates
+WHERE removed_at = now()
+ORDER BY lifestyle_type, id;
+
+CREATE UNIQUE INDEX IF NOT EXISTS lifestyle_deposits_lifestyle_type_key
+    ON retirement_staging.lifestyle_deposits (lifestyle_type);
+
+COMMIT;
@@ -0,0 +1,52 @@
+package com.example.retirementCalculator.benchmark;
+
+import com.example.retirementCalculator.config.RedisKeyspace;
+import com.example.retirementCalculator.service.CacheService;
+import com.example.retirementCalculator.service.AnnuityFactorTable;
+import com.example.retirementCalculator.service.CalculationResultCache;
+import com.example.retirementCalculator.service.LifestyleNearCache;
+import com.example.retirementCalculator.service.RetirementMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput and allocation of bulk cache reads through {@link CacheService#fetchAllCache()}
+ * for growing numbers of lifestyle keys in in-memory Redis.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CacheBenchmark {
+
+    @Param({ "10", "1000", "10000" })
+    private int keys;
+
+    private CacheService cacheService;
+
+    @Setup
+    public void setUp() {
+        RedisKeyspace keyspace = new RedisKeyspace("lifestyle:", 100, 500);
+        InMemoryStringRedisTemplate depositTemplate = new InMemoryStringRedisTemplate();
+        InMemoryStringRedisTemplate rateTemplate = new InMemoryStringRedisTemplate();
+        for (int i = 0; i < keys; i++) {
+            depositTemplate.opsForValue().set(keyspace.key("type" + i), String.valueOf(1000 + i));
+            rateTemplate.opsForValue().set(keyspace.key("type" + i), "5.5");
+        }
+
+        cacheService = new CacheService(null, depositTemplate, rateTemplate, null, null,
+                new LifestyleNearCache(100, Duration.ofMinutes(10)), new CalculationResultCache(100), new AnnuityFactorTable(996), null, keyspace,
+                new RetirementMetrics(new SimpleMeterRegistry()), null, null, Duration.ofSeconds(2));
+    }
+
+    @Benchmark
+    public Map<String, String> fetchAllCache() {
+        return cacheService.fetchAllCache();
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.retirementCalculator.benchmark;
+
+import com.example.retirementCalculator.config.RedisKeyspace;
+import com.example.retirementCalculator.entity.Retirement;
+import com.example.retirementCalculator.entity.RetirementResult;
+import com.example.retirementCalculator.service.AnnuityFactorTable;
+import com.example.retirementCalculator.service.CalculationMode;
+import com.example.retirementCalculator.service.CalculationResultCache;
+import com.example.retirementCalculator.service.FutureValueCalculator;
+import com.example.retirementCalculator.service.LifestyleNearCache;
+import com.example.retirementCalculator.service.LifestyleSnapshot;
+import com.example.retirementCalculator.service.RedisCircuitBreaker;
+import com.example.retirementCalculator.service.RetirementService;
+import com.example.retirementCalculator.service.RetirementMetrics;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput and allocation of the future value calculation over varying horizons.
+ * <p>
+ * {@code futureValue} measures the bare formula ({@code BigDecimal.pow} loop for
+ * {@link CalculationMode#EXACT}); {@code calculatePlan} measures the full service call,
+ * including validation and the near-cached lifestyle lookup against in-memory Redis, with
+ * the result cache disabled and no precomputed factors; {@code calculatePlanTabulated} uses the
+ * {@link AnnuityFactorTable} instead of the live formula, and {@code calculatePlanMemoized}
+ * measures the same call served from the {@link CalculationResultCache}.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CalculationBenchmark {
+
+    private static final String LIFESTYLE = "fancy";
+    private static final BigDecimal DEPOSIT = new BigDecimal("3000");
+    private static final BigDecimal RATE = new BigDecimal("5.5");
+
+    @Param({ "5", "20", "48", "83" })
+    private int years;
+
+    @Param({ "EXACT", "FAST" })
+    private CalculationMode mode;
+
+    private RetirementService service;
+    private RetirementService tabulatedService;
+    private RetirementService memoizedService;
+    private Retirement plan;
+
+    @Setup
+    public void setUp() {
+        RedisKeyspace keyspace = new RedisKeyspace("lifestyle:", 100, 500);
+        InMemoryStringRedisTemplate depositTemplate = new InMemoryStringRedisTemplate();
+        InMemoryStringRedisTemplate rateTemplate = new InMemoryStringRedisTemplate();
+        depositTemplate.opsForValue().set(keyspace.key(LIFESTYLE), DEPOSIT.toPlainString());
+        rateTemplate.opsForValue().set(keyspace.key(LIFESTYLE), RATE.toPlainString());
+
+        AnnuityFactorTable annuityTable = new AnnuityFactorTable(996);
+        annuityTable.rebuild(List.of(RATE.toPlainString()));
+
+        service = newService(depositTemplate, rateTemplate, keyspace,
+                new CalculationResultCache(0), new AnnuityFactorTable(996));
+        tabulatedService = newService(depositTemplate, rateTemplate, keyspace,
+                new CalculationResultCache(0), annuityTable);
+        memoizedService = newService(depositTemplate, rateTemplate, keyspace,
+                new CalculationResultCache(100), annuityTable);
+
+        plan = new Retirement(17, 17 + years, null, LIFESTYLE);
+    }
+
+    private RetirementService newService(InMemoryStringRedisTemplate depositTemplate,
+                                         InMemoryStringRedisTemplate rateTemplate,
+                                         RedisKeyspace keyspace, CalculationResultCache resultCache,
+                                         AnnuityFactorTable annuityTable) {
+        RetirementMetrics metrics = new RetirementMetrics(new SimpleMeterRegistry());
+        RetirementService retirementService = new RetirementService(depositTemplate, rateTemplate, null,
+                new LifestyleNearCache(100, Duration.ofMinutes(10)), resultCache, annuityTable, null, keyspace,
+                metrics, new RedisCircuitBreaker(CircuitBreakerConfig.ofDefaults(), new LifestyleSnapshot(null, null), metrics));
+        ReflectionTestUtils.setField(retirementService, "calculationMode", mode);
+        return retirementService;
+    }
+
+    @Benchmark
+    public BigDecimal futureValue() {
+        return FutureValueCalculator.futureValue(mode, DEPOSIT, RATE, years * 12);
+    }
+
+    @Benchmark
+    public RetirementResult calculatePlan() {
+        return service.calculatePlan(plan);
+    }
+
+    @Benchmark
+    public RetirementResult calculatePlanTabulated() {
+        return tabulatedService.calculatePlan(plan);
+    }
+
+    @Benchmark
+    public RetirementResult calculatePlanMemoized() {
+        return memoizedService.calculatePlan(plan);
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.retirementCalculator.benchmark;
+
+import com.example.retirementCalculator.config.RedisKeyspace;
+import com.example.retirementCalculator.entity.GoalSeekRequest;
+import com.example.retirementCalculator.entity.GoalSeekResult;
+import com.example.retirementCalculator.entity.Retirement;
+import com.example.retirementCalculator.entity.RetirementResult;
+import com.example.retirementCalculator.service.AnnuityFactorTable;
+import com.example.retirementCalculator.service.CalculationMode;
+import com.example.retirementCalculator.service.CalculationResultCache;
+import com.example.retirementCalculator.service.FutureValueCalculator;
+import com.example.retirementCalculator.service.GoalSeekService;
+import com.example.retirementCalculator.service.LifestyleNearCache;
+import com.example.retirementCalculator.service.LifestyleSnapshot;
+import com.example.retirementCalculator.service.RedisCircuitBreaker;
+import com.example.retirementCalculator.service.RetirementMetrics;
+import com.example.retirementCalculator.service.RetirementService;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of goal-seek requests against the forward calculation they invert.
+ * <p>
+ * {@code solveDeposit}, {@code solveInterestRate} and {@code solveRetirementAge} measure
+ * {@link GoalSeekService#solve} with the lifestyle data near-cached from in-memory Redis and
+ * the {@link AnnuityFactorTable} built for the lifestyle's rate. {@code calculatePlan} is the
+ * forward calculation of the same plan, and {@code bruteForceDeposit} searches the deposit
+ * by bisection over cents with one forward calculation per step, the way clients used to
+ * answer the question.
+ * </p>
+ * Run with:
+ * <pre>
+ *   mvn -Pbenchmark -DskipTests test-compile exec:exec -Djmh.args="GoalSeekBenchmark -prof gc"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GoalSeekBenchmark {
+
+    private static final String LIFESTYLE = "fancy";
+    private static final BigDecimal DEPOSIT = new BigDecimal("3000");
+    private static final BigDecimal RATE = new BigDecimal("5.5");
+    private static final BigDecimal TARGET = new BigDecimal("2000000");
+
+    @Param({ "20", "48" })
+    private int years;
+
+    @Param({ "EXACT", "FAST" })
+    private CalculationMode mode;
+
+    private RetirementService retirementService;
+    private GoalSeekService goalSeekService;
+    private Retirement plan;
+    private GoalSeekRequest depositRequest;
+    private GoalSeekRequest rateRequest;
+    private GoalSeekRequest ageRequest;
+
+    @Setup
+    public void setUp() {
+        RedisKeyspace keyspace = new RedisKeyspace("lifestyle:", 100, 500);
+        InMemoryStringRedisTemplate depositTemplate = new InMemoryStringRedisTemplate();
+        InMemoryStringRedisTemplate rateTemplate = new InMemoryStringRedisTemplate();
+        depositTemplate.opsForValue().set(keyspace.key(LIFESTYLE), DEPOSIT.toPlainString());
+        rateTemplate.opsForValue().set(keyspace.key(LIFESTYLE), RATE.toPlainString());
+
+        AnnuityFactorTable annuityTable = new AnnuityFactorTable(996);
+        annuityTable.rebuild(List.of(RATE.toPlainString()));
+
+        RetirementMetrics metrics = new RetirementMetrics(new SimpleMeterRegistry());
+        retirementService = new RetirementService(depositTemplate, rateTemplate, null,
+                new LifestyleNearCache(100, Duration.ofMinutes(10)), new CalculationResultCache(0), annuityTable, null,
+                keyspace, metrics, new RedisCircuitBreaker(CircuitBreakerConfig.ofDefaults(), new LifestyleSnapshot(null, null), metrics));
+        ReflectionTestUtils.setField(retirementService, "calculationMode", mode);
+        goalSeekService = new GoalSeekService(retirementService, metrics);
+
+        plan = new Retirement(17, 17 + years, null, LIFESTYLE);
+        depositRequest = request("deposit").build();
+        rateRequest = request("interest_rate").build();
+        ageRequest = request("retirement_age").retirementAge(null).build();
+    }
+
+    private GoalSeekRequest.GoalSeekRequestBuilder request(String solveFor) {
+        return GoalSeekRequest.builder()
+                .currentAge(17)
+                .retirementAge(17 + years)
+                .lifestyleType(LIFESTYLE)
+                .targetAmount(TARGET)
+                .solveFor(solveFor);
+    }
+
+    @Benchmark
+    public RetirementResult calculatePlan() {
+        return retirementService.calculatePlan(plan);
+    }
+
+    @Benchmark
+    public GoalSeekResult solveDeposit() {
+        return goalSeekService.solve(depositRequest);
+    }
+
+    @Benchmark
+    public GoalSeekResult solveInterestRate() {
+        return goalSeekService.solve(rateRequest);
+    }
+
+    @Benchmark
+    public GoalSeekResult solveRetirementAge() {
+        return goalSeekService.solve(ageRequest);
+    }
+
+    @Benchmark
+    public long bruteForceDeposit() {
+        long low = 0;
+        long high = TARGET.movePointRight(2).longValue();
+        while (low < high) {
+            long cents = (low + high) >>> 1;
+            BigDecimal futureValue = FutureValueCalculator.futureValue(mode, BigDecimal.valueOf(cents, 2), RATE, years * 12);
+            if (futureValue.compareTo(TARGET) < 0) {
+                low = cents + 1;
+            } else {
+                high = cents;
+            }
+        }
+        return low;
+    }
+}
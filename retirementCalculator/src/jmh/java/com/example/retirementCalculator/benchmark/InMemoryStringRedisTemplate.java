@@ -0,0 +1,308 @@
+package com.example.retirementCalculator.benchmark;
+
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory stand-in for a {@link StringRedisTemplate} bound to one logical Redis database.
+ * <p>
+ * Backs the key, value and hash operations used by the application with {@link ConcurrentHashMap}s,
+ * so benchmarks measure the application code rather than the network or a Redis server.
+ * The Lua scripts of the lifestyle hash store are recognised by the commands they call and
+ * emulated in Java as one command. Operations the application does not use throw
+ * {@link UnsupportedOperationException}.
+ * </p>
+ * <p>
+ * An optional latency is slept before every command to stand in for the network round trip
+ * of a real (or slow) Redis server; the default is none.
+ * </p>
+ */
+public class InMemoryStringRedisTemplate extends StringRedisTemplate {
+
+    private final Map<String, String> store = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, String>> hashes = new ConcurrentHashMap<>();
+    private final Duration latency;
+
+    /**
+     * Creates a template that answers every command immediately.
+     */
+    public InMemoryStringRedisTemplate() {
+        this(Duration.ZERO);
+    }
+
+    /**
+     * Creates a template that sleeps for {@code latency} before every command.
+     *
+     * @param latency the simulated round trip time
+     */
+    public InMemoryStringRedisTemplate(Duration latency) {
+        this.latency = latency;
+    }
+
+    @SuppressWarnings("unchecked")
+    private final ValueOperations<String, String> valueOperations = (ValueOperations<String, String>) Proxy.newProxyInstance(
+            ValueOperations.class.getClassLoader(),
+            new Class<?>[] { ValueOperations.class },
+            (proxy, method, args) -> switch (method.getName()) {
+                case "getOperations" -> this;
+                case "get" -> {
+                    roundTrip();
+                    yield store.get((String) args[0]);
+                }
+                case "set" -> {
+                    roundTrip();
+                    store.put((String) args[0], (String) args[1]);
+                    yield null;
+                }
+                case "multiGet" -> {
+                    roundTrip();
+                    yield multiGet((Collection<String>) args[0]);
+                }
+                case "multiSet" -> {
+                    roundTrip();
+                    store.putAll((Map<String, String>) args[0]);
+                    yield null;
+                }
+                case "increment" -> {
+                    roundTrip();
+                    yield Long.parseLong(store.merge((String) args[0], "1",
+                            (a, b) -> String.valueOf(Long.parseLong(a) + 1)));
+                }
+                case "size" -> {
+                    roundTrip();
+                    String value = store.get((String) args[0]);
+                    yield value != null ? (long) value.length() : 0L;
+                }
+                default -> throw new UnsupportedOperationException(method.getName());
+            });
+
+    @SuppressWarnings("unchecked")
+    private final HashOperations<String, Object, Object> hashOperations = (HashOperations<String, Object, Object>) Proxy.newProxyInstance(
+            HashOperations.class.getClassLoader(),
+            new Class<?>[] { HashOperations.class },
+            (proxy, method, args) -> switch (method.getName()) {
+                case "getOperations" -> this;
+                case "multiGet" -> {
+                    roundTrip();
+                    Map<String, String> hash = hashes.getOrDefault((String) args[0], Map.of());
+                    List<Object> values = new ArrayList<>();
+                    for (Object field : (Collection<Object>) args[1]) {
+                        values.add(hash.get((String) field));
+                    }
+                    yield values;
+                }
+                case "lengthOfValue" -> {
+                    roundTrip();
+                    String value = hashes.getOrDefault((String) args[0], Map.of()).get((String) args[1]);
+                    yield value != null ? (long) value.length() : 0L;
+                }
+                default -> throw new UnsupportedOperationException(method.getName());
+            });
+
+    private void roundTrip() {
+        if (latency.isZero()) {
+            return;
+        }
+        try {
+            Thread.sleep(latency.toMillis(), latency.toNanosPart() % 1_000_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private List<String> multiGet(Collection<String> keys) {
+        List<String> values = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            values.add(store.get(key));
+        }
+        return values;
+    }
+
+    @Override
+    public ValueOperations<String, String> opsForValue() {
+        return valueOperations;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <HK, HV> HashOperations<String, HK, HV> opsForHash() {
+        return (HashOperations<String, HK, HV>) hashOperations;
+    }
+
+    /**
+     * Runs the read ({@code HMGET}) or write ({@code HINCRBY}) script of the lifestyle hash store,
+     * or the compare-and-set script of the lifestyle table version, as a single command.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T execute(RedisScript<T> script, List<String> keys, Object... args) {
+        roundTrip();
+        String source = script.getScriptAsString();
+        if (source.contains("HINCRBY")) {
+            String field = (String) args[0];
+            for (int i = 0; i < keys.size(); i++) {
+                String value = (String) args[i + 2];
+                Map<String, String> hash = hashes.computeIfAbsent(keys.get(i), key -> new ConcurrentHashMap<>());
+                if (value.isEmpty()) {
+                    hash.remove(field);
+                } else {
+                    hash.put(field, value);
+                }
+                if (!hash.containsKey("deposit") && !hash.containsKey("rate")) {
+                    hashes.remove(keys.get(i));
+                } else {
+                    hash.put("updatedAt", (String) args[1]);
+                    hash.merge("version", "1", (a, b) -> String.valueOf(Long.parseLong(a) + 1));
+                }
+            }
+            return (T) Long.valueOf(keys.size());
+        }
+        if (source.contains("HMGET")) {
+            List<String> values = new ArrayList<>(keys.size() * 2);
+            for (String key : keys) {
+                Map<String, String> hash = hashes.getOrDefault(key, Map.of());
+                values.add(hash.get("deposit"));
+                values.add(hash.get("rate"));
+            }
+            return (T) values;
+        }
+        if (source.contains("'SET'")) {
+            long version = Long.parseLong((String) args[0]);
+            synchronized (store) {
+                String current = store.get(keys.get(0));
+                if (current != null && Long.parseLong(current) >= version) {
+                    return (T) Long.valueOf(0);
+                }
+                store.put(keys.get(0), String.valueOf(version));
+                return (T) Long.valueOf(1);
+            }
+        }
+        throw new UnsupportedOperationException("Unknown script");
+    }
+
+    @Override
+    public Set<String> keys(String pattern) {
+        roundTrip();
+        if (!"*".equals(pattern)) {
+            throw new UnsupportedOperationException("Only the '*' pattern is supported");
+        }
+        Set<String> keys = new HashSet<>(store.keySet());
+        keys.addAll(hashes.keySet());
+        return keys;
+    }
+
+    /**
+     * Iterates over a snapshot of the keys matching the pattern. Only {@code *} and
+     * prefix patterns such as {@code lifestyle:*} are supported.
+     */
+    @Override
+    public Cursor<String> scan(ScanOptions options) {
+        roundTrip();
+        String pattern = options.getPattern() != null ? options.getPattern() : "*";
+        if (pattern.indexOf('*') != pattern.length() - 1) {
+            throw new UnsupportedOperationException("Only prefix patterns are supported");
+        }
+        String prefix = pattern.substring(0, pattern.length() - 1);
+        List<String> matches = new ArrayList<>();
+        for (String key : store.keySet()) {
+            if (key.startsWith(prefix)) {
+                matches.add(key);
+            }
+        }
+        for (String key : hashes.keySet()) {
+            if (key.startsWith(prefix)) {
+                matches.add(key);
+            }
+        }
+        return new SnapshotCursor(matches.iterator());
+    }
+
+    /**
+     * Publishes to no subscriber.
+     */
+    @Override
+    public Long convertAndSend(String channel, Object message) {
+        roundTrip();
+        return 0L;
+    }
+
+    @Override
+    public Boolean hasKey(String key) {
+        roundTrip();
+        return store.containsKey(key) || hashes.containsKey(key);
+    }
+
+    @Override
+    public Boolean delete(String key) {
+        roundTrip();
+        return store.remove(key) != null | hashes.remove(key) != null;
+    }
+
+    @Override
+    public Long delete(Collection<String> keys) {
+        roundTrip();
+        long deleted = 0;
+        for (String key : keys) {
+            if (store.remove(key) != null | hashes.remove(key) != null) {
+                deleted++;
+            }
+        }
+        return deleted;
+    }
+
+    private static final class SnapshotCursor implements Cursor<String> {
+
+        private final Iterator<String> iterator;
+        private long position;
+        private boolean closed;
+
+        private SnapshotCursor(Iterator<String> iterator) {
+            this.iterator = iterator;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return iterator.hasNext();
+        }
+
+        @Override
+        public String next() {
+            position++;
+            return iterator.next();
+        }
+
+        @Override
+        public CursorId getId() {
+            return CursorId.of(position);
+        }
+
+        @Override
+        public long getCursorId() {
+            return position;
+        }
+
+        @Override
+        public boolean isClosed() {
+            return closed;
+        }
+
+        @Override
+        public long getPosition() {
+            return position;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.retirementCalculator.benchmark;
+
+import com.example.retirementCalculator.entity.LifestyleDeposit;
+import com.example.retirementCalculator.repository.LifestyleDepositBulkOperationsImpl;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Tuple;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.hibernate.jpa.AvailableHints;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.persistenceunit.PersistenceManagedTypes;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of looking up the deposit of one lifestyle type in a table of {@value #ROWS} rows, as
+ * {@code CacheService.refreshCache} does on a cache miss.
+ * <p>
+ * {@code entityLookup} loads a managed {@link LifestyleDeposit}, as {@code findByLifestyleType}
+ * does; {@code viewLookup} runs the read-only two-column projection of
+ * {@code findViewByLifestyleType}. With {@code indexed=false} the unique {@code lifestyle_type}
+ * index is dropped, which is how the table used to be: every lookup scans the table.
+ * The second-level cache is left off so every call reaches the database.
+ * </p>
+ * Run with:
+ * <pre>
+ *   mvn -Pbenchmark -DskipTests test-compile exec:exec -Djmh.args="LifestyleLookupBenchmark"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 4, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LifestyleLookupBenchmark {
+
+    static final int ROWS = 100_000;
+
+    private static final String ENTITY_QUERY = "select d from LifestyleDeposit d where d.lifestyleType = lower(trim(:type))";
+    private static final String VIEW_QUERY = "select d.lifestyleType as lifestyleType, d.monthlyDeposit as monthlyDeposit "
+            + "from LifestyleDeposit d where d.lifestyleType = lower(trim(:type))";
+
+    @Param({ "true", "false" })
+    private boolean indexed;
+
+    private LocalContainerEntityManagerFactoryBean entityManagerFactory;
+    private EntityManager entityManager;
+    private TransactionTemplate transactionTemplate;
+
+    @Setup
+    public void setUp() {
+        // One reused connection, so a lookup does not pay for opening one
+        SingleConnectionDataSource dataSource =
+                new SingleConnectionDataSource("jdbc:h2:mem:lookup-" + indexed + ";DB_CLOSE_DELAY=-1", "sa", "", true);
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(dataSource);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        if (!indexed) {
+            jdbcTemplate.execute("DROP INDEX retirement_staging.lifestyle_deposits_lifestyle_type_key");
+        }
+
+        entityManagerFactory = new LocalContainerEntityManagerFactoryBean();
+        entityManagerFactory.setDataSource(dataSource);
+        entityManagerFactory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        entityManagerFactory.setManagedTypes(PersistenceManagedTypes.of(LifestyleDeposit.class.getName()));
+        entityManagerFactory.setJpaPropertyMap(Map.of(
+                "hibernate.hbm2ddl.auto", "none",
+                "hibernate.cache.use_second_level_cache", false,
+                "hibernate.physical_naming_strategy", CamelCaseToUnderscoresNamingStrategy.class.getName()));
+        entityManagerFactory.afterPropertiesSet();
+
+        EntityManagerFactory factory = entityManagerFactory.getObject();
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(factory);
+        transactionTemplate = new TransactionTemplate(new JpaTransactionManager(factory));
+
+        LifestyleDepositBulkOperationsImpl bulkOperations = new LifestyleDepositBulkOperationsImpl(jdbcTemplate, factory);
+        Map<String, BigDecimal> deposits = new LinkedHashMap<>();
+        for (int i = 0; i < ROWS; i++) {
+            deposits.put("type" + i, BigDecimal.valueOf(100_000 + i, 2));
+            if (deposits.size() == 1000) {
+                bulkOperations.upsertAll(deposits);
+                deposits.clear();
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        entityManagerFactory.destroy();
+    }
+
+    @Benchmark
+    public BigDecimal entityLookup() {
+        return transactionTemplate.execute(status -> {
+            List<LifestyleDeposit> found = entityManager.createQuery(ENTITY_QUERY, LifestyleDeposit.class)
+                    .setParameter("type", randomType())
+                    .getResultList();
+            return found.get(0).getMonthlyDeposit();
+        });
+    }
+
+    @Benchmark
+    public BigDecimal viewLookup() {
+        return transactionTemplate.execute(status -> {
+            List<Tuple> found = entityManager.createQuery(VIEW_QUERY, Tuple.class)
+                    .setParameter("type", randomType())
+                    .setHint(AvailableHints.HINT_READ_ONLY, true)
+                    .getResultList();
+            return found.get(0).get("monthlyDeposit", BigDecimal.class);
+        });
+    }
+
+    private static String randomType() {
+        return "type" + ThreadLocalRandom.current().nextInt(ROWS);
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.retirementCalculator.benchmark;
+
+import com.example.retirementCalculator.entity.LifestyleDeposit;
+import com.example.retirementCalculator.repository.LifestyleDepositBulkOperationsImpl;
+import jakarta.persistence.*;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.persistenceunit.PersistenceManagedTypes;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of writing {@value #ROWS} new lifestyle deposits in one transaction.
+ * <p>
+ * {@code identityPersist} persists an entity mapped with {@code GenerationType.IDENTITY}, as
+ * {@link LifestyleDeposit} used to be: Hibernate must run each insert on its own to learn the id.
+ * {@code sequencePersist} persists {@link LifestyleDeposit}, whose ids come from the pooled
+ * sequence, so inserts are grouped into JDBC batches of {@code batchSize}.
+ * {@code bulkUpsert} writes the same rows through
+ * {@link LifestyleDepositBulkOperationsImpl#upsertAll(Map)}, one update batch and one insert batch.
+ * The table is emptied before every invocation.
+ * </p>
+ * <p>
+ * Runs on in-memory H2 by default, where a round trip is a method call. Pass a PostgreSQL URL to
+ * measure real round trips, e.g. against a local container:
+ * </p>
+ * <pre>
+ *   docker run -d -p 5432:5432 -e POSTGRES_USER=postgresuser -e POSTGRES_PASSWORD=postgrespassword \
+ *       -e POSTGRES_DB=mydatabase postgres:16
+ *   mvn -Pbenchmark -DskipTests test-compile exec:exec -Djmh.args="PersistenceBenchmark \
+ *       -p jdbcUrl=jdbc:postgresql://localhost:5432/mydatabase?reWriteBatchedInserts=true \
+ *       -p user=postgresuser -p password=postgrespassword"
+ * </pre>
+ * Run with:
+ * <pre>
+ *   mvn -Pbenchmark -DskipTests test-compile exec:exec -Djmh.args="PersistenceBenchmark"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PersistenceBenchmark {
+
+    static final int ROWS = 1000;
+
+    @Param({ "jdbc:h2:mem:persistence;DB_CLOSE_DELAY=-1" })
+    private String jdbcUrl;
+
+    @Param({ "sa" })
+    private String user;
+
+    @Param({ "" })
+    private String password;
+
+    @Param({ "1", "50" })
+    private int batchSize;
+
+    private LocalContainerEntityManagerFactoryBean entityManagerFactory;
+    private EntityManager entityManager;
+    private TransactionTemplate transactionTemplate;
+    private JdbcTemplate jdbcTemplate;
+    private LifestyleDepositBulkOperationsImpl bulkOperations;
+    private Map<String, BigDecimal> deposits;
+
+    @Setup
+    public void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(jdbcUrl, user, password);
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(dataSource);
+
+        entityManagerFactory = new LocalContainerEntityManagerFactoryBean();
+        entityManagerFactory.setDataSource(dataSource);
+        entityManagerFactory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        entityManagerFactory.setManagedTypes(
+                PersistenceManagedTypes.of(LifestyleDeposit.class.getName(), IdentityDeposit.class.getName()));
+        entityManagerFactory.setJpaPropertyMap(Map.of(
+                "hibernate.jdbc.batch_size", batchSize,
+                "hibernate.order_inserts", true,
+                "hibernate.hbm2ddl.auto", "none",
+                // Boot's default, so lifestyleType maps to lifestyle_type
+                "hibernate.physical_naming_strategy", CamelCaseToUnderscoresNamingStrategy.class.getName()));
+        entityManagerFactory.afterPropertiesSet();
+
+        EntityManagerFactory factory = entityManagerFactory.getObject();
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(factory);
+        transactionTemplate = new TransactionTemplate(new JpaTransactionManager(factory));
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        bulkOperations = new LifestyleDepositBulkOperationsImpl(jdbcTemplate, factory);
+
+        deposits = new LinkedHashMap<>();
+        for (int i = 0; i < ROWS; i++) {
+            deposits.put("type" + i, BigDecimal.valueOf(100_000 + i, 2));
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void emptyTable() {
+        jdbcTemplate.execute("DELETE FROM retirement_staging.lifestyle_deposits");
+    }
+
+    @TearDown
+    public void tearDown() {
+        entityManagerFactory.destroy();
+    }
+
+    @Benchmark
+    public int identityPersist() {
+        return transactionTemplate.execute(status -> {
+            deposits.forEach((type, deposit) -> entityManager.persist(new IdentityDeposit(type, deposit)));
+            return deposits.size();
+        });
+    }
+
+    @Benchmark
+    public int sequencePersist() {
+        return transactionTemplate.execute(status -> {
+            deposits.forEach((type, deposit) -> entityManager.persist(new LifestyleDeposit(type, deposit)));
+            return deposits.size();
+        });
+    }
+
+    @Benchmark
+    public int bulkUpsert() {
+        return transactionTemplate.execute(status -> bulkOperations.upsertAll(deposits));
+    }
+
+    /**
+     * The lifestyle deposit table mapped with the previous {@code IDENTITY} id strategy.
+     */
+    @Entity
+    @Table(name = "lifestyle_deposits", schema = "retirement_staging")
+    public static class IdentityDeposit {
+
+        @Id
+        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        private Long id;
+
+        private String lifestyleType;
+
+        private BigDecimal monthlyDeposit;
+
+        protected IdentityDeposit() {
+        }
+
+        IdentityDeposit(String lifestyleType, BigDecimal monthlyDeposit) {
+            this.lifestyleType = lifestyleType;
+            this.monthlyDeposit = monthlyDeposit;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.retirementCalculator.benchmark;
+
+import com.example.retirementCalculator.config.RedisKeyspace;
+import com.example.retirementCalculator.config.RedisLayout;
+import com.example.retirementCalculator.entity.Retirement;
+import com.example.retirementCalculator.entity.RetirementBatchResult;
+import com.example.retirementCalculator.entity.RetirementResult;
+import com.example.retirementCalculator.service.AnnuityFactorTable;
+import com.example.retirementCalculator.service.CacheInvalidationBus;
+import com.example.retirementCalculator.service.CacheService;
+import com.example.retirementCalculator.service.CalculationResultCache;
+import com.example.retirementCalculator.service.LifestyleHashStore;
+import com.example.retirementCalculator.service.LifestyleNearCache;
+import com.example.retirementCalculator.service.LifestyleSnapshot;
+import com.example.retirementCalculator.service.LifestyleTableVersion;
+import com.example.retirementCalculator.service.RedisCircuitBreaker;
+import com.example.retirementCalculator.service.RetirementMetrics;
+import com.example.retirementCalculator.service.RetirementService;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Split layout (deposit in DB 0, rate in DB 1) vs merged hash layout (one hash per lifestyle)
+ * for the Redis reads of a calculation.
+ * <p>
+ * In-memory Redis sleeps {@code redisLatencyMillis} before every command to stand in for the
+ * network round trip, and the near and result caches are disabled so every call reaches Redis.
+ * {@code calculatePlan} costs two round trips with the split layout and one with the hash
+ * layout; {@code calculatePlans} (a batch over {@value #LIFESTYLES} lifestyle types) costs two
+ * {@code MGET}s vs one script call; {@code fetchAllCache} costs a {@code SCAN} plus two
+ * {@code MGET}s per chunk vs a {@code SCAN} plus one script call per chunk.
+ * </p>
+ * Run with:
+ * <pre>
+ *   mvn -Pbenchmark -DskipTests test-compile exec:exec -Djmh.args="RedisLayoutBenchmark"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RedisLayoutBenchmark {
+
+    static final int LIFESTYLES = 50;
+
+    @Param({ "SPLIT", "HASH" })
+    private RedisLayout layout;
+
+    @Param({ "0", "1" })
+    private int redisLatencyMillis;
+
+    private RetirementService retirementService;
+    private CacheService cacheService;
+    private Retirement plan;
+    private List<Retirement> plans;
+
+    @Setup
+    public void setUp() {
+        RedisKeyspace keyspace = new RedisKeyspace("lifestyle:", "lifestyle-hash:", layout, 100, 500);
+        RetirementMetrics metrics = new RetirementMetrics(new SimpleMeterRegistry());
+        Duration latency = Duration.ofMillis(redisLatencyMillis);
+        InMemoryStringRedisTemplate depositTemplate = new InMemoryStringRedisTemplate(latency);
+        InMemoryStringRedisTemplate rateTemplate = new InMemoryStringRedisTemplate(latency);
+        LifestyleHashStore hashStore = new LifestyleHashStore(depositTemplate, keyspace, metrics);
+
+        Map<String, String> deposits = new LinkedHashMap<>();
+        Map<String, String> rates = new LinkedHashMap<>();
+        plans = new ArrayList<>(LIFESTYLES);
+        for (int i = 0; i < LIFESTYLES; i++) {
+            deposits.put("type" + i, String.valueOf(1000 + i));
+            rates.put("type" + i, "5.5");
+            plans.add(new Retirement(30, 65, null, "type" + i));
+        }
+        if (layout == RedisLayout.HASH) {
+            hashStore.write(LifestyleHashStore.DEPOSIT, deposits);
+            hashStore.write(LifestyleHashStore.RATE, rates);
+        } else {
+            deposits.forEach((type, value) -> depositTemplate.opsForValue().set(keyspace.key(type), value));
+            rates.forEach((type, value) -> rateTemplate.opsForValue().set(keyspace.key(type), value));
+        }
+        plan = plans.get(0);
+
+        LifestyleNearCache nearCache = new LifestyleNearCache(0, Duration.ZERO);
+        CalculationResultCache resultCache = new CalculationResultCache(0);
+        AnnuityFactorTable annuityTable = new AnnuityFactorTable(996);
+
+        retirementService = new RetirementService(depositTemplate, rateTemplate, null, nearCache, resultCache,
+                annuityTable, hashStore, keyspace, metrics,
+                new RedisCircuitBreaker(CircuitBreakerConfig.ofDefaults(), new LifestyleSnapshot(null, null), metrics));
+        cacheService = new CacheService(null, depositTemplate, rateTemplate, retirementService, null, nearCache,
+                resultCache, annuityTable, hashStore, keyspace, metrics,
+                new CacheInvalidationBus(depositTemplate, keyspace, nearCache, resultCache, metrics, "retirement:invalidation", "retirement:invalidation-version"),
+                new LifestyleTableVersion(depositTemplate, keyspace, nearCache, resultCache, metrics, "lifestyle-version", "lifestyle-version-sequence"),
+                Duration.ofSeconds(2));
+    }
+
+    @Benchmark
+    public RetirementResult calculatePlan() {
+        return retirementService.calculatePlan(plan);
+    }
+
+    @Benchmark
+    public List<RetirementBatchResult> calculatePlans() {
+        return retirementService.calculatePlans(plans);
+    }
+
+    @Benchmark
+    public Map<String, String> fetchAllCache() {
+        return cacheService.fetchAllCache();
+    }
+}
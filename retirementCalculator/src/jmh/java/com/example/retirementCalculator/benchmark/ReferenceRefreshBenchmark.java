@@ -0,0 +1,146 @@
+package com.example.retirementCalculator.benchmark;
+
+import com.example.retirementCalculator.config.RedisKeyspace;
+import com.example.retirementCalculator.entity.LifestyleDepositView;
+import com.example.retirementCalculator.entity.Retirement;
+import com.example.retirementCalculator.entity.RetirementResult;
+import com.example.retirementCalculator.exception.LifestyleNotFoundException;
+import com.example.retirementCalculator.repository.RetirementRepository;
+import com.example.retirementCalculator.service.AnnuityFactorTable;
+import com.example.retirementCalculator.service.CacheInvalidationBus;
+import com.example.retirementCalculator.service.CacheService;
+import com.example.retirementCalculator.service.CalculationResultCache;
+import com.example.retirementCalculator.service.LifestyleNearCache;
+import com.example.retirementCalculator.service.LifestyleSnapshot;
+import com.example.retirementCalculator.service.LifestyleTableVersion;
+import com.example.retirementCalculator.service.RedisCircuitBreaker;
+import com.example.retirementCalculator.service.RetirementMetrics;
+import com.example.retirementCalculator.service.RetirementService;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Calculations running while the whole lifestyle table is refreshed over and over through
+ * {@link CacheService#refreshAllCache()}.
+ * <p>
+ * Three threads calculate plans for random lifestyle types while a fourth refreshes the table
+ * from a stub repository. Each refresh writes a new version of the table next to the current
+ * one and switches to it once complete, so the {@code misses} counter (calculations failing
+ * with {@link LifestyleNotFoundException}) must stay at zero and the calculation latency
+ * percentiles must not move with the refreshes. The near and result caches are disabled so
+ * every calculation reads Redis.
+ * </p>
+ * Run with:
+ * <pre>
+ *   mvn -Pbenchmark -DskipTests test-compile exec:exec -Djmh.args="ReferenceRefreshBenchmark"
+ * </pre>
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReferenceRefreshBenchmark {
+
+    static final int LIFESTYLES = 2000;
+
+    @Param({ "0", "1" })
+    private int redisLatencyMillis;
+
+    private RetirementService retirementService;
+    private CacheService cacheService;
+    private List<Retirement> plans;
+
+    /**
+     * Calculations per thread, split into hits and misses.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Lookups {
+        public long hits;
+        public long misses;
+    }
+
+    @Setup
+    public void setUp() {
+        RedisKeyspace keyspace = new RedisKeyspace("lifestyle:", 100, 500);
+        RetirementMetrics metrics = new RetirementMetrics(new SimpleMeterRegistry());
+        Duration latency = Duration.ofMillis(redisLatencyMillis);
+        InMemoryStringRedisTemplate depositTemplate = new InMemoryStringRedisTemplate(latency);
+        InMemoryStringRedisTemplate rateTemplate = new InMemoryStringRedisTemplate(latency);
+
+        List<LifestyleDepositView> deposits = new ArrayList<>(LIFESTYLES);
+        plans = new ArrayList<>(LIFESTYLES);
+        for (int i = 0; i < LIFESTYLES; i++) {
+            deposits.add(view("type" + i, new BigDecimal(1000 + i)));
+            depositTemplate.opsForValue().set(keyspace.key("type" + i), String.valueOf(1000 + i));
+            rateTemplate.opsForValue().set(keyspace.key("type" + i), "5.5");
+            plans.add(new Retirement(30, 65, null, "type" + i));
+        }
+        RetirementRepository repository = (RetirementRepository) Proxy.newProxyInstance(
+                RetirementRepository.class.getClassLoader(),
+                new Class<?>[] { RetirementRepository.class },
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "findAllViews" -> deposits;
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+
+        LifestyleNearCache nearCache = new LifestyleNearCache(0, Duration.ZERO);
+        CalculationResultCache resultCache = new CalculationResultCache(0);
+        AnnuityFactorTable annuityTable = new AnnuityFactorTable(996);
+
+        retirementService = new RetirementService(depositTemplate, rateTemplate, null, nearCache, resultCache,
+                annuityTable, null, keyspace, metrics,
+                new RedisCircuitBreaker(CircuitBreakerConfig.ofDefaults(), new LifestyleSnapshot(null, null), metrics));
+        cacheService = new CacheService(null, depositTemplate, rateTemplate, retirementService, repository, nearCache,
+                resultCache, annuityTable, null, keyspace, metrics,
+                new CacheInvalidationBus(depositTemplate, keyspace, nearCache, resultCache, metrics, "retirement:invalidation", "retirement:invalidation-version"),
+                new LifestyleTableVersion(depositTemplate, keyspace, nearCache, resultCache, metrics, "lifestyle-version", "lifestyle-version-sequence"),
+                Duration.ofSeconds(2));
+    }
+
+    @Benchmark
+    @Group("refreshUnderLoad")
+    @GroupThreads(3)
+    public RetirementResult calculatePlan(Lookups lookups) {
+        try {
+            RetirementResult result = retirementService.calculatePlan(plans.get(ThreadLocalRandom.current().nextInt(LIFESTYLES)));
+            lookups.hits++;
+            return result;
+        } catch (LifestyleNotFoundException e) {
+            lookups.misses++;
+            return null;
+        }
+    }
+
+    @Benchmark
+    @Group("refreshUnderLoad")
+    @GroupThreads(1)
+    public String refreshAllCache() {
+        return cacheService.refreshAllCache();
+    }
+
+    private static LifestyleDepositView view(String lifestyleType, BigDecimal monthlyDeposit) {
+        return new LifestyleDepositView() {
+            @Override
+            public String getLifestyleType() {
+                return lifestyleType;
+            }
+
+            @Override
+            public BigDecimal getMonthlyDeposit() {
+                return monthlyDeposit;
+            }
+        };
+    }
+}
@@ -0,0 +1,220 @@
+package com.example.retirementCalculator.benchmark;
+
+import com.example.retirementCalculator.config.CborMessageConverter;
+import com.example.retirementCalculator.config.RedisKeyspace;
+import com.example.retirementCalculator.controller.CacheController;
+import com.example.retirementCalculator.controller.RetirementController;
+import com.example.retirementCalculator.service.AnnuityFactorTable;
+import com.example.retirementCalculator.service.CacheInvalidationBus;
+import com.example.retirementCalculator.service.CacheService;
+import com.example.retirementCalculator.service.CalculationResultCache;
+import com.example.retirementCalculator.service.LifestyleNearCache;
+import com.example.retirementCalculator.service.LifestyleSnapshot;
+import com.example.retirementCalculator.service.LifestyleTableVersion;
+import com.example.retirementCalculator.service.RedisCircuitBreaker;
+import com.example.retirementCalculator.service.RetirementMetrics;
+import com.example.retirementCalculator.service.RetirementService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.embedded.EmbeddedWebServerFactoryCustomizerAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.DispatcherServletAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.ServletWebServerFactoryAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load test of the blocking request path on platform threads vs virtual threads.
+ * <p>
+ * Boots the web layer on a real embedded Tomcat with {@code spring.threads.virtual.enabled}
+ * switched by the {@code virtualThreads} parameter, backed by in-memory Redis that sleeps
+ * {@code redisLatencyMillis} before every command. The near and result caches are disabled so
+ * every request pays its Redis round trips: two for {@code /retirement-plans/calculate}, one for
+ * {@code /cache/get/{key}} and a {@code SCAN} plus two {@code MGET}s for {@code /cache/all}.
+ * </p>
+ * <p>
+ * {@value #CLIENTS} client threads, more than the {@code tomcatThreads} pool, keep requests in
+ * flight. On platform threads throughput is capped at roughly
+ * {@code tomcatThreads / (round trips * latency)}; on virtual threads the capped pool is
+ * replaced by one virtual thread per request and the cap becomes the client concurrency.
+ * Throughput and latency percentiles are reported per endpoint.
+ * </p>
+ * <p>
+ * Virtual threads need a Java 21 runtime. {@code exec:exec} forks the {@code java} found on the
+ * {@code PATH}, and on an older runtime both parameter values run on platform threads. The clients
+ * share the machine with the server. On one or two cores the server is CPU-bound before the pool
+ * cap matters, so a smaller pool and slower Redis make the cap visible there
+ * ({@code -p tomcatThreads=20 -p redisLatencyMillis=50 -t 200}).
+ * </p>
+ * Run with:
+ * <pre>
+ *   mvn -Pbenchmark -DskipTests test-compile exec:exec -Djmh.args="RequestThreadingBenchmark"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Threads(RequestThreadingBenchmark.CLIENTS)
+@Fork(1)
+public class RequestThreadingBenchmark {
+
+    static final int CLIENTS = 400;
+
+    private static final String LIFESTYLE = "fancy";
+    private static final String PLAN_JSON =
+            "{\"currentAge\":30,\"retirementAge\":65,\"lifestyleType\":\"" + LIFESTYLE + "\"}";
+
+    @Param({ "false", "true" })
+    private boolean virtualThreads;
+
+    @Param({ "10" })
+    private int redisLatencyMillis;
+
+    @Param({ "200" })
+    private int tomcatThreads;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private HttpRequest calculateRequest;
+    private HttpRequest cacheGetRequest;
+    private HttpRequest cacheAllRequest;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(LoadTestApplication.class)
+                .web(WebApplicationType.SERVLET)
+                .properties(
+                        "server.port=0",
+                        "server.tomcat.threads.max=" + tomcatThreads,
+                        "spring.threads.virtual.enabled=" + virtualThreads,
+                        "spring.config.name=loadtest",
+                        "spring.main.banner-mode=off",
+                        "loadtest.redis-latency-millis=" + redisLatencyMillis)
+                .run();
+
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        String baseUrl = "http://localhost:" + port;
+
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        calculateRequest = HttpRequest.newBuilder(URI.create(baseUrl + "/retirement-plans/calculate"))
+                .header("Content-Type", "application/json")
+                .header("Accept", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(PLAN_JSON))
+                .build();
+        cacheGetRequest = HttpRequest.newBuilder(URI.create(baseUrl + "/cache/get/" + LIFESTYLE)).GET().build();
+        cacheAllRequest = HttpRequest.newBuilder(URI.create(baseUrl + "/cache/all")).GET().build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int calculate() throws IOException, InterruptedException {
+        return send(calculateRequest);
+    }
+
+    @Benchmark
+    public int cacheGet() throws IOException, InterruptedException {
+        return send(cacheGetRequest);
+    }
+
+    @Benchmark
+    public int cacheAll() throws IOException, InterruptedException {
+        return send(cacheAllRequest);
+    }
+
+    private int send(HttpRequest request) throws IOException, InterruptedException {
+        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException(request.uri() + " returned " + response.statusCode());
+        }
+        return response.statusCode();
+    }
+
+    /**
+     * Web layer of the application over slow in-memory Redis, without a database.
+     */
+    @SpringBootConfiguration
+    @ImportAutoConfiguration({
+            ServletWebServerFactoryAutoConfiguration.class,
+            EmbeddedWebServerFactoryCustomizerAutoConfiguration.class,
+            DispatcherServletAutoConfiguration.class,
+            WebMvcAutoConfiguration.class,
+            HttpMessageConvertersAutoConfiguration.class,
+            JacksonAutoConfiguration.class
+    })
+    public static class LoadTestApplication {
+
+        private final RedisKeyspace keyspace = new RedisKeyspace("lifestyle:", 100, 500);
+        private final RetirementMetrics metrics = new RetirementMetrics(new SimpleMeterRegistry());
+        private final LifestyleNearCache nearCache = new LifestyleNearCache(0, Duration.ZERO);
+        private final CalculationResultCache resultCache = new CalculationResultCache(0);
+        private final InMemoryStringRedisTemplate depositTemplate;
+        private final InMemoryStringRedisTemplate rateTemplate;
+
+        public LoadTestApplication(@Value("${loadtest.redis-latency-millis}") int latencyMillis) {
+            Duration latency = Duration.ofMillis(latencyMillis);
+            depositTemplate = new InMemoryStringRedisTemplate(latency);
+            rateTemplate = new InMemoryStringRedisTemplate(latency);
+            depositTemplate.opsForValue().set(keyspace.key(LIFESTYLE), "3000");
+            rateTemplate.opsForValue().set(keyspace.key(LIFESTYLE), "5.5");
+            depositTemplate.opsForValue().set(keyspace.key("simple"), "1000");
+            rateTemplate.opsForValue().set(keyspace.key("simple"), "6.5");
+        }
+
+        @Bean
+        public RetirementService retirementService() {
+            return new RetirementService(depositTemplate, rateTemplate, null, nearCache, resultCache,
+                    new AnnuityFactorTable(996), null, keyspace, metrics,
+                    new RedisCircuitBreaker(CircuitBreakerConfig.ofDefaults(), new LifestyleSnapshot(null, null), metrics));
+        }
+
+        @Bean
+        public CacheService cacheService(RetirementService retirementService) {
+            return new CacheService(new ConcurrentMapCacheManager(), depositTemplate, rateTemplate,
+                    retirementService, null, nearCache, resultCache, new AnnuityFactorTable(996), null, keyspace, metrics,
+                    new CacheInvalidationBus(depositTemplate, keyspace, nearCache, resultCache, metrics, "retirement:invalidation", "retirement:invalidation-version"),
+                    new LifestyleTableVersion(depositTemplate, keyspace, nearCache, resultCache, metrics, "lifestyle-version", "lifestyle-version-sequence"),
+                    Duration.ofSeconds(2));
+        }
+
+        @Bean
+        public CborMessageConverter cborMessageConverter(ObjectMapper objectMapper) {
+            return new CborMessageConverter(objectMapper);
+        }
+
+        @Bean
+        public RetirementController retirementController(RetirementService retirementService, ObjectMapper objectMapper,
+                                                         CborMessageConverter cborMessageConverter) {
+            return new RetirementController(retirementService, objectMapper, cborMessageConverter);
+        }
+
+        @Bean
+        public CacheController cacheController(RetirementService retirementService, CacheService cacheService) {
+            return new CacheController(retirementService, cacheService);
+        }
+    }
+}
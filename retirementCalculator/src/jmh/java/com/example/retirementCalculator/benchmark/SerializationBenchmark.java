@@ -0,0 +1,216 @@
+package com.example.retirementCalculator.benchmark;
+
+import com.example.retirementCalculator.config.CborMessageConverter;
+import com.example.retirementCalculator.config.RedisKeyspace;
+import com.example.retirementCalculator.controller.RetirementController;
+import com.example.retirementCalculator.entity.Retirement;
+import com.example.retirementCalculator.entity.RetirementBatchResult;
+import com.example.retirementCalculator.entity.RetirementResult;
+import com.example.retirementCalculator.service.AnnuityFactorTable;
+import com.example.retirementCalculator.service.CalculationResultCache;
+import com.example.retirementCalculator.service.LifestyleNearCache;
+import com.example.retirementCalculator.service.LifestyleSnapshot;
+import com.example.retirementCalculator.service.RedisCircuitBreaker;
+import com.example.retirementCalculator.service.RetirementService;
+import com.example.retirementCalculator.service.RetirementMetrics;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Throughput and allocation of JSON vs XML vs CBOR (de)serialization of {@link Retirement} and
+ * {@link RetirementResult}, both with the bare Jackson mappers and through the
+ * {@link RetirementController} request path (in-process, via MockMvc).
+ * <p>
+ * The encoded payload sizes are printed once per fork by {@link #setUp()}.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    private static final int BATCH_SIZE = 100;
+    private static final TypeReference<List<RetirementBatchResult>> BATCH_RESULTS = new TypeReference<>() {};
+
+    private final ObjectMapper jsonMapper = new ObjectMapper();
+    private final XmlMapper xmlMapper = new XmlMapper();
+    private final CBORMapper cborMapper = new CBORMapper();
+
+    private Retirement request;
+    private RetirementResult result;
+    private byte[] requestJson;
+    private byte[] requestXml;
+    private byte[] resultJson;
+    private byte[] resultXml;
+    private byte[] requestCbor;
+    private byte[] resultCbor;
+    private byte[] batchJson;
+    private byte[] batchCbor;
+    private MockMvc mockMvc;
+
+    @Setup
+    public void setUp() throws Exception {
+        request = new Retirement(30, 65, 5.5, "fancy");
+        result = new RetirementResult(30, 65, 5.5, "fancy", new BigDecimal("3000"), new BigDecimal("3416996.43"));
+        requestJson = jsonMapper.writeValueAsBytes(request);
+        requestXml = xmlMapper.writeValueAsBytes(request);
+        resultJson = jsonMapper.writeValueAsBytes(result);
+        resultXml = xmlMapper.writeValueAsBytes(result);
+        requestCbor = cborMapper.writeValueAsBytes(request);
+        resultCbor = cborMapper.writeValueAsBytes(result);
+
+        List<Retirement> batch = new ArrayList<>(BATCH_SIZE);
+        List<RetirementBatchResult> batchResults = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            batch.add(new Retirement(20 + i % 40, 65, 5.5, "fancy"));
+            batchResults.add(RetirementBatchResult.success(i, result));
+        }
+        batchJson = jsonMapper.writeValueAsBytes(batch);
+        batchCbor = cborMapper.writeValueAsBytes(batch);
+
+        System.out.printf("%nPayload bytes (JSON / XML / CBOR): request %d / %d / %d, result %d / %d / %d, "
+                        + "batch of %d results %d / - / %d%n",
+                requestJson.length, requestXml.length, requestCbor.length,
+                resultJson.length, resultXml.length, resultCbor.length,
+                BATCH_SIZE, jsonMapper.writeValueAsBytes(batchResults).length,
+                cborMapper.writeValueAsBytes(batchResults).length);
+
+        RedisKeyspace keyspace = new RedisKeyspace("lifestyle:", 100, 500);
+        InMemoryStringRedisTemplate depositTemplate = new InMemoryStringRedisTemplate();
+        InMemoryStringRedisTemplate rateTemplate = new InMemoryStringRedisTemplate();
+        depositTemplate.opsForValue().set(keyspace.key("fancy"), "3000");
+        rateTemplate.opsForValue().set(keyspace.key("fancy"), "5.5");
+        RetirementMetrics metrics = new RetirementMetrics(new SimpleMeterRegistry());
+        RetirementService service = new RetirementService(depositTemplate, rateTemplate, null,
+                new LifestyleNearCache(100, Duration.ofMinutes(10)), new CalculationResultCache(100), new AnnuityFactorTable(996), null, keyspace,
+                metrics, new RedisCircuitBreaker(CircuitBreakerConfig.ofDefaults(), new LifestyleSnapshot(null, null), metrics));
+        mockMvc = MockMvcBuilders.standaloneSetup(
+                new RetirementController(service, jsonMapper, new CborMessageConverter(jsonMapper))).build();
+    }
+
+    @Benchmark
+    public byte[] writeRequestJson() throws Exception {
+        return jsonMapper.writeValueAsBytes(request);
+    }
+
+    @Benchmark
+    public byte[] writeRequestXml() throws Exception {
+        return xmlMapper.writeValueAsBytes(request);
+    }
+
+    @Benchmark
+    public Retirement readRequestJson() throws Exception {
+        return jsonMapper.readValue(requestJson, Retirement.class);
+    }
+
+    @Benchmark
+    public Retirement readRequestXml() throws Exception {
+        return xmlMapper.readValue(requestXml, Retirement.class);
+    }
+
+    @Benchmark
+    public byte[] writeResultJson() throws Exception {
+        return jsonMapper.writeValueAsBytes(result);
+    }
+
+    @Benchmark
+    public byte[] writeResultXml() throws Exception {
+        return xmlMapper.writeValueAsBytes(result);
+    }
+
+    @Benchmark
+    public byte[] writeRequestCbor() throws Exception {
+        return cborMapper.writeValueAsBytes(request);
+    }
+
+    @Benchmark
+    public Retirement readRequestCbor() throws Exception {
+        return cborMapper.readValue(requestCbor, Retirement.class);
+    }
+
+    @Benchmark
+    public byte[] writeResultCbor() throws Exception {
+        return cborMapper.writeValueAsBytes(result);
+    }
+
+    @Benchmark
+    public RetirementResult readResultCbor() throws Exception {
+        return cborMapper.readValue(resultCbor, RetirementResult.class);
+    }
+
+    @Benchmark
+    public RetirementResult readResultJson() throws Exception {
+        return jsonMapper.readValue(resultJson, RetirementResult.class);
+    }
+
+    @Benchmark
+    public RetirementResult readResultXml() throws Exception {
+        return xmlMapper.readValue(resultXml, RetirementResult.class);
+    }
+
+    @Benchmark
+    public byte[] calculateEndpointJson() throws Exception {
+        return mockMvc.perform(post("/retirement-plans/calculate")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .content(requestJson))
+                .andReturn().getResponse().getContentAsByteArray();
+    }
+
+    @Benchmark
+    public byte[] calculateEndpointXml() throws Exception {
+        return mockMvc.perform(post("/retirement-plans/calculate")
+                        .contentType(MediaType.APPLICATION_XML)
+                        .accept(MediaType.APPLICATION_XML)
+                        .content(requestXml))
+                .andReturn().getResponse().getContentAsByteArray();
+    }
+
+    @Benchmark
+    public byte[] calculateEndpointCbor() throws Exception {
+        return mockMvc.perform(post("/retirement-plans/calculate")
+                        .contentType(MediaType.APPLICATION_CBOR)
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .content(requestCbor))
+                .andReturn().getResponse().getContentAsByteArray();
+    }
+
+    @Benchmark
+    public List<RetirementBatchResult> calculateBatchEndpointJson() throws Exception {
+        byte[] body = mockMvc.perform(post("/retirement-plans/calculate/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .content(batchJson))
+                .andReturn().getResponse().getContentAsByteArray();
+        return jsonMapper.readValue(body, BATCH_RESULTS);
+    }
+
+    @Benchmark
+    public List<RetirementBatchResult> calculateBatchEndpointCbor() throws Exception {
+        byte[] body = mockMvc.perform(post("/retirement-plans/calculate/batch")
+                        .contentType(MediaType.APPLICATION_CBOR)
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .content(batchCbor))
+                .andReturn().getResponse().getContentAsByteArray();
+        return cborMapper.readValue(body, BATCH_RESULTS);
+    }
+}
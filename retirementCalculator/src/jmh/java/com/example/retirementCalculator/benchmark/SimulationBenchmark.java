@@ -0,0 +1,40 @@
+package com.example.retirementCalculator.benchmark;
+
+import com.example.retirementCalculator.service.MonteCarloSimulator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of a 35-year Monte Carlo projection through {@link MonteCarloSimulator} for
+ * growing numbers of paths, on a dedicated fork-join pool using all cores.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class SimulationBenchmark {
+
+    @Param({ "10000", "100000", "1000000" })
+    private int paths;
+
+    private ForkJoinPool pool;
+
+    @Setup
+    public void setUp() {
+        pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public double simulate() {
+        return MonteCarloSimulator.simulate(3000, 5.5, 15, 420, paths, 2_000_000, 42, pool).quantile(0.5);
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.retirementCalculator.benchmark;
+
+import com.example.retirementCalculator.config.XmlConfig;
+import com.example.retirementCalculator.entity.LifestyleDeposit;
+import jakarta.xml.bind.JAXBContext;
+import jakarta.xml.bind.Marshaller;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Cost of converting {@link LifestyleDeposit}s to and from XML with {@link XmlConfig} (shared
+ * {@link JAXBContext}, pooled marshallers) vs building a new context per call, as
+ * {@code XmlConfig} used to do.
+ * <p>
+ * {@code writeAll} and {@code readAll} stream {@value #BULK_SIZE} deposits through StAX.
+ * </p>
+ * Run with:
+ * <pre>
+ *   mvn -Pbenchmark -DskipTests test-compile exec:exec -Djmh.args="XmlBenchmark"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class XmlBenchmark {
+
+    static final int BULK_SIZE = 10_000;
+
+    private XmlConfig xmlConfig;
+    private LifestyleDeposit deposit;
+    private String depositXml;
+    private List<LifestyleDeposit> deposits;
+    private byte[] depositsXml;
+
+    @Setup
+    public void setUp() throws Exception {
+        xmlConfig = new XmlConfig(16);
+        deposit = new LifestyleDeposit("fancy", new BigDecimal("3000.00"));
+        depositXml = xmlConfig.toXml(deposit);
+        deposits = IntStream.range(0, BULK_SIZE)
+                .mapToObj(i -> new LifestyleDeposit("type" + i, BigDecimal.valueOf(100_000 + i, 2)))
+                .toList();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        xmlConfig.writeAll(deposits, out);
+        depositsXml = out.toByteArray();
+    }
+
+    @Benchmark
+    public String toXmlNewContextPerCall() throws Exception {
+        Marshaller marshaller = JAXBContext.newInstance(LifestyleDeposit.class).createMarshaller();
+        marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, true);
+        StringWriter writer = new StringWriter();
+        marshaller.marshal(deposit, writer);
+        return writer.toString();
+    }
+
+    @Benchmark
+    public String toXml() throws Exception {
+        return xmlConfig.toXml(deposit);
+    }
+
+    @Benchmark
+    public Object fromXmlNewContextPerCall() throws Exception {
+        return JAXBContext.newInstance(LifestyleDeposit.class).createUnmarshaller().unmarshal(new StringReader(depositXml));
+    }
+
+    @Benchmark
+    public LifestyleDeposit fromXml() throws Exception {
+        return xmlConfig.fromXml(depositXml);
+    }
+
+    @Benchmark
+    public long writeAll() throws Exception {
+        return xmlConfig.writeAll(deposits, new ByteArrayOutputStream(depositsXml.length));
+    }
+
+    @Benchmark
+    public long readAll(Blackhole blackhole) throws Exception {
+        return xmlConfig.readAll(new ByteArrayInputStream(depositsXml), blackhole::consume);
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.retirementCalculator.config;
+
+import com.example.retirementCalculator.entity.GoalSeekRequest;
+import com.example.retirementCalculator.entity.Retirement;
+import com.example.retirementCalculator.exception.InvalidInputException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.*;
+import com.fasterxml.jackson.databind.deser.BeanDeserializerModifier;
+import com.fasterxml.jackson.databind.deser.ContextualDeserializer;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.type.CollectionType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Jackson module bounding the size of batch request bodies while they are read.
+ * <p>
+ * Lists of {@link Retirement} plans and {@link GoalSeekRequest}s are read one element at a
+ * time, and reading stops with an {@link InvalidInputException} as soon as the list has more
+ * than {@code retirement.batch.max-size} elements. An oversized batch is therefore rejected
+ * after binding at most one element too many, instead of after the whole body is in memory.
+ * </p>
+ * <p>
+ * Spring Boot registers the module with the JSON and XML mappers; the CBOR mapper of
+ * {@link CborMessageConverter} copies it from the JSON one. The batch services still check
+ * the size of lists they are given directly.
+ * </p>
+ *
+ * @author Priscilla Masunyane
+ */
+@Component
+public class BatchSizeModule extends SimpleModule {
+
+    /**
+     * What the elements of each bounded list are called in the error message.
+     */
+    private static final Map<Class<?>, String> BOUNDED_ELEMENTS = Map.of(
+            Retirement.class, "plans",
+            GoalSeekRequest.class, "requests");
+
+    private final int maxBatchSize;
+
+    /**
+     * Constructs a new {@code BatchSizeModule}.
+     *
+     * @param maxBatchSize maximum number of elements of a batch request body
+     */
+    @Autowired
+    public BatchSizeModule(@Value("${retirement.batch.max-size:1000}") int maxBatchSize) {
+        super("BatchSizeModule");
+        this.maxBatchSize = maxBatchSize;
+        setDeserializerModifier(new BeanDeserializerModifier() {
+            @Override
+            public JsonDeserializer<?> modifyCollectionDeserializer(DeserializationConfig config, CollectionType type,
+                                                                    BeanDescription description, JsonDeserializer<?> deserializer) {
+                String elements = BOUNDED_ELEMENTS.get(type.getContentType().getRawClass());
+                if (elements == null || !type.getRawClass().isAssignableFrom(ArrayList.class)) {
+                    return deserializer;
+                }
+                return new BoundedListDeserializer(type, elements, null);
+            }
+        });
+    }
+
+    /**
+     * Reads a JSON array (or the XML equivalent) into an {@link ArrayList}, failing once it
+     * holds more than the maximum number of elements.
+     */
+    private class BoundedListDeserializer extends StdDeserializer<List<Object>> implements ContextualDeserializer {
+
+        private final JavaType type;
+        private final String elements;
+        private final JsonDeserializer<Object> elementDeserializer;
+
+        BoundedListDeserializer(JavaType type, String elements, JsonDeserializer<Object> elementDeserializer) {
+            super(type);
+            this.type = type;
+            this.elements = elements;
+            this.elementDeserializer = elementDeserializer;
+        }
+
+        @Override
+        public JsonDeserializer<?> createContextual(DeserializationContext context, BeanProperty property)
+                throws JsonMappingException {
+            return new BoundedListDeserializer(type, elements,
+                    context.findContextualValueDeserializer(type.getContentType(), property));
+        }
+
+        @Override
+        public List<Object> deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            if (!parser.isExpectedStartArrayToken()) {
+                return castToList(context.handleUnexpectedToken(type, parser));
+            }
+
+            List<Object> list = new ArrayList<>();
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (token == null) {
+                    context.reportWrongTokenException(type, JsonToken.END_ARRAY, "Unexpected end of the batch");
+                }
+                if (list.size() == maxBatchSize) {
+                    throw new InvalidInputException("Batch", "must not contain more than " + maxBatchSize + " " + elements);
+                }
+                list.add(token == JsonToken.VALUE_NULL ? null : elementDeserializer.deserialize(parser, context));
+            }
+            return list;
+        }
+
+        @SuppressWarnings("unchecked")
+        private List<Object> castToList(Object value) {
+            return (List<Object>) value;
+        }
+    }
+}
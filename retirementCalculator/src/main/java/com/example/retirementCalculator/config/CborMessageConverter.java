@@ -0,0 +1,48 @@
+package com.example.retirementCalculator.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reads and writes request and response bodies as CBOR ({@code application/cbor}, RFC 8949).
+ * <p>
+ * CBOR is a binary encoding of the JSON data model, meant for service-to-service traffic:
+ * numbers are written in binary instead of as text, so a {@code Retirement} or
+ * {@code RetirementResult} is smaller than its JSON form and cheaper to parse. The mapper is
+ * a copy of the application's JSON {@link ObjectMapper}, so CBOR bodies carry the same
+ * properties, modules and settings as the JSON ones.
+ * </p>
+ * <p>
+ * Streamed responses use {@value #APPLICATION_CBOR_SEQ_VALUE} (RFC 8742), which is simply
+ * one CBOR item after another; CBOR items are self-delimiting and need no separator.
+ * </p>
+ *
+ * @author Priscilla Masunyane
+ */
+@Component
+public class CborMessageConverter extends MappingJackson2CborHttpMessageConverter {
+
+    /**
+     * Media type of a stream of CBOR items.
+     */
+    public static final String APPLICATION_CBOR_SEQ_VALUE = "application/cbor-seq";
+
+    /**
+     * {@link MediaType} for {@value #APPLICATION_CBOR_SEQ_VALUE}.
+     */
+    public static final MediaType APPLICATION_CBOR_SEQ = MediaType.parseMediaType(APPLICATION_CBOR_SEQ_VALUE);
+
+    /**
+     * Constructs a new {@code CborMessageConverter}.
+     *
+     * @param objectMapper the JSON mapper whose configuration and modules the CBOR mapper copies
+     */
+    @Autowired
+    public CborMessageConverter(ObjectMapper objectMapper) {
+        super(objectMapper.copyWith(new CBORFactory()));
+    }
+}
@@ -1,15 +1,33 @@
 package com.example.retirementCalculator.config;
 
+import com.example.retirementCalculator.service.CacheInvalidationBus;
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.SocketOptions;
+import io.lettuce.core.TimeoutOptions;
+import io.lettuce.core.resource.ClientResources;
+import io.lettuce.core.resource.DefaultClientResources;
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.data.redis.ClientResourcesBuilderCustomizer;
+import org.springframework.boot.autoconfigure.data.redis.RedisProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cache.CacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisPassword;
 import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.connection.lettuce.LettucePoolingClientConfiguration;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 
@@ -19,33 +37,71 @@ import java.time.Duration;
  * Configuration class for setting up two Redis databases using Spring Data Redis.
  * One database (DB 0) is used for caching monthly deposit values,
  * and another database (DB 1) is used for storing interest rate values.
+ * <p>
+ * Both connection factories point at the server configured under
+ * {@code spring.data.redis.*} and share one set of Lettuce {@link ClientResources}, so
+ * their I/O and computation threads are created once. Regular commands go over the shared
+ * native connection of each factory; blocking and transactional commands borrow a
+ * dedicated connection from the pool configured under {@code spring.data.redis.lettuce.pool.*}.
+ * Every command is bounded by {@code spring.data.redis.timeout} and connecting by
+ * {@code spring.data.redis.connect-timeout}, and commands issued while disconnected are
+ * rejected straight away instead of being queued.
+ * </p>
  */
 @Configuration
+@EnableConfigurationProperties(RedisProperties.class)
 public class RedisConfig {
 
+    private final RedisProperties properties;
+
+    /**
+     * Constructs a new {@code RedisConfig}.
+     *
+     * @param properties the Redis server, timeout and pool settings
+     */
+    @Autowired
+    public RedisConfig(RedisProperties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * Creates the Lettuce client resources shared by both connection factories.
+     * <p>
+     * Customizers registered by Spring Boot, such as the Micrometer command latency
+     * recorder, are applied as they would be to the auto-configured resources.
+     * </p>
+     *
+     * @param customizers the customizers of the client resources
+     * @return the shared client resources, shut down with the application context
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ClientResources lettuceClientResources(ObjectProvider<ClientResourcesBuilderCustomizer> customizers) {
+        DefaultClientResources.Builder builder = DefaultClientResources.builder();
+        customizers.orderedStream().forEach(customizer -> customizer.customize(builder));
+        return builder.build();
+    }
+
     /**
      * Creates a Redis connection factory for database 0.
      *
+     * @param clientResources the shared client resources
      * @return the configured LettuceConnectionFactory for DB 0
      */
     @Bean
     @Primary
-    public LettuceConnectionFactory redisConnectionFactoryDb0() {
-        RedisStandaloneConfiguration config = new RedisStandaloneConfiguration("localhost", 6379);
-        config.setDatabase(0); // Logical Redis DB 0
-        return new LettuceConnectionFactory(config);
+    public LettuceConnectionFactory redisConnectionFactoryDb0(ClientResources clientResources) {
+        return connectionFactory(0, clientResources); // Logical Redis DB 0
     }
 
     /**
      * Creates a Redis connection factory for database 1.
      *
+     * @param clientResources the shared client resources
      * @return the configured LettuceConnectionFactory for DB 1
      */
     @Bean
-    public LettuceConnectionFactory redisConnectionFactoryDb1() {
-        RedisStandaloneConfiguration config = new RedisStandaloneConfiguration("localhost", 6379);
-        config.setDatabase(1); // Logical Redis DB 1
-        return new LettuceConnectionFactory(config);
+    public LettuceConnectionFactory redisConnectionFactoryDb1(ClientResources clientResources) {
+        return connectionFactory(1, clientResources); // Logical Redis DB 1
     }
 
     /**
@@ -66,6 +122,41 @@ public class RedisConfig {
         return new StringRedisTemplate(factory);
     }
 
+    /**
+     * Configures a ReactiveStringRedisTemplate for non-blocking access to Redis DB 0.
+     * Used by the reactive calculation endpoints to read monthly deposit values.
+     */
+    @Bean(name = "reactiveStringRedisTemplateDb0")
+    public ReactiveStringRedisTemplate reactiveStringRedisTemplateDb0(@Qualifier("redisConnectionFactoryDb0") LettuceConnectionFactory factory) {
+        return new ReactiveStringRedisTemplate(factory);
+    }
+
+    /**
+     * Configures a ReactiveStringRedisTemplate for non-blocking access to Redis DB 1.
+     * Used by the reactive calculation endpoints to read interest rate values.
+     */
+    @Bean(name = "reactiveStringRedisTemplateDb1")
+    public ReactiveStringRedisTemplate reactiveStringRedisTemplateDb1(@Qualifier("redisConnectionFactoryDb1") LettuceConnectionFactory factory) {
+        return new ReactiveStringRedisTemplate(factory);
+    }
+
+    /**
+     * Subscribes the {@link CacheInvalidationBus} to the invalidation channel, so changes
+     * made to the lifestyle data through other instances evict the local copies.
+     * <p>
+     * Pub/sub is not bound to a logical database; the subscription uses a dedicated
+     * connection of the DB 0 factory and resubscribes after a reconnect.
+     * </p>
+     */
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(@Qualifier("redisConnectionFactoryDb0") LettuceConnectionFactory factory,
+                                                                       CacheInvalidationBus invalidationBus) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(factory);
+        container.addMessageListener(invalidationBus, new ChannelTopic(invalidationBus.getChannel()));
+        return container;
+    }
+
     /**
      * Configures a CacheManager backed by Redis DB 0.
      * Sets a default TTL of 30 minutes and uses JSON serialization for cache values.
@@ -79,4 +170,64 @@ public class RedisConfig {
 
         return RedisCacheManager.builder(factory).cacheDefaults(config).build();
     }
+
+    /**
+     * Creates a connection factory for a logical database of the configured server.
+     *
+     * @param database        the logical database index
+     * @param clientResources the shared client resources
+     * @return the connection factory, not yet started
+     */
+    LettuceConnectionFactory connectionFactory(int database, ClientResources clientResources) {
+        RedisStandaloneConfiguration config = new RedisStandaloneConfiguration(properties.getHost(), properties.getPort());
+        config.setDatabase(database);
+        config.setUsername(properties.getUsername());
+        config.setPassword(RedisPassword.of(properties.getPassword()));
+        return new LettuceConnectionFactory(config, clientConfiguration(clientResources));
+    }
+
+    /**
+     * Builds the Lettuce client configuration: pooling, timeouts and client options.
+     */
+    private LettuceClientConfiguration clientConfiguration(ClientResources clientResources) {
+        RedisProperties.Lettuce lettuce = properties.getLettuce();
+        RedisProperties.Pool pool = lettuce.getPool();
+        LettuceClientConfiguration.LettuceClientConfigurationBuilder builder = Boolean.FALSE.equals(pool.getEnabled())
+                ? LettuceClientConfiguration.builder()
+                : LettucePoolingClientConfiguration.builder().poolConfig(poolConfig(pool));
+
+        SocketOptions.Builder socketOptions = SocketOptions.builder().keepAlive(true);
+        if (properties.getConnectTimeout() != null) {
+            socketOptions.connectTimeout(properties.getConnectTimeout());
+        }
+        if (properties.getTimeout() != null) {
+            builder.commandTimeout(properties.getTimeout());
+        }
+        if (lettuce.getShutdownTimeout() != null) {
+            builder.shutdownTimeout(lettuce.getShutdownTimeout());
+        }
+
+        return builder
+                .clientResources(clientResources)
+                .clientOptions(ClientOptions.builder()
+                        .socketOptions(socketOptions.build())
+                        .timeoutOptions(TimeoutOptions.enabled())
+                        .disconnectedBehavior(ClientOptions.DisconnectedBehavior.REJECT_COMMANDS)
+                        .build())
+                .build();
+    }
+
+    private static GenericObjectPoolConfig<?> poolConfig(RedisProperties.Pool pool) {
+        GenericObjectPoolConfig<?> config = new GenericObjectPoolConfig<>();
+        config.setMaxTotal(pool.getMaxActive());
+        config.setMaxIdle(pool.getMaxIdle());
+        config.setMinIdle(pool.getMinIdle());
+        if (pool.getTimeBetweenEvictionRuns() != null) {
+            config.setTimeBetweenEvictionRuns(pool.getTimeBetweenEvictionRuns());
+        }
+        if (pool.getMaxWait() != null) {
+            config.setMaxWait(pool.getMaxWait());
+        }
+        return config;
+    }
 }
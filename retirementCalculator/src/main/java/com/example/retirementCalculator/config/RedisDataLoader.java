@@ -2,20 +2,33 @@ package com.example.retirementCalculator.config;
 
 import com.example.retirementCalculator.entity.LifestyleDeposit;
 import com.example.retirementCalculator.repository.RetirementRepository;
+import com.example.retirementCalculator.service.AnnuityFactorTable;
+import com.example.retirementCalculator.service.LifestyleHashStore;
+import com.example.retirementCalculator.service.LifestyleTableVersion;
+import com.example.retirementCalculator.service.RetirementMetrics;
 import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Profile;
-import org.springframework.data.redis.core.HashOperations;
+import org.springframework.core.io.Resource;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Component;
 
-import java.io.FileReader;
-import java.util.HashMap;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import com.opencsv.CSVReader;
 
 /**
@@ -24,6 +37,18 @@ import com.opencsv.CSVReader;
  * Loads data from the database and the CSV file.
  * Database data is cached as key-value pairs: lifestyle type (lowercased) as key, monthly deposit as value.
  * CSV data is cached as key-value pairs: lifestyle type (lowercased) as key, interest rate as value.
+ * Keys are namespaced through {@link RedisKeyspace} (e.g. {@code lifestyle:simple}).
+ * With the {@link RedisLayout#HASH} layout both values are instead written to the
+ * {@code deposit} and {@code rate} fields of one hash per lifestyle type in DB 0.
+ * <p>
+ * Both sources are streamed and written with one {@code MSET} (or one hash script call) per
+ * batch of {@code retirement.loader.batch-size} rows, so startup costs one Redis round trip per
+ * batch instead of one per row. DB 0 and DB 1 are loaded concurrently, and the row count, load
+ * time and throughput are logged and recorded as {@code retirement.loader} metrics when loading
+ * finishes. Once the rates are loaded, the {@link AnnuityFactorTable} is rebuilt from them.
+ * <p>
+ * The keys are written into the version of the lifestyle table read by the running instances,
+ * which is looked up through {@link LifestyleTableVersion} before loading.
  */
 @Component
 @Profile("!test")
@@ -34,87 +59,196 @@ public class RedisDataLoader {
     private final StringRedisTemplate redisTemplate;
     @Qualifier("redisTemplateDb1")
     private final StringRedisTemplate  redisSecondTemplate;
+    private final RedisKeyspace keyspace;
+    private final Resource csvResource;
+    private final int batchSize;
+    private final RetirementMetrics metrics;
+    private final AnnuityFactorTable annuityTable;
+    private final LifestyleHashStore hashStore;
+    private final LifestyleTableVersion tableVersion;
     private static final Logger logger = LoggerFactory.getLogger(RedisDataLoader.class);
 
     /**
      * Constructs a new {@code RedisDataLoader} with the required dependencies.
      *
-     * @param repository    the repository to fetch lifestyle deposit data from the database
-     * @param redisTemplate the Redis template to interact with the Redis data store
+     * @param repository          the repository to fetch lifestyle deposit data from the database
+     * @param redisTemplate       the Redis template for DB 0 (monthly deposits)
+     * @param redisSecondTemplate the Redis template for DB 1 (interest rates)
+     * @param keyspace            the namespace the lifestyle keys are written under
+     * @param csvResource         the CSV file holding the interest rate of each lifestyle type
+     * @param batchSize           the number of rows written to Redis per {@code MSET}
+     * @param metrics             the meters recording the load phases and Redis calls
+     * @param annuityTable        the annuity factor table rebuilt from the loaded interest rates
+     * @param hashStore           the store writing the lifestyle hashes of the hash layout
+     * @param tableVersion        the pointer to the version of the lifestyle table written
      */
     @Autowired
     public RedisDataLoader(RetirementRepository repository,
                            @Qualifier("stringRedisTemplateDb0") StringRedisTemplate redisTemplate,
-                           @Qualifier("stringRedisTemplateDb1") StringRedisTemplate redisSecondTemplate) {
+                           @Qualifier("stringRedisTemplateDb1") StringRedisTemplate redisSecondTemplate,
+                           RedisKeyspace keyspace,
+                           @Value("${retirement.loader.csv-path:classpath:lifestyleTypeInterestRate.csv}") Resource csvResource,
+                           @Value("${retirement.loader.batch-size:500}") int batchSize,
+                           RetirementMetrics metrics,
+                           AnnuityFactorTable annuityTable,
+                           LifestyleHashStore hashStore,
+                           LifestyleTableVersion tableVersion) {
         this.repository = repository;
         this.redisTemplate = redisTemplate;
         this.redisSecondTemplate = redisSecondTemplate;
+        this.keyspace = keyspace;
+        this.csvResource = csvResource;
+        this.batchSize = batchSize;
+        this.metrics = metrics;
+        this.annuityTable = annuityTable;
+        this.hashStore = hashStore;
+        this.tableVersion = tableVersion;
     }
 
 
     /**
      * Loads lifestyle deposit data into Redis cache after the Spring context initialization.
      * <p>
-     * This method triggers loading data both from the database and a CSV file.
-     * The database data is stored as simple key-value pairs where the key is the lifestyle type in lowercase,
-     * and the value is the monthly deposit as a string.
-     * <p>
-     * The CSV data is read from the provided file path and stored as Redis hashes,
-     * where each hash key is "record:<id>" and fields are mapped from the CSV columns.
+     * The database rows (DB 0) and the CSV rows (DB 1) are loaded concurrently on two threads.
+     * A failure to read the database aborts startup; a failure to read the CSV file is logged.
      */
     @PostConstruct
     public void loadDataToRedis() {
-        loadFromDB();
-        loadFromCSV("C:/Upskill/retirement-calculator/retirementCalculator/src/main/resources/lifestyleTypeInterestRate.csv");
+        long start = System.nanoTime();
+        long version = tableVersion.sync();
+        logger.info("Loading version {} of the lifestyle table", version);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            CompletableFuture<Long> deposits = CompletableFuture.supplyAsync(this::loadFromDB, executor);
+            CompletableFuture<Long> rates = CompletableFuture.supplyAsync(() -> loadFromCSV(csvResource), executor);
+
+            long rows = deposits.join() + rates.join();
+            logLoadTime("total", "Redis DB 0 and DB 1", rows, start);
+        } finally {
+            executor.shutdown();
+        }
     }
 
     /**
-     * Loads lifestyle deposit data from the database and caches it in Redis as key-value pairs.
+     * Loads lifestyle deposit data from the database and caches it in Redis DB 0.
      * The lifestyle type (lowercased) is used as the Redis key and the monthly deposit as the value.
+     * <p>
+     * The table is read in id order, one page of {@code batchSize} rows at a time, and each page
+     * is written with a single {@code MSET}.
+     *
+     * @return the number of rows loaded
      */
-    private void loadFromDB() {
-        List<LifestyleDeposit> deposits = repository.findAll();
-        for (LifestyleDeposit deposit : deposits) {
-            redisTemplate.opsForValue().set(
-                    deposit.getLifestyleType().toLowerCase(),
-                    String.valueOf(deposit.getMonthlyDeposit())
-            );
-            logger.info("Cached: {} => {}", deposit.getLifestyleType(), deposit.getMonthlyDeposit());
-        }
+    long loadFromDB() {
+        long start = System.nanoTime();
+        long rows = 0;
+        long lastId = Long.MIN_VALUE;
+
+        List<LifestyleDeposit> page;
+        do {
+            page = repository.findByIdGreaterThanOrderByIdAsc(lastId, Limit.of(batchSize));
+            if (page.isEmpty()) {
+                break;
+            }
+
+            Map<String, String> batch = new LinkedHashMap<>();
+            for (LifestyleDeposit deposit : page) {
+                batch.put(deposit.getLifestyleType().toLowerCase(), String.valueOf(deposit.getMonthlyDeposit()));
+            }
+            writeDeposits(batch);
+
+            rows += page.size();
+            lastId = page.get(page.size() - 1).getId();
+            logger.debug("Cached {} deposits from the database", rows);
+        } while (page.size() == batchSize);
+
+        logLoadTime("database", "Redis DB 0 (database)", rows, start);
+        return rows;
     }
 
     /**
-     * Loads lifestyle deposit data from a CSV file and caches it in Redis as key-value pairs.
+     * Loads lifestyle interest rates from a CSV file and caches them in Redis DB 1.
      * <p>
      * The CSV file is expected to have a header row with at least the columns
      * 'lifestyleType' and 'interestRate'. Each subsequent row is stored in Redis
      * with the lifestyle type (lowercased) as the key and the interest rate as the value.
+     * Rows are streamed from the file and written with one {@code MSET} per {@code batchSize} rows.
+     * The distinct rates read are then used to rebuild the {@link AnnuityFactorTable}.
      *
-     * @param csvFilePath the path to the CSV file to load data from
+     * @param csvResource the CSV file to load data from
+     * @return the number of rows loaded before the end of the file or the first read error
      */
-    private void loadFromCSV(String csvFilePath) {
-        try (CSVReader reader = new CSVReader(new FileReader(csvFilePath))) {
-            String[] header = reader.readNext();
-            String[] line;
+    long loadFromCSV(Resource csvResource) {
+        long start = System.nanoTime();
+        long rows = 0;
 
+        try (CSVReader reader = new CSVReader(new InputStreamReader(csvResource.getInputStream(), StandardCharsets.UTF_8))) {
+            List<String> header = Arrays.asList(reader.readNext());
+            int typeColumn = header.indexOf("lifestyleType");
+            int rateColumn = header.indexOf("interestRate");
+
+            Map<String, String> batch = new LinkedHashMap<>();
+            Set<String> rates = new HashSet<>();
+            String[] line;
             while ((line = reader.readNext()) != null) {
-                Map<String, String> dataMap = new HashMap<>();
-                for (int i = 0; i < header.length; i++) {
-                    dataMap.put(header[i], line[i]);
+                batch.put(line[typeColumn].toLowerCase(), line[rateColumn]);
+                rates.add(line[rateColumn]);
+                if (batch.size() >= batchSize) {
+                    writeRates(batch);
+                    rows += batch.size();
+                    batch = new LinkedHashMap<>();
+                    logger.debug("Cached {} interest rates from CSV", rows);
                 }
-
-                String key = dataMap.get("lifestyleType").toLowerCase();
-
-                redisSecondTemplate.opsForValue().set(key, dataMap.get("interestRate"));
-
-                logger.info("Cached from CSV: {} => {}", key, dataMap.get("interestRate"));
+            }
+            if (!batch.isEmpty()) {
+                writeRates(batch);
+                rows += batch.size();
             }
 
-            logger.info("CSV data loaded to Redis successfully.");
+            logLoadTime("csv", "Redis DB 1 (CSV)", rows, start);
+            annuityTable.rebuild(rates);
 
         } catch (Exception e) {
             logger.error("Error loading CSV data to Redis", e);
         }
+        return rows;
+    }
+
+    /**
+     * Writes a batch of deposits, keyed by lowercased lifestyle type, in the configured layout.
+     */
+    private void writeDeposits(Map<String, String> batch) {
+        if (keyspace.isHashLayout()) {
+            hashStore.write(LifestyleHashStore.DEPOSIT, batch);
+        } else {
+            Map<String, String> keyed = namespaced(batch);
+            metrics.recordRedis(RetirementMetrics.DB0, "mset", () -> redisTemplate.opsForValue().multiSet(keyed));
+        }
+    }
+
+    /**
+     * Writes a batch of interest rates, keyed by lowercased lifestyle type, in the configured layout.
+     */
+    private void writeRates(Map<String, String> batch) {
+        if (keyspace.isHashLayout()) {
+            hashStore.write(LifestyleHashStore.RATE, batch);
+        } else {
+            Map<String, String> keyed = namespaced(batch);
+            metrics.recordRedis(RetirementMetrics.DB1, "mset", () -> redisSecondTemplate.opsForValue().multiSet(keyed));
+        }
+    }
+
+    private Map<String, String> namespaced(Map<String, String> batch) {
+        Map<String, String> keyed = new LinkedHashMap<>();
+        batch.forEach((lifestyleType, value) -> keyed.put(keyspace.key(lifestyleType), value));
+        return keyed;
+    }
+
+    private void logLoadTime(String phase, String target, long rows, long startNanos) {
+        long elapsedNanos = System.nanoTime() - startNanos;
+        metrics.recordLoad(phase, rows, elapsedNanos);
+        long rowsPerSecond = elapsedNanos > 0 ? rows * 1_000_000_000L / elapsedNanos : rows;
+        logger.info("Loaded {} rows into {} in {} ms ({} rows/sec)",
+                rows, target, elapsedNanos / 1_000_000, rowsPerSecond);
     }
 
 }
@@ -0,0 +1,247 @@
+package com.example.retirementCalculator.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Naming, layout and iteration settings for the lifestyle keys stored in Redis.
+ * <p>
+ * Every lifestyle key lives under a dedicated prefix (e.g. {@code lifestyle:simple}) in both
+ * DB 0 (monthly deposits) and DB 1 (interest rates). Bulk operations can therefore iterate
+ * with {@code SCAN MATCH lifestyle:*} instead of {@code KEYS *}, without touching unrelated
+ * keys such as Spring cache entries.
+ * </p>
+ * <p>
+ * With the {@link RedisLayout#HASH} layout each lifestyle type is instead a single hash in
+ * DB 0 under a second prefix (e.g. {@code lifestyle-hash:simple}). The two prefixes must not
+ * overlap, so both layouts can live side by side while migrating from one to the other.
+ * </p>
+ * <p>
+ * The API and the near cache keep using the bare lowercased lifestyle type; only the
+ * Redis access code converts between the two with {@link #key(String)} and
+ * {@link #lifestyleType(String)}.
+ * </p>
+ * <p>
+ * The whole lifestyle table is republished under a new version (e.g. {@code lifestyle:v7:simple})
+ * next to the one being read, and readers switch once it is complete (see
+ * {@code LifestyleTableVersion}). {@link #key(String)}, {@link #hashKey(String)} and the
+ * {@code SCAN} patterns resolve through the version this instance currently reads, kept in
+ * memory so lookups cost no extra round trip. Version 0 is the unversioned keys written
+ * before the first republish; their pattern also matches the versioned keys, so bulk
+ * operations filter the keys they scan with {@link #version(String)}.
+ * </p>
+ *
+ * @author Priscilla Masunyane
+ */
+@Component
+public class RedisKeyspace {
+
+    private static final Pattern VERSIONED = Pattern.compile("v(\\d+):(.*)", Pattern.DOTALL);
+
+    private final String prefix;
+    private final String hashPrefix;
+    private final RedisLayout layout;
+    private final int scanCount;
+    private final int chunkSize;
+    private volatile long version;
+
+    /**
+     * Constructs a new {@code RedisKeyspace} for the {@link RedisLayout#SPLIT} layout.
+     *
+     * @param prefix    prefix prepended to every lifestyle key
+     * @param scanCount {@code COUNT} hint passed to each {@code SCAN} call
+     * @param chunkSize maximum number of keys sent in a single {@code DEL} or {@code MGET}
+     */
+    public RedisKeyspace(String prefix, int scanCount, int chunkSize) {
+        this(prefix, "lifestyle-hash:", RedisLayout.SPLIT, scanCount, chunkSize);
+    }
+
+    /**
+     * Constructs a new {@code RedisKeyspace}.
+     *
+     * @param prefix     prefix prepended to every lifestyle key of the split layout
+     * @param hashPrefix prefix prepended to every lifestyle hash of the hash layout
+     * @param layout     the layout the application reads and writes
+     * @param scanCount  {@code COUNT} hint passed to each {@code SCAN} call
+     * @param chunkSize  maximum number of keys sent in a single {@code DEL} or {@code MGET}
+     * @throws IllegalArgumentException if one prefix starts with the other
+     */
+    @Autowired
+    public RedisKeyspace(@Value("${retirement.redis.key-prefix:lifestyle:}") String prefix,
+                         @Value("${retirement.redis.hash-key-prefix:lifestyle-hash:}") String hashPrefix,
+                         @Value("${retirement.redis.layout:split}") RedisLayout layout,
+                         @Value("${retirement.redis.scan-count:100}") int scanCount,
+                         @Value("${retirement.redis.chunk-size:500}") int chunkSize) {
+        if (prefix.startsWith(hashPrefix) || hashPrefix.startsWith(prefix)) {
+            throw new IllegalArgumentException("Redis key prefixes '" + prefix + "' and '" + hashPrefix + "' overlap");
+        }
+        this.prefix = prefix;
+        this.hashPrefix = hashPrefix;
+        this.layout = layout;
+        this.scanCount = scanCount;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Returns the Redis key for a lifestyle type in the current version.
+     *
+     * @param lifestyleType the lowercased lifestyle type (e.g. "simple")
+     * @return the namespaced Redis key (e.g. "lifestyle:simple")
+     */
+    public String key(String lifestyleType) {
+        return key(lifestyleType, version);
+    }
+
+    /**
+     * Returns the Redis key for a lifestyle type in the given version.
+     *
+     * @param lifestyleType the lowercased lifestyle type (e.g. "simple")
+     * @param version       the version of the lifestyle table, 0 for the unversioned keys
+     * @return the namespaced Redis key (e.g. "lifestyle:v7:simple")
+     */
+    public String key(String lifestyleType, long version) {
+        return versioned(prefix, version) + lifestyleType;
+    }
+
+    /**
+     * Returns the Redis key of the hash holding a lifestyle type in the hash layout, in the
+     * current version.
+     *
+     * @param lifestyleType the lowercased lifestyle type (e.g. "simple")
+     * @return the namespaced Redis key (e.g. "lifestyle-hash:simple")
+     */
+    public String hashKey(String lifestyleType) {
+        return hashKey(lifestyleType, version);
+    }
+
+    /**
+     * Returns the Redis key of the hash holding a lifestyle type in the hash layout, in the
+     * given version.
+     *
+     * @param lifestyleType the lowercased lifestyle type (e.g. "simple")
+     * @param version       the version of the lifestyle table, 0 for the unversioned keys
+     * @return the namespaced Redis key (e.g. "lifestyle-hash:v7:simple")
+     */
+    public String hashKey(String lifestyleType, long version) {
+        return versioned(hashPrefix, version) + lifestyleType;
+    }
+
+    /**
+     * Returns the lifestyle type of a namespaced Redis key of either layout and any version.
+     *
+     * @param key the namespaced Redis key (e.g. "lifestyle:simple" or "lifestyle-hash:v7:simple")
+     * @return the lifestyle type (e.g. "simple")
+     */
+    public String lifestyleType(String key) {
+        Matcher matcher = VERSIONED.matcher(unprefixed(key));
+        return matcher.matches() ? matcher.group(2) : unprefixed(key);
+    }
+
+    /**
+     * Returns the version of the lifestyle table a namespaced Redis key, or pattern, belongs to.
+     *
+     * @param key the namespaced Redis key (e.g. "lifestyle:v7:simple")
+     * @return the version (e.g. 7), 0 for an unversioned key
+     */
+    public long version(String key) {
+        Matcher matcher = VERSIONED.matcher(unprefixed(key));
+        return matcher.matches() ? Long.parseLong(matcher.group(1)) : 0;
+    }
+
+    /**
+     * Returns the {@code SCAN MATCH} pattern covering all lifestyle keys of the split layout
+     * in the current version.
+     */
+    public String pattern() {
+        return pattern(version);
+    }
+
+    /**
+     * Returns the {@code SCAN MATCH} pattern covering all lifestyle keys of the split layout
+     * in the given version; the pattern of version 0 matches every version.
+     */
+    public String pattern(long version) {
+        return versioned(prefix, version) + "*";
+    }
+
+    /**
+     * Returns the {@code SCAN MATCH} pattern covering all lifestyle hashes of the hash layout
+     * in the current version.
+     */
+    public String hashPattern() {
+        return hashPattern(version);
+    }
+
+    /**
+     * Returns the {@code SCAN MATCH} pattern covering all lifestyle hashes of the hash layout
+     * in the given version; the pattern of version 0 matches every version.
+     */
+    public String hashPattern(long version) {
+        return versioned(hashPrefix, version) + "*";
+    }
+
+    /**
+     * Returns the version of the lifestyle table this instance reads, 0 for the unversioned keys.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Switches to a newer version of the lifestyle table. Versions only move forward, so a
+     * late or repeated announcement of an older version is ignored.
+     *
+     * @param version the version published
+     * @return whether the current version changed
+     */
+    public synchronized boolean advanceVersion(long version) {
+        if (version <= this.version) {
+            return false;
+        }
+        this.version = version;
+        return true;
+    }
+
+    /**
+     * Returns the layout the application reads and writes.
+     */
+    public RedisLayout getLayout() {
+        return layout;
+    }
+
+    /**
+     * Returns whether the application reads and writes the {@link RedisLayout#HASH} layout.
+     */
+    public boolean isHashLayout() {
+        return layout == RedisLayout.HASH;
+    }
+
+    /**
+     * Returns the {@code COUNT} hint passed to each {@code SCAN} call.
+     */
+    public int getScanCount() {
+        return scanCount;
+    }
+
+    /**
+     * Returns the maximum number of keys sent in a single {@code DEL} or {@code MGET}.
+     */
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    private String unprefixed(String key) {
+        if (key.startsWith(prefix)) {
+            return key.substring(prefix.length());
+        }
+        return key.startsWith(hashPrefix) ? key.substring(hashPrefix.length()) : key;
+    }
+
+    private static String versioned(String prefix, long version) {
+        return version == 0 ? prefix : prefix + "v" + version + ":";
+    }
+}
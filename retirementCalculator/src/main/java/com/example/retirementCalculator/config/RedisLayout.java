@@ -0,0 +1,25 @@
+package com.example.retirementCalculator.config;
+
+/**
+ * How the deposit and interest rate of each lifestyle type are stored in Redis.
+ * <p>
+ * Selected with the {@code retirement.redis.layout} property; defaults to {@link #SPLIT}.
+ * </p>
+ *
+ * @author Priscilla Masunyane
+ */
+public enum RedisLayout {
+
+    /**
+     * The deposit is a string in DB 0 and the interest rate a string in DB 1, both under
+     * {@link RedisKeyspace#key(String)}. A lookup takes one round trip per database.
+     */
+    SPLIT,
+
+    /**
+     * Each lifestyle type is a single hash in DB 0 under {@link RedisKeyspace#hashKey(String)},
+     * holding the {@code deposit}, {@code rate}, {@code version} and {@code updatedAt} fields.
+     * A lookup takes one round trip and DB 1 is not used.
+     */
+    HASH
+}
@@ -0,0 +1,56 @@
+package com.example.retirementCalculator.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports at startup which kind of threads serve HTTP requests.
+ * <p>
+ * With {@code spring.threads.virtual.enabled=true} on a Java 21+ runtime, Spring Boot replaces
+ * the Tomcat worker pool, and the executor that writes streamed responses, with one virtual
+ * thread per task. Requests then no longer hold a scarce platform thread while they block on
+ * Lettuce or JPA. The application is still built for Java 17, and on a Java 17 runtime Spring
+ * Boot ignores the property without a word, so this reporter logs a warning in that case.
+ * </p>
+ * <p>
+ * The switch is set through {@code VIRTUAL_THREADS_ENABLED} in {@code application.yaml}.
+ * </p>
+ *
+ * @author Priscilla Masunyane
+ */
+@Component
+public class RequestThreadingReporter {
+
+    private static final Logger log = LoggerFactory.getLogger(RequestThreadingReporter.class);
+
+    private final Environment environment;
+
+    /**
+     * Constructs a new {@code RequestThreadingReporter}.
+     *
+     * @param environment the environment holding the threading settings
+     */
+    public RequestThreadingReporter(Environment environment) {
+        this.environment = environment;
+    }
+
+    /**
+     * Logs the request threading mode once the application is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reportRequestThreading() {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            log.info("Serving requests on virtual threads (Java {})", Runtime.version().feature());
+        } else if (environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false)) {
+            log.warn("spring.threads.virtual.enabled is set but the runtime is Java {}; virtual threads need Java 21 or later, serving requests on platform threads",
+                    Runtime.version().feature());
+        } else {
+            log.info("Serving requests on platform threads");
+        }
+    }
+}
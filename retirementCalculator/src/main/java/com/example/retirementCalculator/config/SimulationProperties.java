@@ -0,0 +1,132 @@
+package com.example.retirementCalculator.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Settings of the Monte Carlo projections, bound from {@code retirement.simulation.*}.
+ *
+ * @author Priscilla Masunyane
+ */
+@Component
+@ConfigurationProperties(prefix = "retirement.simulation")
+public class SimulationProperties {
+
+    /**
+     * Number of paths simulated when the request does not specify one.
+     */
+    private int defaultPaths = 10_000;
+
+    /**
+     * Maximum number of paths accepted in a single request.
+     */
+    private int maxPaths = 1_000_000;
+
+    /**
+     * Maximum number of paths times months simulated in a single request, which bounds its run
+     * time whatever the horizon (the default allows the maximum paths over 50 years).
+     */
+    private long maxPathMonths = 600_000_000L;
+
+    /**
+     * Maximum annual expected return (as a percentage) accepted in a request.
+     */
+    private double maxExpectedReturn = 100.0;
+
+    /**
+     * Maximum annual volatility (as a percentage) accepted in a request.
+     */
+    private double maxVolatility = 100.0;
+
+    /**
+     * Number of threads of the pool running the simulations.
+     */
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Annual volatility (as a percentage) of lifestyles without an entry in {@link #volatility}.
+     */
+    private double defaultVolatility = 10.0;
+
+    /**
+     * Annual volatility (as a percentage) per lowercased lifestyle type.
+     */
+    private Map<String, Double> volatility = new HashMap<>();
+
+    public int getDefaultPaths() {
+        return defaultPaths;
+    }
+
+    public void setDefaultPaths(int defaultPaths) {
+        this.defaultPaths = defaultPaths;
+    }
+
+    public int getMaxPaths() {
+        return maxPaths;
+    }
+
+    public void setMaxPaths(int maxPaths) {
+        this.maxPaths = maxPaths;
+    }
+
+    public long getMaxPathMonths() {
+        return maxPathMonths;
+    }
+
+    public void setMaxPathMonths(long maxPathMonths) {
+        this.maxPathMonths = maxPathMonths;
+    }
+
+    public double getMaxExpectedReturn() {
+        return maxExpectedReturn;
+    }
+
+    public void setMaxExpectedReturn(double maxExpectedReturn) {
+        this.maxExpectedReturn = maxExpectedReturn;
+    }
+
+    public double getMaxVolatility() {
+        return maxVolatility;
+    }
+
+    public void setMaxVolatility(double maxVolatility) {
+        this.maxVolatility = maxVolatility;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    public double getDefaultVolatility() {
+        return defaultVolatility;
+    }
+
+    public void setDefaultVolatility(double defaultVolatility) {
+        this.defaultVolatility = defaultVolatility;
+    }
+
+    public Map<String, Double> getVolatility() {
+        return volatility;
+    }
+
+    public void setVolatility(Map<String, Double> volatility) {
+        this.volatility = volatility;
+    }
+
+    /**
+     * Returns the annual volatility configured for a lifestyle type.
+     *
+     * @param lifestyleType the lowercased lifestyle type
+     * @return the configured volatility, or the default volatility
+     */
+    public double volatilityOf(String lifestyleType) {
+        return volatility.getOrDefault(lifestyleType, defaultVolatility);
+    }
+}
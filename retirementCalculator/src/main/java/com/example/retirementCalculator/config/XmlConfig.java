@@ -5,25 +5,220 @@ import jakarta.xml.bind.JAXBContext;
 import jakarta.xml.bind.JAXBException;
 import jakarta.xml.bind.Marshaller;
 import jakarta.xml.bind.Unmarshaller;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
 
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.StringReader;
 import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
+/**
+ * Converts {@link LifestyleDeposit}s to and from XML.
+ * <p>
+ * The {@link JAXBContext} is built once, when the component is created; building it means
+ * reflecting over the bound classes, so doing it per call dominated the cost of a conversion.
+ * Marshallers and unmarshallers are not thread-safe and are therefore kept in small pools
+ * and borrowed for one call at a time. Pools are used rather than thread locals because
+ * requests may run on virtual threads, which are never reused.
+ * </p>
+ * <p>
+ * {@link #writeAll(Iterable, OutputStream)} and {@link #readAll(InputStream, Consumer)}
+ * stream many deposits as a {@code <lifestyleDeposits>} document through StAX, one
+ * {@code <lifestyleDeposit>} element at a time, so a bulk import or export never holds the
+ * whole document in memory. DTDs and external entities are not resolved when reading.
+ * </p>
+ *
+ * @author Priscilla Masunyane
+ */
+@Component
 public class XmlConfig {
 
-    public static String toXml(LifestyleDeposit deposit) throws JAXBException {
-        JAXBContext context = JAXBContext.newInstance(LifestyleDeposit.class);
-        Marshaller marshaller = context.createMarshaller();
+    /**
+     * Name of the root element of a document holding many deposits.
+     */
+    public static final String DEPOSITS_ELEMENT = "lifestyleDeposits";
+
+    private static final String DEPOSIT_ELEMENT = "lifestyleDeposit";
+
+    private final JAXBContext context;
+    private final XMLInputFactory inputFactory;
+    private final XMLOutputFactory outputFactory;
+    private final int poolSize;
+    private final Queue<Marshaller> marshallers = new ConcurrentLinkedQueue<>();
+    private final Queue<Unmarshaller> unmarshallers = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pooledMarshallers = new AtomicInteger();
+    private final AtomicInteger pooledUnmarshallers = new AtomicInteger();
+
+    /**
+     * Constructs a new {@code XmlConfig} and builds the shared {@link JAXBContext}.
+     *
+     * @param poolSize maximum number of idle marshallers, and of idle unmarshallers, kept for reuse
+     * @throws IllegalStateException if the JAXB context cannot be built
+     */
+    @Autowired
+    public XmlConfig(@Value("${retirement.xml.pool-size:16}") int poolSize) {
+        try {
+            this.context = JAXBContext.newInstance(LifestyleDeposit.class);
+        } catch (JAXBException e) {
+            throw new IllegalStateException("Failed to create the JAXB context for LifestyleDeposit", e);
+        }
+        this.poolSize = poolSize;
+        this.inputFactory = XMLInputFactory.newFactory();
+        this.inputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        this.inputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        this.outputFactory = XMLOutputFactory.newFactory();
+    }
+
+    /**
+     * Writes a deposit as a formatted, standalone XML document.
+     *
+     * @param deposit the deposit to write
+     * @return the XML document
+     * @throws JAXBException if the deposit cannot be marshalled
+     */
+    public String toXml(LifestyleDeposit deposit) throws JAXBException {
+        Marshaller marshaller = borrowMarshaller();
+        try {
+            StringWriter writer = new StringWriter();
+            marshaller.marshal(deposit, writer);
+            return writer.toString();
+        } finally {
+            release(marshallers, pooledMarshallers, marshaller);
+        }
+    }
+
+    /**
+     * Reads a deposit from an XML document.
+     *
+     * @param xml a {@code <lifestyleDeposit>} document
+     * @return the deposit
+     * @throws JAXBException if the document is malformed or not a deposit
+     */
+    public LifestyleDeposit fromXml(String xml) throws JAXBException {
+        Unmarshaller unmarshaller = borrowUnmarshaller();
+        try {
+            XMLStreamReader reader = inputFactory.createXMLStreamReader(new StringReader(xml));
+            try {
+                return unmarshaller.unmarshal(reader, LifestyleDeposit.class).getValue();
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException e) {
+            throw new JAXBException("Failed to read lifestyle deposit XML", e);
+        } finally {
+            release(unmarshallers, pooledUnmarshallers, unmarshaller);
+        }
+    }
+
+    /**
+     * Streams deposits into a UTF-8 {@code <lifestyleDeposits>} document.
+     * <p>
+     * Each deposit is marshalled straight to the output as it is taken from
+     * {@code deposits}, so the input can be a lazily read result set.
+     * </p>
+     *
+     * @param deposits the deposits to write, in order
+     * @param out      the stream to write to; it is flushed but not closed
+     * @return the number of deposits written
+     * @throws JAXBException      if a deposit cannot be marshalled
+     * @throws XMLStreamException if the document cannot be written
+     */
+    public long writeAll(Iterable<LifestyleDeposit> deposits, OutputStream out) throws JAXBException, XMLStreamException {
+        Marshaller marshaller = borrowMarshaller();
+        XMLStreamWriter writer = outputFactory.createXMLStreamWriter(out, StandardCharsets.UTF_8.name());
+        try {
+            marshaller.setProperty(Marshaller.JAXB_FRAGMENT, true);
+            writer.writeStartDocument(StandardCharsets.UTF_8.name(), "1.0");
+            writer.writeStartElement(DEPOSITS_ELEMENT);
+            long count = 0;
+            for (LifestyleDeposit deposit : deposits) {
+                marshaller.marshal(deposit, writer);
+                count++;
+            }
+            writer.writeEndElement();
+            writer.writeEndDocument();
+            writer.flush();
+            return count;
+        } finally {
+            writer.close();
+            marshaller.setProperty(Marshaller.JAXB_FRAGMENT, false);
+            release(marshallers, pooledMarshallers, marshaller);
+        }
+    }
+
+    /**
+     * Streams the deposits of a {@code <lifestyleDeposits>} document to a consumer.
+     * <p>
+     * Only one deposit is held in memory at a time. Elements other than
+     * {@code <lifestyleDeposit>} are skipped.
+     * </p>
+     *
+     * @param in       the document to read; it is not closed
+     * @param consumer receives each deposit, in document order
+     * @return the number of deposits read
+     * @throws JAXBException      if a deposit element cannot be unmarshalled
+     * @throws XMLStreamException if the document is malformed
+     */
+    public long readAll(InputStream in, Consumer<LifestyleDeposit> consumer) throws JAXBException, XMLStreamException {
+        Unmarshaller unmarshaller = borrowUnmarshaller();
+        XMLStreamReader reader = inputFactory.createXMLStreamReader(in);
+        try {
+            long count = 0;
+            while (reader.hasNext()) {
+                if (reader.getEventType() == XMLStreamConstants.START_ELEMENT
+                        && DEPOSIT_ELEMENT.equals(reader.getLocalName())) {
+                    // Leaves the reader just past the deposit's end element
+                    consumer.accept(unmarshaller.unmarshal(reader, LifestyleDeposit.class).getValue());
+                    count++;
+                } else {
+                    reader.next();
+                }
+            }
+            return count;
+        } finally {
+            reader.close();
+            release(unmarshallers, pooledUnmarshallers, unmarshaller);
+        }
+    }
+
+    private Marshaller borrowMarshaller() throws JAXBException {
+        Marshaller marshaller = marshallers.poll();
+        if (marshaller != null) {
+            pooledMarshallers.decrementAndGet();
+            return marshaller;
+        }
+        marshaller = context.createMarshaller();
         marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, true);
+        return marshaller;
+    }
 
-        StringWriter writer = new StringWriter();
-        marshaller.marshal(deposit, writer);
-        return writer.toString();
+    private Unmarshaller borrowUnmarshaller() throws JAXBException {
+        Unmarshaller unmarshaller = unmarshallers.poll();
+        if (unmarshaller != null) {
+            pooledUnmarshallers.decrementAndGet();
+            return unmarshaller;
+        }
+        return context.createUnmarshaller();
     }
 
-    public static LifestyleDeposit fromXml(String xml) throws JAXBException {
-        JAXBContext context = JAXBContext.newInstance(LifestyleDeposit.class);
-        Unmarshaller unmarshaller = context.createUnmarshaller();
-        return (LifestyleDeposit) unmarshaller.unmarshal(new StringReader(xml));
+    private <T> void release(Queue<T> pool, AtomicInteger pooled, T item) {
+        if (pooled.incrementAndGet() <= poolSize) {
+            pool.offer(item);
+        } else {
+            pooled.decrementAndGet();
+        }
     }
 }
@@ -53,6 +53,40 @@ public class CacheController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Rebuilds the annuity factor table from the interest rates currently cached in Redis.
+     *
+     * @return a response entity containing the status and the number of rates in the table
+     */
+    @PostMapping("/annuity/refresh")
+    public ResponseEntity<Map<String, Object>> refreshAnnuityTable() {
+        int rates = cacheService.refreshAnnuityTable();
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", "success");
+        response.put("message", "Annuity factor table has been rebuilt.");
+        response.put("rates", rates);
+
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Copies the lifestyle keys of the split Redis layout into the hashes of the hash layout.
+     *
+     * @return a response entity containing the status and the number of values copied
+     */
+    @PostMapping("/layout/migrate")
+    public ResponseEntity<Map<String, Object>> migrateToHashLayout() {
+        Map<String, Long> copied = cacheService.migrateToHashLayout();
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", "success");
+        response.put("message", "Lifestyle keys have been copied into the hash layout.");
+        response.putAll(copied);
+
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * Retrieves the cache status of a specific key.
      *
@@ -157,6 +191,24 @@ public class CacheController {
         return cacheService.fetchAllCache();
     }
 
+    /**
+     * GET /cache/near/stats
+     * Returns the hit, miss and eviction counters of the in-process near cache.
+     */
+    @GetMapping("/near/stats")
+    public Map<String, Object> getNearCacheStats() {
+        return cacheService.getNearCacheStats();
+    }
+
+    /**
+     * GET /cache/results/stats
+     * Returns the hit, miss and eviction counters of the calculation result cache.
+     */
+    @GetMapping("/results/stats")
+    public Map<String, Object> getResultCacheStats() {
+        return cacheService.getResultCacheStats();
+    }
+
     /**
      * Retrieves a cache entry by key.
      *
@@ -0,0 +1,103 @@
+package com.example.retirementCalculator.controller;
+
+import com.example.retirementCalculator.entity.GoalSeekBatchResult;
+import com.example.retirementCalculator.entity.GoalSeekRequest;
+import com.example.retirementCalculator.entity.GoalSeekResult;
+import com.example.retirementCalculator.service.GoalSeekService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * REST controller for goal-seek questions: the deposit, interest rate or retirement age
+ * needed to reach a target amount.
+ */
+@RestController
+@RequestMapping("/retirement-plans")
+@Validated
+@Tag(name = "Retirement Plans", description = "APIs for retirement planning calculations")
+@CrossOrigin(origins = { "http://localhost:4200", "http://localhost:3000" })
+public class GoalSeekController {
+
+    private final GoalSeekService goalSeekService;
+
+    /**
+     * Constructor for {@code GoalSeekController}.
+     *
+     * @param goalSeekService the service solving the requests
+     */
+    @Autowired
+    public GoalSeekController(GoalSeekService goalSeekService) {
+        this.goalSeekService = goalSeekService;
+    }
+
+    /**
+     * Endpoint to solve a plan for the parameter that reaches a target amount.
+     *
+     * @param request a {@link GoalSeekRequest} containing the plan, the target and the parameter to solve for
+     * @return a {@link GoalSeekResult} with the solved plan and its future value
+     */
+    @PostMapping(
+            value = "/solve",
+            consumes = { "application/json", "application/xml", "application/cbor" },
+            produces = { "application/json", "application/xml", "application/cbor" }
+    )
+    @Operation(
+            summary = "Solve retirement plan for a target",
+            description = "Returns the smallest monthly deposit, interest rate or retirement age that reaches the target amount",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Successful solution",
+                            content = @Content(mediaType = "application/json", schema = @Schema(implementation = GoalSeekResult.class))
+                    ),
+                    @ApiResponse(responseCode = "400", description = "Invalid input or unreachable target"),
+                    @ApiResponse(responseCode = "404", description = "Lifestyle type not found")
+            }
+    )
+    public ResponseEntity<GoalSeekResult> solve(@Valid @RequestBody GoalSeekRequest request) {
+        return ResponseEntity.ok(goalSeekService.solve(request));
+    }
+
+    /**
+     * Endpoint to solve several goal-seek requests in one call.
+     * <p>
+     * Each request is solved independently; a request that fails carries an error code and
+     * message instead of a result, so one bad request does not fail the whole batch.
+     * </p>
+     *
+     * @param requests the list of {@link GoalSeekRequest} DTOs to solve
+     * @return one {@link GoalSeekBatchResult} per submitted request, in input order
+     */
+    @PostMapping(
+            value = "/solve/batch",
+            consumes = { "application/json", "application/xml", "application/cbor" },
+            produces = { "application/json", "application/xml", "application/cbor" }
+    )
+    @Operation(
+            summary = "Solve retirement plans for targets in batch",
+            description = "Solves many goal-seek requests in one request, returning a result or an error per request",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Batch processed",
+                            content = @Content(mediaType = "application/json",
+                                    array = @ArraySchema(schema = @Schema(implementation = GoalSeekBatchResult.class)))
+                    ),
+                    @ApiResponse(responseCode = "400", description = "Batch exceeds the maximum size")
+            }
+    )
+    public ResponseEntity<List<GoalSeekBatchResult>> solveAll(@RequestBody List<GoalSeekRequest> requests) {
+        return ResponseEntity.ok(goalSeekService.solveAll(requests));
+    }
+}
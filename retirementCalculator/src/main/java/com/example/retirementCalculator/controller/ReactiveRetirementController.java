@@ -0,0 +1,114 @@
+package com.example.retirementCalculator.controller;
+
+import com.example.retirementCalculator.entity.Retirement;
+import com.example.retirementCalculator.entity.RetirementBatchResult;
+import com.example.retirementCalculator.entity.RetirementResult;
+import com.example.retirementCalculator.service.ReactiveRetirementService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * REST controller for the non-blocking retirement plan calculations.
+ * <p>
+ * Returns {@link Mono} and {@link Flux} results. The servlet request is released while the
+ * lifestyle data is read from Redis and is completed when the result is ready, so a waiting
+ * request does not hold a Tomcat worker thread.
+ * </p>
+ */
+@RestController
+@RequestMapping("/retirement-plans/reactive")
+@Validated
+@Tag(name = "Retirement Plans", description = "APIs for retirement planning calculations")
+@CrossOrigin(origins = { "http://localhost:4200", "http://localhost:3000" })
+public class ReactiveRetirementController {
+
+    private final ReactiveRetirementService reactiveRetirementService;
+
+    /**
+     * Constructor for {@code ReactiveRetirementController}.
+     *
+     * @param reactiveRetirementService the service running the non-blocking calculations
+     */
+    @Autowired
+    public ReactiveRetirementController(ReactiveRetirementService reactiveRetirementService) {
+        this.reactiveRetirementService = reactiveRetirementService;
+    }
+
+    /**
+     * Endpoint to calculate a retirement plan without blocking a request thread.
+     *
+     * @param dto a {@link Retirement} DTO containing input parameters like age and lifestyle
+     * @return a {@link RetirementResult} object with calculated retirement details
+     */
+    @PostMapping(
+            value = "/calculate",
+            consumes = { "application/json", "application/xml", "application/cbor" },
+            produces = { "application/json", "application/xml", "application/cbor" }
+    )
+    @Operation(
+            summary = "Calculate retirement plan (non-blocking)",
+            description = "Calculates the plan like /retirement-plans/calculate, reading the lifestyle data from Redis without blocking",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Successful calculation",
+                            content = @Content(mediaType = "application/json", schema = @Schema(implementation = RetirementResult.class))
+                    ),
+                    @ApiResponse(responseCode = "400", description = "Invalid input"),
+                    @ApiResponse(responseCode = "404", description = "Lifestyle type not found")
+            }
+    )
+    public Mono<ResponseEntity<RetirementResult>> calculatePlan(@Valid @RequestBody Retirement dto) {
+        return reactiveRetirementService.calculatePlan(dto).map(ResponseEntity::ok);
+    }
+
+    /**
+     * Endpoint to calculate many retirement plans, streamed as they complete.
+     * <p>
+     * Streams one {@link RetirementBatchResult} per plan, in input order, as newline-delimited
+     * JSON (NDJSON). Plans are only calculated as fast as the client reads the response.
+     * With {@code Accept: application/cbor} the results are collected and written as one
+     * CBOR array instead, since CBOR has no streaming media type that Spring MVC flushes per item.
+     * </p>
+     * <p>
+     * The plans are bound before the first one is calculated, so backpressure only applies to
+     * the calculations; a body with more than {@code retirement.batch.max-size} plans is
+     * rejected while it is read (see {@link com.example.retirementCalculator.config.BatchSizeModule}).
+     * </p>
+     *
+     * @param plans the list of {@link Retirement} DTOs to calculate
+     * @return one {@link RetirementBatchResult} per submitted plan, in input order
+     */
+    @PostMapping(
+            value = "/calculate/batch",
+            consumes = { "application/json", "application/xml", "application/cbor" },
+            produces = { "application/x-ndjson", "application/cbor" }
+    )
+    @Operation(
+            summary = "Calculate retirement plans in batch (non-blocking, streamed)",
+            description = "Streams one result or error per plan as NDJSON, in input order",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Batch streamed",
+                            content = @Content(mediaType = "application/x-ndjson", schema = @Schema(implementation = RetirementBatchResult.class))
+                    ),
+                    @ApiResponse(responseCode = "400", description = "Batch exceeds the maximum size")
+            }
+    )
+    public Flux<RetirementBatchResult> calculatePlans(@RequestBody List<Retirement> plans) {
+        return reactiveRetirementService.calculatePlans(plans);
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.retirementCalculator.controller;
+
+import com.example.retirementCalculator.entity.ImportResult;
+import com.example.retirementCalculator.exception.InvalidInputException;
+import com.example.retirementCalculator.service.ReferenceDataService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.xml.bind.JAXBException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import javax.xml.stream.XMLStreamException;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * REST controller for bulk import and export of the lifestyle reference data.
+ * <p>
+ * Request and response bodies are streamed: an upload is read row by row while it arrives
+ * and a download is written while the table is paged through, so files of any size can be
+ * transferred without holding them in memory.
+ * </p>
+ *
+ * @author Priscilla Masunyane
+ */
+@RestController
+@RequestMapping("/admin/lifestyles")
+@Tag(name = "Reference Data", description = "APIs for bulk import and export of lifestyle deposits and interest rates")
+public class ReferenceDataController {
+
+    private static final String TEXT_CSV = "text/csv";
+    private static final String CSV = "csv";
+    private static final String XML = "xml";
+
+    private static final Logger log = LoggerFactory.getLogger(ReferenceDataController.class);
+
+    private final ReferenceDataService referenceDataService;
+
+    /**
+     * Constructs a new {@code ReferenceDataController}.
+     *
+     * @param referenceDataService the service importing and exporting the data
+     */
+    @Autowired
+    public ReferenceDataController(ReferenceDataService referenceDataService) {
+        this.referenceDataService = referenceDataService;
+    }
+
+    /**
+     * Imports monthly deposits from a CSV file with a {@code lifestyleType,monthlyDeposit} header.
+     *
+     * @param body the uploaded file
+     * @return the row counts of the import
+     */
+    @PostMapping(value = "/deposits", consumes = TEXT_CSV, produces = "application/json")
+    @Operation(summary = "Import deposits from CSV", description = "Upserts the monthly deposits in the database and Redis in chunks")
+    public ResponseEntity<ImportResult> importDepositsCsv(InputStream body) {
+        return ResponseEntity.ok(referenceDataService.importDepositsCsv(body));
+    }
+
+    /**
+     * Imports monthly deposits from a {@code <lifestyleDeposits>} XML document.
+     *
+     * @param body the uploaded document
+     * @return the row counts of the import
+     */
+    @PostMapping(value = "/deposits", consumes = "application/xml", produces = "application/json")
+    @Operation(summary = "Import deposits from XML", description = "Upserts the monthly deposits in the database and Redis in chunks")
+    public ResponseEntity<ImportResult> importDepositsXml(InputStream body) {
+        return ResponseEntity.ok(referenceDataService.importDepositsXml(body));
+    }
+
+    /**
+     * Imports interest rates from a CSV file with a {@code lifestyleType,interestRate} header.
+     *
+     * @param body the uploaded file
+     * @return the row counts of the import
+     */
+    @PostMapping(value = "/rates", consumes = TEXT_CSV, produces = "application/json")
+    @Operation(summary = "Import interest rates from CSV", description = "Writes the interest rates to Redis in chunks and rebuilds the annuity factor table")
+    public ResponseEntity<ImportResult> importRatesCsv(InputStream body) {
+        return ResponseEntity.ok(referenceDataService.importRatesCsv(body));
+    }
+
+    /**
+     * Downloads every monthly deposit of the database.
+     *
+     * @param format {@code csv} (the default) or {@code xml}
+     * @return the deposits, streamed as an attachment
+     */
+    @GetMapping("/deposits")
+    @Operation(summary = "Export deposits", description = "Streams every monthly deposit as CSV or as a lifestyleDeposits XML document")
+    public ResponseEntity<StreamingResponseBody> exportDeposits(@RequestParam(defaultValue = CSV) String format) {
+        if (CSV.equalsIgnoreCase(format)) {
+            return attachment("lifestyle-deposits.csv", MediaType.parseMediaType(TEXT_CSV), out -> {
+                long rows = referenceDataService.exportDepositsCsv(out);
+                log.info("Exported {} deposits as CSV", rows);
+            });
+        }
+        if (XML.equalsIgnoreCase(format)) {
+            return attachment("lifestyle-deposits.xml", MediaType.APPLICATION_XML, out -> {
+                try {
+                    long rows = referenceDataService.exportDepositsXml(out);
+                    log.info("Exported {} deposits as XML", rows);
+                } catch (JAXBException | XMLStreamException e) {
+                    throw new IOException("Failed to write the deposits as XML", e);
+                }
+            });
+        }
+        throw new InvalidInputException("format", "must be csv or xml");
+    }
+
+    /**
+     * Downloads every interest rate cached in Redis as CSV.
+     *
+     * @return the rates, streamed as an attachment
+     */
+    @GetMapping("/rates")
+    @Operation(summary = "Export interest rates", description = "Streams every interest rate cached in Redis as CSV")
+    public ResponseEntity<StreamingResponseBody> exportRates() {
+        return attachment("lifestyle-rates.csv", MediaType.parseMediaType(TEXT_CSV), out -> {
+            long rows = referenceDataService.exportRatesCsv(out);
+            log.info("Exported {} interest rates as CSV", rows);
+        });
+    }
+
+    private static ResponseEntity<StreamingResponseBody> attachment(String filename, MediaType contentType,
+                                                                    StreamingResponseBody body) {
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+                .body(body);
+    }
+}
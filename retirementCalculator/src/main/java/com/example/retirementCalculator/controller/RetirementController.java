@@ -1,23 +1,42 @@
 package com.example.retirementCalculator.controller;
 
+import com.example.retirementCalculator.config.CborMessageConverter;
 import com.example.retirementCalculator.entity.Retirement;
+import com.example.retirementCalculator.entity.RetirementBatchResult;
 import com.example.retirementCalculator.entity.RetirementResult;
+import com.example.retirementCalculator.entity.ScheduleEntry;
 import com.example.retirementCalculator.service.RetirementService;
+import com.example.retirementCalculator.service.ScheduleGranularity;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * REST controller for handling retirement plan calculations.
  * This controller provides an endpoint to calculate retirement planning
  * details based on user input such as age, income, and lifestyle.
+ * <p>
+ * Requests and responses can be JSON, XML or CBOR ({@code application/cbor}), chosen with the
+ * {@code Content-Type} and {@code Accept} headers. CBOR is the compact binary option for
+ * service-to-service traffic.
+ * </p>
  */
 @RestController
 @RequestMapping("/retirement-plans")
@@ -27,15 +46,22 @@ import org.springframework.web.bind.annotation.*;
 public class RetirementController {
 
     private final RetirementService retirementService;
+    private final ObjectMapper objectMapper;
+    private final ObjectMapper cborMapper;
 
     /**
      * Constructor for {@code RetirementController}.
      *
      * @param retirementService the service to handle retirement logic
+     * @param objectMapper      the mapper used to write streamed JSON responses
+     * @param cborConverter     the converter whose mapper writes streamed CBOR responses
      */
     @Autowired
-    public RetirementController(RetirementService retirementService) {
+    public RetirementController(RetirementService retirementService, ObjectMapper objectMapper,
+                                CborMessageConverter cborConverter) {
         this.retirementService = retirementService;
+        this.objectMapper = objectMapper;
+        this.cborMapper = cborConverter.getObjectMapper();
     }
 
     /**
@@ -46,8 +72,8 @@ public class RetirementController {
      */
     @PostMapping(
             value = "/calculate",
-            consumes = { "application/json", "application/xml" },
-            produces = { "application/json", "application/xml" }
+            consumes = { "application/json", "application/xml", "application/cbor" },
+            produces = { "application/json", "application/xml", "application/cbor" }
     )
     @Operation(
             summary = "Calculate retirement plan",
@@ -66,5 +92,123 @@ public class RetirementController {
         return ResponseEntity.ok(result);
     }
 
+    /**
+     * Endpoint to calculate many retirement plans in a single request.
+     * <p>
+     * Each plan is calculated independently; plans that fail carry an error code and
+     * message instead of a result, so one bad plan does not fail the whole batch.
+     * A body with more than {@code retirement.batch.max-size} plans is rejected while it is
+     * read (see {@link com.example.retirementCalculator.config.BatchSizeModule}).
+     * </p>
+     *
+     * @param plans the list of {@link Retirement} DTOs to calculate
+     * @return one {@link RetirementBatchResult} per submitted plan, in input order
+     */
+    @PostMapping(
+            value = "/calculate/batch",
+            consumes = { "application/json", "application/xml", "application/cbor" },
+            produces = { "application/json", "application/xml", "application/cbor" }
+    )
+    @Operation(
+            summary = "Calculate retirement plans in batch",
+            description = "Calculates many retirement plans in one request, returning a result or an error per plan",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Batch processed",
+                            content = @Content(mediaType = "application/json",
+                                    array = @ArraySchema(schema = @Schema(implementation = RetirementBatchResult.class)))
+                    ),
+                    @ApiResponse(responseCode = "400", description = "Batch exceeds the maximum size")
+            }
+    )
+    public ResponseEntity<List<RetirementBatchResult>> calculatePlans(@RequestBody List<Retirement> plans) {
+        List<RetirementBatchResult> results = retirementService.calculatePlans(plans);
+        return ResponseEntity.ok(results);
+    }
+
+    /**
+     * Endpoint to calculate the balance schedule of a retirement plan.
+     * <p>
+     * Streams one {@link ScheduleEntry} per month or year as newline-delimited JSON
+     * (NDJSON). Entries are computed and written one at a time, so long monthly
+     * schedules are never held in memory as a whole.
+     * </p>
+     * <p>
+     * Clients that accept {@value CborMessageConverter#APPLICATION_CBOR_SEQ_VALUE} but not
+     * NDJSON get one CBOR item per entry instead (RFC 8742).
+     * </p>
+     *
+     * @param dto         a {@link Retirement} DTO containing the plan
+     * @param granularity "monthly" or "yearly" (default)
+     * @param accept      the {@code Accept} header of the request, if any
+     * @return the streamed schedule
+     */
+    @PostMapping(
+            value = "/calculate/schedule",
+            consumes = { "application/json", "application/xml", "application/cbor" },
+            produces = { MediaType.APPLICATION_NDJSON_VALUE, CborMessageConverter.APPLICATION_CBOR_SEQ_VALUE }
+    )
+    @Operation(
+            summary = "Calculate retirement plan schedule",
+            description = "Streams the balance, contributions and interest to date for every month or year of the plan as NDJSON or a CBOR sequence",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Schedule streamed",
+                            content = {
+                                    @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE, schema = @Schema(implementation = ScheduleEntry.class)),
+                                    @Content(mediaType = CborMessageConverter.APPLICATION_CBOR_SEQ_VALUE, schema = @Schema(implementation = ScheduleEntry.class))
+                            }
+                    ),
+                    @ApiResponse(responseCode = "400", description = "Invalid input"),
+                    @ApiResponse(responseCode = "404", description = "Lifestyle type not found")
+            }
+    )
+    public ResponseEntity<StreamingResponseBody> calculateSchedule(@Valid @RequestBody Retirement dto,
+                                                                   @RequestParam(defaultValue = "yearly") String granularity,
+                                                                   @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        if (acceptsOnly(accept, CborMessageConverter.APPLICATION_CBOR_SEQ, MediaType.APPLICATION_NDJSON)) {
+            return streamSchedule(dto, granularity, cborMapper.getFactory(), null, CborMessageConverter.APPLICATION_CBOR_SEQ);
+        }
+        return streamSchedule(dto, granularity, objectMapper.getFactory(), "\n", MediaType.APPLICATION_NDJSON);
+    }
+
+    /**
+     * Writes the schedule entries one at a time with a generator of the given format.
+     *
+     * @param separator text written after every entry, or {@code null} for none
+     */
+    private ResponseEntity<StreamingResponseBody> streamSchedule(Retirement dto, String granularity, JsonFactory factory,
+                                                                 String separator, MediaType contentType) {
+        Stream<ScheduleEntry> schedule = retirementService.calculateSchedule(dto, ScheduleGranularity.fromValue(granularity));
+
+        StreamingResponseBody body = outputStream -> {
+            try (schedule; JsonGenerator generator = factory.createGenerator(outputStream)) {
+                if (separator != null) {
+                    generator.setRootValueSeparator(null); // each entry is terminated by the separator instead
+                }
+                for (ScheduleEntry entry : (Iterable<ScheduleEntry>) schedule::iterator) {
+                    generator.writeObject(entry);
+                    if (separator != null) {
+                        generator.writeRaw(separator);
+                    }
+                }
+            }
+        };
+        return ResponseEntity.ok().contentType(contentType).body(body);
+    }
+
+    /**
+     * Returns whether the {@code Accept} header names {@code wanted} but not {@code other}.
+     */
+    private static boolean acceptsOnly(String accept, MediaType wanted, MediaType other) {
+        if (accept == null || accept.isBlank()) {
+            return false;
+        }
+        List<MediaType> accepted = MediaType.parseMediaTypes(accept);
+        return accepted.stream().anyMatch(wanted::equalsTypeAndSubtype)
+                && accepted.stream().noneMatch(type -> type.includes(other));
+    }
 
 }
@@ -0,0 +1,66 @@
+package com.example.retirementCalculator.controller;
+
+import com.example.retirementCalculator.entity.SimulationRequest;
+import com.example.retirementCalculator.entity.SimulationResult;
+import com.example.retirementCalculator.service.SimulationService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST controller for probabilistic (Monte Carlo) retirement projections.
+ */
+@RestController
+@RequestMapping("/retirement-plans")
+@Validated
+@Tag(name = "Retirement Plans", description = "APIs for retirement planning calculations")
+@CrossOrigin(origins = { "http://localhost:4200", "http://localhost:3000" })
+public class SimulationController {
+
+    private final SimulationService simulationService;
+
+    /**
+     * Constructor for {@code SimulationController}.
+     *
+     * @param simulationService the service running the simulations
+     */
+    @Autowired
+    public SimulationController(SimulationService simulationService) {
+        this.simulationService = simulationService;
+    }
+
+    /**
+     * Endpoint to simulate a retirement plan under random monthly returns.
+     *
+     * @param request a {@link SimulationRequest} containing the plan and the distribution of returns
+     * @return a {@link SimulationResult} with percentile outcomes and the probability of reaching the target
+     */
+    @PostMapping(
+            value = "/simulate",
+            consumes = { "application/json", "application/xml" },
+            produces = { "application/json", "application/xml" }
+    )
+    @Operation(
+            summary = "Simulate retirement plan",
+            description = "Runs a Monte Carlo simulation of the plan and returns the p5/p50/p95 balance at retirement and the probability of reaching a target",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Successful simulation",
+                            content = @Content(mediaType = "application/json", schema = @Schema(implementation = SimulationResult.class))
+                    ),
+                    @ApiResponse(responseCode = "400", description = "Invalid input"),
+                    @ApiResponse(responseCode = "404", description = "Lifestyle type not found")
+            }
+    )
+    public ResponseEntity<SimulationResult> simulate(@Valid @RequestBody SimulationRequest request) {
+        return ResponseEntity.ok(simulationService.simulate(request));
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.retirementCalculator.entity;
+
+import lombok.*;
+
+/**
+ * DTO representing the outcome of a single request within a batch goal-seek.
+ * <p>
+ * Exactly one of {@code result} or the error fields is populated, so a request that
+ * fails does not fail the rest of the batch. The {@code index} refers to the position
+ * of the request in the submitted list.
+ * </p>
+ *
+ * @author Priscilla Masunyane
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GoalSeekBatchResult {
+
+    /**
+     * Position of the request in the submitted batch.
+     */
+    private int index;
+
+    /**
+     * The solved plan, or {@code null} if the request failed.
+     */
+    private GoalSeekResult result;
+
+    /**
+     * Application-specific error code (e.g. "RC-400"), or {@code null} on success.
+     */
+    private String errorCode;
+
+    /**
+     * Human-readable error message, or {@code null} on success.
+     */
+    private String errorMessage;
+
+    /**
+     * Creates a successful batch entry.
+     *
+     * @param index  position of the request in the batch
+     * @param result the solved plan
+     * @return a batch entry holding the result
+     */
+    public static GoalSeekBatchResult success(int index, GoalSeekResult result) {
+        return new GoalSeekBatchResult(index, result, null, null);
+    }
+
+    /**
+     * Creates a failed batch entry.
+     *
+     * @param index        position of the request in the batch
+     * @param errorCode    application-specific error code
+     * @param errorMessage human-readable error message
+     * @return a batch entry holding the error
+     */
+    public static GoalSeekBatchResult failure(int index, String errorCode, String errorMessage) {
+        return new GoalSeekBatchResult(index, null, errorCode, errorMessage);
+    }
+}
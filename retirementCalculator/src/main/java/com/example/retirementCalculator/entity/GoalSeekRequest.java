@@ -0,0 +1,83 @@
+package com.example.retirementCalculator.entity;
+
+import jakarta.validation.constraints.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+
+/**
+ * DTO representing a goal-seek question: which plan parameter reaches a target amount.
+ * <p>
+ * {@code solveFor} selects the unknown: {@code deposit} (the default), {@code interest_rate}
+ * or {@code retirement_age}. The other parameters are taken from the request, and the
+ * optional ones fall back to the lifestyle's data cached in Redis: the interest rate as in
+ * {@link Retirement}, and the monthly deposit to the lifestyle's deposit. The retirement age
+ * is ignored when solving for it.
+ * </p>
+ *
+ * Example JSON input:
+ * <pre>
+ * {
+ *   "currentAge": 30,
+ *   "retirementAge": 65,
+ *   "lifestyleType": "fancy",
+ *   "targetAmount": 2000000,
+ *   "solveFor": "deposit"
+ * }
+ * </pre>
+ *
+ * @author Priscilla Masunyane
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GoalSeekRequest {
+
+    /**
+     * The user's current age.
+     */
+    @NotNull(message = "Current age cannot be null")
+    @Min(value = 0, message = "Current age must be 0 or older")
+    private Integer currentAge;
+
+    /**
+     * The age at which the user plans to retire; not used when solving for it.
+     */
+    @Min(value = 1, message = "Retirement age must be greater than 0")
+    private Integer retirementAge;
+
+    /**
+     * Type of lifestyle selected by the user, which provides the default deposit and interest rate.
+     */
+    @NotNull(message = "Lifestyle type cannot be null")
+    @Pattern(regexp = "simple|fancy", flags = Pattern.Flag.CASE_INSENSITIVE,
+            message = "Lifestyle type must be 'simple' or 'fancy'")
+    private String lifestyleType;
+
+    /**
+     * Expected annual interest rate (as a percentage); defaults to the lifestyle's interest rate.
+     */
+    @DecimalMin(value = "0.0", inclusive = true, message = "Interest rate must be non-negative")
+    private Double interestRate;
+
+    /**
+     * Amount deposited every month; defaults to the lifestyle's deposit.
+     */
+    @DecimalMin(value = "0.0", inclusive = false, message = "Monthly deposit must be greater than 0")
+    private BigDecimal monthlyDeposit;
+
+    /**
+     * Balance to reach at retirement.
+     */
+    @NotNull(message = "Target amount cannot be null")
+    @DecimalMin(value = "0.0", inclusive = false, message = "Target amount must be greater than 0")
+    private BigDecimal targetAmount;
+
+    /**
+     * The parameter to solve for: deposit, interest_rate or retirement_age; defaults to deposit.
+     */
+    @Pattern(regexp = "deposit|interest_rate|retirement_age", flags = Pattern.Flag.CASE_INSENSITIVE,
+            message = "Solve for must be 'deposit', 'interest_rate' or 'retirement_age'")
+    private String solveFor;
+}
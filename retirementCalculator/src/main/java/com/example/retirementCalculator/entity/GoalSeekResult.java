@@ -0,0 +1,57 @@
+package com.example.retirementCalculator.entity;
+
+import lombok.*;
+
+import java.math.BigDecimal;
+
+/**
+ * DTO representing the solution of a goal-seek request.
+ * <p>
+ * Holds the complete plan, with the solved parameter filled in, and its future value as
+ * calculated by the forward calculation, which is at least the target amount.
+ * </p>
+ *
+ * <p>Example output:</p>
+ * <pre>
+ * {
+ *   "solvedFor": "deposit",
+ *   "currentAge": 30,
+ *   "retirementAge": 65,
+ *   "interestRate": 5.5,
+ *   "lifestyleType": "fancy",
+ *   "monthlyDeposit": 1573.66,
+ *   "targetAmount": 2000000,
+ *   "futureValue": 2000001.36
+ * }
+ * </pre>
+ *
+ * @author Priscilla Masunyane
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GoalSeekResult {
+
+    /**
+     * The parameter that was solved for.
+     */
+    private String solvedFor;
+
+    private int currentAge;
+
+    private int retirementAge;
+
+    private double interestRate;
+
+    private String lifestyleType;
+
+    private BigDecimal monthlyDeposit;
+
+    private BigDecimal targetAmount;
+
+    /**
+     * Future value of the solved plan, rounded to 2 decimals.
+     */
+    private BigDecimal futureValue;
+}
@@ -0,0 +1,108 @@
+package com.example.retirementCalculator.entity;
+
+import lombok.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO reporting the outcome of a bulk import of lifestyle reference data.
+ * <p>
+ * Invalid rows are skipped and counted in {@code rejected}; the first few are described
+ * in {@code errors} with their position in the file.
+ * </p>
+ *
+ * <p>Example output:</p>
+ * <pre>
+ * {
+ *   "dataset": "deposits", "format": "csv",
+ *   "rows": 100002, "imported": 100000, "inserted": 99998, "updated": 2, "rejected": 2,
+ *   "batches": 200, "elapsedMillis": 5312,
+ *   "errors": [ "line 17: monthlyDeposit 'abc' is not a number", "line 90: lifestyleType is empty" ]
+ * }
+ * </pre>
+ *
+ * @author Priscilla Masunyane
+ */
+@Data
+@NoArgsConstructor
+public class ImportResult {
+
+    /**
+     * Maximum number of rejected rows described in {@code errors}.
+     */
+    public static final int MAX_ERRORS = 10;
+
+    /**
+     * The data imported: "deposits" or "rates".
+     */
+    private String dataset;
+
+    /**
+     * The file format: "csv" or "xml".
+     */
+    private String format;
+
+    /**
+     * Number of data rows read from the file.
+     */
+    private long rows;
+
+    /**
+     * Number of rows written to the database (deposits) and Redis.
+     */
+    private long imported;
+
+    /**
+     * Number of deposits that were new to the database.
+     */
+    private long inserted;
+
+    /**
+     * Number of deposits that replaced an existing row in the database.
+     */
+    private long updated;
+
+    /**
+     * Number of rows skipped as invalid.
+     */
+    private long rejected;
+
+    /**
+     * Number of chunks written, each in one database transaction and one Redis round trip.
+     */
+    private long batches;
+
+    /**
+     * Duration of the import in milliseconds.
+     */
+    private long elapsedMillis;
+
+    /**
+     * Descriptions of the first {@value #MAX_ERRORS} rejected rows.
+     */
+    private List<String> errors = new ArrayList<>();
+
+    /**
+     * Creates an empty result for an import.
+     *
+     * @param dataset the data imported
+     * @param format  the file format
+     */
+    public ImportResult(String dataset, String format) {
+        this.dataset = dataset;
+        this.format = format;
+    }
+
+    /**
+     * Counts a rejected row, keeping its description if fewer than {@value #MAX_ERRORS} are kept.
+     *
+     * @param error where the row is and why it was rejected
+     */
+    public void reject(String error) {
+        rejected++;
+        if (errors.size() < MAX_ERRORS) {
+            errors.add(error);
+        }
+    }
+}
@@ -7,6 +7,7 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.math.BigDecimal;
 
@@ -27,23 +28,37 @@ import java.math.BigDecimal;
  * </ul>
  * </p>
  *
- * Mapped to a database table using JPA annotations.
+ * Mapped to a database table using JPA annotations. Lifestyle types are stored lowercased
+ * and unique, and entities are kept in the Hibernate second-level cache.
  *
  * @author Priscilla Masunyane
  */
 @Entity
 @Getter
 @Setter
-@Table(name = "lifestyle_deposits", schema = "retirement_staging")
+@Table(name = "lifestyle_deposits", schema = "retirement_staging",
+        indexes = @Index(name = "lifestyle_deposits_lifestyle_type_key", columnList = "lifestyle_type", unique = true))
+@Cacheable
+@org.hibernate.annotations.Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @XmlRootElement(name = "lifestyleDeposit")
         public class LifestyleDeposit {
 
+    /**
+     * Number of ids reserved per call to the id sequence, which must be created with
+     * the same {@code INCREMENT BY}.
+     */
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     /**
      * The primary key identifier for the lifestyle deposit record.
-     * This value is auto-generated.
+     * This value is auto-generated from the {@code lifestyle_deposits_id_seq} sequence,
+     * {@value #ID_ALLOCATION_SIZE} ids at a time, so new deposits are known before they are
+     * inserted and Hibernate can send their inserts as one JDBC batch.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "lifestyle_deposits_id_seq")
+    @SequenceGenerator(name = "lifestyle_deposits_id_seq", sequenceName = "lifestyle_deposits_id_seq",
+            schema = "retirement_staging", allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     /**
@@ -121,4 +136,15 @@ import java.math.BigDecimal;
         this.lifestyleType = lifestyleType;
     }
 
+    /**
+     * Lowercases the lifestyle type before it is written, matching the Redis keys and the
+     * lowercased lookups of {@code RetirementRepository}.
+     */
+    @PrePersist
+    @PreUpdate
+    void normalizeLifestyleType() {
+        if (lifestyleType != null) {
+            lifestyleType = lifestyleType.trim().toLowerCase();
+        }
+    }
 }
@@ -0,0 +1,19 @@
+package com.example.retirementCalculator.entity;
+
+/**
+ * Read-only projection of a {@link LifestyleDeposit} including its id.
+ * <p>
+ * Returned by the keyset-paginated reads, which need the id of the last row of a page to ask
+ * for the next one. Like {@link LifestyleDepositView}, it never puts an entity in the
+ * persistence context or the second-level cache.
+ * </p>
+ *
+ * @author Priscilla Masunyane
+ */
+public interface LifestyleDepositRow extends LifestyleDepositView {
+
+    /**
+     * Gets the id of the deposit.
+     */
+    Long getId();
+}
@@ -0,0 +1,26 @@
+package com.example.retirementCalculator.entity;
+
+import java.math.BigDecimal;
+
+/**
+ * Read-only projection of a {@link LifestyleDeposit}.
+ * <p>
+ * Repository queries returning this view select only the two columns and never put an entity
+ * in the persistence context, so Hibernate keeps no snapshot of it and skips it when checking
+ * for dirty entities at flush.
+ * </p>
+ *
+ * @author Priscilla Masunyane
+ */
+public interface LifestyleDepositView {
+
+    /**
+     * Gets the lowercased lifestyle type.
+     */
+    String getLifestyleType();
+
+    /**
+     * Gets the monthly deposit.
+     */
+    BigDecimal getMonthlyDeposit();
+}
@@ -0,0 +1,49 @@
+package com.example.retirementCalculator.entity;
+
+/**
+ * Immutable pair of the reference values cached in Redis for a lifestyle type.
+ * <p>
+ * The monthly deposit comes from Redis DB 0 (loaded from the database) and the
+ * interest rate from Redis DB 1 (loaded from the CSV file). Values are kept as the
+ * raw strings read from Redis; either may be {@code null} when the key is missing.
+ * </p>
+ *
+ * @author Priscilla Masunyane
+ */
+public class LifestyleRates {
+
+    private final String monthlyDeposit;
+    private final String interestRate;
+
+    /**
+     * Constructs a new LifestyleRates.
+     *
+     * @param monthlyDeposit the monthly deposit read from Redis DB 0, or {@code null} if missing
+     * @param interestRate   the interest rate read from Redis DB 1, or {@code null} if missing
+     */
+    public LifestyleRates(String monthlyDeposit, String interestRate) {
+        this.monthlyDeposit = monthlyDeposit;
+        this.interestRate = interestRate;
+    }
+
+    /**
+     * Gets the monthly deposit read from Redis.
+     */
+    public String getMonthlyDeposit() {
+        return monthlyDeposit;
+    }
+
+    /**
+     * Gets the interest rate read from Redis.
+     */
+    public String getInterestRate() {
+        return interestRate;
+    }
+
+    /**
+     * Returns whether both the deposit and the interest rate are present.
+     */
+    public boolean isComplete() {
+        return monthlyDeposit != null && interestRate != null;
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.retirementCalculator.entity;
+
+import lombok.*;
+
+/**
+ * DTO representing the outcome of a single plan within a batch calculation.
+ * <p>
+ * Exactly one of {@code result} or the error fields is populated, so a failing
+ * plan does not fail the rest of the batch. The {@code index} refers to the
+ * position of the plan in the submitted list.
+ * </p>
+ *
+ * <p>Example output:</p>
+ * <pre>
+ * [
+ *   { "index": 0, "result": { "currentAge": 30, ..., "futureValue": 1140826.14 } },
+ *   { "index": 1, "errorCode": "RC-404", "errorMessage": "No deposit amount configured for lifestyle type: luxury" }
+ * ]
+ * </pre>
+ *
+ * @author Priscilla Masunyane
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RetirementBatchResult {
+
+    /**
+     * Position of the plan in the submitted batch.
+     */
+    private int index;
+
+    /**
+     * The calculated result, or {@code null} if the plan failed.
+     */
+    private RetirementResult result;
+
+    /**
+     * Application-specific error code (e.g. "RC-400"), or {@code null} on success.
+     */
+    private String errorCode;
+
+    /**
+     * Human-readable error message, or {@code null} on success.
+     */
+    private String errorMessage;
+
+    /**
+     * Creates a successful batch entry.
+     *
+     * @param index  position of the plan in the batch
+     * @param result the calculated result
+     * @return a batch entry holding the result
+     */
+    public static RetirementBatchResult success(int index, RetirementResult result) {
+        return new RetirementBatchResult(index, result, null, null);
+    }
+
+    /**
+     * Creates a failed batch entry.
+     *
+     * @param index        position of the plan in the batch
+     * @param errorCode    application-specific error code
+     * @param errorMessage human-readable error message
+     * @return a batch entry holding the error
+     */
+    public static RetirementBatchResult failure(int index, String errorCode, String errorMessage) {
+        return new RetirementBatchResult(index, null, errorCode, errorMessage);
+    }
+}
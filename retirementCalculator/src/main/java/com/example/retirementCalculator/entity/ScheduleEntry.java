@@ -0,0 +1,51 @@
+package com.example.retirementCalculator.entity;
+
+import lombok.*;
+
+import java.math.BigDecimal;
+
+/**
+ * DTO representing the balance of a retirement plan at the end of one period
+ * (month or year) of its accumulation schedule.
+ * <p>
+ * Amounts are rounded to 2 decimals. {@code interest} is the interest earned to date,
+ * i.e. {@code balance - contributions}.
+ * </p>
+ *
+ * <p>Example output (one NDJSON line per period):</p>
+ * <pre>
+ * {"period":1,"age":31,"contributions":12000.00,"interest":308.77,"balance":12308.77}
+ * </pre>
+ *
+ * @author Priscilla Masunyane
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScheduleEntry {
+
+    /**
+     * 1-based index of the period (month or year) since the start of the plan.
+     */
+    private int period;
+
+    /**
+     * Age reached at the end of the period, in whole years.
+     */
+    private int age;
+
+    /**
+     * Total amount deposited up to the end of the period.
+     */
+    private BigDecimal contributions;
+
+    /**
+     * Total interest earned up to the end of the period.
+     */
+    private BigDecimal interest;
+
+    /**
+     * Balance at the end of the period.
+     */
+    private BigDecimal balance;
+}
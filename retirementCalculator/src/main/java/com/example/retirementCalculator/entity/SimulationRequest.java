@@ -0,0 +1,90 @@
+package com.example.retirementCalculator.entity;
+
+import jakarta.validation.constraints.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+
+/**
+ * DTO representing the input of a Monte Carlo retirement projection.
+ * <p>
+ * Extends the plan of a {@link Retirement} with the distribution of monthly returns and
+ * the number of paths to simulate. Optional values fall back to the lifestyle's data:
+ * the expected return to the interest rate cached in Redis, the volatility to
+ * {@code retirement.simulation.volatility.<lifestyle>}, and the number of paths to
+ * {@code retirement.simulation.default-paths}.
+ * </p>
+ *
+ * Example JSON input:
+ * <pre>
+ * {
+ *   "currentAge": 30,
+ *   "retirementAge": 65,
+ *   "lifestyleType": "fancy",
+ *   "expectedReturn": 5.5,
+ *   "volatility": 15.0,
+ *   "paths": 100000,
+ *   "targetAmount": 2000000,
+ *   "seed": 42
+ * }
+ * </pre>
+ *
+ * @author Priscilla Masunyane
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SimulationRequest {
+
+    /**
+     * The user's current age.
+     */
+    @NotNull(message = "Current age cannot be null")
+    @Min(value = 0, message = "Current age must be 0 or older")
+    private Integer currentAge;
+
+    /**
+     * The age at which the user plans to retire.
+     */
+    @NotNull(message = "Retirement age cannot be null")
+    @Min(value = 1, message = "Retirement age must be greater than 0")
+    private Integer retirementAge;
+
+    /**
+     * Type of lifestyle selected by the user, which determines the monthly deposit.
+     */
+    @NotNull(message = "Lifestyle type cannot be null")
+    @Pattern(regexp = "simple|fancy", flags = Pattern.Flag.CASE_INSENSITIVE,
+            message = "Lifestyle type must be 'simple' or 'fancy'")
+    private String lifestyleType;
+
+    /**
+     * Expected annual return (as a percentage); defaults to the lifestyle's interest rate.
+     */
+    @DecimalMin(value = "0.0", inclusive = true, message = "Expected return must be non-negative")
+    private Double expectedReturn;
+
+    /**
+     * Annual volatility of the return (as a percentage); defaults to the lifestyle's volatility.
+     */
+    @DecimalMin(value = "0.0", inclusive = true, message = "Volatility must be non-negative")
+    private Double volatility;
+
+    /**
+     * Number of paths to simulate; defaults to the configured number of paths.
+     */
+    @Min(value = 1, message = "Paths must be greater than 0")
+    private Integer paths;
+
+    /**
+     * Balance whose probability of being reached is reported; optional.
+     */
+    @DecimalMin(value = "0.0", inclusive = true, message = "Target amount must be non-negative")
+    private BigDecimal targetAmount;
+
+    /**
+     * Seed of the random generator, for reproducible results; random if omitted.
+     */
+    private Long seed;
+}
@@ -0,0 +1,87 @@
+package com.example.retirementCalculator.entity;
+
+import lombok.*;
+
+import java.math.BigDecimal;
+
+/**
+ * DTO representing the outcome of a Monte Carlo retirement projection.
+ * <p>
+ * Percentiles are estimated within 0.1% of the exact value, independently of the
+ * number of paths. {@code targetProbability} is only set when a target amount was given.
+ * </p>
+ *
+ * <p>Example output:</p>
+ * <pre>
+ * {
+ *   "currentAge": 30, "retirementAge": 65, "lifestyleType": "fancy",
+ *   "monthlyDeposit": 3000, "expectedReturn": 5.5, "volatility": 15.0, "paths": 100000,
+ *   "p5": 1712043.18, "p50": 2973301.52, "p95": 5467022.95, "mean": 3280510.07,
+ *   "targetAmount": 2000000, "targetProbability": 0.8571
+ * }
+ * </pre>
+ *
+ * @author Priscilla Masunyane
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SimulationResult {
+
+    private int currentAge;
+
+    private int retirementAge;
+
+    private String lifestyleType;
+
+    /**
+     * The monthly amount deposited on every path.
+     */
+    private BigDecimal monthlyDeposit;
+
+    /**
+     * Expected annual return used for the simulation (as a percentage).
+     */
+    private double expectedReturn;
+
+    /**
+     * Annual volatility used for the simulation (as a percentage).
+     */
+    private double volatility;
+
+    /**
+     * Number of simulated paths.
+     */
+    private int paths;
+
+    /**
+     * 5th percentile of the balance at retirement.
+     */
+    private BigDecimal p5;
+
+    /**
+     * Median balance at retirement.
+     */
+    private BigDecimal p50;
+
+    /**
+     * 95th percentile of the balance at retirement.
+     */
+    private BigDecimal p95;
+
+    /**
+     * Mean balance at retirement.
+     */
+    private BigDecimal mean;
+
+    /**
+     * The requested target amount, or {@code null} if none was given.
+     */
+    private BigDecimal targetAmount;
+
+    /**
+     * Fraction of paths whose balance at retirement reached the target, or {@code null} if no target was given.
+     */
+    private Double targetProbability;
+}
@@ -0,0 +1,31 @@
+package com.example.retirementCalculator.exception;
+
+/**
+ * Exception thrown when a caller gives up waiting for a load started by another caller.
+ * <p>
+ * Concurrent misses for the same key share one load; the callers that joined it wait at most
+ * {@code retirement.single-flight.timeout} for its result, so a stuck load cannot hold every
+ * request for that key.
+ * </p>
+ *
+ * Example usage:
+ * <pre>
+ *   throw new CacheLoadTimeoutException("Timed out waiting for the load of simple", e);
+ * </pre>
+ *
+ * This exception extends {@link RuntimeException} and wraps the underlying cause.
+ *
+ * @author Priscilla Masunyane
+ */
+public class CacheLoadTimeoutException extends RuntimeException {
+
+    /**
+     * Constructs a new CacheLoadTimeoutException with the specified detail message and cause.
+     *
+     * @param message the detail message explaining the reason for the exception
+     * @param cause   the underlying cause of the exception (can be {@code null})
+     */
+    public CacheLoadTimeoutException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.retirementCalculator.repository;
+
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * Bulk write operations on {@link com.example.retirementCalculator.entity.LifestyleDeposit}s
+ * that {@link org.springframework.data.jpa.repository.JpaRepository} does not offer.
+ * <p>
+ * Implemented with plain JDBC batches by {@link LifestyleDepositBulkOperationsImpl} and exposed
+ * through {@link RetirementRepository}.
+ * </p>
+ *
+ * @author Priscilla Masunyane
+ */
+public interface LifestyleDepositBulkOperations {
+
+    /**
+     * Sets the monthly deposit of each lifestyle type, inserting the types that do not exist yet.
+     * <p>
+     * Runs in one transaction, inserting or updating each type atomically against the unique
+     * {@code lifestyle_type} index, so concurrent calls writing the same new type do not fail.
+     * The types are trimmed and lowercased, like the types of saved entities. Rows written this
+     * way bypass the persistence context, so entities already loaded in it are not refreshed.
+     * </p>
+     *
+     * @param depositsByType the monthly deposit per lifestyle type, in any case
+     * @return the number of lifestyle types that were inserted; the others were updated
+     */
+    @Transactional
+    int upsertAll(Map<String, BigDecimal> depositsByType);
+}
@@ -0,0 +1,134 @@
+package com.example.retirementCalculator.repository;
+
+import com.example.retirementCalculator.entity.LifestyleDeposit;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JDBC implementation of {@link LifestyleDepositBulkOperations}.
+ * <p>
+ * Each row is inserted or updated atomically against the unique {@code lifestyle_type} index,
+ * so concurrent imports adding the same new lifestyle type both succeed and the last one wins.
+ * On PostgreSQL all rows go in one {@code INSERT ... ON CONFLICT DO UPDATE} over two arrays, and
+ * {@code RETURNING (xmax = 0)} tells inserted rows from updated ones. Other databases (H2 in
+ * the tests) run one {@code MERGE ... KEY (lifestyle_type)} over all rows, read through
+ * {@code OLD TABLE}, which returns the rows it updated; the others were inserted. Both counts
+ * come from the statement itself, so concurrent writes to the table do not skew them. New rows
+ * take their id from the column default, the same sequence Hibernate allocates from.
+ * </p>
+ * <p>
+ * The types are trimmed and lowercased first, as {@link LifestyleDeposit} does before writing,
+ * so the unique index only ever holds normalized types.
+ * </p>
+ * <p>
+ * The statements bypass Hibernate, so the deposits in the second-level cache are evicted after
+ * the write, and again once the transaction commits so that no reader caches the old values
+ * in between.
+ * </p>
+ *
+ * @author Priscilla Masunyane
+ */
+public class LifestyleDepositBulkOperationsImpl implements LifestyleDepositBulkOperations {
+
+    private static final String UPSERT_DEPOSITS_POSTGRESQL = """
+            INSERT INTO retirement_staging.lifestyle_deposits (lifestyle_type, monthly_deposit)
+            SELECT * FROM unnest(?::varchar[], ?::numeric[])
+            ON CONFLICT (lifestyle_type) DO UPDATE SET monthly_deposit = EXCLUDED.monthly_deposit
+            RETURNING (xmax = 0) AS inserted
+            """;
+    private static final String MERGE_DEPOSITS = "SELECT lifestyle_type FROM OLD TABLE ("
+            + "MERGE INTO retirement_staging.lifestyle_deposits (monthly_deposit, lifestyle_type) KEY (lifestyle_type) VALUES %s)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final boolean postgresql;
+
+    /**
+     * Constructs a new {@code LifestyleDepositBulkOperationsImpl}.
+     *
+     * @param jdbcTemplate         the template running the batches
+     * @param entityManagerFactory the factory whose caches are evicted after a write
+     */
+    @Autowired
+    public LifestyleDepositBulkOperationsImpl(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+        this.postgresql = "PostgreSQL".equals(jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName()));
+    }
+
+    @Override
+    public int upsertAll(Map<String, BigDecimal> depositsByType) {
+        if (depositsByType.isEmpty()) {
+            return 0;
+        }
+        Map<String, BigDecimal> deposits = normalized(depositsByType);
+        int inserted = postgresql ? upsertPostgresql(deposits) : merge(deposits);
+
+        evictCachedDeposits();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evictCachedDeposits();
+                }
+            });
+        }
+        return inserted;
+    }
+
+    private int upsertPostgresql(Map<String, BigDecimal> depositsByType) {
+        Integer inserted = jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(UPSERT_DEPOSITS_POSTGRESQL);
+            ps.setArray(1, connection.createArrayOf("varchar", depositsByType.keySet().toArray()));
+            ps.setArray(2, connection.createArrayOf("numeric", depositsByType.values().toArray()));
+            return ps;
+        }, rs -> {
+            int count = 0;
+            while (rs.next()) {
+                if (rs.getBoolean("inserted")) {
+                    count++;
+                }
+            }
+            return count;
+        });
+        return inserted != null ? inserted : 0;
+    }
+
+    private int merge(Map<String, BigDecimal> depositsByType) {
+        List<Map.Entry<String, BigDecimal>> rows = new ArrayList<>(depositsByType.entrySet());
+        String sql = MERGE_DEPOSITS.formatted(String.join(", ", Collections.nCopies(rows.size(), "(?, ?)")));
+        List<String> updated = jdbcTemplate.query(sql, ps -> {
+            for (int i = 0; i < rows.size(); i++) {
+                ps.setBigDecimal(2 * i + 1, rows.get(i).getValue());
+                ps.setString(2 * i + 2, rows.get(i).getKey());
+            }
+        }, (rs, rowNum) -> rs.getString(1));
+        return rows.size() - updated.size();
+    }
+
+    /**
+     * Trims and lowercases the types; of types differing only in case, the deposit iterated last wins.
+     */
+    private static Map<String, BigDecimal> normalized(Map<String, BigDecimal> depositsByType) {
+        Map<String, BigDecimal> normalized = new LinkedHashMap<>();
+        depositsByType.forEach((type, deposit) -> normalized.put(type.trim().toLowerCase(), deposit));
+        return normalized;
+    }
+
+    private void evictCachedDeposits() {
+        entityManagerFactory.getCache().evict(LifestyleDeposit.class);
+    }
+}
@@ -1,7 +1,15 @@
 package com.example.retirementCalculator.repository;
 
 import com.example.retirementCalculator.entity.LifestyleDeposit;
+import com.example.retirementCalculator.entity.LifestyleDepositRow;
+import com.example.retirementCalculator.entity.LifestyleDepositView;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -28,13 +36,18 @@ import java.util.Optional;
  * Custom query methods:
  * <ul>
  *     <li>{@code Optional<LifestyleDeposit> findByLifestyleType(String lifestyleType)} — finds the deposit configuration for a specific lifestyle type (e.g., "simple" or "fancy").</li>
+ *     <li>{@code List<LifestyleDeposit> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit)} — reads the table in id order, one bounded page at a time.</li>
+ *     <li>{@code List<LifestyleDepositRow> findRowsByIdGreaterThanOrderByIdAsc(Long id, Limit limit)} — reads the table in id order, one bounded page of read-only projections at a time.</li>
+ *     <li>{@code Optional<LifestyleDepositView> findViewByLifestyleType(String lifestyleType)} — reads the deposit of a lifestyle type from the database as a read-only projection.</li>
+ *     <li>{@code List<LifestyleDepositView> findAllViews()} — reads every deposit as a read-only projection.</li>
+ *     <li>{@code int upsertAll(Map<String, BigDecimal> depositsByType)} — inserts or updates many deposits, each atomically against the unique index, see {@link LifestyleDepositBulkOperations}.</li>
  * </ul>
  * </p>
  *
  * @author Priscilla Masunyane
  */
 @Repository
-public interface RetirementRepository extends JpaRepository<LifestyleDeposit, Long> {
+public interface RetirementRepository extends JpaRepository<LifestyleDeposit, Long>, LifestyleDepositBulkOperations {
 
     /**
      * Finds a {@link LifestyleDeposit} entry by its lifestyle type.
@@ -43,5 +56,60 @@ public interface RetirementRepository extends JpaRepository<LifestyleDeposit, Lo
      * @return an {@link Optional} containing the matching {@link LifestyleDeposit}, if found
      */
     Optional<LifestyleDeposit> findByLifestyleType(String lifestyleType);
+
+    /**
+     * Finds the next page of {@link LifestyleDeposit} entries after the given id, in id order.
+     * <p>
+     * Used for keyset pagination: pass the id of the last row of the previous page to read
+     * the whole table in bounded pages without an ever-growing {@code OFFSET}.
+     * </p>
+     *
+     * @param id    the id of the last row already read
+     * @param limit the maximum number of rows to return
+     * @return the next rows, ordered by id
+     */
+    List<LifestyleDeposit> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    /**
+     * Finds the next page of deposits after the given id, in id order, as read-only
+     * {@link LifestyleDepositRow}s.
+     * <p>
+     * Like {@link #findByIdGreaterThanOrderByIdAsc(Long, Limit)}, but the rows are neither
+     * managed nor put in the second-level cache, so paging through a large table does not grow
+     * the persistence context or evict the cached entities.
+     * </p>
+     *
+     * @param id    the id of the last row already read
+     * @param limit the maximum number of rows to return
+     * @return the next rows, ordered by id
+     */
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true"))
+    List<LifestyleDepositRow> findRowsByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    /**
+     * Finds the deposit of a lifestyle type as a read-only {@link LifestyleDepositView}.
+     * <p>
+     * The type is trimmed and lowercased in the query, like the stored values, so the lookup is
+     * case-insensitive and still an equality match on the unique {@code lifestyle_type} index.
+     * The result is not cached, so a row changed outside Hibernate (e.g. by hand in SQL) is seen
+     * straight away; the lookup is used to refresh cache entries from the database.
+     * </p>
+     *
+     * @param lifestyleType the type of lifestyle, in any case
+     * @return an {@link Optional} containing the deposit, if found
+     */
+    @Query("select d.lifestyleType as lifestyleType, d.monthlyDeposit as monthlyDeposit from LifestyleDeposit d "
+            + "where d.lifestyleType = lower(trim(:lifestyleType))")
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true"))
+    Optional<LifestyleDepositView> findViewByLifestyleType(@Param("lifestyleType") String lifestyleType);
+
+    /**
+     * Finds every deposit as a read-only {@link LifestyleDepositView}, in id order.
+     *
+     * @return all deposits
+     */
+    @Query("select d.lifestyleType as lifestyleType, d.monthlyDeposit as monthlyDeposit from LifestyleDeposit d order by d.id")
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true"))
+    List<LifestyleDepositView> findAllViews();
 }
 
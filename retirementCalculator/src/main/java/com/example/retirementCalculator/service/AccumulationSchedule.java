@@ -0,0 +1,103 @@
+package com.example.retirementCalculator.service;
+
+import com.example.retirementCalculator.entity.ScheduleEntry;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Lazily computed balance schedule of a plan, one {@link ScheduleEntry} per period.
+ * <p>
+ * The balance is rolled forward one month at a time with
+ * {@code balance = balance * (1 + r) + deposit}, using the same monthly rate as
+ * {@link FutureValueCalculator} (annual rate / 1200, rounded to 10 decimals). The whole
+ * schedule therefore costs one multiply and add per month instead of one closed-form
+ * evaluation per period, and the last balance matches
+ * {@link FutureValueCalculator#exactFutureValue} to the cent.
+ * </p>
+ * <p>
+ * Entries are produced on demand, so a monthly schedule is never held in memory as a whole.
+ * </p>
+ *
+ * @author Priscilla Masunyane
+ */
+public class AccumulationSchedule implements Iterator<ScheduleEntry> {
+
+    private final int currentAge;
+    private final BigDecimal monthlyDeposit;
+    private final BigDecimal growthFactor;
+    private final int totalMonths;
+    private final int periodMonths;
+
+    private int month;
+    private BigDecimal balance = BigDecimal.ZERO;
+
+    /**
+     * Constructs a new {@code AccumulationSchedule}.
+     *
+     * @param currentAge     the age at the start of the plan
+     * @param monthlyDeposit the amount deposited at the end of every month
+     * @param annualRate     the annual interest rate as a percentage (e.g. 5.5)
+     * @param totalMonths    the number of monthly deposits
+     * @param granularity    the length of the reported periods
+     */
+    public AccumulationSchedule(int currentAge, BigDecimal monthlyDeposit, BigDecimal annualRate,
+                                int totalMonths, ScheduleGranularity granularity) {
+        this.currentAge = currentAge;
+        this.monthlyDeposit = monthlyDeposit;
+        this.growthFactor = BigDecimal.ONE.add(annualRate.divide(BigDecimal.valueOf(100 * 12),
+                FutureValueCalculator.RATE_SCALE, RoundingMode.HALF_UP));
+        this.totalMonths = totalMonths;
+        this.periodMonths = granularity.getMonths();
+    }
+
+    /**
+     * Returns the number of entries in the schedule.
+     */
+    public int size() {
+        return (totalMonths + periodMonths - 1) / periodMonths;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return month < totalMonths;
+    }
+
+    @Override
+    public ScheduleEntry next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        int end = Math.min(month + periodMonths, totalMonths);
+        while (month < end) {
+            balance = balance.multiply(growthFactor).add(monthlyDeposit)
+                    .setScale(FutureValueCalculator.RATE_SCALE, RoundingMode.HALF_UP);
+            month++;
+        }
+
+        BigDecimal contributions = monthlyDeposit.multiply(BigDecimal.valueOf(month)).setScale(2, RoundingMode.HALF_UP);
+        BigDecimal roundedBalance = balance.setScale(2, RoundingMode.HALF_UP);
+        return new ScheduleEntry(
+                (month + periodMonths - 1) / periodMonths,
+                currentAge + month / 12,
+                contributions,
+                roundedBalance.subtract(contributions),
+                roundedBalance
+        );
+    }
+
+    /**
+     * Returns the remaining entries as a sequential, lazily evaluated stream.
+     */
+    public Stream<ScheduleEntry> stream() {
+        return StreamSupport.stream(Spliterators.spliterator(this, size(),
+                Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+}
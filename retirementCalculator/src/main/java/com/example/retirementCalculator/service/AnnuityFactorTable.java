@@ -0,0 +1,162 @@
+package com.example.retirementCalculator.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Precomputed annuity factors {@code ((1 + r)^n - 1) / r} for every known interest rate
+ * and every horizon up to {@code retirement.annuity-table.max-months}.
+ * <p>
+ * The factor depends only on the monthly rate and the number of months, and the rates come
+ * from the small lifestyle rate table in Redis DB 1. The table is rebuilt from those rates
+ * whenever they are (re)loaded, and each rebuild publishes a new immutable snapshot, so
+ * readers never see a half-built table. With a table hit the future value is one array
+ * lookup and one multiply. Horizons beyond the table and caller-supplied interest rates
+ * that are not in it fall back to {@link FutureValueCalculator}.
+ * </p>
+ * <p>
+ * Both arithmetic modes are covered. The {@link CalculationMode#FAST} factors are the exact
+ * doubles {@link FutureValueCalculator#rawFutureValue} computes, so results are identical.
+ * The {@link CalculationMode#EXACT} factors are computed as
+ * {@code F(n) = F(n - 1) * (1 + r) + 1} to {@value #FACTOR_PRECISION} significant digits, and
+ * the product goes through the same rounding to 10 and then 2 decimals as the exact path.
+ * Results therefore only differ when the exact value lies within a relative
+ * {@code 1e-55} of a rounding midpoint.
+ * </p>
+ *
+ * @author Priscilla Masunyane
+ */
+@Component
+public class AnnuityFactorTable {
+
+    /**
+     * Number of significant digits kept in each exact annuity factor.
+     */
+    public static final int FACTOR_PRECISION = 60;
+
+    private static final MathContext FACTOR_CONTEXT = new MathContext(FACTOR_PRECISION, RoundingMode.HALF_UP);
+    private static final BigDecimal MONTHS_PER_YEAR_PERCENT = BigDecimal.valueOf(100 * 12);
+
+    private static final Logger log = LoggerFactory.getLogger(AnnuityFactorTable.class);
+
+    private final int maxMonths;
+
+    private volatile Map<BigDecimal, Factors> factors = Map.of();
+
+    /**
+     * Constructs a new, empty {@code AnnuityFactorTable}.
+     *
+     * @param maxMonths longest horizon, in months, kept in the table
+     */
+    @Autowired
+    public AnnuityFactorTable(@Value("${retirement.annuity-table.max-months:996}") int maxMonths) {
+        this.maxMonths = maxMonths;
+    }
+
+    /**
+     * Replaces the table with the factors of the given annual interest rates.
+     * <p>
+     * Rates that are not valid non-negative numbers are skipped, as are rates whose monthly
+     * rate rounds to zero; those plans are cheap to compute directly.
+     * </p>
+     *
+     * @param annualRates the annual interest rates as percentages (e.g. "5.5")
+     */
+    public void rebuild(Collection<String> annualRates) {
+        long start = System.nanoTime();
+        Map<BigDecimal, Factors> table = new HashMap<>();
+
+        for (String value : annualRates) {
+            if (value == null) {
+                continue;
+            }
+
+            BigDecimal annualRate;
+            try {
+                annualRate = new BigDecimal(value.trim()).stripTrailingZeros();
+            } catch (NumberFormatException e) {
+                log.warn("Skipping invalid interest rate in annuity factor table: {}", value);
+                continue;
+            }
+
+            BigDecimal monthlyRate = annualRate.divide(MONTHS_PER_YEAR_PERCENT, FutureValueCalculator.RATE_SCALE, RoundingMode.HALF_UP);
+            if (monthlyRate.signum() > 0) {
+                table.computeIfAbsent(annualRate, rate -> compute(rate, monthlyRate));
+            }
+        }
+
+        factors = Map.copyOf(table);
+        log.info("Built annuity factor table for {} rates and {} months in {} ms",
+                table.size(), maxMonths, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Calculates the future value from the table, or with {@link FutureValueCalculator}
+     * when the rate or horizon is not in it.
+     *
+     * @param mode           the arithmetic to use
+     * @param monthlyDeposit the amount deposited every month
+     * @param annualRate     the annual interest rate as a percentage (e.g. 5.5)
+     * @param months         the number of monthly deposits
+     * @return the future value rounded to 2 decimals
+     */
+    public BigDecimal futureValue(CalculationMode mode, BigDecimal monthlyDeposit, BigDecimal annualRate, int months) {
+        Factors rateFactors = months > 0 && months <= maxMonths ? factors.get(annualRate.stripTrailingZeros()) : null;
+        if (rateFactors == null) {
+            return FutureValueCalculator.futureValue(mode, monthlyDeposit, annualRate, months);
+        }
+
+        if (mode == CalculationMode.FAST) {
+            return new BigDecimal(monthlyDeposit.doubleValue() * rateFactors.fast[months])
+                    .setScale(2, RoundingMode.HALF_UP);
+        }
+        return monthlyDeposit.multiply(rateFactors.exact[months])
+                .setScale(FutureValueCalculator.RATE_SCALE, RoundingMode.HALF_UP)
+                .setScale(2, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Returns whether the table holds the factors of an annual interest rate.
+     *
+     * @param annualRate the annual interest rate as a percentage (e.g. 5.5)
+     * @return {@code true} if plans at this rate are served from the table
+     */
+    public boolean contains(BigDecimal annualRate) {
+        return factors.containsKey(annualRate.stripTrailingZeros());
+    }
+
+    /**
+     * Returns the number of interest rates in the table.
+     */
+    public int size() {
+        return factors.size();
+    }
+
+    private Factors compute(BigDecimal annualRate, BigDecimal monthlyRate) {
+        BigDecimal[] exact = new BigDecimal[maxMonths + 1];
+        double[] fast = new double[maxMonths + 1];
+
+        BigDecimal growth = BigDecimal.ONE.add(monthlyRate);
+        double fastRate = FutureValueCalculator.monthlyRate(annualRate.doubleValue());
+
+        exact[0] = BigDecimal.ZERO;
+        for (int n = 1; n <= maxMonths; n++) {
+            exact[n] = exact[n - 1].multiply(growth, FACTOR_CONTEXT).add(BigDecimal.ONE, FACTOR_CONTEXT);
+            fast[n] = FutureValueCalculator.rawFutureValue(1.0, fastRate, n);
+        }
+        return new Factors(exact, fast);
+    }
+
+    private record Factors(BigDecimal[] exact, double[] fast) {
+    }
+}
@@ -0,0 +1,226 @@
+package com.example.retirementCalculator.service;
+
+import com.example.retirementCalculator.config.RedisKeyspace;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Cluster-wide invalidation of the in-process copies of the lifestyle data.
+ * <p>
+ * Every instance keeps lifestyle values in its {@link LifestyleNearCache} and
+ * {@link CalculationResultCache}. When {@link CacheService} changes a lifestyle key in Redis
+ * it evicts the local copies through this bus, which then publishes the change on the
+ * {@code retirement.invalidation.channel} Redis channel; every other instance, subscribed
+ * through the listener container of {@link com.example.retirementCalculator.config.RedisConfig},
+ * evicts the same entries when the message arrives. A message that cannot be published only
+ * delays the other instances until their near cache entries expire.
+ * </p>
+ * <p>
+ * Each message carries a version taken from one Redis counter ({@code INCR} on
+ * {@code retirement.invalidation.version-key}), so versions are ordered across instances.
+ * An instance applies a message only if its version is newer than the last one applied to
+ * each of its keys, and newer than the last "all" message; duplicates, an instance's own
+ * messages and messages overtaken by a newer one are ignored. A value being loaded while an
+ * invalidation is applied is not kept (see {@link LifestyleNearCache#put}), so a stale load
+ * cannot bring back an evicted entry.
+ * </p>
+ * <p>
+ * A message is a header line {@code <version> <publishedAtMillis> <tableVersion>} followed by
+ * one lowercased lifestyle type per line, or a single {@value #ALL} line for every lifestyle type.
+ * {@code tableVersion} is the version of the lifestyle table the sender reads (see
+ * {@link LifestyleTableVersion}); an instance reading an older one switches to it and evicts
+ * every local copy, so the message announcing a republished table also moves every instance
+ * onto it.
+ * </p>
+ *
+ * @author Priscilla Masunyane
+ */
+@Component
+public class CacheInvalidationBus implements MessageListener {
+
+    /**
+     * Key line of a message invalidating every lifestyle type.
+     */
+    public static final String ALL = "*";
+
+    private static final Logger log = LoggerFactory.getLogger(CacheInvalidationBus.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisKeyspace keyspace;
+    private final LifestyleNearCache nearCache;
+    private final CalculationResultCache resultCache;
+    private final RetirementMetrics metrics;
+    private final String channel;
+    private final String versionKey;
+
+    private final Map<String, Long> versions = new HashMap<>();
+    private long allVersion;
+
+    /**
+     * Constructs a new {@code CacheInvalidationBus}.
+     *
+     * @param redisTemplate the template of Redis DB 0, used for the version counter and publishing
+     * @param keyspace      the keyspace holding the version of the lifestyle table this instance reads
+     * @param nearCache     the near cache of the lifestyle data
+     * @param resultCache   the memoized calculation results
+     * @param metrics       the meters counting the messages
+     * @param channel       the channel the messages are published on
+     * @param versionKey    the Redis key of the version counter
+     */
+    @Autowired
+    public CacheInvalidationBus(@Qualifier("stringRedisTemplateDb0") StringRedisTemplate redisTemplate,
+                                RedisKeyspace keyspace, LifestyleNearCache nearCache, CalculationResultCache resultCache, RetirementMetrics metrics,
+                                @Value("${retirement.invalidation.channel:retirement:invalidation}") String channel,
+                                @Value("${retirement.invalidation.version-key:retirement:invalidation-version}") String versionKey) {
+        this.redisTemplate = redisTemplate;
+        this.keyspace = keyspace;
+        this.nearCache = nearCache;
+        this.resultCache = resultCache;
+        this.metrics = metrics;
+        this.channel = channel;
+        this.versionKey = versionKey;
+    }
+
+    /**
+     * Returns the channel the messages are published on.
+     */
+    public String getChannel() {
+        return channel;
+    }
+
+    /**
+     * Evicts the local copies of a lifestyle type and tells the other instances to do the same.
+     *
+     * @param key the lowercased lifestyle type
+     */
+    public void invalidate(String key) {
+        nearCache.invalidate(key);
+        resultCache.invalidateLifestyle(key);
+        publish(List.of(key));
+    }
+
+    /**
+     * Evicts the local copies of several lifestyle types and tells the other instances to do
+     * the same, in one message.
+     *
+     * @param keys the lowercased lifestyle types
+     */
+    public void invalidate(Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        keys.forEach(nearCache::invalidate);
+        resultCache.invalidateLifestyles(keys);
+        publish(keys);
+    }
+
+    /**
+     * Evicts every local copy and tells the other instances to do the same.
+     */
+    public void invalidateAll() {
+        nearCache.invalidateAll();
+        resultCache.invalidateAll();
+        publish(List.of(ALL));
+    }
+
+    /**
+     * Applies a message received on the channel.
+     *
+     * @param message the message
+     * @param pattern the pattern matching the channel, unused
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] lines = new String(message.getBody(), StandardCharsets.UTF_8).split("\n");
+        String[] header = lines[0].split(" ");
+        long version;
+        long publishedAt;
+        long tableVersion;
+        try {
+            version = Long.parseLong(header[0]);
+            publishedAt = Long.parseLong(header[1]);
+            tableVersion = header.length > 2 ? Long.parseLong(header[2]) : 0;
+        } catch (RuntimeException e) {
+            log.warn("Ignoring malformed cache invalidation message: {}", lines[0]);
+            metrics.recordInvalidation("malformed");
+            return;
+        }
+
+        List<String> evicted = apply(version, Arrays.asList(lines).subList(1, lines.length));
+        if (keyspace.advanceVersion(tableVersion)) {
+            log.info("Switched to version {} of the lifestyle table", tableVersion);
+            evicted = List.of(ALL);
+        }
+        if (evicted.isEmpty()) {
+            metrics.recordInvalidation("ignored");
+            return;
+        }
+        if (evicted.contains(ALL)) {
+            nearCache.invalidateAll();
+            resultCache.invalidateAll();
+        } else {
+            evicted.forEach(nearCache::invalidate);
+            resultCache.invalidateLifestyles(evicted);
+        }
+        metrics.recordInvalidation("applied");
+        metrics.recordInvalidationLag(Math.max(0, System.currentTimeMillis() - publishedAt));
+        log.debug("Applied cache invalidation {} for {}", version, evicted);
+    }
+
+    private void publish(Collection<String> keys) {
+        try {
+            Long version = metrics.recordRedis(RetirementMetrics.DB0, "incr",
+                    () -> redisTemplate.opsForValue().increment(versionKey));
+            if (version == null) {
+                throw new IllegalStateException("No version returned for " + versionKey);
+            }
+            // Record our own version first, so the echo of this message is ignored
+            apply(version, keys);
+
+            StringBuilder message = new StringBuilder().append(version).append(' ').append(System.currentTimeMillis())
+                    .append(' ').append(keyspace.getVersion());
+            keys.forEach(key -> message.append('\n').append(key));
+            metrics.recordRedis(RetirementMetrics.DB0, "publish",
+                    () -> redisTemplate.convertAndSend(channel, message.toString()));
+            metrics.recordInvalidation("published");
+        } catch (Exception e) {
+            log.warn("Failed to publish cache invalidation of {}, other instances keep their copies until they expire: {}",
+                    keys, e.getMessage());
+            metrics.recordInvalidation("failed");
+        }
+    }
+
+    /**
+     * Records a version for the given keys and returns the keys it is the newest version of.
+     */
+    private synchronized List<String> apply(long version, Collection<String> keys) {
+        if (version <= allVersion) {
+            return List.of();
+        }
+        if (keys.contains(ALL)) {
+            allVersion = version;
+            versions.clear();
+            return List.of(ALL);
+        }
+
+        List<String> newer = new ArrayList<>();
+        for (String key : keys) {
+            Long previous = versions.get(key);
+            if (previous == null || version > previous) {
+                versions.put(key, version);
+                newer.add(key);
+            }
+        }
+        return newer;
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.retirementCalculator.service;
 
-import com.example.retirementCalculator.entity.LifestyleDeposit;
+import com.example.retirementCalculator.config.RedisKeyspace;
+import com.example.retirementCalculator.entity.LifestyleDepositView;
 import com.example.retirementCalculator.exception.*;
 import com.example.retirementCalculator.repository.RetirementRepository;
 import jakarta.persistence.EntityNotFoundException;
@@ -8,12 +9,21 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.ScanOptions;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 /**
  * Service to manage caching operations for retirement plan data,
@@ -25,6 +35,24 @@ import java.util.*;
  * <p>
  * Uses {@link StringRedisTemplate} to interact with Redis and
  * {@link RetirementRepository} to fetch persistent lifestyle deposit data.
+ * Keys are namespaced through {@link RedisKeyspace}; bulk operations iterate them
+ * with incremental {@code SCAN} and issue {@code DEL}/{@code MGET} in bounded chunks.
+ * </p>
+ * <p>
+ * Every operation follows the configured {@link com.example.retirementCalculator.config.RedisLayout}.
+ * With the hash layout the deposit is the {@code deposit} field of the lifestyle hash, read and
+ * written through {@link LifestyleHashStore}, and {@link #migrateToHashLayout()} copies the
+ * split layout into hashes.
+ * </p>
+ * <p>
+ * Every change to the lifestyle keys evicts the near cache and memoized results through the
+ * {@link CacheInvalidationBus}, which also tells the other instances to evict theirs.
+ * </p>
+ * <p>
+ * Keys resolve through the version of the lifestyle table this instance reads.
+ * {@link #refreshAllCache()} republishes the whole table under a new version and switches
+ * to it through {@link LifestyleTableVersion} once it is complete; every other operation
+ * works on the current version.
  * </p>
  *
  * @author Priscilla Masunyane
@@ -39,23 +67,46 @@ public class CacheService {
     @Qualifier("redisTemplateDb1")
     private final StringRedisTemplate redisSecondTemplate;
     private static final Logger log = LoggerFactory.getLogger(CacheService.class);
+    private static final int RELOAD_LOCK_STRIPES = 64;
     private final RetirementService retirementService;
     private final RetirementRepository retirementRepository;
+    private final LifestyleNearCache nearCache;
+    private final CalculationResultCache resultCache;
+    private final AnnuityFactorTable annuityTable;
+    private final LifestyleHashStore hashStore;
+    private final RedisKeyspace keyspace;
+    private final RetirementMetrics metrics;
+    private final CacheInvalidationBus invalidationBus;
+    private final LifestyleTableVersion tableVersion;
+    private final SingleFlight<String, String> refreshes;
+    // Not monitors: reloads block on Redis and the database, which would pin virtual threads
+    private final ReentrantLock[] reloadLocks = new ReentrantLock[RELOAD_LOCK_STRIPES];
 
     @Autowired
-    public CacheService(CacheManager cacheManager, @Qualifier("stringRedisTemplateDb0") StringRedisTemplate redisTemplate, @Qualifier("stringRedisTemplateDb1") StringRedisTemplate redisSecondTemplate, RetirementService retirementService, RetirementRepository retirementRepository) {
+    public CacheService(CacheManager cacheManager, @Qualifier("stringRedisTemplateDb0") StringRedisTemplate redisTemplate, @Qualifier("stringRedisTemplateDb1") StringRedisTemplate redisSecondTemplate, RetirementService retirementService, RetirementRepository retirementRepository, LifestyleNearCache nearCache, CalculationResultCache resultCache, AnnuityFactorTable annuityTable, LifestyleHashStore hashStore, RedisKeyspace keyspace, RetirementMetrics metrics, CacheInvalidationBus invalidationBus, LifestyleTableVersion tableVersion, @Value("${retirement.near-cache.load-timeout:2s}") Duration loadTimeout) {
         this.cacheManager = cacheManager;
         this.redisTemplate = redisTemplate;
         this.redisSecondTemplate = redisSecondTemplate;
         this.retirementService = retirementService;
         this.retirementRepository = retirementRepository;
+        this.nearCache = nearCache;
+        this.resultCache = resultCache;
+        this.annuityTable = annuityTable;
+        this.hashStore = hashStore;
+        this.keyspace = keyspace;
+        this.metrics = metrics;
+        this.invalidationBus = invalidationBus;
+        this.tableVersion = tableVersion;
+        this.refreshes = new SingleFlight<>(loadTimeout);
+        Arrays.setAll(reloadLocks, i -> new ReentrantLock());
     }
 
     /**
      * Checks the status of the cache for the given key.
      * <p>
      * If Redis is connected, returns info about whether the key exists and its approximate size.
-     * If Redis is down or unavailable, attempts to report fallback cache status.
+     * If Redis is down or unavailable, attempts to report fallback cache status. The ping
+     * goes through the template, which reuses the shared connection instead of opening one.
      * </p>
      *
      * @param key the cache key to check
@@ -64,13 +115,22 @@ public class CacheService {
     public String getCacheStatus(String key) {
         try {
             if (redisTemplate.getConnectionFactory() != null) {
-                // Check if Redis connection is alive
-                Boolean isRedisUp = redisTemplate.getConnectionFactory().getConnection().ping() != null;
+                // Check if Redis connection is alive, over the template's shared connection
+                Boolean isRedisUp = redisTemplate.execute((RedisCallback<String>) RedisConnection::ping) != null;
 
                 if (Boolean.TRUE.equals(isRedisUp)) {
                     // Check if key exists and approximate size in Redis
-                    Boolean hasKey = redisTemplate.hasKey(key);
-                    Long size = redisTemplate.opsForValue().size(key);
+                    Boolean hasKey;
+                    Long size;
+                    if (keyspace.isHashLayout()) {
+                        hasKey = hashStore.exists(key);
+                        size = hashStore.depositLength(key);
+                    } else {
+                        hasKey = metrics.recordRedis(RetirementMetrics.DB0, "exists",
+                                () -> redisTemplate.hasKey(keyspace.key(key)));
+                        size = metrics.recordRedis(RetirementMetrics.DB0, "strlen",
+                                () -> redisTemplate.opsForValue().size(keyspace.key(key)));
+                    }
 
                     return "Redis is UP | Cache key " + key +
                             (Boolean.TRUE.equals(hasKey) ? " exists" : " does NOT exist") +
@@ -99,8 +159,18 @@ public class CacheService {
     /**
      * Refreshes the cache entry for the given lifestyle type key.
      * <p>
-     * Deletes the current cache entry and reloads the value from the database.
-     * Stores the new value in Redis as a formatted string.
+     * Reloads the value from the database with an uncached query, so rows changed outside the
+     * application are picked up, and overwrites the Redis entry in place with the new amount, in
+     * the form the calculations read. Calculations keep reading the old amount until then; the
+     * entry is only deleted if the row no longer exists. Then invalidates the near cache entry
+     * for the key on every instance.
+     * </p>
+     * <p>
+     * Concurrent refreshes of the same key share one reload: the first one queries the
+     * database and the others wait up to {@code retirement.near-cache.load-timeout} for its
+     * result, so a burst of refreshes costs one query. A refresh only joins a reload that has
+     * not queried the database yet; once it has, the next refresh starts a new reload, which
+     * waits for the previous one to write its value so the newer value is written last.
      * </p>
      *
      * @param key the lifestyle type key for which to refresh the cache
@@ -109,17 +179,7 @@ public class CacheService {
      */
     public String refreshCache(String key) {
         try {
-            redisTemplate.delete(key);
-
-            LifestyleDeposit freshValueFromDb = retirementRepository.findByLifestyleType(key)
-                    .orElseThrow(() -> new EntityNotFoundException("Deposit not found for key: " + key));
-
-            String valueAsString = "LifestyleType: " + freshValueFromDb.getLifestyleType()
-                    + ", Amount: " + freshValueFromDb.getMonthlyDeposit();
-
-            // Store refreshed value in Redis cache
-            redisTemplate.opsForValue().set(key, valueAsString);
-            return "Cache refreshed for key: " + key + " with value: " + valueAsString;
+            return refreshes.load(key, this::reloadDeposit);
         } catch (CacheUpdateException e) {
             throw new CacheUpdateException("Cache update failed");
         } catch (Exception e) {
@@ -127,38 +187,83 @@ public class CacheService {
         }
     }
 
+    private String reloadDeposit(String key) {
+        ReentrantLock reloadLock = reloadLocks[Math.floorMod(key.hashCode(), reloadLocks.length)];
+        reloadLock.lock();
+        try {
+            return reloadDepositLocked(key);
+        } finally {
+            reloadLock.unlock();
+            // Once the new value is written, so no instance reloads the old one meanwhile
+            invalidationBus.invalidate(key);
+        }
+    }
+
+    private String reloadDepositLocked(String key) {
+        // Refreshes from now on may follow a change this query does not see, so they start a new reload
+        refreshes.forget(key);
+        Optional<LifestyleDepositView> found = retirementRepository.findViewByLifestyleType(key);
+        if (found.isEmpty()) {
+            deleteDeposit(key);
+            throw new EntityNotFoundException("Deposit not found for key: " + key);
+        }
+        LifestyleDepositView freshValueFromDb = found.get();
+
+        // The plain amount, as written by refreshAllCache and parsed by the calculations
+        String valueAsString = String.valueOf(freshValueFromDb.getMonthlyDeposit());
+
+        writeDeposit(key, valueAsString);
+        return "Cache refreshed for key: " + key + " with value: " + valueAsString;
+    }
+
     /**
      * Refreshes all cache entries related to lifestyle deposits.
      * <p>
-     * Clears all lifestyle deposit keys from Redis, then fetches all lifestyle deposits
-     * from the database and caches them again.
+     * Republishes the lifestyle table under a new version next to the current one: the
+     * deposits are fetched from the database and written with one {@code MSET} (or one hash
+     * script call) per chunk, and the interest rates are copied over from the current version
+     * the same way. Only then does every instance switch to the new version through
+     * {@link LifestyleTableVersion} and clear its near cache through the
+     * {@link CacheInvalidationBus}. Readers keep reading the complete current version until
+     * the switch, so a refresh under load causes no misses, and a failed refresh leaves it
+     * untouched. The version replaced stays in Redis for instances that have not switched
+     * yet; older ones are deleted with incremental {@code SCAN} and bounded {@code DEL}s.
      * </p>
      *
      * @return message indicating the result of the operation
      */
     public String refreshAllCache() {
         try {
-            // Delete all keys (consider prefixing keys for safer deletion in production)
-            Set<String> keys = redisTemplate.keys("*");
-            if (keys != null && !keys.isEmpty()) {
-                redisTemplate.delete(keys);
-            }
-
-            // Fetch all deposits from DB and recache
-            List<LifestyleDeposit> allDeposits = retirementRepository.findAll();
+            List<LifestyleDepositView> allDeposits = retirementRepository.findAllViews();
 
             if (allDeposits.isEmpty()) {
                 return "No LifestyleDeposit records found in the database.";
             }
 
-            for (LifestyleDeposit deposit : allDeposits) {
-                String key = deposit.getLifestyleType();
-                String valueAsString = "LifestyleType: " + deposit.getLifestyleType()
-                        + ", Amount: " + deposit.getMonthlyDeposit();
+            long previous = keyspace.getVersion();
+            long version = tableVersion.allocate();
 
-                redisTemplate.opsForValue().set(key, valueAsString);
+            // Write the new version beside the current one, which readers keep using meanwhile
+            Map<String, String> batch = new LinkedHashMap<>();
+            for (LifestyleDepositView deposit : allDeposits) {
+                batch.put(deposit.getLifestyleType().toLowerCase(), String.valueOf(deposit.getMonthlyDeposit()));
+                if (batch.size() >= keyspace.getChunkSize()) {
+                    write(redisTemplate, RetirementMetrics.DB0, LifestyleHashStore.DEPOSIT, batch, version);
+                    batch = new LinkedHashMap<>();
+                }
             }
+            write(redisTemplate, RetirementMetrics.DB0, LifestyleHashStore.DEPOSIT, batch, version);
+            forEachInterestRateChunk(rates -> write(redisSecondTemplate, RetirementMetrics.DB1,
+                    LifestyleHashStore.RATE, rates, version));
 
+            if (!tableVersion.activate(version)) {
+                log.info("Version {} of the lifestyle table was superseded by a newer refresh", version);
+                return "Cache successfully refreshed for all LifestyleDeposit entries.";
+            }
+            invalidationBus.invalidateAll();
+            log.info("Switched from version {} to version {} of the lifestyle table", previous, version);
+
+            deleteVersionsBefore(previous);
             return "Cache successfully refreshed for all LifestyleDeposit entries.";
         } catch (CacheUpdateException e) {
             throw new CacheUpdateException("Cache update failed");
@@ -167,6 +272,41 @@ public class CacheService {
         }
     }
 
+    /**
+     * Rebuilds the {@link AnnuityFactorTable} from the interest rates currently in Redis DB 1,
+     * or in the lifestyle hashes with the hash layout.
+     * <p>
+     * Call this after the rate table has been changed outside the startup load. Keys are found
+     * with incremental {@code SCAN} and their rates read with one {@code MGET} per chunk.
+     * </p>
+     *
+     * @return the number of interest rates in the rebuilt table
+     * @throws CacheUpdateException if the rates cannot be read from Redis
+     */
+    public int refreshAnnuityTable() {
+        try {
+            Set<String> rates = new HashSet<>();
+            if (keyspace.isHashLayout()) {
+                forEachKeyChunk(redisTemplate, keyspace.hashPattern(), keys -> hashStore.readAll(lifestyleTypes(keys))
+                        .values().forEach(value -> rates.add(value.getInterestRate())));
+            } else {
+                forEachKeyChunk(redisSecondTemplate, keyspace.pattern(), keys -> {
+                    List<String> values = metrics.recordRedis(RetirementMetrics.DB1, "mget",
+                            () -> redisSecondTemplate.opsForValue().multiGet(keys));
+                    if (values != null) {
+                        rates.addAll(values);
+                    }
+                });
+            }
+
+            annuityTable.rebuild(rates);
+            return annuityTable.size();
+        } catch (Exception e) {
+            log.error("Error rebuilding the annuity factor table", e);
+            throw new CacheUpdateException("Annuity factor table refresh failed", e);
+        }
+    }
+
     /**
      * Fetches cached data for the given key.
      *
@@ -177,7 +317,10 @@ public class CacheService {
     public String fetchFromCache(String key) {
         try {
             log.info("Fetching data from cache for key: {}", key);
-            String cachedData = redisTemplate.opsForValue().get(key);
+            String cachedData = keyspace.isHashLayout()
+                    ? hashStore.read(key).getMonthlyDeposit()
+                    : metrics.recordRedis(RetirementMetrics.DB0, "get",
+                            () -> redisTemplate.opsForValue().get(keyspace.key(key)));
 
             if (cachedData == null) {
                 log.warn("No data found in cache for key: {}", key);
@@ -196,26 +339,43 @@ public class CacheService {
     }
 
 
+    /**
+     * Fetches the deposit and interest rate of every lifestyle key.
+     * <p>
+     * Keys are found with incremental {@code SCAN} on DB 0 and their values are read
+     * with one {@code MGET} per database for each bounded chunk of keys, or with one script
+     * call per chunk of hashes with the hash layout.
+     * </p>
+     *
+     * @return map of "&lt;lifestyle&gt;:deposit" and "&lt;lifestyle&gt;:interest" to their cached values
+     */
     public Map<String, String> fetchAllCache() {
         try {
-            Set<String> keys = redisTemplate.keys("*");
-            if (keys == null || keys.isEmpty()) {
-                log.warn("No keys found in Redis cache.");
-                return Collections.emptyMap();
+            Map<String, String> cacheData = new HashMap<>();
+            if (keyspace.isHashLayout()) {
+                forEachKeyChunk(redisTemplate, keyspace.hashPattern(), keys -> hashStore.readAll(lifestyleTypes(keys))
+                        .forEach((lifestyleType, rates) -> {
+                            cacheData.put(lifestyleType + ":deposit", rates.getMonthlyDeposit());
+                            cacheData.put(lifestyleType + ":interest", rates.getInterestRate());
+                        }));
+            } else {
+                forEachKeyChunk(redisTemplate, keyspace.pattern(), keys -> {
+                    List<String> depositValues = metrics.recordRedis(RetirementMetrics.DB0, "mget",
+                            () -> redisTemplate.opsForValue().multiGet(keys));
+                    List<String> interestValues = metrics.recordRedis(RetirementMetrics.DB1, "mget",
+                            () -> redisSecondTemplate.opsForValue().multiGet(keys));
+
+                    for (int i = 0; i < keys.size(); i++) {
+                        String lifestyleType = keyspace.lifestyleType(keys.get(i));
+                        cacheData.put(lifestyleType + ":deposit", depositValues != null ? depositValues.get(i) : null);
+                        cacheData.put(lifestyleType + ":interest", interestValues != null ? interestValues.get(i) : null);
+                    }
+                });
             }
 
-            List<String> depositValues = redisTemplate.opsForValue().multiGet(keys);
-            List<String> interestValues = redisSecondTemplate.opsForValue().multiGet(keys);
-
-            Map<String, String> cacheData = new HashMap<>();
-            int i = 0;
-            for (String key : keys) {
-                String depositValue = depositValues != null ? depositValues.get(i) : null;
-                String interestValue = interestValues != null ? interestValues.get(i) : null;
-
-                cacheData.put(key + ":deposit", depositValue);
-                cacheData.put(key + ":interest", interestValue);
-                i++;
+            if (cacheData.isEmpty()) {
+                log.warn("No keys found in Redis cache.");
+                return Collections.emptyMap();
             }
 
             log.info("Fetched {} entries from Redis cache.", cacheData.size());
@@ -229,7 +389,26 @@ public class CacheService {
 
 
     /**
-     * Updates the cache for the given key with the specified value.
+     * Returns the hit, miss and eviction counters of the in-process near cache.
+     *
+     * @return a map of counter names to values
+     */
+    public Map<String, Object> getNearCacheStats() {
+        return nearCache.stats();
+    }
+
+    /**
+     * Returns the hit, miss and eviction counters of the calculation result cache.
+     *
+     * @return a map of counter names to values
+     */
+    public Map<String, Object> getResultCacheStats() {
+        return resultCache.stats();
+    }
+
+    /**
+     * Updates the cache for the given key with the specified value
+     * and invalidates the near cache entry for the key.
      *
      * @param key   the cache key to update
      * @param value the value to set in the cache
@@ -238,7 +417,8 @@ public class CacheService {
     public void updateCache(String key, String value) {
         try {
             log.info("Updating cache for key: {} with value: {}", key, value);
-            redisTemplate.opsForValue().set(key, value);
+            writeDeposit(key, value);
+            invalidationBus.invalidate(key);
             log.debug("Cache updated for key: {}", key);
         } catch (RedisCacheUpdateException e) {
             log.error("Error updating cache for key {}: {}", key, e.getMessage());
@@ -249,14 +429,15 @@ public class CacheService {
     }
 
     /**
-     * Deletes the cache entry for the given key.
+     * Deletes the cache entry for the given key from Redis and the near cache.
      *
      * @param key the cache key to delete
      */
     public void deleteFromCache(String key) {
         try {
             log.info("Deleting cache for key: {}", key);
-            redisTemplate.delete(key);
+            deleteDeposit(key);
+            invalidationBus.invalidate(key);
             log.debug("Cache deleted for key: {}", key);
         } catch (RedisCacheDeleteException e) {
             log.error("Error deleting cache for key {}: {}", key, e.getMessage());
@@ -266,5 +447,246 @@ public class CacheService {
         }
     }
 
+    /**
+     * Stores a batch of deposits in one Redis round trip and invalidates the near cache and
+     * calculation results of the affected lifestyle types.
+     * <p>
+     * Writes with one {@code MSET} on DB 0, or one script call with the hash layout.
+     * </p>
+     *
+     * @param depositsByType the monthly deposit per lowercased lifestyle type
+     * @throws CacheUpdateException if the deposits cannot be written
+     */
+    public void writeDeposits(Map<String, String> depositsByType) {
+        writeBatch(redisTemplate, RetirementMetrics.DB0, LifestyleHashStore.DEPOSIT, depositsByType);
+    }
+
+    /**
+     * Stores a batch of interest rates in one Redis round trip and invalidates the near cache
+     * and calculation results of the affected lifestyle types.
+     * <p>
+     * Writes with one {@code MSET} on DB 1, or one script call with the hash layout. The
+     * {@link AnnuityFactorTable} is not rebuilt; call {@link #refreshAnnuityTable()} once the
+     * last batch is written.
+     * </p>
+     *
+     * @param ratesByType the interest rate per lowercased lifestyle type
+     * @throws CacheUpdateException if the rates cannot be written
+     */
+    public void writeRates(Map<String, String> ratesByType) {
+        writeBatch(redisSecondTemplate, RetirementMetrics.DB1, LifestyleHashStore.RATE, ratesByType);
+    }
+
+    /**
+     * Passes every cached interest rate to the action, one chunk at a time.
+     * <p>
+     * Keys are found with incremental {@code SCAN} and read with one {@code MGET} per chunk, or
+     * one script call per chunk of hashes with the hash layout, so only one chunk is held in memory.
+     * </p>
+     *
+     * @param action receives the interest rate per lifestyle type of each chunk; lifestyle types
+     *               without a rate are left out
+     */
+    public void forEachInterestRateChunk(Consumer<Map<String, String>> action) {
+        if (keyspace.isHashLayout()) {
+            forEachKeyChunk(redisTemplate, keyspace.hashPattern(), keys -> {
+                Map<String, String> rates = new LinkedHashMap<>();
+                hashStore.readAll(lifestyleTypes(keys)).forEach((lifestyleType, values) -> {
+                    if (values.getInterestRate() != null) {
+                        rates.put(lifestyleType, values.getInterestRate());
+                    }
+                });
+                action.accept(rates);
+            });
+        } else {
+            forEachKeyChunk(redisSecondTemplate, keyspace.pattern(), keys -> {
+                List<String> values = metrics.recordRedis(RetirementMetrics.DB1, "mget",
+                        () -> redisSecondTemplate.opsForValue().multiGet(keys));
+                Map<String, String> rates = new LinkedHashMap<>();
+                for (int i = 0; values != null && i < keys.size(); i++) {
+                    if (values.get(i) != null) {
+                        rates.put(keyspace.lifestyleType(keys.get(i)), values.get(i));
+                    }
+                }
+                action.accept(rates);
+            });
+        }
+    }
+
+    /**
+     * Copies the deposits (DB 0) and interest rates (DB 1) of the split layout into the
+     * lifestyle hashes of the hash layout.
+     * <p>
+     * Works under either layout and leaves the split keys untouched, so the application can
+     * keep serving from them until it is restarted with {@code retirement.redis.layout=hash}, and
+     * can be switched back if needed. Keys are found with incremental {@code SCAN}, read with one
+     * {@code MGET} and written with one script call per chunk. Running it again overwrites the
+     * hashes with the current split values. At startup with the hash layout the loader rewrites
+     * every hash from the database and the CSV file, so the migration is only needed to carry
+     * over values changed in Redis since the last load.
+     * </p>
+     *
+     * @return the number of deposits and interest rates copied
+     * @throws CacheUpdateException if the values cannot be copied
+     */
+    public Map<String, Long> migrateToHashLayout() {
+        try {
+            long deposits = copyToHashes(redisTemplate, RetirementMetrics.DB0, LifestyleHashStore.DEPOSIT);
+            long rates = copyToHashes(redisSecondTemplate, RetirementMetrics.DB1, LifestyleHashStore.RATE);
+            log.info("Copied {} deposits and {} interest rates into lifestyle hashes", deposits, rates);
+
+            Map<String, Long> copied = new LinkedHashMap<>();
+            copied.put("deposits", deposits);
+            copied.put("rates", rates);
+            return copied;
+        } catch (Exception e) {
+            log.error("Error migrating the lifestyle keys to the hash layout", e);
+            throw new CacheUpdateException("Migration to the hash layout failed", e);
+        }
+    }
+
+    private long copyToHashes(StringRedisTemplate template, String database, String field) {
+        long[] copied = { 0 };
+        forEachKeyChunk(template, keyspace.pattern(), keys -> {
+            List<String> values = metrics.recordRedis(database, "mget", () -> template.opsForValue().multiGet(keys));
+            Map<String, String> batch = new LinkedHashMap<>();
+            for (int i = 0; values != null && i < keys.size(); i++) {
+                if (values.get(i) != null) {
+                    batch.put(keyspace.lifestyleType(keys.get(i)), values.get(i));
+                }
+            }
+            if (!batch.isEmpty()) {
+                copied[0] += hashStore.write(field, batch);
+            }
+        });
+        return copied[0];
+    }
+
+    private void writeBatch(StringRedisTemplate template, String database, String field, Map<String, String> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            write(template, database, field, batch, keyspace.getVersion());
+        } catch (Exception e) {
+            throw new CacheUpdateException("Writing " + batch.size() + " lifestyle values to Redis failed", e);
+        } finally {
+            // Also after a failure, as part of the batch may have been written
+            invalidationBus.invalidate(batch.keySet());
+        }
+    }
 
+    /**
+     * Writes a batch of deposits or interest rates into a version of the lifestyle table in
+     * the configured layout, with one {@code MSET} or one hash script call.
+     */
+    private void write(StringRedisTemplate template, String database, String field, Map<String, String> batch, long version) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        if (keyspace.isHashLayout()) {
+            hashStore.write(field, batch, version);
+        } else {
+            Map<String, String> keyed = new LinkedHashMap<>();
+            batch.forEach((lifestyleType, value) -> keyed.put(keyspace.key(lifestyleType, version), value));
+            metrics.recordRedis(database, "mset", () -> template.opsForValue().multiSet(keyed));
+        }
+    }
+
+    /**
+     * Deletes the lifestyle keys of every version of the lifestyle table older than the given
+     * one. Versions being written by a concurrent refresh are newer and left alone.
+     */
+    private void deleteVersionsBefore(long version) {
+        if (version == 0) {
+            return;
+        }
+        Predicate<String> older = key -> keyspace.version(key) < version;
+        if (keyspace.isHashLayout()) {
+            forEachKeyChunk(redisTemplate, keyspace.hashPattern(0), older, keys -> metrics.recordRedis(RetirementMetrics.DB0, "del",
+                    () -> redisTemplate.delete(keys)));
+        } else {
+            forEachKeyChunk(redisTemplate, keyspace.pattern(0), older, keys -> metrics.recordRedis(RetirementMetrics.DB0, "del",
+                    () -> redisTemplate.delete(keys)));
+            forEachKeyChunk(redisSecondTemplate, keyspace.pattern(0), older, keys -> metrics.recordRedis(RetirementMetrics.DB1, "del",
+                    () -> redisSecondTemplate.delete(keys)));
+        }
+    }
+
+    /**
+     * Stores the deposit of a lifestyle type in the configured layout.
+     */
+    private void writeDeposit(String key, String value) {
+        if (keyspace.isHashLayout()) {
+            hashStore.write(LifestyleHashStore.DEPOSIT, Map.of(key, value));
+        } else {
+            metrics.recordRedis(RetirementMetrics.DB0, "set", () -> redisTemplate.opsForValue().set(keyspace.key(key), value));
+        }
+    }
+
+    /**
+     * Removes the deposit of a lifestyle type from the configured layout.
+     */
+    private void deleteDeposit(String key) {
+        if (keyspace.isHashLayout()) {
+            hashStore.remove(LifestyleHashStore.DEPOSIT, List.of(key));
+        } else {
+            metrics.recordRedis(RetirementMetrics.DB0, "del", () -> redisTemplate.delete(keyspace.key(key)));
+        }
+    }
+
+    private List<String> lifestyleTypes(List<String> keys) {
+        return keys.stream().map(keyspace::lifestyleType).toList();
+    }
+
+    /**
+     * Iterates the keys of a Redis database matching a pattern with incremental {@code SCAN} and
+     * passes them to the action in chunks of at most {@link RedisKeyspace#getChunkSize()} keys.
+     * Only keys of the version of the lifestyle table the pattern belongs to are passed on, as
+     * the pattern of the unversioned keys also matches the versioned ones.
+     *
+     * @param template the template of the database to scan
+     * @param pattern  the {@code SCAN MATCH} pattern of the keys
+     * @param action   the action applied to each chunk of keys
+     */
+    private void forEachKeyChunk(StringRedisTemplate template, String pattern, Consumer<List<String>> action) {
+        long version = keyspace.version(pattern);
+        forEachKeyChunk(template, pattern, key -> keyspace.version(key) == version, action);
+    }
+
+    /**
+     * Iterates the keys of a Redis database matching a pattern and a filter with incremental
+     * {@code SCAN} and passes them to the action in chunks of at most
+     * {@link RedisKeyspace#getChunkSize()} keys.
+     *
+     * @param template the template of the database to scan
+     * @param pattern  the {@code SCAN MATCH} pattern of the keys
+     * @param filter   the keys passed on
+     * @param action   the action applied to each chunk of keys
+     */
+    private void forEachKeyChunk(StringRedisTemplate template, String pattern, Predicate<String> filter,
+                                 Consumer<List<String>> action) {
+        ScanOptions options = ScanOptions.scanOptions()
+                .match(pattern)
+                .count(keyspace.getScanCount())
+                .build();
+
+        List<String> chunk = new ArrayList<>(keyspace.getChunkSize());
+        try (Cursor<String> cursor = template.scan(options)) {
+            while (cursor.hasNext()) {
+                String key = cursor.next();
+                if (!filter.test(key)) {
+                    continue;
+                }
+                chunk.add(key);
+                if (chunk.size() >= keyspace.getChunkSize()) {
+                    action.accept(chunk);
+                    chunk = new ArrayList<>(keyspace.getChunkSize());
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            action.accept(chunk);
+        }
+    }
 }
@@ -0,0 +1,140 @@
+package com.example.retirementCalculator.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Memoizes the future value of identical retirement plans.
+ * <p>
+ * Entries are keyed on the normalized (current age, retirement age, interest rate,
+ * lifestyle type, monthly deposit) tuple: the lifestyle type is lowercased and both
+ * amounts have their trailing zeros stripped, so {@code 5}, {@code 5.0} and {@code 5.00}
+ * share one entry. The rate and deposit in the key are the values the calculation used,
+ * so an entry can never be returned for a plan whose inputs differ.
+ * </p>
+ * <p>
+ * The cache is bounded in size and evicts the least valuable entries once full.
+ * Writes made through {@link CacheService} drop the entries of the affected lifestyle type,
+ * so memory is not held by results for deposits or rates that no longer exist.
+ * Hits, misses and evictions are published as Micrometer {@code cache.*} meters tagged
+ * {@code cache=calculation}.
+ * </p>
+ *
+ * @author Priscilla Masunyane
+ */
+@Component
+public class CalculationResultCache implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(CalculationResultCache.class);
+
+    private final Cache<Key, BigDecimal> cache;
+
+    /**
+     * Constructs a new {@code CalculationResultCache}.
+     *
+     * @param maxSize maximum number of calculation results kept in memory
+     */
+    @Autowired
+    public CalculationResultCache(@Value("${retirement.result-cache.max-size:10000}") long maxSize) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns the memoized future value of a plan, computing it on a miss.
+     *
+     * @param currentAge     the current age of the plan
+     * @param retirementAge  the retirement age of the plan
+     * @param interestRate   the annual interest rate used by the calculation
+     * @param lifestyleType  the lifestyle type of the plan
+     * @param monthlyDeposit the monthly deposit used by the calculation
+     * @param calculator     computes the future value on a miss
+     * @return the cached or freshly computed future value
+     */
+    public BigDecimal futureValue(int currentAge, int retirementAge, BigDecimal interestRate,
+                                  String lifestyleType, BigDecimal monthlyDeposit,
+                                  Supplier<BigDecimal> calculator) {
+        Key key = new Key(currentAge, retirementAge, interestRate.stripTrailingZeros(),
+                lifestyleType.toLowerCase(), monthlyDeposit.stripTrailingZeros());
+        return cache.get(key, k -> calculator.get());
+    }
+
+    /**
+     * Removes every result calculated for a lifestyle type.
+     *
+     * @param lifestyleType the lowercased lifestyle type
+     */
+    public void invalidateLifestyle(String lifestyleType) {
+        log.debug("Invalidating calculation results for lifestyle type: {}", lifestyleType);
+        cache.asMap().keySet().removeIf(key -> key.lifestyleType().equals(lifestyleType));
+    }
+
+    /**
+     * Removes every result calculated for any of the given lifestyle types, in one pass over the cache.
+     *
+     * @param lifestyleTypes the lowercased lifestyle types
+     */
+    public void invalidateLifestyles(Collection<String> lifestyleTypes) {
+        Set<String> types = new HashSet<>(lifestyleTypes);
+        log.debug("Invalidating calculation results for {} lifestyle types", types.size());
+        cache.asMap().keySet().removeIf(key -> types.contains(key.lifestyleType()));
+    }
+
+    /**
+     * Removes every calculation result.
+     */
+    public void invalidateAll() {
+        log.debug("Invalidating all calculation results");
+        cache.invalidateAll();
+    }
+
+    /**
+     * Publishes the result cache statistics to the meter registry.
+     *
+     * @param registry the registry to bind to
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "calculation");
+    }
+
+    /**
+     * Returns the hit, miss and eviction counters of the result cache.
+     *
+     * @return a map of counter names to values
+     */
+    public Map<String, Object> stats() {
+        cache.cleanUp(); // run pending evictions so the eviction count is current
+        CacheStats stats = cache.stats();
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("size", cache.estimatedSize());
+        response.put("hitCount", stats.hitCount());
+        response.put("missCount", stats.missCount());
+        response.put("hitRate", stats.hitRate());
+        response.put("evictionCount", stats.evictionCount());
+        return response;
+    }
+
+    private record Key(int currentAge, int retirementAge, BigDecimal interestRate,
+                       String lifestyleType, BigDecimal monthlyDeposit) {
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.retirementCalculator.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Future value of a series of equal monthly deposits (ordinary annuity):
+ * <pre>
+ *   FV = deposit * ((1 + r)^n - 1) / r
+ * </pre>
+ * where {@code r} is the annual interest rate (as a percentage) divided by 1200,
+ * rounded to 10 decimals, and {@code n} is the number of months.
+ * <p>
+ * Results are rounded to 2 decimals, HALF_UP. See {@link CalculationMode}
+ * for the difference between the exact and fast paths.
+ * </p>
+ *
+ * @author Priscilla Masunyane
+ */
+public final class FutureValueCalculator {
+
+    /**
+     * Number of decimals the monthly interest rate is rounded to.
+     */
+    public static final int RATE_SCALE = 10;
+
+    private static final double RATE_SCALE_FACTOR = 1e10;
+
+    private FutureValueCalculator() {
+    }
+
+    /**
+     * Calculates the future value with the given calculation mode.
+     *
+     * @param mode           the arithmetic to use
+     * @param monthlyDeposit the amount deposited every month
+     * @param annualRate     the annual interest rate as a percentage (e.g. 5.5)
+     * @param months         the number of monthly deposits
+     * @return the future value rounded to 2 decimals
+     */
+    public static BigDecimal futureValue(CalculationMode mode, BigDecimal monthlyDeposit, BigDecimal annualRate, int months) {
+        if (mode == CalculationMode.FAST) {
+            return fastFutureValue(monthlyDeposit.doubleValue(), annualRate.doubleValue(), months);
+        }
+        return exactFutureValue(monthlyDeposit, annualRate, months);
+    }
+
+    /**
+     * Calculates the future value with exact {@link BigDecimal} arithmetic.
+     *
+     * @param monthlyDeposit the amount deposited every month
+     * @param annualRate     the annual interest rate as a percentage (e.g. 5.5)
+     * @param months         the number of monthly deposits
+     * @return the future value rounded to 2 decimals
+     */
+    public static BigDecimal exactFutureValue(BigDecimal monthlyDeposit, BigDecimal annualRate, int months) {
+        BigDecimal monthlyInterestRate = annualRate.divide(BigDecimal.valueOf(100 * 12), RATE_SCALE, RoundingMode.HALF_UP);
+
+        BigDecimal futureValue;
+
+        if (monthlyInterestRate.compareTo(BigDecimal.ZERO) == 0) {
+            futureValue = monthlyDeposit.multiply(BigDecimal.valueOf(months));
+        } else {
+            BigDecimal onePlusRPowerN = (BigDecimal.ONE.add(monthlyInterestRate)).pow(months);
+            futureValue = monthlyDeposit.multiply(onePlusRPowerN.subtract(BigDecimal.ONE))
+                    .divide(monthlyInterestRate, RATE_SCALE, RoundingMode.HALF_UP);
+        }
+
+        return futureValue.setScale(2, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Calculates the future value in primitive doubles.
+     *
+     * @param monthlyDeposit the amount deposited every month
+     * @param annualRate     the annual interest rate as a percentage (e.g. 5.5)
+     * @param months         the number of monthly deposits
+     * @return the future value rounded to 2 decimals
+     */
+    public static BigDecimal fastFutureValue(double monthlyDeposit, double annualRate, int months) {
+        return new BigDecimal(rawFutureValue(monthlyDeposit, monthlyRate(annualRate), months))
+                .setScale(2, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Calculates the unrounded future value in primitive doubles.
+     *
+     * @param monthlyDeposit the amount deposited every month
+     * @param monthlyRate    the monthly interest rate as a fraction (see {@link #monthlyRate(double)})
+     * @param months         the number of monthly deposits
+     * @return the unrounded future value
+     */
+    public static double rawFutureValue(double monthlyDeposit, double monthlyRate, int months) {
+        if (monthlyRate == 0) {
+            return monthlyDeposit * months;
+        }
+        return monthlyDeposit * (Math.expm1(months * Math.log1p(monthlyRate)) / monthlyRate);
+    }
+
+    /**
+     * Converts an annual percentage rate to the monthly rate used by the exact path,
+     * rounded to {@link #RATE_SCALE} decimals, HALF_UP.
+     *
+     * @param annualRate the annual interest rate as a percentage (e.g. 5.5)
+     * @return the monthly interest rate as a fraction
+     */
+    public static double monthlyRate(double annualRate) {
+        return Math.floor(annualRate / 1200 * RATE_SCALE_FACTOR + 0.5) / RATE_SCALE_FACTOR;
+    }
+}
@@ -0,0 +1,242 @@
+package com.example.retirementCalculator.service;
+
+import com.example.retirementCalculator.entity.GoalSeekBatchResult;
+import com.example.retirementCalculator.entity.GoalSeekRequest;
+import com.example.retirementCalculator.entity.GoalSeekResult;
+import com.example.retirementCalculator.entity.LifestyleRates;
+import com.example.retirementCalculator.entity.Retirement;
+import com.example.retirementCalculator.exception.CalculationException;
+import com.example.retirementCalculator.exception.InvalidInputException;
+import com.example.retirementCalculator.exception.LifestyleNotFoundException;
+import com.example.retirementCalculator.exception.RetirementCalculatorException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Service answering the inverse of a retirement plan calculation: the monthly deposit,
+ * interest rate or retirement age needed to reach a target amount.
+ * <p>
+ * Plans are validated and their lifestyle data resolved the same way as in
+ * {@link RetirementService}, and the unknown is found with {@link GoalSeekSolver}. The
+ * reported future value comes from the forward calculation,
+ * {@link RetirementService#futureValue(BigDecimal, BigDecimal, int)}, so resubmitting the
+ * solved plan to {@code /retirement-plans/calculate} reproduces it.
+ * </p>
+ *
+ * @author Priscilla Masunyane
+ */
+@Service
+public class GoalSeekService {
+
+    private static final BigDecimal ONE_CENT = new BigDecimal("0.01");
+    private static final BigDecimal RATE_STEP = BigDecimal.valueOf(1, 4);
+
+    private static final Logger log = LoggerFactory.getLogger(GoalSeekService.class);
+
+    private final RetirementService retirementService;
+    private final RetirementMetrics metrics;
+
+    /**
+     * Maximum number of requests accepted by {@link #solveAll(List)} in a single call.
+     */
+    @Value("${retirement.batch.max-size:1000}")
+    private int maxBatchSize = 1000;
+
+    /**
+     * Latest retirement age considered when solving for the retirement age.
+     */
+    @Value("${retirement.goal-seek.max-retirement-age:100}")
+    private int maxRetirementAge = 100;
+
+    @Autowired
+    public GoalSeekService(RetirementService retirementService, RetirementMetrics metrics) {
+        this.retirementService = retirementService;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Solves a single goal-seek request.
+     *
+     * @param request the plan, the target amount and the parameter to solve for
+     * @return the solved plan and its future value
+     * @throws InvalidInputException      if any of the input values are invalid or the target cannot be reached
+     * @throws LifestyleNotFoundException if the lifestyle type is not found in Redis cache
+     * @throws CalculationException       if the lifestyle data cannot be read from Redis
+     */
+    public GoalSeekResult solve(GoalSeekRequest request) {
+        return metrics.recordCalculation("goal-seek", () -> {
+            GoalSeekTarget solveFor = validateInput(request);
+            Retirement plan = plan(request, solveFor);
+            return solve(request, solveFor, plan, retirementService.lifestyleRates(plan));
+        });
+    }
+
+    /**
+     * Solves a batch of goal-seek requests in a single call.
+     * <p>
+     * As in {@link RetirementService#calculatePlans(List)}, the lifestyle data of the batch
+     * is resolved once for each distinct lifestyle type, and a request that fails gets an
+     * error entry while the remaining requests are still solved.
+     * </p>
+     *
+     * @param requests the requests to solve
+     * @return one {@link GoalSeekBatchResult} per request, in input order
+     * @throws InvalidInputException if the batch exceeds the configured maximum size
+     * @throws CalculationException  if the lifestyle data cannot be read from Redis
+     */
+    public List<GoalSeekBatchResult> solveAll(List<GoalSeekRequest> requests) {
+        return metrics.recordCalculation("goal-seek-batch", () -> {
+            if (requests.size() > maxBatchSize) {
+                throw new InvalidInputException("Batch", "must not contain more than " + maxBatchSize + " requests");
+            }
+            log.info("Starting batch goal-seek for {} requests", requests.size());
+
+            Map<String, LifestyleRates> rates = retirementService.lifestyleRates(requests.stream()
+                    .filter(request -> request != null && request.getLifestyleType() != null)
+                    .map(request -> request.getLifestyleType().toLowerCase())
+                    .distinct()
+                    .collect(Collectors.toList()));
+
+            List<GoalSeekBatchResult> results = new ArrayList<>(requests.size());
+            for (int i = 0; i < requests.size(); i++) {
+                GoalSeekRequest request = requests.get(i);
+                try {
+                    if (request == null) {
+                        throw new InvalidInputException("Request", "cannot be null");
+                    }
+                    GoalSeekTarget solveFor = validateInput(request);
+                    Retirement plan = plan(request, solveFor);
+                    LifestyleRates lifestyleRates = rates.get(plan.getLifestyleType().toLowerCase());
+                    retirementService.requireComplete(plan, lifestyleRates);
+                    results.add(GoalSeekBatchResult.success(i, solve(request, solveFor, plan, lifestyleRates)));
+                } catch (RetirementCalculatorException e) {
+                    metrics.recordError(e);
+                    results.add(GoalSeekBatchResult.failure(i, e.getErrorCode(), e.getMessage()));
+                } catch (Exception e) {
+                    log.error("Unexpected error during batch goal-seek of request {}", i, e);
+                    CalculationException error = new CalculationException("Unexpected error during goal-seek");
+                    metrics.recordError(error);
+                    results.add(GoalSeekBatchResult.failure(i, error.getErrorCode(), error.getMessage()));
+                }
+            }
+
+            log.info("Completed batch goal-seek for {} requests", requests.size());
+            return results;
+        });
+    }
+
+    /**
+     * Validates the user input of a single request.
+     *
+     * @param request the request to validate
+     * @return the parameter to solve for
+     * @throws InvalidInputException if a required value is missing or out of range
+     */
+    private GoalSeekTarget validateInput(GoalSeekRequest request) {
+        GoalSeekTarget solveFor = GoalSeekTarget.fromValue(request.getSolveFor());
+        if (solveFor == GoalSeekTarget.RETIREMENT_AGE && request.getCurrentAge() != null
+                && request.getCurrentAge() >= maxRetirementAge) {
+            throw new InvalidInputException("Current Age", "must be less than " + maxRetirementAge);
+        }
+        retirementService.validateInput(plan(request, solveFor));
+
+        if (request.getTargetAmount() == null) {
+            throw new InvalidInputException("Target Amount", "cannot be null");
+        }
+        if (request.getTargetAmount().signum() <= 0) {
+            throw new InvalidInputException("Target Amount", "must be greater than 0");
+        }
+        if (request.getMonthlyDeposit() != null && request.getMonthlyDeposit().signum() <= 0) {
+            throw new InvalidInputException("Monthly Deposit", "must be greater than 0");
+        }
+        return solveFor;
+    }
+
+    /**
+     * Returns the plan of a request; when solving for the retirement age it is validated as
+     * if retiring at the latest age considered.
+     */
+    private Retirement plan(GoalSeekRequest request, GoalSeekTarget solveFor) {
+        Integer retirementAge = solveFor == GoalSeekTarget.RETIREMENT_AGE ? Integer.valueOf(maxRetirementAge) : request.getRetirementAge();
+        return new Retirement(request.getCurrentAge(), retirementAge, request.getInterestRate(), request.getLifestyleType());
+    }
+
+    private GoalSeekResult solve(GoalSeekRequest request, GoalSeekTarget solveFor, Retirement plan, LifestyleRates rates) {
+        BigDecimal targetAmount = request.getTargetAmount().setScale(2, RoundingMode.CEILING);
+        BigDecimal monthlyDeposit = request.getMonthlyDeposit() != null
+                ? request.getMonthlyDeposit()
+                : new BigDecimal(rates.getMonthlyDeposit());
+        BigDecimal interestRate = request.getInterestRate() != null
+                ? BigDecimal.valueOf(request.getInterestRate())
+                : new BigDecimal(rates.getInterestRate());
+        int currentAge = plan.getCurrentAge();
+        int retirementAge = plan.getRetirementAge();
+        double target = targetAmount.doubleValue();
+
+        switch (solveFor) {
+            case DEPOSIT -> monthlyDeposit = BigDecimal.valueOf(GoalSeekSolver.requiredDepositCents(target,
+                    FutureValueCalculator.monthlyRate(interestRate.doubleValue()), (retirementAge - currentAge) * 12), 2);
+            case INTEREST_RATE -> {
+                requirePositive(monthlyDeposit);
+                double annualRate = GoalSeekSolver.requiredAnnualRate(monthlyDeposit.doubleValue(), target,
+                        (retirementAge - currentAge) * 12);
+                if (Double.isNaN(annualRate)) {
+                    throw new InvalidInputException("Target Amount",
+                            "cannot be reached with an interest rate of up to " + (int) GoalSeekSolver.MAX_ANNUAL_RATE + "%");
+                }
+                interestRate = BigDecimal.valueOf(annualRate);
+            }
+            case RETIREMENT_AGE -> {
+                requirePositive(monthlyDeposit);
+                int years = GoalSeekSolver.requiredYears(monthlyDeposit.doubleValue(),
+                        FutureValueCalculator.monthlyRate(interestRate.doubleValue()), target, maxRetirementAge - currentAge);
+                if (years < 0) {
+                    throw new InvalidInputException("Target Amount", "cannot be reached by age " + maxRetirementAge);
+                }
+                retirementAge = currentAge + years;
+            }
+        }
+
+        BigDecimal futureValue = retirementService.futureValue(monthlyDeposit, interestRate, (retirementAge - currentAge) * 12);
+        if (futureValue.compareTo(targetAmount) < 0) {
+            // The solver works in doubles; in exact mode the result can round one cent short,
+            // and the next step up always reaches the target.
+            switch (solveFor) {
+                case DEPOSIT -> monthlyDeposit = monthlyDeposit.add(ONE_CENT);
+                case INTEREST_RATE -> interestRate = interestRate.add(RATE_STEP);
+                case RETIREMENT_AGE -> retirementAge++;
+            }
+            futureValue = retirementService.futureValue(monthlyDeposit, interestRate, (retirementAge - currentAge) * 12);
+        }
+
+        log.debug("Solved {} for lifestyle type {}: deposit {}, rate {}, retirement age {}",
+                solveFor, plan.getLifestyleType(), monthlyDeposit, interestRate, retirementAge);
+
+        return GoalSeekResult.builder()
+                .solvedFor(solveFor.name().toLowerCase())
+                .currentAge(currentAge)
+                .retirementAge(retirementAge)
+                .interestRate(interestRate.doubleValue())
+                .lifestyleType(plan.getLifestyleType())
+                .monthlyDeposit(monthlyDeposit)
+                .targetAmount(request.getTargetAmount())
+                .futureValue(futureValue)
+                .build();
+    }
+
+    private static void requirePositive(BigDecimal monthlyDeposit) {
+        if (monthlyDeposit.signum() <= 0) {
+            throw new InvalidInputException("Monthly Deposit", "must be greater than 0");
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.example.retirementCalculator.service;
+
+/**
+ * Inverse of {@link FutureValueCalculator}: finds the plan parameter that makes
+ * <pre>
+ *   FV = deposit * ((1 + r)^n - 1) / r
+ * </pre>
+ * reach a target amount, the other parameters being fixed.
+ * <p>
+ * The deposit and the horizon have closed forms:
+ * {@code deposit = target / (((1 + r)^n - 1) / r)} and
+ * {@code n = log(1 + target * r / deposit) / log(1 + r)}. The rate has none and is found with
+ * Newton's method on the annuity formula, safeguarded by bisection and bounded to
+ * {@value #MAX_ITERATIONS} iterations.
+ * </p>
+ * <p>
+ * Every solution is rounded up to the precision a plan is expressed in (cents, 0.0001% or
+ * whole years) and then moved by single steps until it is the smallest value whose future
+ * value, rounded to cents, reaches the target. The arithmetic is the primitive double path
+ * of {@link CalculationMode#FAST} with the monthly rate rounded as in
+ * {@link FutureValueCalculator#monthlyRate(double)}, so solving allocates nothing.
+ * </p>
+ *
+ * @author Priscilla Masunyane
+ */
+public final class GoalSeekSolver {
+
+    /**
+     * Maximum number of Newton or bisection iterations when solving for the rate.
+     */
+    public static final int MAX_ITERATIONS = 100;
+
+    /**
+     * Highest annual interest rate, as a percentage, the rate is searched up to.
+     */
+    public static final double MAX_ANNUAL_RATE = 100;
+
+    /**
+     * Number of steps per percentage point of a solved annual rate, i.e. 4 decimals.
+     */
+    public static final int RATE_STEPS_PER_PERCENT = 10_000;
+
+    private static final double HALF_CENT = 0.005;
+    private static final double RATE_TOLERANCE = 1e-12;
+
+    private GoalSeekSolver() {
+    }
+
+    /**
+     * Calculates the smallest monthly deposit that reaches the target.
+     *
+     * @param targetAmount the amount to reach
+     * @param monthlyRate  the monthly interest rate as a fraction (see {@link FutureValueCalculator#monthlyRate(double)})
+     * @param months       the number of monthly deposits, at least 1
+     * @return the required monthly deposit in cents
+     */
+    public static long requiredDepositCents(double targetAmount, double monthlyRate, int months) {
+        double factor = FutureValueCalculator.rawFutureValue(1, monthlyRate, months);
+        long cents = (long) Math.ceil(targetAmount * 100 / factor);
+
+        while (cents > 0 && reaches((cents - 1) / 100.0 * factor, targetAmount)) {
+            cents--;
+        }
+        while (!reaches(cents / 100.0 * factor, targetAmount)) {
+            cents++;
+        }
+        return cents;
+    }
+
+    /**
+     * Calculates the smallest annual interest rate, in steps of 0.0001%, that reaches the target.
+     *
+     * @param monthlyDeposit the amount deposited every month
+     * @param targetAmount   the amount to reach
+     * @param months         the number of monthly deposits
+     * @return the required annual interest rate as a percentage, or {@link Double#NaN} if
+     * even {@value #MAX_ANNUAL_RATE}% does not reach the target
+     */
+    public static double requiredAnnualRate(double monthlyDeposit, double targetAmount, int months) {
+        double monthlyRate = requiredMonthlyRate(monthlyDeposit, targetAmount, months);
+        if (Double.isNaN(monthlyRate)) {
+            return Double.NaN;
+        }
+
+        long maxSteps = (long) (MAX_ANNUAL_RATE * RATE_STEPS_PER_PERCENT);
+        long steps = Math.min(maxSteps, (long) Math.ceil(monthlyRate * 1200 * RATE_STEPS_PER_PERCENT));
+        while (steps > 0 && reachesAtRate(monthlyDeposit, steps - 1, months, targetAmount)) {
+            steps--;
+        }
+        while (!reachesAtRate(monthlyDeposit, steps, months, targetAmount)) {
+            if (++steps > maxSteps) {
+                return Double.NaN;
+            }
+        }
+        return steps / (double) RATE_STEPS_PER_PERCENT;
+    }
+
+    /**
+     * Solves the annuity formula for the unrounded monthly rate.
+     * <p>
+     * Starts from the first-order estimate {@code FV ≈ deposit * n * (1 + r * (n - 1) / 2)}
+     * and takes Newton steps, keeping a bracket around the root; a step that leaves the
+     * bracket is replaced by a bisection. The future value is convex in the rate, so
+     * convergence is quadratic once a step lands above the root.
+     * </p>
+     *
+     * @param monthlyDeposit the amount deposited every month
+     * @param targetAmount   the amount to reach
+     * @param months         the number of monthly deposits
+     * @return the monthly rate as a fraction, {@code 0} if the deposits alone reach the target,
+     * or {@link Double#NaN} if even {@value #MAX_ANNUAL_RATE}% does not reach the target
+     */
+    static double requiredMonthlyRate(double monthlyDeposit, double targetAmount, int months) {
+        if (reaches(monthlyDeposit * months, targetAmount)) {
+            return 0;
+        }
+        double low = 0;
+        double high = FutureValueCalculator.monthlyRate(MAX_ANNUAL_RATE);
+        if (!reaches(FutureValueCalculator.rawFutureValue(monthlyDeposit, high, months), targetAmount)) {
+            return Double.NaN;
+        }
+
+        double rate = months > 1 ? 2 * (targetAmount / (monthlyDeposit * months) - 1) / (months - 1) : high;
+        for (int i = 0; i < MAX_ITERATIONS; i++) {
+            if (!(rate > low && rate < high)) {
+                rate = (low + high) / 2;
+            }
+            double growthMinusOne = Math.expm1(months * Math.log1p(rate));
+            double error = monthlyDeposit * growthMinusOne / rate - targetAmount;
+            if (error < 0) {
+                low = rate;
+            } else {
+                high = rate;
+            }
+
+            double slope = monthlyDeposit * (months * (growthMinusOne + 1) / (1 + rate) - growthMinusOne / rate) / rate;
+            double step = error / slope;
+            rate -= step;
+            if (Math.abs(step) <= RATE_TOLERANCE * rate || high - low <= RATE_TOLERANCE * high) {
+                break;
+            }
+        }
+        return Math.max(low, Math.min(rate, high));
+    }
+
+    /**
+     * Calculates the smallest whole number of years of deposits that reaches the target.
+     *
+     * @param monthlyDeposit the amount deposited every month
+     * @param monthlyRate    the monthly interest rate as a fraction (see {@link FutureValueCalculator#monthlyRate(double)})
+     * @param targetAmount   the amount to reach
+     * @param maxYears       the longest horizon allowed, in years
+     * @return the required number of years, or {@code -1} if {@code maxYears} does not reach the target
+     */
+    public static int requiredYears(double monthlyDeposit, double monthlyRate, double targetAmount, int maxYears) {
+        if (monthlyDeposit <= 0 || maxYears < 1) {
+            return -1;
+        }
+
+        double months = monthlyRate == 0
+                ? targetAmount / monthlyDeposit
+                : Math.log1p(targetAmount * monthlyRate / monthlyDeposit) / Math.log1p(monthlyRate);
+        int years = (int) Math.max(1, Math.min(maxYears + 1, Math.ceil(months / 12)));
+
+        while (years > 1 && reaches(FutureValueCalculator.rawFutureValue(monthlyDeposit, monthlyRate, (years - 1) * 12), targetAmount)) {
+            years--;
+        }
+        while (years <= maxYears && !reaches(FutureValueCalculator.rawFutureValue(monthlyDeposit, monthlyRate, years * 12), targetAmount)) {
+            years++;
+        }
+        return years <= maxYears ? years : -1;
+    }
+
+    private static boolean reachesAtRate(double monthlyDeposit, long rateSteps, int months, double targetAmount) {
+        double monthlyRate = FutureValueCalculator.monthlyRate(rateSteps / (double) RATE_STEPS_PER_PERCENT);
+        return reaches(FutureValueCalculator.rawFutureValue(monthlyDeposit, monthlyRate, months), targetAmount);
+    }
+
+    /**
+     * Returns whether a future value reaches the target once rounded to cents, HALF_UP.
+     */
+    private static boolean reaches(double futureValue, double targetAmount) {
+        return futureValue >= targetAmount - HALF_CENT;
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.retirementCalculator.service;
+
+import com.example.retirementCalculator.exception.InvalidInputException;
+
+/**
+ * Plan parameter a goal-seek request solves for, the others being held fixed.
+ *
+ * @author Priscilla Masunyane
+ */
+public enum GoalSeekTarget {
+
+    /**
+     * The smallest monthly deposit, in cents, that reaches the target.
+     */
+    DEPOSIT,
+
+    /**
+     * The smallest annual interest rate, in steps of 0.0001%, that reaches the target.
+     */
+    INTEREST_RATE,
+
+    /**
+     * The earliest whole retirement age that reaches the target.
+     */
+    RETIREMENT_AGE;
+
+    /**
+     * Parses a target name, ignoring case; {@code null} selects {@link #DEPOSIT}.
+     *
+     * @param value the target name (e.g. "interest_rate")
+     * @return the matching target
+     * @throws InvalidInputException if the value is not a known target
+     */
+    public static GoalSeekTarget fromValue(String value) {
+        if (value == null) {
+            return DEPOSIT;
+        }
+        for (GoalSeekTarget target : values()) {
+            if (target.name().equalsIgnoreCase(value)) {
+                return target;
+            }
+        }
+        throw new InvalidInputException("Solve For", "must be one of deposit, interest_rate, retirement_age");
+    }
+}
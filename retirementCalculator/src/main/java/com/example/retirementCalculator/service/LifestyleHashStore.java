@@ -0,0 +1,234 @@
+package com.example.retirementCalculator.service;
+
+import com.example.retirementCalculator.config.RedisKeyspace;
+import com.example.retirementCalculator.config.RedisLayout;
+import com.example.retirementCalculator.entity.LifestyleRates;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * Reads and writes the lifestyle hashes of the {@link RedisLayout#HASH} layout.
+ * <p>
+ * Each lifestyle type is one hash in Redis DB 0 with the fields {@value #DEPOSIT},
+ * {@value #RATE}, {@value #VERSION} and {@value #UPDATED_AT}. A single lookup is one
+ * {@code HMGET}, where the split layout needs a {@code GET} on DB 0 and another on DB 1.
+ * Lookups and writes of several lifestyle types run as one Lua script, so a batch or a chunk
+ * of keys also costs a single round trip.
+ * </p>
+ * <p>
+ * Every write increments {@value #VERSION} and sets {@value #UPDATED_AT} in the same script
+ * as the value, so readers never see a value without its version. A hash whose deposit and
+ * rate have both been removed is deleted. The scripts touch several keys, which is fine on
+ * the standalone server configured in {@code RedisConfig}; Redis Cluster would need hash tags.
+ * </p>
+ *
+ * @author Priscilla Masunyane
+ */
+@Component
+public class LifestyleHashStore {
+
+    /**
+     * Hash field holding the monthly deposit.
+     */
+    public static final String DEPOSIT = "deposit";
+
+    /**
+     * Hash field holding the annual interest rate.
+     */
+    public static final String RATE = "rate";
+
+    /**
+     * Hash field counting the writes made to the hash.
+     */
+    public static final String VERSION = "version";
+
+    /**
+     * Hash field holding the ISO-8601 time of the last write.
+     */
+    public static final String UPDATED_AT = "updatedAt";
+
+    private static final List<Object> VALUE_FIELDS = List.of(DEPOSIT, RATE);
+
+    /**
+     * Returns the deposit and rate of every key as one flat list: deposit 1, rate 1, deposit 2, ...
+     */
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> READ_SCRIPT = RedisScript.of("""
+            local values = {}
+            for i, key in ipairs(KEYS) do
+              local fields = redis.call('HMGET', key, 'deposit', 'rate')
+              values[2 * i - 1] = fields[1]
+              values[2 * i] = fields[2]
+            end
+            return values
+            """, List.class);
+
+    /**
+     * Sets field ARGV[1] of each key to ARGV[i + 2], or removes it when that value is empty,
+     * stamping the write with ARGV[2]. Returns the number of keys written.
+     */
+    private static final RedisScript<Long> WRITE_SCRIPT = RedisScript.of("""
+            local field = ARGV[1]
+            local updatedAt = ARGV[2]
+            for i, key in ipairs(KEYS) do
+              local value = ARGV[i + 2]
+              if value == '' then
+                redis.call('HDEL', key, field)
+              else
+                redis.call('HSET', key, field, value)
+              end
+              if redis.call('HEXISTS', key, 'deposit') == 0 and redis.call('HEXISTS', key, 'rate') == 0 then
+                redis.call('DEL', key)
+              else
+                redis.call('HSET', key, 'updatedAt', updatedAt)
+                redis.call('HINCRBY', key, 'version', 1)
+              end
+            end
+            return #KEYS
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisKeyspace keyspace;
+    private final RetirementMetrics metrics;
+
+    @Autowired
+    public LifestyleHashStore(@Qualifier("stringRedisTemplateDb0") StringRedisTemplate redisTemplate,
+                              RedisKeyspace keyspace, RetirementMetrics metrics) {
+        this.redisTemplate = redisTemplate;
+        this.keyspace = keyspace;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Reads the deposit and interest rate of a lifestyle type with one {@code HMGET}.
+     *
+     * @param lifestyleType the lowercased lifestyle type
+     * @return the values of the hash, with {@code null} for missing fields
+     */
+    public LifestyleRates read(String lifestyleType) {
+        HashOperations<String, Object, Object> hashOperations = redisTemplate.opsForHash();
+        List<Object> values = metrics.recordRedis(RetirementMetrics.DB0, "hmget",
+                () -> hashOperations.multiGet(keyspace.hashKey(lifestyleType), VALUE_FIELDS));
+        return rates(values, 0);
+    }
+
+    /**
+     * Reads the deposits and interest rates of several lifestyle types in one round trip.
+     *
+     * @param lifestyleTypes the lowercased lifestyle types
+     * @return the values read per lifestyle type, with {@code null} for missing fields
+     */
+    @SuppressWarnings("unchecked")
+    public Map<String, LifestyleRates> readAll(List<String> lifestyleTypes) {
+        Map<String, LifestyleRates> rates = new HashMap<>();
+        if (lifestyleTypes.isEmpty()) {
+            return rates;
+        }
+
+        List<String> keys = lifestyleTypes.stream().map(keyspace::hashKey).toList();
+        List<Object> values = metrics.recordRedis(RetirementMetrics.DB0, "eval",
+                () -> redisTemplate.execute(READ_SCRIPT, keys));
+        for (int i = 0; i < lifestyleTypes.size(); i++) {
+            rates.put(lifestyleTypes.get(i), rates(values, 2 * i));
+        }
+        return rates;
+    }
+
+    /**
+     * Sets one field of several lifestyle hashes in one round trip, creating missing hashes.
+     * A {@code null} value removes the field, like {@link #remove(String, Collection)}.
+     *
+     * @param field        the field to set ({@value #DEPOSIT} or {@value #RATE})
+     * @param valuesByType the value of the field per lowercased lifestyle type
+     * @return the number of hashes written
+     */
+    public long write(String field, Map<String, String> valuesByType) {
+        return write(field, valuesByType, keyspace.getVersion());
+    }
+
+    /**
+     * Sets one field of several lifestyle hashes of a given version of the lifestyle table in
+     * one round trip, creating missing hashes. Used to build a new version before readers
+     * switch to it.
+     *
+     * @param field        the field to set ({@value #DEPOSIT} or {@value #RATE})
+     * @param valuesByType the value of the field per lowercased lifestyle type
+     * @param version      the version of the lifestyle table written
+     * @return the number of hashes written
+     */
+    public long write(String field, Map<String, String> valuesByType, long version) {
+        List<String> keys = new ArrayList<>(valuesByType.size());
+        List<String> args = new ArrayList<>(valuesByType.size() + 2);
+        args.add(field);
+        args.add(Instant.now().toString());
+        valuesByType.forEach((lifestyleType, value) -> {
+            keys.add(keyspace.hashKey(lifestyleType, version));
+            args.add(value != null ? value : "");
+        });
+        return execute(keys, args);
+    }
+
+    /**
+     * Removes one field of several lifestyle hashes in one round trip. A hash left without
+     * a deposit and a rate is deleted.
+     *
+     * @param field          the field to remove ({@value #DEPOSIT} or {@value #RATE})
+     * @param lifestyleTypes the lowercased lifestyle types
+     * @return the number of hashes written
+     */
+    public long remove(String field, Collection<String> lifestyleTypes) {
+        List<String> keys = new ArrayList<>(lifestyleTypes.size());
+        List<String> args = new ArrayList<>(lifestyleTypes.size() + 2);
+        args.add(field);
+        args.add(Instant.now().toString());
+        for (String lifestyleType : lifestyleTypes) {
+            keys.add(keyspace.hashKey(lifestyleType));
+            args.add("");
+        }
+        return execute(keys, args);
+    }
+
+    /**
+     * Returns whether the hash of a lifestyle type exists.
+     *
+     * @param lifestyleType the lowercased lifestyle type
+     */
+    public Boolean exists(String lifestyleType) {
+        return metrics.recordRedis(RetirementMetrics.DB0, "exists",
+                () -> redisTemplate.hasKey(keyspace.hashKey(lifestyleType)));
+    }
+
+    /**
+     * Returns the length of the deposit stored for a lifestyle type, or 0 if it is missing.
+     *
+     * @param lifestyleType the lowercased lifestyle type
+     */
+    public Long depositLength(String lifestyleType) {
+        HashOperations<String, Object, Object> hashOperations = redisTemplate.opsForHash();
+        return metrics.recordRedis(RetirementMetrics.DB0, "hstrlen",
+                () -> hashOperations.lengthOfValue(keyspace.hashKey(lifestyleType), DEPOSIT));
+    }
+
+    private long execute(List<String> keys, List<String> args) {
+        if (keys.isEmpty()) {
+            return 0;
+        }
+        Long written = metrics.recordRedis(RetirementMetrics.DB0, "eval",
+                () -> redisTemplate.execute(WRITE_SCRIPT, keys, args.toArray()));
+        return written != null ? written : 0;
+    }
+
+    private static LifestyleRates rates(List<Object> values, int offset) {
+        if (values == null) {
+            return new LifestyleRates(null, null);
+        }
+        return new LifestyleRates((String) values.get(offset), (String) values.get(offset + 1));
+    }
+}
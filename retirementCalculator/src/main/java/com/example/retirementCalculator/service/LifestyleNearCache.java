@@ -0,0 +1,258 @@
+package com.example.retirementCalculator.service;
+
+import com.example.retirementCalculator.entity.LifestyleRates;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * In-process near cache in front of the Redis lifestyle lookups.
+ * <p>
+ * Keeps the deposit and interest rate of each lifestyle type in the JVM so that
+ * {@link RetirementService} does not need two Redis round trips per calculation.
+ * The cache is bounded in size and entries expire after a fixed TTL, so values
+ * written to Redis by other means are picked up after at most one TTL. Writes made
+ * through {@link CacheService} invalidate the affected entries immediately.
+ * </p>
+ * <p>
+ * Only complete entries (deposit and rate both present) are cached, so a missing
+ * lifestyle is looked up again on the next request.
+ * </p>
+ * <p>
+ * Loads run outside the cache, so an invalidation can happen while a value is being read
+ * from Redis. Every invalidation advances a generation counter; a value loaded before an
+ * invalidation is not kept, so a concurrent load cannot put back the value the invalidation
+ * removed. Invalidations from other instances arrive through {@link CacheInvalidationBus}.
+ * </p>
+ * <p>
+ * Concurrent misses for the same lifestyle type share one load (see {@link SingleFlight}): the
+ * first request reads Redis and the others wait up to {@code retirement.near-cache.load-timeout}
+ * for its result, so an expired or invalidated entry costs one Redis read however many
+ * requests miss it at once.
+ * </p>
+ * <p>
+ * Hits, misses and evictions are also published as Micrometer {@code cache.*} meters
+ * tagged {@code cache=lifestyle}.
+ * </p>
+ *
+ * @author Priscilla Masunyane
+ */
+@Component
+public class LifestyleNearCache implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(LifestyleNearCache.class);
+
+    private final Cache<String, LifestyleRates> cache;
+    private final AtomicLong generation = new AtomicLong();
+    private final SingleFlight<String, LifestyleRates> loads;
+
+    /**
+     * Constructs a new {@code LifestyleNearCache}.
+     *
+     * @param maxSize     maximum number of lifestyle types kept in memory
+     * @param ttl         time after which an entry expires and is reloaded from Redis
+     * @param loadTimeout time a request waits for the load of a lifestyle type started by another request
+     */
+    @Autowired
+    public LifestyleNearCache(@Value("${retirement.near-cache.max-size:1000}") long maxSize,
+                              @Value("${retirement.near-cache.ttl:30s}") Duration ttl,
+                              @Value("${retirement.near-cache.load-timeout:2s}") Duration loadTimeout) {
+        this(maxSize, ttl, loadTimeout, Ticker.systemTicker());
+    }
+
+    /**
+     * Constructs a new {@code LifestyleNearCache} waiting at most two seconds for a load
+     * started by another request.
+     *
+     * @param maxSize maximum number of lifestyle types kept in memory
+     * @param ttl     time after which an entry expires and is reloaded from Redis
+     */
+    public LifestyleNearCache(long maxSize, Duration ttl) {
+        this(maxSize, ttl, Duration.ofSeconds(2));
+    }
+
+    LifestyleNearCache(long maxSize, Duration ttl, Duration loadTimeout, Ticker ticker) {
+        this.loads = new SingleFlight<>(loadTimeout);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .ticker(ticker)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns the cached values for a lifestyle type, loading them on a miss.
+     *
+     * @param key    the lowercased lifestyle type
+     * @param loader loads the values from Redis on a miss, unless a load of the key is in flight
+     * @return the cached or freshly loaded values
+     * @throws com.example.retirementCalculator.exception.CacheLoadTimeoutException if the load
+     *         in flight does not complete in time
+     */
+    public LifestyleRates get(String key, Function<String, LifestyleRates> loader) {
+        LifestyleRates rates = cache.getIfPresent(key);
+        if (rates != null) {
+            return rates;
+        }
+
+        return loads.load(key, missing -> {
+            long loadGeneration = generation.get();
+            LifestyleRates loaded = loader.apply(missing);
+            put(missing, loaded, loadGeneration);
+            return loaded;
+        });
+    }
+
+    /**
+     * Returns the cached values for a lifestyle type, loading them on a miss without blocking.
+     *
+     * @param key    the lowercased lifestyle type
+     * @param loader emits the values read from Redis, subscribed on a miss unless a load of
+     *               the key is in flight
+     * @return the cached or freshly loaded values
+     */
+    public Mono<LifestyleRates> get(String key, Mono<LifestyleRates> loader) {
+        return Mono.defer(() -> {
+            LifestyleRates rates = cache.getIfPresent(key);
+            if (rates != null) {
+                return Mono.just(rates);
+            }
+
+            long loadGeneration = generation.get();
+            return loads.load(key, loader.doOnNext(loaded -> put(key, loaded, loadGeneration)));
+        });
+    }
+
+    /**
+     * Returns the cached values for a lifestyle type without loading them.
+     *
+     * @param key the lowercased lifestyle type
+     * @return the cached values, or {@code null} on a miss
+     */
+    public LifestyleRates getIfPresent(String key) {
+        return cache.getIfPresent(key);
+    }
+
+    /**
+     * Returns the current invalidation generation, to be read before loading a value that
+     * is then passed to {@link #put(String, LifestyleRates, long)}.
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * Caches the values of a lifestyle type loaded by the caller, if they are complete and
+     * nothing was invalidated since the load started.
+     *
+     * @param key            the lowercased lifestyle type
+     * @param rates          the values read from Redis
+     * @param loadGeneration the {@link #generation()} read before the load started
+     */
+    public void put(String key, LifestyleRates rates, long loadGeneration) {
+        if (rates.isComplete() && generation.get() == loadGeneration) {
+            cache.put(key, rates);
+            // An invalidation between the check and the put has to win
+            if (generation.get() != loadGeneration) {
+                cache.invalidate(key);
+            }
+        }
+    }
+
+    /**
+     * Returns the cached values for several lifestyle types, loading all misses in one call.
+     * Misses whose load is already in flight wait for it instead.
+     *
+     * @param keys   the lowercased lifestyle types
+     * @param loader loads the values of the missing keys from Redis
+     * @return the values of every requested key
+     */
+    public Map<String, LifestyleRates> getAll(Collection<String> keys,
+                                              Function<List<String>, Map<String, LifestyleRates>> loader) {
+        Map<String, LifestyleRates> result = new HashMap<>(cache.getAllPresent(keys));
+
+        List<String> missing = new ArrayList<>();
+        for (String key : keys) {
+            if (!result.containsKey(key)) {
+                missing.add(key);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            result.putAll(loads.loadAll(missing, batch -> {
+                long loadGeneration = generation.get();
+                Map<String, LifestyleRates> loaded = loader.apply(batch);
+                loaded.forEach((key, rates) -> put(key, rates, loadGeneration));
+                return loaded;
+            }));
+        }
+        return result;
+    }
+
+    /**
+     * Removes a single lifestyle type from the near cache.
+     *
+     * @param key the lowercased lifestyle type
+     */
+    public void invalidate(String key) {
+        log.debug("Invalidating near cache entry for key: {}", key);
+        generation.incrementAndGet();
+        loads.forget(key);
+        cache.invalidate(key);
+    }
+
+    /**
+     * Removes every lifestyle type from the near cache.
+     */
+    public void invalidateAll() {
+        log.debug("Invalidating all near cache entries");
+        generation.incrementAndGet();
+        loads.forgetAll();
+        cache.invalidateAll();
+    }
+
+    /**
+     * Publishes the near cache statistics to the meter registry.
+     *
+     * @param registry the registry to bind to
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "lifestyle");
+    }
+
+    /**
+     * Returns the hit, miss and eviction counters of the near cache, and the number of misses
+     * that waited for a load already in flight.
+     *
+     * @return a map of counter names to values
+     */
+    public Map<String, Object> stats() {
+        cache.cleanUp(); // run pending expirations so the eviction count is current
+        CacheStats stats = cache.stats();
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("size", cache.estimatedSize());
+        response.put("hitCount", stats.hitCount());
+        response.put("missCount", stats.missCount());
+        response.put("hitRate", stats.hitRate());
+        response.put("evictionCount", stats.evictionCount());
+        response.put("coalescedLoads", loads.joinedCount());
+        return response;
+    }
+}
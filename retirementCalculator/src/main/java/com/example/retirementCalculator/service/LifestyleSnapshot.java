@@ -0,0 +1,193 @@
+package com.example.retirementCalculator.service;
+
+import com.example.retirementCalculator.entity.LifestyleDepositView;
+import com.example.retirementCalculator.entity.LifestyleRates;
+import com.example.retirementCalculator.repository.RetirementRepository;
+import com.opencsv.CSVReader;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * In-memory copy of the lifestyle reference data, read when Redis is unavailable.
+ * <p>
+ * Holds the deposit and interest rate of every lifestyle type, built from the same sources
+ * {@code RedisDataLoader} loads into Redis: the deposits from {@link RetirementRepository}
+ * and the interest rates from the rate CSV file. The snapshot is rebuilt every
+ * {@code retirement.snapshot.refresh-interval}; each rebuild publishes a new immutable map,
+ * and a failed rebuild keeps the previous one. Values written only to Redis (e.g. rates
+ * imported through {@code /admin/lifestyles/rates}) are not in the snapshot.
+ * </p>
+ * <p>
+ * The number of lifestyle types and the age of the snapshot are published as
+ * {@code retirement.snapshot.size} and {@code retirement.snapshot.age} gauges.
+ * </p>
+ *
+ * @author Priscilla Masunyane
+ */
+@Component
+public class LifestyleSnapshot implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(LifestyleSnapshot.class);
+
+    private static final LifestyleRates MISSING = new LifestyleRates(null, null);
+
+    private final RetirementRepository repository;
+    private final Resource csvResource;
+    private final Clock clock;
+
+    private volatile Map<String, LifestyleRates> rates = Map.of();
+    private volatile Instant refreshedAt;
+
+    /**
+     * Constructs a new, empty {@code LifestyleSnapshot}.
+     *
+     * @param repository  the repository holding the monthly deposits
+     * @param csvResource the CSV file holding the interest rate of each lifestyle type
+     */
+    @Autowired
+    public LifestyleSnapshot(RetirementRepository repository,
+                             @Value("${retirement.loader.csv-path:classpath:lifestyleTypeInterestRate.csv}") Resource csvResource) {
+        this(repository, csvResource, Clock.systemUTC());
+    }
+
+    LifestyleSnapshot(RetirementRepository repository, Resource csvResource, Clock clock) {
+        this.repository = repository;
+        this.csvResource = csvResource;
+        this.clock = clock;
+    }
+
+    /**
+     * Rebuilds the snapshot from the database and the rate CSV file.
+     * <p>
+     * Runs at startup and then every {@code retirement.snapshot.refresh-interval}. Lifestyle
+     * types present in only one source are kept incomplete, as they would be in Redis.
+     * </p>
+     */
+    @Scheduled(fixedDelayString = "${retirement.snapshot.refresh-interval:5m}")
+    public void refresh() {
+        long start = System.nanoTime();
+        Map<String, String> deposits = new HashMap<>();
+        Map<String, String> interestRates = new HashMap<>();
+        try {
+            for (LifestyleDepositView deposit : repository.findAllViews()) {
+                deposits.put(deposit.getLifestyleType().toLowerCase(), deposit.getMonthlyDeposit().toPlainString());
+            }
+            readRates(interestRates);
+        } catch (Exception e) {
+            log.warn("Failed to refresh the lifestyle snapshot, keeping the previous one", e);
+            return;
+        }
+
+        Map<String, LifestyleRates> snapshot = new HashMap<>();
+        deposits.forEach((type, deposit) -> snapshot.put(type, new LifestyleRates(deposit, interestRates.get(type))));
+        interestRates.forEach((type, rate) -> snapshot.putIfAbsent(type, new LifestyleRates(null, rate)));
+
+        replace(snapshot);
+        log.info("Refreshed lifestyle snapshot with {} lifestyle types in {} ms",
+                snapshot.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Replaces the snapshot with the given lifestyle data.
+     *
+     * @param snapshot the data per lowercased lifestyle type
+     */
+    void replace(Map<String, LifestyleRates> snapshot) {
+        rates = Map.copyOf(snapshot);
+        refreshedAt = clock.instant();
+    }
+
+    /**
+     * Returns the lifestyle data of a lifestyle type.
+     *
+     * @param key the lowercased lifestyle type
+     * @return the snapshot values, with {@code null} for values the snapshot does not hold
+     */
+    public LifestyleRates get(String key) {
+        return rates.getOrDefault(key, MISSING);
+    }
+
+    /**
+     * Returns the lifestyle data of several lifestyle types.
+     *
+     * @param keys the lowercased lifestyle types
+     * @return the snapshot values of every requested key
+     */
+    public Map<String, LifestyleRates> getAll(Collection<String> keys) {
+        Map<String, LifestyleRates> snapshot = rates;
+        Map<String, LifestyleRates> result = new HashMap<>();
+        for (String key : keys) {
+            result.put(key, snapshot.getOrDefault(key, MISSING));
+        }
+        return result;
+    }
+
+    /**
+     * Returns whether the snapshot has been built at least once.
+     */
+    public boolean isLoaded() {
+        return refreshedAt != null;
+    }
+
+    /**
+     * Returns the number of lifestyle types in the snapshot.
+     */
+    public int size() {
+        return rates.size();
+    }
+
+    /**
+     * Returns the time since the snapshot was last rebuilt, or {@code null} if it never was.
+     */
+    public Duration age() {
+        Instant built = refreshedAt;
+        return built != null ? Duration.between(built, clock.instant()) : null;
+    }
+
+    /**
+     * Publishes the size and age of the snapshot to the meter registry.
+     *
+     * @param registry the registry to bind to
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("retirement.snapshot.size", this, LifestyleSnapshot::size)
+                .description("Lifestyle types in the local snapshot used while Redis is unavailable")
+                .register(registry);
+        Gauge.builder("retirement.snapshot.age", this, snapshot -> {
+                    Duration age = snapshot.age();
+                    return age != null ? age.toMillis() / 1000.0 : Double.NaN;
+                })
+                .description("Time since the local lifestyle snapshot was rebuilt")
+                .baseUnit("seconds")
+                .register(registry);
+    }
+
+    private void readRates(Map<String, String> interestRates) throws Exception {
+        try (CSVReader reader = new CSVReader(new InputStreamReader(csvResource.getInputStream(), StandardCharsets.UTF_8))) {
+            List<String> header = Arrays.asList(reader.readNext());
+            int typeColumn = header.indexOf("lifestyleType");
+            int rateColumn = header.indexOf("interestRate");
+
+            String[] line;
+            while ((line = reader.readNext()) != null) {
+                interestRates.put(line[typeColumn].toLowerCase(), line[rateColumn]);
+            }
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.retirementCalculator.service;
+
+import com.example.retirementCalculator.config.RedisKeyspace;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Pointer to the version of the lifestyle table every instance reads.
+ * <p>
+ * {@link CacheService#refreshAllCache()} writes the whole table under a new version next to
+ * the current one, then {@link #activate(long) activates} it by setting the pointer key
+ * {@code retirement.redis.version-key} in Redis DB 0. Readers resolve their keys through
+ * {@link RedisKeyspace}, which holds the version in memory, so until the switch they keep
+ * reading the complete previous version and a refresh causes no misses. Versions are
+ * allocated from one counter ({@code INCR} on {@code retirement.redis.version-sequence-key})
+ * and the pointer only moves forward, so concurrent refreshes cannot switch back to an older
+ * version.
+ * </p>
+ * <p>
+ * Other instances learn about a new version from the invalidation message that follows the
+ * switch (see {@link CacheInvalidationBus}), and otherwise by reading the pointer every
+ * {@code retirement.redis.version-poll-interval}. The current version is published as the
+ * {@code retirement.lifestyle.version} gauge.
+ * </p>
+ *
+ * @author Priscilla Masunyane
+ */
+@Component
+public class LifestyleTableVersion implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(LifestyleTableVersion.class);
+
+    /**
+     * Sets KEYS[1] to ARGV[1] unless it already holds a version at least as new.
+     * Returns 1 if the pointer was set.
+     */
+    private static final RedisScript<Long> ACTIVATE_SCRIPT = RedisScript.of("""
+            local current = tonumber(redis.call('GET', KEYS[1]) or '0')
+            if current >= tonumber(ARGV[1]) then
+              return 0
+            end
+            redis.call('SET', KEYS[1], ARGV[1])
+            return 1
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisKeyspace keyspace;
+    private final LifestyleNearCache nearCache;
+    private final CalculationResultCache resultCache;
+    private final RetirementMetrics metrics;
+    private final String versionKey;
+    private final String sequenceKey;
+
+    /**
+     * Constructs a new {@code LifestyleTableVersion}.
+     *
+     * @param redisTemplate the template of Redis DB 0, holding the pointer and the counter
+     * @param keyspace      the keyspace resolving the lifestyle keys through the current version
+     * @param nearCache     the near cache, cleared when a new version is picked up by polling
+     * @param resultCache   the memoized calculation results, cleared with the near cache
+     * @param metrics       the meters recording the Redis calls
+     * @param versionKey    the Redis key of the pointer to the current version
+     * @param sequenceKey   the Redis key of the counter the versions are allocated from
+     */
+    @Autowired
+    public LifestyleTableVersion(@Qualifier("stringRedisTemplateDb0") StringRedisTemplate redisTemplate,
+                                 RedisKeyspace keyspace, LifestyleNearCache nearCache, CalculationResultCache resultCache,
+                                 RetirementMetrics metrics,
+                                 @Value("${retirement.redis.version-key:lifestyle-version}") String versionKey,
+                                 @Value("${retirement.redis.version-sequence-key:lifestyle-version-sequence}") String sequenceKey) {
+        this.redisTemplate = redisTemplate;
+        this.keyspace = keyspace;
+        this.nearCache = nearCache;
+        this.resultCache = resultCache;
+        this.metrics = metrics;
+        this.versionKey = versionKey;
+        this.sequenceKey = sequenceKey;
+    }
+
+    /**
+     * Allocates a version for a new copy of the lifestyle table.
+     *
+     * @return a version newer than every version allocated before
+     * @throws IllegalStateException if Redis returns no version
+     */
+    public long allocate() {
+        Long version = metrics.recordRedis(RetirementMetrics.DB0, "incr",
+                () -> redisTemplate.opsForValue().increment(sequenceKey));
+        if (version == null) {
+            throw new IllegalStateException("No version returned for " + sequenceKey);
+        }
+        return version;
+    }
+
+    /**
+     * Points every instance at a completely written version of the lifestyle table and
+     * switches this instance to it.
+     *
+     * @param version the version to read from now on
+     * @return whether the version was activated; {@code false} if a newer version already was
+     */
+    public boolean activate(long version) {
+        Long set = metrics.recordRedis(RetirementMetrics.DB0, "eval",
+                () -> redisTemplate.execute(ACTIVATE_SCRIPT, List.of(versionKey), String.valueOf(version)));
+        if (set == null || set == 0) {
+            return false;
+        }
+        keyspace.advanceVersion(version);
+        return true;
+    }
+
+    /**
+     * Reads the pointer and switches to the version it holds if it is newer than the one this
+     * instance reads, clearing the near cache and memoized results.
+     * <p>
+     * Runs at startup, before the loader writes the lifestyle keys, and then every
+     * {@code retirement.redis.version-poll-interval} to catch switches whose invalidation
+     * message was missed. A failure keeps the current version.
+     * </p>
+     *
+     * @return the version this instance reads
+     */
+    @Scheduled(fixedDelayString = "${retirement.redis.version-poll-interval:10s}")
+    public long sync() {
+        try {
+            String pointer = metrics.recordRedis(RetirementMetrics.DB0, "get",
+                    () -> redisTemplate.opsForValue().get(versionKey));
+            if (pointer != null && keyspace.advanceVersion(Long.parseLong(pointer))) {
+                nearCache.invalidateAll();
+                resultCache.invalidateAll();
+                log.info("Switched to version {} of the lifestyle table", pointer);
+            }
+        } catch (Exception e) {
+            log.warn("Failed to read the lifestyle table version, keeping version {}: {}",
+                    keyspace.getVersion(), e.getMessage());
+        }
+        return keyspace.getVersion();
+    }
+
+    /**
+     * Publishes the version this instance reads as a gauge.
+     *
+     * @param registry the registry to bind to
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("retirement.lifestyle.version", keyspace, RedisKeyspace::getVersion)
+                .description("Version of the lifestyle table read by this instance, 0 for the unversioned keys")
+                .register(registry);
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.retirementCalculator.service;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Monte Carlo projection of a plan's balance under random monthly returns.
+ * <p>
+ * Each path deposits the same amount at the end of every month, with the balance growing by
+ * a log-normal factor {@code exp(drift + sigma * Z)}, {@code Z ~ N(0, 1)}, where
+ * {@code sigma = volatility / sqrt(12)} and the drift is chosen so that the expected monthly
+ * growth is {@code 1 + r}, with {@code r} the same monthly rate as
+ * {@link FutureValueCalculator#monthlyRate(double)}. With zero volatility every path
+ * therefore ends at the deterministic future value.
+ * </p>
+ * <p>
+ * Paths are simulated in blocks of {@link #BLOCK_SIZE} as fork-join tasks on the pool passed
+ * by the caller, in primitive doubles, so a large projection cannot occupy the common pool the
+ * rest of the JVM shares. Every block draws from its own {@link SplittableRandom},
+ * split from a single seeded generator up front, so a given seed produces the same result
+ * regardless of how blocks are scheduled across threads. Final balances are fed into one
+ * {@link QuantileSketch} per worker, so memory does not grow with the number of paths.
+ * </p>
+ *
+ * @author Priscilla Masunyane
+ */
+public final class MonteCarloSimulator {
+
+    /**
+     * Number of paths simulated with the same random generator.
+     */
+    public static final int BLOCK_SIZE = 4096;
+
+    private MonteCarloSimulator() {
+    }
+
+    /**
+     * Simulates the final balance of many paths.
+     *
+     * @param monthlyDeposit   the amount deposited every month
+     * @param annualReturn     the expected annual return as a percentage (e.g. 5.5)
+     * @param annualVolatility the annual volatility of the return as a percentage (e.g. 15.0)
+     * @param months           the number of monthly deposits
+     * @param paths            the number of paths to simulate
+     * @param target           the balance whose probability of being reached is counted, or {@code NaN} for none
+     * @param seed             the seed of the random generator
+     * @param pool             the pool simulating the blocks of paths
+     * @return the distribution of final balances and the number of paths reaching the target
+     */
+    public static Summary simulate(double monthlyDeposit, double annualReturn, double annualVolatility,
+                                   int months, int paths, double target, long seed, ForkJoinPool pool) {
+        double sigma = annualVolatility / 100 / Math.sqrt(12);
+        double drift = Math.log1p(FutureValueCalculator.monthlyRate(annualReturn)) - sigma * sigma / 2;
+
+        int blocks = (paths + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        SplittableRandom root = new SplittableRandom(seed);
+        SplittableRandom[] generators = new SplittableRandom[blocks];
+        for (int i = 0; i < blocks; i++) {
+            generators[i] = root.split();
+        }
+
+        // About four tasks per worker, like a parallel stream, so each keeps one summary for several blocks
+        int blocksPerTask = Math.max(1, blocks / (4 * pool.getParallelism()));
+        return pool.invoke(new Blocks(0, blocks, blocksPerTask, generators,
+                monthlyDeposit, drift, sigma, months, paths, target));
+    }
+
+    /**
+     * Simulates a range of blocks, splitting it in halves until it has at most
+     * {@code blocksPerTask} blocks.
+     */
+    private static final class Blocks extends RecursiveTask<Summary> {
+
+        private final int from;
+        private final int to;
+        private final int blocksPerTask;
+        private final SplittableRandom[] generators;
+        private final double monthlyDeposit;
+        private final double drift;
+        private final double sigma;
+        private final int months;
+        private final int paths;
+        private final double target;
+
+        private Blocks(int from, int to, int blocksPerTask, SplittableRandom[] generators, double monthlyDeposit,
+                       double drift, double sigma, int months, int paths, double target) {
+            this.from = from;
+            this.to = to;
+            this.blocksPerTask = blocksPerTask;
+            this.generators = generators;
+            this.monthlyDeposit = monthlyDeposit;
+            this.drift = drift;
+            this.sigma = sigma;
+            this.months = months;
+            this.paths = paths;
+            this.target = target;
+        }
+
+        @Override
+        protected Summary compute() {
+            if (to - from > blocksPerTask) {
+                int middle = (from + to) >>> 1;
+                Blocks left = half(from, middle);
+                left.fork();
+                Summary summary = half(middle, to).compute();
+                summary.merge(left.join());
+                return summary;
+            }
+
+            Summary summary = new Summary();
+            for (int block = from; block < to; block++) {
+                SplittableRandom random = generators[block];
+                int end = Math.min(paths, (block + 1) * BLOCK_SIZE);
+                for (int path = block * BLOCK_SIZE; path < end; path++) {
+                    double balance = 0;
+                    for (int month = 0; month < months; month++) {
+                        balance = balance * Math.exp(drift + sigma * random.nextGaussian()) + monthlyDeposit;
+                    }
+                    summary.add(balance, target);
+                }
+            }
+            return summary;
+        }
+
+        private Blocks half(int from, int to) {
+            return new Blocks(from, to, blocksPerTask, generators, monthlyDeposit, drift, sigma, months, paths, target);
+        }
+    }
+
+    /**
+     * Distribution of the final balances of the simulated paths.
+     */
+    public static final class Summary {
+
+        private final QuantileSketch sketch = new QuantileSketch();
+        private long targetHits;
+
+        private void add(double balance, double target) {
+            sketch.add(balance);
+            if (balance >= target) {
+                targetHits++;
+            }
+        }
+
+        private void merge(Summary other) {
+            sketch.merge(other.sketch);
+            targetHits += other.targetHits;
+        }
+
+        /**
+         * Returns the estimated final balance at quantile {@code q} (see {@link QuantileSketch#quantile(double)}).
+         */
+        public double quantile(double q) {
+            return sketch.quantile(q);
+        }
+
+        /**
+         * Returns the mean final balance.
+         */
+        public double getMean() {
+            return sketch.getMean();
+        }
+
+        /**
+         * Returns the number of simulated paths.
+         */
+        public long getPaths() {
+            return sketch.getCount();
+        }
+
+        /**
+         * Returns the fraction of paths whose final balance reached the target.
+         */
+        public double getTargetProbability() {
+            return sketch.getCount() == 0 ? 0 : (double) targetHits / sketch.getCount();
+        }
+    }
+}
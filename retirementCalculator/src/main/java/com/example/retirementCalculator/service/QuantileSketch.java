@@ -0,0 +1,130 @@
+package com.example.retirementCalculator.service;
+
+/**
+ * Fixed-memory, mergeable quantile estimator for positive values.
+ * <p>
+ * Values are counted in logarithmic buckets whose bounds grow by a factor
+ * {@code gamma = (1 + a) / (1 - a)}, with {@code a = }{@link #RELATIVE_ACCURACY}. Any quantile
+ * is then estimated with a relative error of at most {@code a}, using the same amount of memory
+ * whether one thousand or one million values were added. Two sketches are merged by adding
+ * their bucket counts, so each thread can fill its own sketch and combine them at the end.
+ * </p>
+ * <p>
+ * Values below {@link #MIN_VALUE} or above {@link #MAX_VALUE} fall into an underflow or overflow
+ * bucket and are reported as the exact minimum or maximum seen. Not thread-safe.
+ * </p>
+ *
+ * @author Priscilla Masunyane
+ */
+public final class QuantileSketch {
+
+    /**
+     * Maximum relative error of an estimated quantile (0.1%).
+     */
+    public static final double RELATIVE_ACCURACY = 0.001;
+
+    /**
+     * Smallest value counted in a logarithmic bucket.
+     */
+    public static final double MIN_VALUE = 1.0;
+
+    /**
+     * Largest value counted in a logarithmic bucket.
+     */
+    public static final double MAX_VALUE = 1e15;
+
+    private static final double GAMMA = (1 + RELATIVE_ACCURACY) / (1 - RELATIVE_ACCURACY);
+    private static final double LOG_GAMMA = Math.log(GAMMA);
+    private static final int BUCKETS = (int) Math.ceil(Math.log(MAX_VALUE / MIN_VALUE) / LOG_GAMMA) + 1;
+
+    private final long[] counts = new long[BUCKETS];
+    private long underflow;
+    private long overflow;
+    private long count;
+    private double sum;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    /**
+     * Adds a value to the sketch.
+     *
+     * @param value the value to add
+     */
+    public void add(double value) {
+        if (value < MIN_VALUE) {
+            underflow++;
+        } else if (value > MAX_VALUE) {
+            overflow++;
+        } else {
+            counts[(int) Math.ceil(Math.log(value / MIN_VALUE) / LOG_GAMMA)]++;
+        }
+        count++;
+        sum += value;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    /**
+     * Adds the values of another sketch to this one.
+     *
+     * @param other the sketch to merge into this one
+     */
+    public void merge(QuantileSketch other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] += other.counts[i];
+        }
+        underflow += other.underflow;
+        overflow += other.overflow;
+        count += other.count;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * Estimates the value below which a fraction {@code q} of the added values fall.
+     *
+     * @param q the quantile, between 0 and 1 (e.g. 0.95)
+     * @return the estimated quantile (exact for the minimum and maximum), or {@code NaN} if the sketch is empty
+     */
+    public double quantile(double q) {
+        if (count == 0) {
+            return Double.NaN;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(q * count));
+        if (rank == 1) {
+            return min;
+        }
+        if (rank >= count) {
+            return max;
+        }
+        long seen = underflow;
+        if (seen >= rank) {
+            return min;
+        }
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                // bucket i covers (MIN_VALUE * gamma^(i-1), MIN_VALUE * gamma^i]
+                double estimate = MIN_VALUE * 2 * Math.pow(GAMMA, i) / (GAMMA + 1);
+                return Math.max(min, Math.min(max, estimate));
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Returns the number of values added.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Returns the exact mean of the values added, or {@code NaN} if the sketch is empty.
+     */
+    public double getMean() {
+        return count == 0 ? Double.NaN : sum / count;
+    }
+}
@@ -0,0 +1,196 @@
+package com.example.retirementCalculator.service;
+
+import com.example.retirementCalculator.config.RedisKeyspace;
+import com.example.retirementCalculator.entity.LifestyleRates;
+import com.example.retirementCalculator.entity.Retirement;
+import com.example.retirementCalculator.entity.RetirementBatchResult;
+import com.example.retirementCalculator.entity.RetirementResult;
+import com.example.retirementCalculator.exception.CalculationException;
+import com.example.retirementCalculator.exception.InvalidInputException;
+import com.example.retirementCalculator.exception.LifestyleNotFoundException;
+import com.example.retirementCalculator.exception.RetirementCalculatorException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.ReactiveHashOperations;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Non-blocking variant of the retirement plan calculations in {@link RetirementService}.
+ * <p>
+ * The deposit (DB 0) and interest rate (DB 1) of a lifestyle type are read with
+ * {@link ReactiveStringRedisTemplate}. Both lookups are issued at the same time and zipped, so
+ * no thread waits on Redis; with the hash layout a single {@code HMGET} reads both. The
+ * calculation itself then runs on the parallel scheduler rather than on the Lettuce event loop
+ * that completed the lookups. Validation, the near cache, the result cache and the arithmetic
+ * are shared with {@link RetirementService}, so both variants return identical results and
+ * errors.
+ * </p>
+ * <p>
+ * Batches are emitted as a {@link Flux} in submission order. At most
+ * {@code retirement.reactive.concurrency} plans are looked up at a time, and only as fast as
+ * the caller consumes the results.
+ * </p>
+ *
+ * @author Priscilla Masunyane
+ */
+@Service
+public class ReactiveRetirementService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactiveRetirementService.class);
+
+    private static final List<String> HASH_FIELDS = List.of(LifestyleHashStore.DEPOSIT, LifestyleHashStore.RATE);
+
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final ReactiveStringRedisTemplate redisSecondTemplate;
+    private final RetirementService retirementService;
+    private final LifestyleNearCache nearCache;
+    private final RedisKeyspace keyspace;
+    private final RetirementMetrics metrics;
+    private final RedisCircuitBreaker circuitBreaker;
+
+    /**
+     * Maximum number of plans accepted by {@link #calculatePlans(List)} in a single call.
+     * Request bodies are already bounded while they are read (see
+     * {@link com.example.retirementCalculator.config.BatchSizeModule}); this check covers
+     * other callers.
+     */
+    @Value("${retirement.batch.max-size:1000}")
+    private int maxBatchSize = 1000;
+
+    /**
+     * Maximum number of batch plans whose lifestyle data is looked up at the same time.
+     */
+    @Value("${retirement.reactive.concurrency:32}")
+    private int concurrency = 32;
+
+    @Autowired
+    public ReactiveRetirementService(@Qualifier("reactiveStringRedisTemplateDb0") ReactiveStringRedisTemplate redisTemplate,
+                                     @Qualifier("reactiveStringRedisTemplateDb1") ReactiveStringRedisTemplate redisSecondTemplate,
+                                     RetirementService retirementService, LifestyleNearCache nearCache,
+                                     RedisKeyspace keyspace, RetirementMetrics metrics,
+                                     RedisCircuitBreaker circuitBreaker) {
+        this.redisTemplate = redisTemplate;
+        this.redisSecondTemplate = redisSecondTemplate;
+        this.retirementService = retirementService;
+        this.nearCache = nearCache;
+        this.keyspace = keyspace;
+        this.metrics = metrics;
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    /**
+     * Calculates a retirement plan without blocking the calling thread.
+     *
+     * @param dto the {@link Retirement} DTO containing user input such as current age, retirement age,
+     *            interest rate, and lifestyle type
+     * @return a {@link Mono} emitting the calculation result, or signalling
+     * {@link InvalidInputException}, {@link LifestyleNotFoundException} or {@link CalculationException}
+     */
+    public Mono<RetirementResult> calculatePlan(Retirement dto) {
+        return metrics.recordCalculation("reactive-plan", calculate(dto));
+    }
+
+    /**
+     * Calculates several retirement plans without blocking the calling thread.
+     * <p>
+     * The batch size is checked before anything is emitted. After that, a failing plan becomes a
+     * failed entry in the stream and does not stop the rest of the batch.
+     * </p>
+     *
+     * @param plans the plans to calculate
+     * @return a {@link Flux} emitting one entry per plan, in submission order
+     * @throws InvalidInputException if the batch holds more than {@code retirement.batch.max-size} plans
+     */
+    public Flux<RetirementBatchResult> calculatePlans(List<Retirement> plans) {
+        if (plans.size() > maxBatchSize) {
+            InvalidInputException e = new InvalidInputException("Batch", "must not contain more than " + maxBatchSize + " plans");
+            metrics.recordError(e);
+            throw e;
+        }
+        log.info("Starting reactive batch retirement plan calculation for {} plans", plans.size());
+
+        return metrics.recordCalculation("reactive-batch",
+                Flux.range(0, plans.size())
+                        .flatMapSequential(index -> calculateEntry(index, plans.get(index)), concurrency));
+    }
+
+    private Mono<RetirementBatchResult> calculateEntry(int index, Retirement plan) {
+        Mono<RetirementResult> result = plan == null
+                ? Mono.error(new InvalidInputException("Plan", "cannot be null"))
+                : calculate(plan);
+
+        return result
+                .map(value -> RetirementBatchResult.success(index, value))
+                .onErrorResume(e -> {
+                    RetirementCalculatorException error = e instanceof RetirementCalculatorException known
+                            ? known
+                            : new CalculationException("Unexpected error during retirement calculation");
+                    if (error != e) {
+                        log.error("Unexpected error during reactive batch calculation of plan {}", index, e);
+                    }
+                    metrics.recordError(error);
+                    return Mono.just(RetirementBatchResult.failure(index, error.getErrorCode(), error.getMessage()));
+                });
+    }
+
+    private Mono<RetirementResult> calculate(Retirement dto) {
+        return Mono.defer(() -> {
+            retirementService.validateInput(dto);
+
+            return lifestyleRates(dto.getLifestyleType().toLowerCase())
+                    .publishOn(Schedulers.parallel())
+                    .map(rates -> retirementService.calculate(dto, rates));
+        });
+    }
+
+    /**
+     * Returns the near-cached lifestyle data, or reads the deposit and the interest rate from
+     * Redis concurrently on a miss. With the hash layout both are read with one {@code HMGET}.
+     * Reads go through the {@link RedisCircuitBreaker}, which falls back to the local snapshot.
+     * Concurrent misses for the same lifestyle type share one read.
+     *
+     * @param lifestyleKey the lowercased lifestyle type
+     * @return the values of the lifestyle type, with {@code null} for missing keys
+     */
+    private Mono<LifestyleRates> lifestyleRates(String lifestyleKey) {
+        return nearCache.get(lifestyleKey, Mono.defer(() -> circuitBreaker.read(lifestyleKey,
+                        keyspace.isHashLayout() ? fetchLifestyleHash(lifestyleKey) : fetchLifestyleRates(lifestyleKey))))
+                .onErrorMap(e -> !(e instanceof RetirementCalculatorException), e -> {
+                    log.error("Unexpected error fetching lifestyle data for lifestyle type: {}", lifestyleKey, e);
+                    return new CalculationException("Unexpected error fetching lifestyle data from cache");
+                });
+    }
+
+    private Mono<LifestyleRates> fetchLifestyleRates(String lifestyleKey) {
+        String redisKey = keyspace.key(lifestyleKey);
+        Mono<Optional<String>> deposit = metrics.recordRedis(RetirementMetrics.DB0, "get",
+                        redisTemplate.opsForValue().get(redisKey))
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty());
+        Mono<Optional<String>> interest = metrics.recordRedis(RetirementMetrics.DB1, "get",
+                        redisSecondTemplate.opsForValue().get(redisKey))
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty());
+
+        return Mono.zip(deposit, interest, (depositValue, interestValue) ->
+                new LifestyleRates(depositValue.orElse(null), interestValue.orElse(null)));
+    }
+
+    private Mono<LifestyleRates> fetchLifestyleHash(String lifestyleKey) {
+        ReactiveHashOperations<String, String, String> hashOperations = redisTemplate.opsForHash();
+        return metrics.recordRedis(RetirementMetrics.DB0, "hmget",
+                        hashOperations.multiGet(keyspace.hashKey(lifestyleKey), HASH_FIELDS))
+                .map(values -> new LifestyleRates(values.get(0), values.get(1)))
+                .defaultIfEmpty(new LifestyleRates(null, null));
+    }
+}
@@ -0,0 +1,211 @@
+package com.example.retirementCalculator.service;
+
+import com.example.retirementCalculator.entity.LifestyleRates;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Circuit breaker around the Redis lookups of lifestyle data, falling back to the
+ * {@link LifestyleSnapshot} while Redis is unavailable.
+ * <p>
+ * Every read of DB 0 and DB 1 made for a calculation goes through one shared breaker. Redis
+ * errors ({@link DataAccessException}) and calls slower than
+ * {@code retirement.redis.circuit-breaker.slow-call-duration} count as failures. Once the
+ * failure or slow-call rate over the last {@code sliding-window-size} calls reaches
+ * {@code failure-rate-threshold}%, the breaker opens and lookups are answered from the
+ * snapshot straight away, without waiting on Lettuce timeouts. After
+ * {@code wait-in-open-state} the next {@code half-open-calls} lookups are let through to
+ * Redis again, and the breaker closes as soon as they succeed, so recovery needs no
+ * intervention. A failed lookup is also answered from the snapshot, so no request fails
+ * while the breaker is still closed. Until the snapshot has been built, failures are
+ * rethrown as before.
+ * </p>
+ * <p>
+ * Time spent serving from the snapshot, including the failed Redis call, is recorded as the
+ * {@code retirement.redis.fallback} timer tagged with the cause, and the breaker state and
+ * call outcomes as the {@code resilience4j.circuitbreaker.*} meters tagged {@code name=redis}.
+ * </p>
+ *
+ * @author Priscilla Masunyane
+ */
+@Component
+public class RedisCircuitBreaker implements MeterBinder {
+
+    /**
+     * Name of the breaker, used as the {@code name} tag of its meters.
+     */
+    public static final String NAME = "redis";
+
+    /**
+     * Fallback cause of a lookup rejected by the open breaker.
+     */
+    public static final String CIRCUIT_OPEN = "circuit-open";
+
+    /**
+     * Fallback cause of a lookup that failed in Redis.
+     */
+    public static final String REDIS_ERROR = "redis-error";
+
+    private static final Logger log = LoggerFactory.getLogger(RedisCircuitBreaker.class);
+
+    private final CircuitBreakerRegistry registry;
+    private final CircuitBreaker circuitBreaker;
+    private final LifestyleSnapshot snapshot;
+    private final RetirementMetrics metrics;
+
+    /**
+     * Constructs a new {@code RedisCircuitBreaker}.
+     *
+     * @param snapshot             the local copy of the lifestyle data
+     * @param metrics              the meters recording the time spent in fallback
+     * @param failureRateThreshold percentage of failed or slow calls that opens the breaker
+     * @param slowCallDuration     duration above which a call counts as slow
+     * @param slidingWindowSize    number of recent calls the rates are computed over
+     * @param minimumCalls         number of calls needed before the rates are evaluated
+     * @param waitInOpenState      time the breaker stays open before probing Redis again
+     * @param halfOpenCalls        number of probe calls that decide whether the breaker closes
+     */
+    @Autowired
+    public RedisCircuitBreaker(LifestyleSnapshot snapshot, RetirementMetrics metrics,
+                               @Value("${retirement.redis.circuit-breaker.failure-rate-threshold:50}") float failureRateThreshold,
+                               @Value("${retirement.redis.circuit-breaker.slow-call-duration:500ms}") Duration slowCallDuration,
+                               @Value("${retirement.redis.circuit-breaker.sliding-window-size:20}") int slidingWindowSize,
+                               @Value("${retirement.redis.circuit-breaker.minimum-calls:10}") int minimumCalls,
+                               @Value("${retirement.redis.circuit-breaker.wait-in-open-state:10s}") Duration waitInOpenState,
+                               @Value("${retirement.redis.circuit-breaker.half-open-calls:3}") int halfOpenCalls) {
+        this(CircuitBreakerConfig.custom()
+                .failureRateThreshold(failureRateThreshold)
+                .slowCallRateThreshold(failureRateThreshold)
+                .slowCallDurationThreshold(slowCallDuration)
+                .slidingWindowSize(slidingWindowSize)
+                .minimumNumberOfCalls(minimumCalls)
+                .waitDurationInOpenState(waitInOpenState)
+                .permittedNumberOfCallsInHalfOpenState(halfOpenCalls)
+                .recordExceptions(DataAccessException.class)
+                .build(), snapshot, metrics);
+    }
+
+    /**
+     * Constructs a new {@code RedisCircuitBreaker} with the given breaker configuration.
+     *
+     * @param config   the circuit breaker configuration
+     * @param snapshot the local copy of the lifestyle data
+     * @param metrics  the meters recording the time spent in fallback
+     */
+    public RedisCircuitBreaker(CircuitBreakerConfig config, LifestyleSnapshot snapshot, RetirementMetrics metrics) {
+        this.registry = CircuitBreakerRegistry.of(config);
+        this.circuitBreaker = registry.circuitBreaker(NAME);
+        this.snapshot = snapshot;
+        this.metrics = metrics;
+        circuitBreaker.getEventPublisher().onStateTransition(event ->
+                log.warn("Redis circuit breaker {}", event.getStateTransition()));
+    }
+
+    /**
+     * Reads the lifestyle data of a lifestyle type from Redis, or from the snapshot if Redis
+     * is unavailable.
+     *
+     * @param key       the lowercased lifestyle type
+     * @param redisRead reads the values from Redis
+     * @return the values read, with {@code null} for missing keys
+     */
+    public LifestyleRates read(String key, Function<String, LifestyleRates> redisRead) {
+        long start = System.nanoTime();
+        try {
+            return circuitBreaker.executeSupplier(() -> redisRead.apply(key));
+        } catch (CallNotPermittedException | DataAccessException e) {
+            return fallback(e, start, () -> snapshot.get(key));
+        }
+    }
+
+    /**
+     * Reads the lifestyle data of several lifestyle types from Redis, or from the snapshot if
+     * Redis is unavailable.
+     *
+     * @param keys      the lowercased lifestyle types
+     * @param redisRead reads the values from Redis
+     * @return the values read per key, with {@code null} for missing keys
+     */
+    public Map<String, LifestyleRates> readAll(List<String> keys,
+                                               Function<List<String>, Map<String, LifestyleRates>> redisRead) {
+        long start = System.nanoTime();
+        try {
+            return circuitBreaker.executeSupplier(() -> redisRead.apply(keys));
+        } catch (CallNotPermittedException | DataAccessException e) {
+            return fallback(e, start, () -> snapshot.getAll(keys));
+        }
+    }
+
+    /**
+     * Reads the lifestyle data of a lifestyle type from Redis without blocking, or from the
+     * snapshot if Redis is unavailable.
+     *
+     * @param key       the lowercased lifestyle type
+     * @param redisRead reads the values from Redis when subscribed to
+     * @return a {@link Mono} emitting the values read, with {@code null} for missing keys
+     */
+    public Mono<LifestyleRates> read(String key, Mono<LifestyleRates> redisRead) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return redisRead.transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                    .onErrorResume(e -> e instanceof CallNotPermittedException || e instanceof DataAccessException,
+                            e -> Mono.fromSupplier(() -> fallback((RuntimeException) e, start, () -> snapshot.get(key))));
+        });
+    }
+
+    /**
+     * Returns the current state of the breaker.
+     */
+    public CircuitBreaker.State getState() {
+        return circuitBreaker.getState();
+    }
+
+    /**
+     * Publishes the breaker state and call outcomes to the meter registry.
+     *
+     * @param meterRegistry the registry to bind to
+     */
+    @Override
+    public void bindTo(MeterRegistry meterRegistry) {
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(registry).bindTo(meterRegistry);
+    }
+
+    /**
+     * Answers a failed or rejected lookup from the snapshot, or rethrows the failure if the
+     * snapshot has not been built yet, so an empty snapshot is never reported as missing data.
+     */
+    private <T> T fallback(RuntimeException failure, long startNanos, Supplier<T> read) {
+        if (!snapshot.isLoaded()) {
+            throw failure;
+        }
+        String cause = CIRCUIT_OPEN;
+        if (failure instanceof DataAccessException) {
+            cause = REDIS_ERROR;
+            log.warn("Redis lookup of lifestyle data failed, serving it from the local snapshot: {}", failure.getMessage());
+        }
+        try {
+            return read.get();
+        } finally {
+            metrics.recordFallback(cause, System.nanoTime() - startNanos);
+        }
+    }
+}
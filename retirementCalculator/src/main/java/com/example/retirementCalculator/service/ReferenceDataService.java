@@ -0,0 +1,424 @@
+package com.example.retirementCalculator.service;
+
+import com.example.retirementCalculator.config.XmlConfig;
+import com.example.retirementCalculator.entity.ImportResult;
+import com.example.retirementCalculator.entity.LifestyleDeposit;
+import com.example.retirementCalculator.entity.LifestyleDepositRow;
+import com.example.retirementCalculator.exception.DatabaseAccessException;
+import com.example.retirementCalculator.exception.InvalidInputException;
+import com.example.retirementCalculator.repository.RetirementRepository;
+import com.opencsv.CSVReader;
+import com.opencsv.CSVWriter;
+import com.opencsv.exceptions.CsvValidationException;
+import jakarta.xml.bind.JAXBException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import javax.xml.stream.XMLStreamException;
+import java.io.*;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Bulk import and export of the lifestyle reference data: the monthly deposits of the
+ * {@code lifestyle_deposits} table and the interest rates cached in Redis.
+ * <p>
+ * Deposits are read from CSV ({@code lifestyleType,monthlyDeposit}) or from a
+ * {@code <lifestyleDeposits>} XML document, and rates from CSV ({@code lifestyleType,interestRate},
+ * the format of {@code lifestyleTypeInterestRate.csv}). Files are streamed row by row with OpenCSV
+ * or StAX and written in chunks of {@code retirement.import.batch-size} rows, so memory use does
+ * not grow with the file size. Each chunk of deposits is upserted in one transaction with
+ * {@link RetirementRepository#upsertAll(Map)} and, once committed, written to Redis with one
+ * {@code MSET} (or one script call with the hash layout) through {@link CacheService}. Rates
+ * only live in Redis and skip the database.
+ * </p>
+ * <p>
+ * Lifestyle types are trimmed and lowercased, like the Redis keys. Invalid rows are skipped and
+ * reported in the {@link ImportResult}; a database or Redis failure stops the import, leaving the
+ * chunks already written in place. Progress is logged after every chunk.
+ * </p>
+ * <p>
+ * Exports write the same formats, reading the table in keyset-paginated pages of read-only
+ * projections, which are neither managed nor cached by Hibernate, and Redis in {@code SCAN}
+ * chunks.
+ * </p>
+ *
+ * @author Priscilla Masunyane
+ */
+@Service
+public class ReferenceDataService {
+
+    /**
+     * Dataset name of the monthly deposits.
+     */
+    public static final String DEPOSITS = "deposits";
+
+    /**
+     * Dataset name of the interest rates.
+     */
+    public static final String RATES = "rates";
+
+    private static final String CSV = "csv";
+    private static final String XML = "xml";
+    private static final String TYPE_COLUMN = "lifestyleType";
+    private static final String DEPOSIT_COLUMN = "monthlyDeposit";
+    private static final String RATE_COLUMN = "interestRate";
+    private static final int MAX_TYPE_LENGTH = 20;
+    private static final int DEPOSIT_PRECISION = 10;
+    private static final int DEPOSIT_SCALE = 2;
+
+    private static final Logger log = LoggerFactory.getLogger(ReferenceDataService.class);
+
+    private final RetirementRepository retirementRepository;
+    private final CacheService cacheService;
+    private final XmlConfig xmlConfig;
+    private final RetirementMetrics metrics;
+    private final int batchSize;
+
+    /**
+     * Constructs a new {@code ReferenceDataService}.
+     *
+     * @param retirementRepository the repository the deposits are upserted into and exported from
+     * @param cacheService         the service writing the imported values to Redis
+     * @param xmlConfig            the converter streaming deposits to and from XML
+     * @param metrics              the meters recording the imports
+     * @param batchSize            the number of rows per chunk
+     */
+    @Autowired
+    public ReferenceDataService(RetirementRepository retirementRepository, CacheService cacheService,
+                                XmlConfig xmlConfig, RetirementMetrics metrics,
+                                @Value("${retirement.import.batch-size:500}") int batchSize) {
+        this.retirementRepository = retirementRepository;
+        this.cacheService = cacheService;
+        this.xmlConfig = xmlConfig;
+        this.metrics = metrics;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Imports monthly deposits from a CSV file with a {@code lifestyleType,monthlyDeposit} header.
+     *
+     * @param in the CSV file
+     * @return the row counts of the import
+     * @throws InvalidInputException   if the file is not CSV or lacks a required column
+     * @throws DatabaseAccessException if a chunk cannot be written to the database
+     */
+    public ImportResult importDepositsCsv(InputStream in) {
+        ChunkedImport chunks = new ChunkedImport(new ImportResult(DEPOSITS, CSV), this::upsertDeposits);
+        readCsv(in, DEPOSIT_COLUMN, (where, type, value) -> chunks.add(where, type, () -> normalizedDeposit(value)));
+        return chunks.finish();
+    }
+
+    /**
+     * Imports monthly deposits from a {@code <lifestyleDeposits>} XML document.
+     *
+     * @param in the XML document
+     * @return the row counts of the import
+     * @throws InvalidInputException   if the document is not well-formed XML
+     * @throws DatabaseAccessException if a chunk cannot be written to the database
+     */
+    public ImportResult importDepositsXml(InputStream in) {
+        ChunkedImport chunks = new ChunkedImport(new ImportResult(DEPOSITS, XML), this::upsertDeposits);
+        try {
+            xmlConfig.readAll(in, deposit -> chunks.add("deposit " + (chunks.result.getRows() + 1),
+                    deposit.getLifestyleType(),
+                    () -> deposit.getMonthlyDeposit() != null ? normalizedDeposit(deposit.getMonthlyDeposit().toPlainString()) : null));
+        } catch (XMLStreamException | JAXBException e) {
+            throw new InvalidInputException("file", "could not be read as lifestyle deposit XML: " + e.getMessage());
+        }
+        return chunks.finish();
+    }
+
+    /**
+     * Imports interest rates from a CSV file with a {@code lifestyleType,interestRate} header into
+     * Redis, then rebuilds the {@link AnnuityFactorTable}.
+     *
+     * @param in the CSV file
+     * @return the row counts of the import
+     * @throws InvalidInputException if the file is not CSV or lacks a required column
+     */
+    public ImportResult importRatesCsv(InputStream in) {
+        ChunkedImport chunks = new ChunkedImport(new ImportResult(RATES, CSV), cacheService::writeRates);
+        readCsv(in, RATE_COLUMN, (where, type, value) -> chunks.add(where, type, () -> normalizedRate(value)));
+        ImportResult result = chunks.finish();
+        if (result.getImported() > 0) {
+            cacheService.refreshAnnuityTable();
+        }
+        return result;
+    }
+
+    /**
+     * Writes every deposit of the database as CSV, in id order.
+     *
+     * @param out the stream to write to; it is flushed but not closed
+     * @return the number of deposits written
+     * @throws IOException if the output cannot be written
+     */
+    public long exportDepositsCsv(OutputStream out) throws IOException {
+        CSVWriter writer = new CSVWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.writeNext(new String[] { TYPE_COLUMN, DEPOSIT_COLUMN }, false);
+        long rows = 0;
+        for (LifestyleDepositRow deposit : allDeposits()) {
+            writer.writeNext(new String[] { deposit.getLifestyleType(), deposit.getMonthlyDeposit().toPlainString() }, false);
+            rows++;
+        }
+        writer.flush();
+        return rows;
+    }
+
+    /**
+     * Writes every deposit of the database as a {@code <lifestyleDeposits>} XML document, in id order.
+     *
+     * @param out the stream to write to; it is flushed but not closed
+     * @return the number of deposits written
+     * @throws JAXBException      if a deposit cannot be marshalled
+     * @throws XMLStreamException if the output cannot be written
+     */
+    public long exportDepositsXml(OutputStream out) throws JAXBException, XMLStreamException {
+        Iterable<LifestyleDeposit> deposits = () -> new Iterator<>() {
+            private final Iterator<LifestyleDepositRow> rows = allDeposits().iterator();
+
+            @Override
+            public boolean hasNext() {
+                return rows.hasNext();
+            }
+
+            @Override
+            public LifestyleDeposit next() {
+                // A detached copy for JAXB, dropped once marshalled
+                LifestyleDepositRow row = rows.next();
+                LifestyleDeposit deposit = new LifestyleDeposit(row.getLifestyleType(), row.getMonthlyDeposit());
+                deposit.setId(row.getId());
+                return deposit;
+            }
+        };
+        return xmlConfig.writeAll(deposits, out);
+    }
+
+    /**
+     * Writes every interest rate cached in Redis as CSV.
+     *
+     * @param out the stream to write to; it is flushed but not closed
+     * @return the number of rates written
+     * @throws IOException if the output cannot be written
+     */
+    public long exportRatesCsv(OutputStream out) throws IOException {
+        CSVWriter writer = new CSVWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.writeNext(new String[] { TYPE_COLUMN, RATE_COLUMN }, false);
+        long[] rows = { 0 };
+        cacheService.forEachInterestRateChunk(rates -> {
+            rates.forEach((type, rate) -> writer.writeNext(new String[] { type, rate }, false));
+            rows[0] += rates.size();
+        });
+        writer.flush();
+        return rows[0];
+    }
+
+    /**
+     * Upserts a chunk of deposits in one transaction and then writes it to Redis.
+     */
+    private void upsertDeposits(Map<String, String> chunk, ImportResult result) {
+        Map<String, BigDecimal> deposits = new LinkedHashMap<>();
+        chunk.forEach((lifestyleType, deposit) -> deposits.put(lifestyleType, new BigDecimal(deposit)));
+        int inserted;
+        try {
+            inserted = retirementRepository.upsertAll(deposits);
+        } catch (DataAccessException e) {
+            throw new DatabaseAccessException("Deposit import stopped after " + result.getImported()
+                    + " rows; the following chunk of " + chunk.size() + " rows was not written", e);
+        }
+
+        result.setInserted(result.getInserted() + inserted);
+        result.setUpdated(result.getUpdated() + chunk.size() - inserted);
+        cacheService.writeDeposits(chunk);
+    }
+
+    /**
+     * Streams the data rows of a CSV file with a {@code lifestyleType} and a value column.
+     */
+    private void readCsv(InputStream in, String valueColumn, RowHandler handler) {
+        try (CSVReader reader = new CSVReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String[] headerRow = reader.readNext();
+            List<String> header = headerRow != null ? Arrays.asList(headerRow) : List.of();
+            int typeColumn = header.indexOf(TYPE_COLUMN);
+            int column = header.indexOf(valueColumn);
+            if (typeColumn < 0 || column < 0) {
+                throw new InvalidInputException("file", "must start with a header naming the columns "
+                        + TYPE_COLUMN + " and " + valueColumn);
+            }
+
+            String[] line;
+            while ((line = reader.readNext()) != null) {
+                String where = "line " + reader.getLinesRead();
+                if (line.length <= Math.max(typeColumn, column)) {
+                    handler.handle(where, null, null);
+                } else {
+                    handler.handle(where, line[typeColumn], line[column]);
+                }
+            }
+        } catch (IOException | CsvValidationException e) {
+            throw new InvalidInputException("file", "could not be read as CSV: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Returns the deposit with two decimals, or throws if it is not a valid amount.
+     */
+    private static String normalizedDeposit(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        BigDecimal deposit;
+        try {
+            deposit = new BigDecimal(value.trim()).setScale(DEPOSIT_SCALE, RoundingMode.HALF_UP);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(DEPOSIT_COLUMN + " '" + value + "' is not a number");
+        }
+        if (deposit.signum() < 0) {
+            throw new IllegalArgumentException(DEPOSIT_COLUMN + " '" + value + "' is negative");
+        }
+        if (deposit.precision() > DEPOSIT_PRECISION) {
+            throw new IllegalArgumentException(DEPOSIT_COLUMN + " '" + value + "' is too large");
+        }
+        return deposit.toPlainString();
+    }
+
+    /**
+     * Returns the trimmed interest rate, or throws if it is not a valid rate.
+     */
+    private static String normalizedRate(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            if (new BigDecimal(value.trim()).signum() < 0) {
+                throw new IllegalArgumentException(RATE_COLUMN + " '" + value + "' is negative");
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(RATE_COLUMN + " '" + value + "' is not a number");
+        }
+        return value.trim();
+    }
+
+    /**
+     * Iterates every deposit of the table in id order, reading one page of {@code batchSize} rows at a time.
+     */
+    private Iterable<LifestyleDepositRow> allDeposits() {
+        return () -> new Iterator<>() {
+            private Iterator<LifestyleDepositRow> page = Collections.emptyIterator();
+            private long lastId = Long.MIN_VALUE;
+            private boolean lastPage;
+
+            @Override
+            public boolean hasNext() {
+                if (!page.hasNext() && !lastPage) {
+                    List<LifestyleDepositRow> next = retirementRepository.findRowsByIdGreaterThanOrderByIdAsc(lastId, Limit.of(batchSize));
+                    lastPage = next.size() < batchSize;
+                    if (!next.isEmpty()) {
+                        lastId = next.get(next.size() - 1).getId();
+                    }
+                    page = next.iterator();
+                }
+                return page.hasNext();
+            }
+
+            @Override
+            public LifestyleDepositRow next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return page.next();
+            }
+        };
+    }
+
+    @FunctionalInterface
+    private interface RowHandler {
+        void handle(String where, String lifestyleType, String value);
+    }
+
+    @FunctionalInterface
+    private interface ChunkWriter {
+        void write(Map<String, String> chunk, ImportResult result);
+    }
+
+    /**
+     * Collects validated rows into chunks of {@code batchSize} distinct lifestyle types and writes
+     * each full chunk. A lifestyle type repeated within a chunk keeps its last value.
+     */
+    private final class ChunkedImport {
+
+        private final ImportResult result;
+        private final ChunkWriter writer;
+        private final long start = System.nanoTime();
+        private Map<String, String> chunk = new LinkedHashMap<>();
+
+        ChunkedImport(ImportResult result, ChunkWriter writer) {
+            this.result = result;
+            this.writer = writer;
+        }
+
+        ChunkedImport(ImportResult result, Consumer<Map<String, String>> writer) {
+            this(result, (chunk, ignored) -> writer.accept(chunk));
+        }
+
+        /**
+         * Adds a row; {@code value} is the normalized value, computed by the caller, whose
+         * {@link IllegalArgumentException} rejects the row.
+         */
+        void add(String where, String lifestyleType, Supplier<String> value) {
+            result.setRows(result.getRows() + 1);
+            String type = lifestyleType != null ? lifestyleType.trim().toLowerCase() : "";
+            String normalized;
+            try {
+                normalized = value.get();
+            } catch (IllegalArgumentException e) {
+                result.reject(where + ": " + e.getMessage());
+                return;
+            }
+            if (type.isEmpty()) {
+                result.reject(where + ": " + TYPE_COLUMN + " is empty");
+            } else if (type.length() > MAX_TYPE_LENGTH) {
+                result.reject(where + ": " + TYPE_COLUMN + " '" + type + "' is longer than " + MAX_TYPE_LENGTH + " characters");
+            } else if (normalized == null) {
+                result.reject(where + ": value is empty");
+            } else {
+                chunk.put(type, normalized);
+                if (chunk.size() >= batchSize) {
+                    flush();
+                }
+            }
+        }
+
+        ImportResult finish() {
+            flush();
+            long elapsedNanos = System.nanoTime() - start;
+            result.setElapsedMillis(elapsedNanos / 1_000_000);
+            metrics.recordImport(result.getDataset(), result.getImported(), result.getRejected(), elapsedNanos);
+            log.info("Imported {} of {} {} rows ({} rejected) in {} batches in {} ms", result.getImported(), result.getRows(),
+                    result.getDataset(), result.getRejected(), result.getBatches(), result.getElapsedMillis());
+            return result;
+        }
+
+        private void flush() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            writer.write(chunk, result);
+            result.setImported(result.getImported() + chunk.size());
+            result.setBatches(result.getBatches() + 1);
+            log.info("Imported {} {} so far ({} rows read, {} rejected)", result.getImported(), result.getDataset(),
+                    result.getRows(), result.getRejected());
+            chunk = new LinkedHashMap<>();
+        }
+    }
+}
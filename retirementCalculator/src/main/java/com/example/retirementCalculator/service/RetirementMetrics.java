@@ -0,0 +1,312 @@
+package com.example.retirementCalculator.service;
+
+import com.example.retirementCalculator.exception.RetirementCalculatorException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Micrometer meters of the retirement calculator, exported through {@code /actuator/metrics}
+ * and {@code /actuator/prometheus}.
+ * <ul>
+ *     <li>{@code retirement.calculation} — timer per operation ({@code plan}, {@code batch},
+ *     {@code schedule}, {@code simulation}, {@code reactive-plan}, {@code reactive-batch}) and
+ *     outcome ({@code success}, {@code error})</li>
+ *     <li>{@code retirement.redis} — timer per database ({@code db0}, {@code db1}) and command</li>
+ *     <li>{@code retirement.errors} — counter per exception and error code (e.g. {@code RC-404})</li>
+ *     <li>{@code retirement.loader} — timer per startup load phase ({@code database}, {@code csv},
+ *     {@code total}), with {@code retirement.loader.rows} counting the rows loaded</li>
+ *     <li>{@code retirement.import} — timer per bulk import dataset ({@code deposits}, {@code rates}),
+ *     with {@code retirement.import.rows} counting the rows per outcome ({@code imported}, {@code rejected})</li>
+ *     <li>{@code retirement.redis.fallback} — timer of the lookups served from the {@link LifestyleSnapshot}
+ *     per cause ({@code circuit-open}, {@code redis-error})</li>
+ *     <li>{@code retirement.invalidation} — counter of the cache invalidation messages per outcome
+ *     ({@code published}, {@code failed}, {@code applied}, {@code ignored}, {@code malformed}), with
+ *     {@code retirement.invalidation.lag} timing their delivery to other instances</li>
+ * </ul>
+ * <p>
+ * Near cache hits and misses are published by {@link LifestyleNearCache} as {@code cache.*}
+ * meters and repository lookups by Spring Data as {@code spring.data.repository.invocations}.
+ * Percentile histograms are enabled in {@code application.yaml}.
+ * </p>
+ *
+ * @author Priscilla Masunyane
+ */
+@Component
+public class RetirementMetrics {
+
+    /**
+     * Tag value of the Redis database holding the monthly deposits.
+     */
+    public static final String DB0 = "db0";
+
+    /**
+     * Tag value of the Redis database holding the interest rates.
+     */
+    public static final String DB1 = "db1";
+
+    private final MeterRegistry registry;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    @Autowired
+    public RetirementMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Times a calculation and counts the {@link RetirementCalculatorException} it throws, if any.
+     *
+     * @param operation   the calculation name (e.g. "plan")
+     * @param calculation the calculation to run
+     * @return the calculation result
+     */
+    public <T> T recordCalculation(String operation, Supplier<T> calculation) {
+        long start = System.nanoTime();
+        String outcome = "error";
+        try {
+            T result = calculation.get();
+            outcome = "success";
+            return result;
+        } catch (RetirementCalculatorException e) {
+            recordError(e);
+            throw e;
+        } finally {
+            recordCalculationTime(operation, outcome, start);
+        }
+    }
+
+    /**
+     * Times a lazily evaluated calculation from the call until its stream is closed, so the
+     * time to produce and consume every element is included. The outcome is {@code success}
+     * if every element was produced, and {@code error} if producing the stream or an element
+     * failed, or the stream was closed before it was exhausted.
+     *
+     * @param operation   the calculation name (e.g. "schedule")
+     * @param calculation the calculation returning the stream
+     * @return the stream, which the caller must close
+     */
+    public <T> Stream<T> recordStreamedCalculation(String operation, Supplier<Stream<T>> calculation) {
+        long start = System.nanoTime();
+        Stream<T> stream;
+        try {
+            stream = calculation.get();
+        } catch (RuntimeException | Error e) {
+            recordCalculationFailure(operation, e, start);
+            throw e;
+        }
+
+        Spliterator<T> source = stream.spliterator();
+        AtomicBoolean exhausted = new AtomicBoolean();
+        Spliterator<T> tracked = new Spliterators.AbstractSpliterator<T>(source.estimateSize(), source.characteristics()) {
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                boolean advanced = source.tryAdvance(action);
+                if (!advanced) {
+                    exhausted.set(true);
+                }
+                return advanced;
+            }
+        };
+        return StreamSupport.stream(tracked, false)
+                .onClose(stream::close)
+                .onClose(() -> recordCalculationTime(operation, exhausted.get() ? "success" : "error", start));
+    }
+
+    /**
+     * Times a reactive calculation from subscription to completion and counts the
+     * {@link RetirementCalculatorException} it signals, if any.
+     *
+     * @param operation   the calculation name (e.g. "reactive-plan")
+     * @param calculation the calculation to run
+     * @return the calculation, timed
+     */
+    public <T> Mono<T> recordCalculation(String operation, Mono<T> calculation) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return calculation
+                    .doOnSuccess(result -> recordCalculationTime(operation, "success", start))
+                    .doOnError(e -> recordCalculationFailure(operation, e, start));
+        });
+    }
+
+    /**
+     * Times a reactive stream of calculations from subscription to completion and counts the
+     * {@link RetirementCalculatorException} it signals, if any.
+     *
+     * @param operation    the calculation name (e.g. "reactive-batch")
+     * @param calculations the calculations to run
+     * @return the calculations, timed
+     */
+    public <T> Flux<T> recordCalculation(String operation, Flux<T> calculations) {
+        return Flux.defer(() -> {
+            long start = System.nanoTime();
+            return calculations
+                    .doOnComplete(() -> recordCalculationTime(operation, "success", start))
+                    .doOnError(e -> recordCalculationFailure(operation, e, start));
+        });
+    }
+
+    private void recordCalculationFailure(String operation, Throwable error, long start) {
+        if (error instanceof RetirementCalculatorException e) {
+            recordError(e);
+        }
+        recordCalculationTime(operation, "error", start);
+    }
+
+    private void recordCalculationTime(String operation, String outcome, long start) {
+        timer("retirement.calculation", "operation", operation, "outcome", outcome)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Times a single Redis command.
+     *
+     * @param database the database tag ({@link #DB0} or {@link #DB1})
+     * @param command  the Redis command (e.g. "get", "mget")
+     * @param call     the call to the Redis template
+     * @return the value returned by Redis
+     */
+    public <T> T recordRedis(String database, String command, Supplier<T> call) {
+        long start = System.nanoTime();
+        try {
+            return call.get();
+        } finally {
+            timer("retirement.redis", "database", database, "command", command)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Times a single Redis command that returns nothing.
+     *
+     * @param database the database tag ({@link #DB0} or {@link #DB1})
+     * @param command  the Redis command (e.g. "set")
+     * @param call     the call to the Redis template
+     */
+    public void recordRedis(String database, String command, Runnable call) {
+        recordRedis(database, command, () -> {
+            call.run();
+            return null;
+        });
+    }
+
+    /**
+     * Times a single reactive Redis command from subscription until it completes, fails or is cancelled.
+     *
+     * @param database the database tag ({@link #DB0} or {@link #DB1})
+     * @param command  the Redis command (e.g. "get")
+     * @param call     the call to the reactive Redis template
+     * @return the call, timed
+     */
+    public <T> Mono<T> recordRedis(String database, String command, Mono<T> call) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return call.doFinally(signal -> timer("retirement.redis", "database", database, "command", command)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+        });
+    }
+
+    /**
+     * Counts an error returned to a client, tagged with its exception and error code.
+     *
+     * @param e the error
+     */
+    public void recordError(RetirementCalculatorException e) {
+        Counter.builder("retirement.errors")
+                .description("Errors returned to clients")
+                .tag("exception", e.getClass().getSimpleName())
+                .tag("code", String.valueOf(e.getErrorCode()))
+                .register(registry)
+                .increment();
+    }
+
+    /**
+     * Records the duration and row count of a startup load phase.
+     *
+     * @param phase        the phase (e.g. "database", "csv", "total")
+     * @param rows         the number of rows loaded
+     * @param elapsedNanos the duration of the phase
+     */
+    public void recordLoad(String phase, long rows, long elapsedNanos) {
+        timer("retirement.loader", "phase", phase).record(elapsedNanos, TimeUnit.NANOSECONDS);
+        Counter.builder("retirement.loader.rows")
+                .description("Rows loaded into Redis at startup")
+                .tag("phase", phase)
+                .register(registry)
+                .increment(rows);
+    }
+
+    /**
+     * Records the duration and row counts of a bulk import.
+     *
+     * @param dataset      the data imported ("deposits" or "rates")
+     * @param imported     the number of rows written
+     * @param rejected     the number of rows skipped as invalid
+     * @param elapsedNanos the duration of the import
+     */
+    public void recordImport(String dataset, long imported, long rejected, long elapsedNanos) {
+        timer("retirement.import", "dataset", dataset).record(elapsedNanos, TimeUnit.NANOSECONDS);
+        importRows(dataset, "imported").increment(imported);
+        importRows(dataset, "rejected").increment(rejected);
+    }
+
+    /**
+     * Records a lifestyle lookup served from the local snapshot because Redis was unavailable.
+     *
+     * @param cause        why Redis was bypassed ("circuit-open" or "redis-error")
+     * @param elapsedNanos the duration of the lookup, including the failed Redis call
+     */
+    public void recordFallback(String cause, long elapsedNanos) {
+        timer("retirement.redis.fallback", "cause", cause).record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Counts a cache invalidation message of the {@link CacheInvalidationBus}.
+     *
+     * @param outcome what happened to the message ("published", "failed", "applied", "ignored" or "malformed")
+     */
+    public void recordInvalidation(String outcome) {
+        Counter.builder("retirement.invalidation")
+                .description("Cache invalidation messages exchanged between instances")
+                .tag("outcome", outcome)
+                .register(registry)
+                .increment();
+    }
+
+    /**
+     * Records the time between publishing an invalidation message and applying it on this instance.
+     *
+     * @param lagMillis the delay, based on the clocks of both instances
+     */
+    public void recordInvalidationLag(long lagMillis) {
+        timer("retirement.invalidation.lag").record(lagMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private Counter importRows(String dataset, String outcome) {
+        return Counter.builder("retirement.import.rows")
+                .description("Rows read by bulk imports")
+                .tag("dataset", dataset)
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    private Timer timer(String name, String... tags) {
+        return timers.computeIfAbsent(name + ':' + String.join(",", tags),
+                id -> Timer.builder(name).tags(tags).register(registry));
+    }
+}
@@ -1,20 +1,31 @@
 package com.example.retirementCalculator.service;
 
+import com.example.retirementCalculator.config.RedisKeyspace;
+import com.example.retirementCalculator.entity.LifestyleRates;
 import com.example.retirementCalculator.entity.Retirement;
+import com.example.retirementCalculator.entity.RetirementBatchResult;
 import com.example.retirementCalculator.entity.RetirementResult;
+import com.example.retirementCalculator.entity.ScheduleEntry;
 import com.example.retirementCalculator.exception.CalculationException;
 import com.example.retirementCalculator.exception.InvalidInputException;
 import com.example.retirementCalculator.exception.LifestyleNotFoundException;
+import com.example.retirementCalculator.exception.RetirementCalculatorException;
 import com.example.retirementCalculator.repository.RetirementRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Service responsible for performing retirement plan calculations.
@@ -26,6 +37,10 @@ import java.math.RoundingMode;
  * Validates input parameters and handles exceptions related to missing lifestyle deposits
  * or invalid inputs.
  * </p>
+ * <p>
+ * Redis is read through the {@link RedisCircuitBreaker}, so calculations are served from the
+ * local {@link LifestyleSnapshot} of the reference data while Redis is down.
+ * </p>
  *
  * @author Priscilla Masunyane
  */
@@ -37,12 +52,41 @@ public class RetirementService {
 
     private static final Logger log = LoggerFactory.getLogger(RetirementService.class);
     private final RetirementRepository retirementRepository;
+    private final LifestyleNearCache nearCache;
+    private final CalculationResultCache resultCache;
+    private final AnnuityFactorTable annuityTable;
+    private final LifestyleHashStore hashStore;
+    private final RedisKeyspace keyspace;
+    private final RetirementMetrics metrics;
+    private final RedisCircuitBreaker circuitBreaker;
+
+    /**
+     * Maximum number of plans accepted by {@link #calculatePlans(List)} in a single call.
+     * Request bodies are already bounded while they are read (see
+     * {@link com.example.retirementCalculator.config.BatchSizeModule}); this check covers
+     * other callers.
+     */
+    @Value("${retirement.batch.max-size:1000}")
+    private int maxBatchSize = 1000;
+
+    /**
+     * Arithmetic used to compute the future value; see {@link CalculationMode}.
+     */
+    @Value("${retirement.calculation.mode:exact}")
+    private CalculationMode calculationMode = CalculationMode.EXACT;
 
     @Autowired
-    public RetirementService(@Qualifier("stringRedisTemplateDb0")StringRedisTemplate redisTemplate, @Qualifier("stringRedisTemplateDb1")StringRedisTemplate redisSecondTemplate, RetirementRepository retirementRepository) {
+    public RetirementService(@Qualifier("stringRedisTemplateDb0")StringRedisTemplate redisTemplate, @Qualifier("stringRedisTemplateDb1")StringRedisTemplate redisSecondTemplate, RetirementRepository retirementRepository, LifestyleNearCache nearCache, CalculationResultCache resultCache, AnnuityFactorTable annuityTable, LifestyleHashStore hashStore, RedisKeyspace keyspace, RetirementMetrics metrics, RedisCircuitBreaker circuitBreaker) {
         this.redisTemplate = redisTemplate;
         this.redisSecondTemplate = redisSecondTemplate;
         this.retirementRepository = retirementRepository;
+        this.nearCache = nearCache;
+        this.resultCache = resultCache;
+        this.annuityTable = annuityTable;
+        this.hashStore = hashStore;
+        this.keyspace = keyspace;
+        this.metrics = metrics;
+        this.circuitBreaker = circuitBreaker;
     }
 
     /**
@@ -50,7 +94,7 @@ public class RetirementService {
      * <p>
      * The calculation estimates the future value of monthly deposits made until retirement age
      * using compound interest, where the monthly deposit amount is retrieved from Redis cache
-     * based on the lifestyle type.
+     * based on the lifestyle type. Lookups go through the {@link LifestyleNearCache} first.
      * </p>
      *
      * @param dto the {@link Retirement} DTO containing user input such as current age, retirement age,
@@ -61,9 +105,131 @@ public class RetirementService {
      * @throws CalculationException       if an unexpected error occurs during calculation
      */
     public RetirementResult calculatePlan(Retirement dto) {
-        log.info("Starting retirement plan calculation for lifestyle type: {}", dto.getLifestyleType());
+        return metrics.recordCalculation("plan", () -> {
+            log.info("Starting retirement plan calculation for lifestyle type: {}", dto.getLifestyleType());
+
+            validateInput(dto);
+
+            try {
+                String lifestyleKey = dto.getLifestyleType().toLowerCase();
+
+                LifestyleRates rates = nearCache.get(lifestyleKey, this::fetchLifestyleRates);
+
+                RetirementResult result = calculate(dto, rates);
+                log.info("Calculated future value: {}", result.getFutureValue());
+                return result;
+
+            } catch (LifestyleNotFoundException | InvalidInputException e) {
+                throw e;
+            } catch (Exception e) {
+                log.error("Unexpected error during calculation", e);
+                throw new CalculationException("Unexpected error during retirement calculation");
+            }
+        });
+    }
+
+    /**
+     * Calculates a batch of retirement plans in a single call.
+     * <p>
+     * The deposit and interest rate of each distinct lifestyle type in the batch are
+     * resolved once: from the {@link LifestyleNearCache} when present, otherwise from
+     * Redis with one {@code MGET} per database (one script call with the hash layout),
+     * instead of two lookups per plan. Each plan is then calculated independently: a plan
+     * that fails validation or references an unknown lifestyle gets an error entry, while
+     * the remaining plans are still calculated.
+     * </p>
+     *
+     * @param plans the plans to calculate
+     * @return one {@link RetirementBatchResult} per plan, in input order
+     * @throws InvalidInputException if the batch exceeds the configured maximum size
+     * @throws CalculationException  if the lifestyle data cannot be read from Redis
+     */
+    public List<RetirementBatchResult> calculatePlans(List<Retirement> plans) {
+        return metrics.recordCalculation("batch", () -> {
+            if (plans.size() > maxBatchSize) {
+                throw new InvalidInputException("Batch", "must not contain more than " + maxBatchSize + " plans");
+            }
+            log.info("Starting batch retirement plan calculation for {} plans", plans.size());
+
+            Map<String, LifestyleRates> rates = lifestyleRates(plans.stream()
+                    .filter(plan -> plan != null && plan.getLifestyleType() != null)
+                    .map(plan -> plan.getLifestyleType().toLowerCase())
+                    .distinct()
+                    .collect(Collectors.toList()));
+
+            List<RetirementBatchResult> results = new ArrayList<>(plans.size());
+            for (int i = 0; i < plans.size(); i++) {
+                Retirement plan = plans.get(i);
+                try {
+                    if (plan == null) {
+                        throw new InvalidInputException("Plan", "cannot be null");
+                    }
+                    validateInput(plan);
+                    String lifestyleKey = plan.getLifestyleType().toLowerCase();
+                    results.add(RetirementBatchResult.success(i, calculate(plan, rates.get(lifestyleKey))));
+                } catch (RetirementCalculatorException e) {
+                    metrics.recordError(e);
+                    results.add(RetirementBatchResult.failure(i, e.getErrorCode(), e.getMessage()));
+                } catch (Exception e) {
+                    log.error("Unexpected error during batch calculation of plan {}", i, e);
+                    CalculationException error = new CalculationException("Unexpected error during retirement calculation");
+                    metrics.recordError(error);
+                    results.add(RetirementBatchResult.failure(i, error.getErrorCode(), error.getMessage()));
+                }
+            }
+
+            log.info("Completed batch retirement plan calculation for {} plans", plans.size());
+            return results;
+        });
+    }
 
-        // Input validation
+    /**
+     * Calculates the balance schedule of a retirement plan, one entry per month or year.
+     * <p>
+     * Input is validated and the lifestyle data is resolved eagerly, so errors surface before
+     * the first entry is produced. The entries themselves are computed lazily in a single pass
+     * by {@link AccumulationSchedule}, allowing callers to stream long schedules without
+     * holding them in memory. The {@code schedule} calculation timer stops when the stream is
+     * closed, so it includes producing and writing every entry.
+     * </p>
+     *
+     * @param dto         the {@link Retirement} DTO containing the plan
+     * @param granularity whether to report monthly or yearly balances
+     * @return a lazily evaluated stream of {@link ScheduleEntry}, in period order, to be closed
+     *         once consumed
+     * @throws InvalidInputException      if any of the input values are invalid
+     * @throws LifestyleNotFoundException if the lifestyle type deposit amount is not found in Redis cache
+     * @throws CalculationException       if an unexpected error occurs while reading the lifestyle data
+     */
+    public Stream<ScheduleEntry> calculateSchedule(Retirement dto, ScheduleGranularity granularity) {
+        return metrics.recordStreamedCalculation("schedule", () -> {
+            log.info("Starting {} schedule calculation for lifestyle type: {}", granularity, dto.getLifestyleType());
+
+            validateInput(dto);
+            LifestyleRates rates = lifestyleRates(dto);
+
+            int months = (dto.getRetirementAge() - dto.getCurrentAge()) * 12;
+            return new AccumulationSchedule(dto.getCurrentAge(), new BigDecimal(rates.getMonthlyDeposit()),
+                    interestRate(dto, rates), months, granularity).stream();
+        });
+    }
+
+    /**
+     * Validates the user input of a single plan.
+     *
+     * @param dto the plan to validate
+     * @throws InvalidInputException if a required value is missing or out of range
+     */
+    void validateInput(Retirement dto) {
+        if (dto.getCurrentAge() == null) {
+            throw new InvalidInputException("Current Age", "cannot be null");
+        }
+        if (dto.getRetirementAge() == null) {
+            throw new InvalidInputException("Retirement Age", "cannot be null");
+        }
+        if (dto.getLifestyleType() == null) {
+            throw new InvalidInputException("Lifestyle Type", "cannot be null");
+        }
         if (dto.getCurrentAge() < 17) {
             throw new InvalidInputException("Current Age", "must be greater than 17");
         }
@@ -73,65 +239,192 @@ public class RetirementService {
         if (dto.getRetirementAge() <= dto.getCurrentAge()) {
             throw new InvalidInputException("Retirement Age", "must be greater than Current Age");
         }
+        if (dto.getInterestRate() != null && dto.getInterestRate() < 0) {
+            throw new InvalidInputException("Interest Rate", "must be non-negative");
+        }
+    }
+
+    /**
+     * Resolves the deposit and interest rate of a validated plan's lifestyle type through the
+     * {@link LifestyleNearCache}.
+     *
+     * @param dto the validated plan
+     * @return the complete lifestyle data
+     * @throws LifestyleNotFoundException if the deposit or interest rate is missing
+     * @throws CalculationException       if the lifestyle data cannot be read from Redis
+     */
+    LifestyleRates lifestyleRates(Retirement dto) {
+        LifestyleRates rates;
+        try {
+            rates = nearCache.get(dto.getLifestyleType().toLowerCase(), this::fetchLifestyleRates);
+        } catch (Exception e) {
+            log.error("Unexpected error fetching lifestyle data for lifestyle type: {}", dto.getLifestyleType(), e);
+            throw new CalculationException("Unexpected error fetching lifestyle data from cache");
+        }
+        requireComplete(dto, rates);
+        return rates;
+    }
 
+    /**
+     * Resolves the deposit and interest rate of several lifestyle types through the
+     * {@link LifestyleNearCache}, reading the missing ones from Redis in one round trip per database.
+     *
+     * @param lifestyleKeys the distinct lowercased lifestyle types
+     * @return the lifestyle data per key, possibly incomplete
+     * @throws CalculationException if the lifestyle data cannot be read from Redis
+     */
+    Map<String, LifestyleRates> lifestyleRates(List<String> lifestyleKeys) {
+        if (lifestyleKeys.isEmpty()) {
+            return new HashMap<>();
+        }
         try {
-            String lifestyleKey = dto.getLifestyleType().toLowerCase();
+            return nearCache.getAll(lifestyleKeys, this::fetchLifestyleRates);
+        } catch (Exception e) {
+            log.error("Unexpected error fetching lifestyle data for batch calculation", e);
+            throw new CalculationException("Unexpected error fetching lifestyle data from cache");
+        }
+    }
 
-            String depositStr = redisTemplate.opsForValue().get(lifestyleKey); // From DB
-            String interestRateStr = redisSecondTemplate.opsForValue().get(lifestyleKey); // From CSV
+    /**
+     * Reads the lifestyle data of a lifestyle type through the {@link RedisCircuitBreaker},
+     * which serves it from the {@link LifestyleSnapshot} while Redis is unavailable.
+     *
+     * @param lifestyleKey the lowercased lifestyle type
+     * @return the values read, with {@code null} for missing keys
+     */
+    private LifestyleRates fetchLifestyleRates(String lifestyleKey) {
+        return circuitBreaker.read(lifestyleKey, this::readLifestyleRates);
+    }
 
-            if (depositStr == null) {
-                log.error("No deposit amount found in Redis for lifestyle type: {}", dto.getLifestyleType());
-                throw new LifestyleNotFoundException(dto.getLifestyleType());
-            }
+    /**
+     * Reads the lifestyle data of several lifestyle types through the {@link RedisCircuitBreaker}.
+     *
+     * @param lifestyleKeys the lowercased lifestyle types
+     * @return the values read per key, with {@code null} for missing keys
+     */
+    private Map<String, LifestyleRates> fetchLifestyleRates(List<String> lifestyleKeys) {
+        return circuitBreaker.readAll(lifestyleKeys, this::readLifestyleRates);
+    }
 
+    /**
+     * Reads the deposit (DB 0) and interest rate (DB 1) of a lifestyle type from Redis, or
+     * both from its hash with the hash layout.
+     *
+     * @param lifestyleKey the lowercased lifestyle type
+     * @return the values read from Redis, with {@code null} for missing keys
+     */
+    private LifestyleRates readLifestyleRates(String lifestyleKey) {
+        if (keyspace.isHashLayout()) {
+            return hashStore.read(lifestyleKey);
+        }
+        String redisKey = keyspace.key(lifestyleKey);
+        String depositStr = metrics.recordRedis(RetirementMetrics.DB0, "get",
+                () -> redisTemplate.opsForValue().get(redisKey)); // From DB
+        String interestRateStr = metrics.recordRedis(RetirementMetrics.DB1, "get",
+                () -> redisSecondTemplate.opsForValue().get(redisKey)); // From CSV
+        return new LifestyleRates(depositStr, interestRateStr);
+    }
 
-            if (interestRateStr == null) {
-                log.error("No interest rate found in Redis for lifestyle type: {}", dto.getLifestyleType());
-                throw new LifestyleNotFoundException(dto.getLifestyleType());
-            }
+    /**
+     * Reads the deposits (DB 0) and interest rates (DB 1) of several lifestyle types
+     * from Redis with one {@code MGET} per database, or from their hashes in one round trip
+     * with the hash layout.
+     *
+     * @param lifestyleKeys the lowercased lifestyle types
+     * @return the values read from Redis per key, with {@code null} for missing keys
+     */
+    private Map<String, LifestyleRates> readLifestyleRates(List<String> lifestyleKeys) {
+        if (keyspace.isHashLayout()) {
+            return hashStore.readAll(lifestyleKeys);
+        }
+        List<String> redisKeys = lifestyleKeys.stream().map(keyspace::key).collect(Collectors.toList());
+        List<String> depositValues = metrics.recordRedis(RetirementMetrics.DB0, "mget",
+                () -> redisTemplate.opsForValue().multiGet(redisKeys)); // From DB
+        List<String> interestValues = metrics.recordRedis(RetirementMetrics.DB1, "mget",
+                () -> redisSecondTemplate.opsForValue().multiGet(redisKeys)); // From CSV
 
-            BigDecimal monthlyDeposit = new BigDecimal(depositStr);
-            BigDecimal interestRate;
-            if (dto.getInterestRate() != null){
-                interestRate = BigDecimal.valueOf(dto.getInterestRate());
-            } else {
-                 interestRate = new BigDecimal(interestRateStr);
-            }
+        Map<String, LifestyleRates> rates = new HashMap<>();
+        for (int i = 0; i < lifestyleKeys.size(); i++) {
+            rates.put(lifestyleKeys.get(i), new LifestyleRates(
+                    depositValues != null ? depositValues.get(i) : null,
+                    interestValues != null ? interestValues.get(i) : null));
+        }
+        return rates;
+    }
 
-            log.debug("Retrieved from Redis — Monthly Deposit: {}, Interest Rate: {}", monthlyDeposit, interestRate);
+    /**
+     * Calculates the future value of a validated plan from the lifestyle data read from Redis.
+     * Identical plans are served from the {@link CalculationResultCache}, and new ones use the
+     * precomputed {@link AnnuityFactorTable} when their rate and horizon are in it.
+     *
+     * @param dto   the validated plan
+     * @param rates the deposit and interest rate cached for the lifestyle type
+     * @return the calculation result
+     * @throws LifestyleNotFoundException if the deposit or interest rate is missing
+     */
+    RetirementResult calculate(Retirement dto, LifestyleRates rates) {
+        requireComplete(dto, rates);
 
-            int months = (dto.getRetirementAge() - dto.getCurrentAge()) * 12;
-            BigDecimal monthlyInterestRate = interestRate.divide(BigDecimal.valueOf(100 * 12), 10, RoundingMode.HALF_UP);
+        BigDecimal monthlyDeposit = new BigDecimal(rates.getMonthlyDeposit());
+        BigDecimal interestRate = interestRate(dto, rates);
 
-            BigDecimal futureValue;
+        log.debug("Retrieved from Redis — Monthly Deposit: {}, Interest Rate: {}", monthlyDeposit, interestRate);
 
-            if (monthlyInterestRate.compareTo(BigDecimal.ZERO) == 0) {
-                futureValue = monthlyDeposit.multiply(BigDecimal.valueOf(months));
-            } else {
-                BigDecimal onePlusRPowerN = (BigDecimal.ONE.add(monthlyInterestRate)).pow(months);
-                futureValue = monthlyDeposit.multiply(onePlusRPowerN.subtract(BigDecimal.ONE))
-                        .divide(monthlyInterestRate, 10, RoundingMode.HALF_UP);
-            }
+        int months = (dto.getRetirementAge() - dto.getCurrentAge()) * 12;
+        BigDecimal futureValue = resultCache.futureValue(dto.getCurrentAge(), dto.getRetirementAge(),
+                interestRate, dto.getLifestyleType(), monthlyDeposit,
+                () -> futureValue(monthlyDeposit, interestRate, months));
+
+        return new RetirementResult(
+                dto.getCurrentAge(),
+                dto.getRetirementAge(),
+                interestRate.doubleValue(),  // now using value from Redis
+                dto.getLifestyleType(),
+                monthlyDeposit,
+                futureValue
+        );
+    }
+
+    /**
+     * Calculates the future value of a series of monthly deposits with the configured
+     * {@link CalculationMode}, from the {@link AnnuityFactorTable} when the rate and horizon are in it.
+     *
+     * @param monthlyDeposit the amount deposited every month
+     * @param interestRate   the annual interest rate as a percentage (e.g. 5.5)
+     * @param months         the number of monthly deposits
+     * @return the future value rounded to 2 decimals
+     */
+    BigDecimal futureValue(BigDecimal monthlyDeposit, BigDecimal interestRate, int months) {
+        return annuityTable.futureValue(calculationMode, monthlyDeposit, interestRate, months);
+    }
 
-            futureValue = futureValue.setScale(2, RoundingMode.HALF_UP);
-            log.info("Calculated future value: {}", futureValue);
+    /**
+     * Ensures both the deposit and the interest rate of the plan's lifestyle type are present.
+     *
+     * @param dto   the validated plan
+     * @param rates the deposit and interest rate cached for the lifestyle type
+     * @throws LifestyleNotFoundException if the deposit or interest rate is missing
+     */
+    void requireComplete(Retirement dto, LifestyleRates rates) {
+        if (rates.getMonthlyDeposit() == null) {
+            log.error("No deposit amount found in Redis for lifestyle type: {}", dto.getLifestyleType());
+            throw new LifestyleNotFoundException(dto.getLifestyleType());
+        }
 
-            return new RetirementResult(
-                    dto.getCurrentAge(),
-                    dto.getRetirementAge(),
-                    interestRate.doubleValue(),  // now using value from Redis
-                    dto.getLifestyleType(),
-                    monthlyDeposit,
-                    futureValue
-            );
+        if (rates.getInterestRate() == null) {
+            log.error("No interest rate found in Redis for lifestyle type: {}", dto.getLifestyleType());
+            throw new LifestyleNotFoundException(dto.getLifestyleType());
+        }
+    }
 
-        } catch (LifestyleNotFoundException | InvalidInputException e) {
-            throw e;
-        } catch (Exception e) {
-            log.error("Unexpected error during calculation", e);
-            throw new CalculationException("Unexpected error during retirement calculation");
+    /**
+     * Returns the interest rate of the plan, falling back to the rate cached for its lifestyle type.
+     */
+    private BigDecimal interestRate(Retirement dto, LifestyleRates rates) {
+        if (dto.getInterestRate() != null) {
+            return BigDecimal.valueOf(dto.getInterestRate());
         }
+        return new BigDecimal(rates.getInterestRate());
     }
 
 }
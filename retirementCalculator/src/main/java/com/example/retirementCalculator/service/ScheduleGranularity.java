@@ -0,0 +1,50 @@
+package com.example.retirementCalculator.service;
+
+import com.example.retirementCalculator.exception.InvalidInputException;
+
+/**
+ * Length of the periods reported by an accumulation schedule.
+ *
+ * @author Priscilla Masunyane
+ */
+public enum ScheduleGranularity {
+
+    /**
+     * One entry per month.
+     */
+    MONTHLY(1),
+
+    /**
+     * One entry per year.
+     */
+    YEARLY(12);
+
+    private final int months;
+
+    ScheduleGranularity(int months) {
+        this.months = months;
+    }
+
+    /**
+     * Returns the number of months in one period.
+     */
+    public int getMonths() {
+        return months;
+    }
+
+    /**
+     * Parses a granularity name, ignoring case.
+     *
+     * @param value the granularity name (e.g. "yearly")
+     * @return the matching granularity
+     * @throws InvalidInputException if the value is not a known granularity
+     */
+    public static ScheduleGranularity fromValue(String value) {
+        for (ScheduleGranularity granularity : values()) {
+            if (granularity.name().equalsIgnoreCase(value)) {
+                return granularity;
+            }
+        }
+        throw new InvalidInputException("Granularity", "must be one of monthly, yearly");
+    }
+}
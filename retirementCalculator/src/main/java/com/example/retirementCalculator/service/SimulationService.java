@@ -0,0 +1,154 @@
+package com.example.retirementCalculator.service;
+
+import com.example.retirementCalculator.config.SimulationProperties;
+import com.example.retirementCalculator.entity.LifestyleRates;
+import com.example.retirementCalculator.entity.Retirement;
+import com.example.retirementCalculator.entity.SimulationRequest;
+import com.example.retirementCalculator.entity.SimulationResult;
+import com.example.retirementCalculator.exception.CalculationException;
+import com.example.retirementCalculator.exception.InvalidInputException;
+import com.example.retirementCalculator.exception.LifestyleNotFoundException;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Service responsible for probabilistic retirement projections.
+ * <p>
+ * Resolves the plan's monthly deposit and expected return the same way as
+ * {@link RetirementService}, then runs a {@link MonteCarloSimulator} with the requested
+ * (or configured) volatility and reports percentile outcomes and the probability of
+ * reaching a target balance.
+ * </p>
+ * <p>
+ * The simulations run on a dedicated fork-join pool of {@code retirement.simulation.parallelism}
+ * threads. Returns and volatilities are bounded by configuration and the number of paths times
+ * months by {@code retirement.simulation.max-path-months}, so a request cannot run unbounded or
+ * project balances that overflow a double.
+ * </p>
+ *
+ * @author Priscilla Masunyane
+ */
+@Service
+public class SimulationService {
+
+    private static final Logger log = LoggerFactory.getLogger(SimulationService.class);
+
+    private final RetirementService retirementService;
+    private final SimulationProperties properties;
+    private final RetirementMetrics metrics;
+    private final ForkJoinPool pool;
+
+    @Autowired
+    public SimulationService(RetirementService retirementService, SimulationProperties properties, RetirementMetrics metrics) {
+        this.retirementService = retirementService;
+        this.properties = properties;
+        this.metrics = metrics;
+        this.pool = new ForkJoinPool(properties.getParallelism(), pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("simulation-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+    }
+
+    /**
+     * Stops the simulation pool once running simulations complete.
+     */
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Simulates the balance at retirement of a plan under random monthly returns.
+     *
+     * @param request the plan and the distribution of returns to simulate
+     * @return the percentile outcomes and, if a target was given, the probability of reaching it
+     * @throws InvalidInputException      if any of the input values are invalid
+     * @throws LifestyleNotFoundException if the lifestyle type is not found in Redis cache
+     * @throws CalculationException       if the lifestyle data cannot be read from Redis
+     */
+    public SimulationResult simulate(SimulationRequest request) {
+        return metrics.recordCalculation("simulation", () -> runSimulation(request));
+    }
+
+    private SimulationResult runSimulation(SimulationRequest request) {
+        Retirement plan = new Retirement(request.getCurrentAge(), request.getRetirementAge(),
+                request.getExpectedReturn(), request.getLifestyleType());
+        retirementService.validateInput(plan);
+
+        int paths = request.getPaths() != null ? request.getPaths() : properties.getDefaultPaths();
+        if (paths < 1 || paths > properties.getMaxPaths()) {
+            throw new InvalidInputException("Paths", "must be between 1 and " + properties.getMaxPaths());
+        }
+        checkRange("Expected Return", request.getExpectedReturn(), properties.getMaxExpectedReturn());
+        checkRange("Volatility", request.getVolatility(), properties.getMaxVolatility());
+        long horizon = (long) (plan.getRetirementAge() - plan.getCurrentAge()) * 12;
+        if (paths * horizon > properties.getMaxPathMonths()) {
+            throw new InvalidInputException("Paths", "times months until retirement must not exceed "
+                    + properties.getMaxPathMonths());
+        }
+
+        LifestyleRates rates = retirementService.lifestyleRates(plan);
+        BigDecimal monthlyDeposit = new BigDecimal(rates.getMonthlyDeposit());
+        double expectedReturn = request.getExpectedReturn() != null
+                ? request.getExpectedReturn()
+                : Double.parseDouble(rates.getInterestRate());
+        double volatility = request.getVolatility() != null
+                ? request.getVolatility()
+                : properties.volatilityOf(request.getLifestyleType().toLowerCase());
+        long seed = request.getSeed() != null ? request.getSeed() : ThreadLocalRandom.current().nextLong();
+        int months = (int) horizon;
+
+        log.info("Simulating {} paths over {} months for lifestyle type: {} (return {}%, volatility {}%)",
+                paths, months, plan.getLifestyleType(), expectedReturn, volatility);
+        long start = System.nanoTime();
+
+        MonteCarloSimulator.Summary summary = MonteCarloSimulator.simulate(monthlyDeposit.doubleValue(),
+                expectedReturn, volatility, months, paths,
+                request.getTargetAmount() != null ? request.getTargetAmount().doubleValue() : Double.NaN,
+                seed, pool);
+
+        log.info("Simulated {} paths in {} ms", paths, (System.nanoTime() - start) / 1_000_000);
+        if (!Double.isFinite(summary.getMean()) || !Double.isFinite(summary.quantile(0.05))
+                || !Double.isFinite(summary.quantile(0.95))) {
+            throw new InvalidInputException("Simulation", "projects balances too large to represent;"
+                    + " lower the expected return, volatility or horizon");
+        }
+
+        return SimulationResult.builder()
+                .currentAge(plan.getCurrentAge())
+                .retirementAge(plan.getRetirementAge())
+                .lifestyleType(plan.getLifestyleType())
+                .monthlyDeposit(monthlyDeposit)
+                .expectedReturn(expectedReturn)
+                .volatility(volatility)
+                .paths(paths)
+                .p5(amount(summary.quantile(0.05)))
+                .p50(amount(summary.quantile(0.50)))
+                .p95(amount(summary.quantile(0.95)))
+                .mean(amount(summary.getMean()))
+                .targetAmount(request.getTargetAmount())
+                .targetProbability(request.getTargetAmount() != null ? summary.getTargetProbability() : null)
+                .build();
+    }
+
+    private static void checkRange(String field, Double value, double max) {
+        // Written so that NaN fails the check too
+        if (value != null && !(value >= 0 && value <= max)) {
+            throw new InvalidInputException(field, "must be between 0 and " + max);
+        }
+    }
+
+    private static BigDecimal amount(double value) {
+        return BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP);
+    }
+}
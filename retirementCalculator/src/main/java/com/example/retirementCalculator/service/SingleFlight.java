@@ -0,0 +1,200 @@
+package com.example.retirementCalculator.service;
+
+import com.example.retirementCalculator.exception.CacheLoadTimeoutException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Coalesces concurrent loads of the same key into one.
+ * <p>
+ * The first caller to miss a key runs the load on its own thread and publishes the result
+ * through a future registered under the key. Callers missing the same key while that load is
+ * in flight wait for the same future instead of loading again, so a burst of misses costs one
+ * Redis read or database query. They wait at most the configured timeout and then fail with
+ * {@link CacheLoadTimeoutException}; the caller running the load is only bounded by the
+ * timeouts of Redis and the database. A failed load fails every caller waiting for it, and the
+ * next miss starts a new load.
+ * </p>
+ * <p>
+ * Results are not kept once the load completes; caching them is up to the caller (see
+ * {@link LifestyleNearCache}). {@link #forget(Object)} detaches an in-flight load, so callers
+ * arriving after an invalidation do not receive a value read before it.
+ * </p>
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the loaded values
+ * @author Priscilla Masunyane
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> flights = new ConcurrentHashMap<>();
+    private final Duration timeout;
+    private final LongAdder joined = new LongAdder();
+
+    /**
+     * Constructs a new {@code SingleFlight}.
+     *
+     * @param timeout the time a caller waits for a load started by another caller
+     */
+    public SingleFlight(Duration timeout) {
+        this.timeout = timeout;
+    }
+
+    /**
+     * Loads a key, or waits for the load of the same key already in flight.
+     *
+     * @param key    the key
+     * @param loader loads the value of the key; runs on the calling thread
+     * @return the loaded value
+     * @throws CacheLoadTimeoutException if the load in flight does not complete in time
+     */
+    public V load(K key, Function<K, V> loader) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> inFlight = flights.putIfAbsent(key, flight);
+        if (inFlight != null) {
+            return await(key, inFlight);
+        }
+
+        try {
+            V value = loader.apply(key);
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            flights.remove(key, flight);
+        }
+    }
+
+    /**
+     * Loads several keys, waiting for the loads of keys already in flight and loading the
+     * others with one call.
+     *
+     * @param keys   the keys
+     * @param loader loads the values of the keys not in flight; runs on the calling thread
+     * @return the loaded value per key
+     * @throws CacheLoadTimeoutException if a load in flight does not complete in time
+     */
+    public Map<K, V> loadAll(Collection<K> keys, Function<List<K>, Map<K, V>> loader) {
+        Map<K, CompletableFuture<V>> started = new LinkedHashMap<>();
+        Map<K, CompletableFuture<V>> inFlight = new LinkedHashMap<>();
+        for (K key : keys) {
+            CompletableFuture<V> flight = new CompletableFuture<>();
+            CompletableFuture<V> existing = flights.putIfAbsent(key, flight);
+            if (existing != null) {
+                inFlight.put(key, existing);
+            } else {
+                started.put(key, flight);
+            }
+        }
+
+        Map<K, V> values = new HashMap<>();
+        // Complete our own loads before waiting for others, so two overlapping batches cannot wait for each other
+        if (!started.isEmpty()) {
+            try {
+                Map<K, V> loaded = loader.apply(new ArrayList<>(started.keySet()));
+                started.forEach((key, flight) -> {
+                    flight.complete(loaded.get(key));
+                    values.put(key, loaded.get(key));
+                });
+            } catch (RuntimeException | Error e) {
+                started.values().forEach(flight -> flight.completeExceptionally(e));
+                throw e;
+            } finally {
+                started.forEach(flights::remove);
+            }
+        }
+        inFlight.forEach((key, flight) -> values.put(key, await(key, flight)));
+        return values;
+    }
+
+    /**
+     * Loads a key without blocking, or joins the load of the same key already in flight.
+     * <p>
+     * The load starts when the returned {@code Mono} is subscribed. Cancelling a caller that
+     * joined a load does not cancel the load; cancelling the caller running it fails the
+     * callers that joined it, and the next miss starts a new load.
+     * </p>
+     *
+     * @param key    the key
+     * @param loader emits the value of the key, or completes empty
+     * @return the loaded value, or a {@link CacheLoadTimeoutException} error if the load in
+     *         flight does not complete in time
+     */
+    public Mono<V> load(K key, Mono<V> loader) {
+        return Mono.defer(() -> {
+            CompletableFuture<V> flight = new CompletableFuture<>();
+            CompletableFuture<V> inFlight = flights.putIfAbsent(key, flight);
+            if (inFlight != null) {
+                joined.increment();
+                return Mono.fromFuture(inFlight, true)
+                        .timeout(timeout, Mono.error(() -> timedOut(key, null)));
+            }
+
+            return loader
+                    .doOnSuccess(flight::complete)
+                    .doOnError(flight::completeExceptionally)
+                    .doFinally(signal -> {
+                        flight.cancel(false); // no-op once completed
+                        flights.remove(key, flight);
+                    });
+        });
+    }
+
+    /**
+     * Detaches the load of a key in flight, so the next miss starts a new load. Callers
+     * already waiting still receive its result.
+     *
+     * @param key the key
+     */
+    public void forget(K key) {
+        flights.remove(key);
+    }
+
+    /**
+     * Detaches every load in flight.
+     */
+    public void forgetAll() {
+        flights.clear();
+    }
+
+    /**
+     * Returns the number of calls that waited for a load started by another call instead of
+     * loading themselves.
+     */
+    public long joinedCount() {
+        return joined.sum();
+    }
+
+    private V await(K key, CompletableFuture<V> flight) {
+        joined.increment();
+        try {
+            return flight.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            throw timedOut(key, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CacheLoadTimeoutException("Interrupted while waiting for the load of " + key, e);
+        } catch (ExecutionException | CancellationException e) {
+            Throwable cause = e instanceof ExecutionException ? e.getCause() : e;
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new CompletionException(cause);
+        }
+    }
+
+    private CacheLoadTimeoutException timedOut(K key, Throwable cause) {
+        return new CacheLoadTimeoutException("Timed out after " + timeout.toMillis()
+                + " ms waiting for the load of " + key, cause);
+    }
+}
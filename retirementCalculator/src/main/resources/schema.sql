@@ -1,7 +1,18 @@
 CREATE SCHEMA IF NOT EXISTS retirement_staging;
 
+-- Incremented by LifestyleDeposit.ID_ALLOCATION_SIZE: Hibernate reserves that many ids per call
+CREATE SEQUENCE IF NOT EXISTS retirement_staging.lifestyle_deposits_id_seq START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE IF NOT EXISTS retirement_staging.lifestyle_deposits (
-    id SERIAL PRIMARY KEY,
+    id BIGINT DEFAULT nextval('retirement_staging.lifestyle_deposits_id_seq') PRIMARY KEY,
     lifestyle_type VARCHAR(20) NOT NULL,
     monthly_deposit NUMERIC(10,2) NOT NULL
 );
+
+-- Tables created with SERIAL before the sequence was pooled own a sequence of the same name
+ALTER SEQUENCE retirement_staging.lifestyle_deposits_id_seq INCREMENT BY 50;
+
+-- Lifestyle types are stored lowercased and unique. Older tables holding mixed case or duplicates
+-- make this fail until normalize_lifestyle_types.sql (in the repository root) has been run on them
+CREATE UNIQUE INDEX IF NOT EXISTS lifestyle_deposits_lifestyle_type_key
+    ON retirement_staging.lifestyle_deposits (lifestyle_type);
@@ -0,0 +1,83 @@
+package com.example.retirementCalculator.config;
+
+import com.example.retirementCalculator.entity.GoalSeekRequest;
+import com.example.retirementCalculator.entity.Retirement;
+import com.example.retirementCalculator.exception.InvalidInputException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BatchSizeModuleTest {
+
+    private static final TypeReference<List<Retirement>> PLANS = new TypeReference<>() {};
+
+    private final ObjectMapper jsonMapper = new ObjectMapper().registerModule(new BatchSizeModule(2));
+
+    private static String plans(int count) {
+        String plan = "{\"currentAge\":30,\"retirementAge\":65,\"interestRate\":5.0,\"lifestyleType\":\"simple\"}";
+        return "[" + String.join(",", Collections.nCopies(count, plan)) + "]";
+    }
+
+    @Test
+    void testRead_BatchWithinLimit() throws Exception {
+        List<Retirement> plans = jsonMapper.readValue(plans(2), PLANS);
+
+        assertEquals(2, plans.size());
+        assertEquals("simple", plans.get(1).getLifestyleType());
+    }
+
+    @Test
+    void testRead_KeepsNullElements() throws Exception {
+        List<Retirement> plans = jsonMapper.readValue("[null]", PLANS);
+
+        assertEquals(Arrays.asList((Retirement) null), plans);
+    }
+
+    @Test
+    void testRead_StopsAtFirstElementOverLimit() {
+        // The third element is never parsed, so the rest of the body may even be malformed
+        String body = plans(2).replaceFirst("]$", ",{\"currentAge\":30} garbage");
+
+        InvalidInputException e = assertThrows(InvalidInputException.class, () -> jsonMapper.readValue(body, PLANS));
+        assertEquals("Invalid Input - Batch must not contain more than 2 plans", e.getMessage());
+    }
+
+    @Test
+    void testRead_BoundsGoalSeekRequests() {
+        InvalidInputException e = assertThrows(InvalidInputException.class,
+                () -> jsonMapper.readValue("[{},{},{}]", new TypeReference<List<GoalSeekRequest>>() {}));
+        assertTrue(e.getMessage().endsWith("more than 2 requests"));
+    }
+
+    @Test
+    void testRead_LeavesOtherListsAlone() throws Exception {
+        assertEquals(List.of("a", "b", "c"), jsonMapper.readValue("[\"a\",\"b\",\"c\"]", new TypeReference<List<String>>() {}));
+    }
+
+    @Test
+    void testRead_BoundsCborBatches() throws Exception {
+        ObjectMapper cborMapper = jsonMapper.copyWith(new CBORFactory());
+        byte[] body = cborMapper.writeValueAsBytes(new ObjectMapper().readValue(plans(3), PLANS));
+
+        assertThrows(InvalidInputException.class, () -> cborMapper.readValue(body, PLANS));
+    }
+
+    @Test
+    void testRead_BoundsXmlBatches() throws Exception {
+        XmlMapper xmlMapper = new XmlMapper();
+        xmlMapper.registerModule(new BatchSizeModule(2));
+        String within = "<List><item><currentAge>30</currentAge></item><item><currentAge>31</currentAge></item></List>";
+        String over = within.replace("</List>", "<item><currentAge>32</currentAge></item></List>");
+
+        assertEquals(Integer.valueOf(31), xmlMapper.readValue(within, PLANS).get(1).getCurrentAge());
+        assertThrows(InvalidInputException.class, () -> xmlMapper.readValue(over, PLANS));
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.retirementCalculator.config;
+
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.resource.ClientResources;
+import io.lettuce.core.resource.DefaultClientResources;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.data.redis.RedisProperties;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.connection.lettuce.LettucePoolingClientConfiguration;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RedisConfigTest {
+
+    private RedisProperties properties;
+    private ClientResources clientResources;
+
+    @BeforeEach
+    void setUp() {
+        properties = new RedisProperties();
+        properties.setHost("redis.internal");
+        properties.setPort(6380);
+        properties.setPassword("secret");
+        properties.setTimeout(Duration.ofSeconds(1));
+        properties.setConnectTimeout(Duration.ofSeconds(2));
+        properties.getLettuce().getPool().setMaxActive(16);
+        properties.getLettuce().getPool().setMinIdle(2);
+        properties.getLettuce().getPool().setMaxWait(Duration.ofMillis(500));
+        clientResources = DefaultClientResources.create();
+    }
+
+    @AfterEach
+    void tearDown() {
+        clientResources.shutdown();
+    }
+
+    @Test
+    void testConnectionFactories_UseConfiguredServerAndOwnDatabase() {
+        RedisConfig config = new RedisConfig(properties);
+
+        LettuceConnectionFactory db0 = config.redisConnectionFactoryDb0(clientResources);
+        LettuceConnectionFactory db1 = config.redisConnectionFactoryDb1(clientResources);
+
+        assertEquals("redis.internal", db0.getHostName());
+        assertEquals(6380, db0.getPort());
+        assertEquals(0, db0.getDatabase());
+        assertEquals(1, db1.getDatabase());
+        assertArrayEquals("secret".toCharArray(), db1.getPassword().toCharArray());
+    }
+
+    @Test
+    void testConnectionFactories_ShareClientResources() {
+        RedisConfig config = new RedisConfig(properties);
+
+        LettuceConnectionFactory db0 = config.redisConnectionFactoryDb0(clientResources);
+        LettuceConnectionFactory db1 = config.redisConnectionFactoryDb1(clientResources);
+
+        assertSame(clientResources, db0.getClientConfiguration().getClientResources().orElseThrow());
+        assertSame(clientResources, db1.getClientConfiguration().getClientResources().orElseThrow());
+    }
+
+    @Test
+    void testClientConfiguration_PoolsConnectionsWithTimeouts() {
+        LettuceClientConfiguration client = new RedisConfig(properties)
+                .redisConnectionFactoryDb0(clientResources).getClientConfiguration();
+
+        LettucePoolingClientConfiguration pooling = assertInstanceOf(LettucePoolingClientConfiguration.class, client);
+        assertEquals(16, pooling.getPoolConfig().getMaxTotal());
+        assertEquals(2, pooling.getPoolConfig().getMinIdle());
+        assertEquals(Duration.ofMillis(500), pooling.getPoolConfig().getMaxWaitDuration());
+        assertEquals(Duration.ofSeconds(1), client.getCommandTimeout());
+
+        ClientOptions options = client.getClientOptions().orElseThrow();
+        assertEquals(Duration.ofSeconds(2), options.getSocketOptions().getConnectTimeout());
+        assertTrue(options.getTimeoutOptions().isTimeoutCommands());
+        assertEquals(ClientOptions.DisconnectedBehavior.REJECT_COMMANDS, options.getDisconnectedBehavior());
+    }
+
+    @Test
+    void testClientConfiguration_WithoutPool() {
+        properties.getLettuce().getPool().setEnabled(false);
+
+        LettuceClientConfiguration client = new RedisConfig(properties)
+                .redisConnectionFactoryDb0(clientResources).getClientConfiguration();
+
+        assertFalse(client instanceof LettucePoolingClientConfiguration);
+        assertEquals(Duration.ofSeconds(1), client.getCommandTimeout());
+    }
+}
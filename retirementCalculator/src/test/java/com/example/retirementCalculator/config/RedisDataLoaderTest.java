@@ -0,0 +1,179 @@
+package com.example.retirementCalculator.config;
+
+import com.example.retirementCalculator.entity.LifestyleDeposit;
+import com.example.retirementCalculator.repository.RetirementRepository;
+import com.example.retirementCalculator.service.AnnuityFactorTable;
+import com.example.retirementCalculator.service.CalculationResultCache;
+import com.example.retirementCalculator.service.LifestyleHashStore;
+import com.example.retirementCalculator.service.LifestyleNearCache;
+import com.example.retirementCalculator.service.LifestyleTableVersion;
+import com.example.retirementCalculator.service.RetirementMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.*;
+
+public class RedisDataLoaderTest {
+
+    private static final String CSV = "lifestyleType,interestRate\nFancy,5.5\nsimple,6.5\nluxury,4.0\n";
+
+    @Mock
+    private RetirementRepository repository;
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private StringRedisTemplate redisSecondTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    @Mock
+    private ValueOperations<String, String> secondValueOperations;
+
+    @Mock
+    private LifestyleHashStore hashStore;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final RetirementMetrics metrics = new RetirementMetrics(registry);
+    private final AnnuityFactorTable annuityTable = new AnnuityFactorTable(120);
+    private final RedisKeyspace keyspace = new RedisKeyspace("lifestyle:", 100, 500);
+
+    private RedisDataLoader loader;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(redisSecondTemplate.opsForValue()).thenReturn(secondValueOperations);
+        loader = new RedisDataLoader(repository, redisTemplate, redisSecondTemplate, keyspace,
+                new ByteArrayResource(CSV.getBytes(StandardCharsets.UTF_8)), 2, metrics, annuityTable, hashStore,
+                tableVersion(keyspace));
+    }
+
+    private RedisDataLoader hashLayoutLoader() {
+        RedisKeyspace hashKeyspace = new RedisKeyspace("lifestyle:", "lifestyle-hash:", RedisLayout.HASH, 100, 500);
+        return new RedisDataLoader(repository, redisTemplate, redisSecondTemplate, hashKeyspace,
+                new ByteArrayResource(CSV.getBytes(StandardCharsets.UTF_8)), 2, metrics, annuityTable, hashStore,
+                tableVersion(hashKeyspace));
+    }
+
+    private LifestyleTableVersion tableVersion(RedisKeyspace keyspace) {
+        return new LifestyleTableVersion(redisTemplate, keyspace, new LifestyleNearCache(100, Duration.ofMinutes(1)),
+                new CalculationResultCache(100), metrics, "lifestyle-version", "lifestyle-version-sequence");
+    }
+
+    private static LifestyleDeposit deposit(long id, String lifestyleType, String amount) {
+        LifestyleDeposit deposit = new LifestyleDeposit();
+        deposit.setId(id);
+        deposit.setLifestyleType(lifestyleType);
+        deposit.setMonthlyDeposit(new BigDecimal(amount));
+        return deposit;
+    }
+
+    @Test
+    void testLoadFromDB_WritesOneMultiSetPerPage() {
+        when(repository.findByIdGreaterThanOrderByIdAsc(Long.MIN_VALUE, Limit.of(2)))
+                .thenReturn(List.of(deposit(1, "Simple", "1000"), deposit(2, "fancy", "3000")));
+        when(repository.findByIdGreaterThanOrderByIdAsc(2L, Limit.of(2)))
+                .thenReturn(List.of(deposit(5, "luxury", "9000")));
+
+        long rows = loader.loadFromDB();
+
+        assertEquals(3, rows);
+        verify(valueOperations).multiSet(Map.of("lifestyle:simple", "1000", "lifestyle:fancy", "3000"));
+        verify(valueOperations).multiSet(Map.of("lifestyle:luxury", "9000"));
+        verify(valueOperations, never()).set(any(), any());
+        verify(repository, times(2)).findByIdGreaterThanOrderByIdAsc(any(), any());
+    }
+
+    @Test
+    void testLoadFromDB_EmptyTable() {
+        when(repository.findByIdGreaterThanOrderByIdAsc(any(), any())).thenReturn(List.of());
+
+        assertEquals(0, loader.loadFromDB());
+        verify(valueOperations, never()).multiSet(anyMap());
+    }
+
+    @Test
+    void testLoadFromCSV_WritesOneMultiSetPerBatch() {
+        long rows = loader.loadFromCSV(new ByteArrayResource(CSV.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(3, rows);
+        verify(secondValueOperations).multiSet(Map.of("lifestyle:fancy", "5.5", "lifestyle:simple", "6.5"));
+        verify(secondValueOperations).multiSet(Map.of("lifestyle:luxury", "4.0"));
+        verify(secondValueOperations, never()).set(any(), any());
+    }
+
+    @Test
+    void testLoadFromCSV_RebuildsAnnuityTable() {
+        loader.loadFromCSV(new ByteArrayResource(CSV.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(3, annuityTable.size());
+        assertTrue(annuityTable.contains(new BigDecimal("5.5")));
+        assertTrue(annuityTable.contains(new BigDecimal("4")));
+    }
+
+    @Test
+    void testLoadDataToRedis_LoadsBothDatabases() {
+        when(repository.findByIdGreaterThanOrderByIdAsc(any(), any()))
+                .thenReturn(List.of(deposit(1, "simple", "1000")));
+
+        loader.loadDataToRedis();
+
+        verify(valueOperations).multiSet(Map.of("lifestyle:simple", "1000"));
+        verify(secondValueOperations, times(2)).multiSet(anyMap());
+        assertEquals(1, registry.get("retirement.loader.rows").tag("phase", "database").counter().count());
+        assertEquals(3, registry.get("retirement.loader.rows").tag("phase", "csv").counter().count());
+        assertEquals(4, registry.get("retirement.loader.rows").tag("phase", "total").counter().count());
+        assertEquals(1, registry.get("retirement.loader").tag("phase", "total").timer().count());
+        assertEquals(2, registry.get("retirement.redis").tag("database", "db1").tag("command", "mset").timer().count());
+    }
+
+    @Test
+    void testLoadDataToRedis_HashLayoutWritesOneScriptCallPerBatch() {
+        when(repository.findByIdGreaterThanOrderByIdAsc(Long.MIN_VALUE, Limit.of(2)))
+                .thenReturn(List.of(deposit(1, "Simple", "1000"), deposit(2, "fancy", "3000")));
+        when(repository.findByIdGreaterThanOrderByIdAsc(2L, Limit.of(2))).thenReturn(List.of());
+
+        hashLayoutLoader().loadDataToRedis();
+
+        verify(hashStore).write(LifestyleHashStore.DEPOSIT, Map.of("simple", "1000", "fancy", "3000"));
+        verify(hashStore).write(LifestyleHashStore.RATE, Map.of("fancy", "5.5", "simple", "6.5"));
+        verify(hashStore).write(LifestyleHashStore.RATE, Map.of("luxury", "4.0"));
+        verify(valueOperations, never()).multiSet(anyMap());
+        verify(secondValueOperations, never()).multiSet(anyMap());
+        assertEquals(3, annuityTable.size());
+    }
+
+    @Test
+    void testLoadDataToRedis_WritesIntoTheCurrentTableVersion() {
+        when(valueOperations.get("lifestyle-version")).thenReturn("3");
+        when(repository.findByIdGreaterThanOrderByIdAsc(any(), any()))
+                .thenReturn(List.of(deposit(1, "simple", "1000")));
+
+        loader.loadDataToRedis();
+
+        assertEquals(3, keyspace.getVersion());
+        verify(valueOperations).multiSet(Map.of("lifestyle:v3:simple", "1000"));
+        verify(secondValueOperations).multiSet(Map.of("lifestyle:v3:fancy", "5.5", "lifestyle:v3:simple", "6.5"));
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.retirementCalculator.config;
+
+import com.example.retirementCalculator.entity.LifestyleDeposit;
+import jakarta.xml.bind.JAXBException;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class XmlConfigTest {
+
+    private final XmlConfig xmlConfig = new XmlConfig(4);
+
+    @Test
+    void testToXmlAndBack() throws Exception {
+        String xml = xmlConfig.toXml(new LifestyleDeposit("fancy", new BigDecimal("3000.00")));
+
+        assertTrue(xml.contains("<lifestyleDeposit>"));
+        LifestyleDeposit deposit = xmlConfig.fromXml(xml);
+        assertEquals("fancy", deposit.getLifestyleType());
+        assertEquals(new BigDecimal("3000.00"), deposit.getMonthlyDeposit());
+    }
+
+    @Test
+    void testFromXml_Malformed() {
+        assertThrows(JAXBException.class, () -> xmlConfig.fromXml("<lifestyleDeposit><lifestyleType>"));
+    }
+
+    @Test
+    void testFromXml_DoesNotResolveExternalEntities() {
+        String xml = "<?xml version=\"1.0\"?><!DOCTYPE d [<!ENTITY e SYSTEM \"file:///etc/passwd\">]>"
+                + "<lifestyleDeposit><lifestyleType>&e;</lifestyleType></lifestyleDeposit>";
+
+        assertThrows(JAXBException.class, () -> xmlConfig.fromXml(xml));
+    }
+
+    @Test
+    void testWriteAllAndReadAll_StreamsEveryDepositInOrder() throws Exception {
+        List<LifestyleDeposit> deposits = IntStream.range(0, 1000)
+                .mapToObj(i -> new LifestyleDeposit("type" + i, BigDecimal.valueOf(i, 2)))
+                .toList();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertEquals(1000, xmlConfig.writeAll(deposits, out));
+
+        String xml = out.toString(StandardCharsets.UTF_8);
+        assertTrue(xml.startsWith("<?xml"));
+        assertTrue(xml.contains("<lifestyleDeposits><lifestyleDeposit>"));
+        assertEquals(1, xml.split("<\\?xml", -1).length - 1);
+
+        List<LifestyleDeposit> read = new ArrayList<>();
+        assertEquals(1000, xmlConfig.readAll(new ByteArrayInputStream(out.toByteArray()), read::add));
+        assertEquals("type999", read.get(999).getLifestyleType());
+        assertEquals(new BigDecimal("9.99"), read.get(999).getMonthlyDeposit());
+    }
+
+    @Test
+    void testReadAll_Empty() throws Exception {
+        byte[] xml = "<lifestyleDeposits/>".getBytes(StandardCharsets.UTF_8);
+
+        assertEquals(0, xmlConfig.readAll(new ByteArrayInputStream(xml), deposit -> fail()));
+    }
+
+    @Test
+    void testToXml_AfterStreamingIsStillAStandaloneDocument() throws Exception {
+        xmlConfig.writeAll(List.of(new LifestyleDeposit("simple", BigDecimal.ONE)), new ByteArrayOutputStream());
+
+        assertTrue(xmlConfig.toXml(new LifestyleDeposit("simple", BigDecimal.ONE)).startsWith("<?xml"));
+    }
+
+    @Test
+    void testConcurrentUse() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                String type = "type" + i;
+                results.add(executor.submit(() ->
+                        xmlConfig.fromXml(xmlConfig.toXml(new LifestyleDeposit(type, BigDecimal.TEN))).getLifestyleType()));
+            }
+            for (int i = 0; i < results.size(); i++) {
+                assertEquals("type" + i, results.get(i).get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
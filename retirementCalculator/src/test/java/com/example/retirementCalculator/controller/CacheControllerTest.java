@@ -9,6 +9,8 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.util.Map;
+
 
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -136,6 +138,17 @@ class CacheControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    void testGetNearCacheStats() throws Exception {
+        when(cacheService.getNearCacheStats()).thenReturn(Map.of("hitCount", 5L, "missCount", 2L, "evictionCount", 0L));
+
+        mockMvc.perform(get("/cache/near/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hitCount").value(5))
+                .andExpect(jsonPath("$.missCount").value(2))
+                .andExpect(jsonPath("$.evictionCount").value(0));
+    }
+
     @Test
     void testDeleteCacheSuccess() throws Exception {
         mockMvc.perform(delete("/cache/delete/fancy"))
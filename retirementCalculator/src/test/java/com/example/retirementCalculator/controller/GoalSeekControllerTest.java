@@ -0,0 +1,105 @@
+package com.example.retirementCalculator.controller;
+
+import com.example.retirementCalculator.entity.GoalSeekBatchResult;
+import com.example.retirementCalculator.entity.GoalSeekRequest;
+import com.example.retirementCalculator.entity.GoalSeekResult;
+import com.example.retirementCalculator.exception.InvalidInputException;
+import com.example.retirementCalculator.service.GoalSeekService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(GoalSeekController.class)
+class GoalSeekControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private GoalSeekService goalSeekService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private static GoalSeekRequest request() {
+        return GoalSeekRequest.builder()
+                .currentAge(30)
+                .retirementAge(65)
+                .lifestyleType("fancy")
+                .targetAmount(new BigDecimal("2000000"))
+                .build();
+    }
+
+    private static GoalSeekResult result() {
+        return GoalSeekResult.builder()
+                .solvedFor("deposit")
+                .currentAge(30)
+                .retirementAge(65)
+                .interestRate(5.5)
+                .lifestyleType("fancy")
+                .monthlyDeposit(new BigDecimal("1573.66"))
+                .targetAmount(new BigDecimal("2000000"))
+                .futureValue(new BigDecimal("2000001.36"))
+                .build();
+    }
+
+    @Test
+    void solve_shouldReturnSolvedPlan() throws Exception {
+        Mockito.when(goalSeekService.solve(Mockito.any(GoalSeekRequest.class))).thenReturn(result());
+
+        mockMvc.perform(post("/retirement-plans/solve")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.solvedFor").value("deposit"))
+                .andExpect(jsonPath("$.monthlyDeposit").value(1573.66));
+    }
+
+    @Test
+    void solve_shouldReturnBadRequestForInvalidInput() throws Exception {
+        GoalSeekRequest request = request();
+        request.setSolveFor("age");
+
+        mockMvc.perform(post("/retirement-plans/solve")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void solve_shouldReturnBadRequestWhenUnreachable() throws Exception {
+        Mockito.when(goalSeekService.solve(Mockito.any(GoalSeekRequest.class)))
+                .thenThrow(new InvalidInputException("Target Amount", "cannot be reached by age 100"));
+
+        mockMvc.perform(post("/retirement-plans/solve")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request())))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("RC-400"));
+    }
+
+    @Test
+    void solveAll_shouldReturnOneEntryPerRequest() throws Exception {
+        Mockito.when(goalSeekService.solveAll(Mockito.anyList())).thenReturn(List.of(
+                GoalSeekBatchResult.success(0, result()),
+                GoalSeekBatchResult.failure(1, "RC-404", "No deposit amount configured for lifestyle type: luxury")));
+
+        mockMvc.perform(post("/retirement-plans/solve/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(request(), request()))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].result.futureValue").value(2000001.36))
+                .andExpect(jsonPath("$[1].errorCode").value("RC-404"));
+    }
+}
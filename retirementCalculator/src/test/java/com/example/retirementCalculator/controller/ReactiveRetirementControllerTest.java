@@ -0,0 +1,174 @@
+package com.example.retirementCalculator.controller;
+
+import com.example.retirementCalculator.config.CborMessageConverter;
+import com.example.retirementCalculator.entity.Retirement;
+import com.example.retirementCalculator.entity.RetirementBatchResult;
+import com.example.retirementCalculator.entity.RetirementResult;
+import com.example.retirementCalculator.exception.InvalidInputException;
+import com.example.retirementCalculator.exception.LifestyleNotFoundException;
+import com.example.retirementCalculator.service.ReactiveRetirementService;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(ReactiveRetirementController.class)
+class ReactiveRetirementControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ReactiveRetirementService reactiveRetirementService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CborMessageConverter cborConverter;
+
+    private static Retirement plan() {
+        return new Retirement(30, 65, null, "fancy");
+    }
+
+    @Test
+    void calculatePlan_shouldReturnResultAsynchronously() throws Exception {
+        RetirementResult expected = new RetirementResult();
+        expected.setCurrentAge(30);
+        expected.setRetirementAge(65);
+        expected.setLifestyleType("fancy");
+        expected.setMonthlyDeposit(new BigDecimal("3000"));
+        expected.setInterestRate(5.5);
+        expected.setFutureValue(new BigDecimal("4354219.33"));
+        Mockito.when(reactiveRetirementService.calculatePlan(Mockito.any(Retirement.class))).thenReturn(Mono.just(expected));
+
+        MvcResult result = mockMvc.perform(post("/retirement-plans/reactive/calculate")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(plan())))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.lifestyleType").value("fancy"))
+                .andExpect(jsonPath("$.futureValue").value(4354219.33));
+    }
+
+    @Test
+    void calculatePlan_shouldReturnErrorCodeForUnknownLifestyle() throws Exception {
+        Mockito.when(reactiveRetirementService.calculatePlan(Mockito.any(Retirement.class)))
+                .thenReturn(Mono.error(new LifestyleNotFoundException("fancy")));
+
+        MvcResult result = mockMvc.perform(post("/retirement-plans/reactive/calculate")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(plan())))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("RC-404"));
+    }
+
+    @Test
+    void calculatePlan_shouldReturnBadRequestForInvalidBody() throws Exception {
+        mockMvc.perform(post("/retirement-plans/reactive/calculate")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new Retirement())))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void calculatePlans_shouldStreamNdjson() throws Exception {
+        RetirementResult first = new RetirementResult();
+        first.setLifestyleType("fancy");
+        Mockito.when(reactiveRetirementService.calculatePlans(Mockito.anyList())).thenReturn(Flux.just(
+                RetirementBatchResult.success(0, first),
+                RetirementBatchResult.failure(1, "RC-404", "Lifestyle type not found: luxury")));
+
+        MvcResult result = mockMvc.perform(post("/retirement-plans/reactive/calculate/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_NDJSON)
+                        .content(objectMapper.writeValueAsString(List.of(plan(), plan()))))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(containsString("\"index\":0")))
+                .andExpect(content().string(containsString("\"errorCode\":\"RC-404\"")));
+    }
+
+    @Test
+    void calculatePlans_shouldReturnBadRequestWhenBatchTooLarge() throws Exception {
+        Mockito.when(reactiveRetirementService.calculatePlans(Mockito.anyList()))
+                .thenThrow(new InvalidInputException("Batch", "must not contain more than 1 plans"));
+
+        mockMvc.perform(post("/retirement-plans/reactive/calculate/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(plan(), plan()))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("RC-400"));
+    }
+
+    @Test
+    void calculatePlans_shouldRejectOversizedBodyWhileReading() throws Exception {
+        byte[] body = cborConverter.getObjectMapper().writeValueAsBytes(Collections.nCopies(1001, plan()));
+
+        mockMvc.perform(post("/retirement-plans/reactive/calculate/batch")
+                        .contentType("application/cbor")
+                        .accept(MediaType.APPLICATION_NDJSON, MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Invalid Input - Batch must not contain more than 1000 plans"));
+
+        Mockito.verify(reactiveRetirementService, Mockito.never()).calculatePlans(Mockito.anyList());
+    }
+
+    @Test
+    void calculatePlans_shouldReturnCborArrayWhenRequested() throws Exception {
+        ObjectMapper cborMapper = cborConverter.getObjectMapper();
+        RetirementResult first = new RetirementResult();
+        first.setLifestyleType("fancy");
+        Mockito.when(reactiveRetirementService.calculatePlans(Mockito.anyList())).thenReturn(Flux.just(
+                RetirementBatchResult.success(0, first),
+                RetirementBatchResult.failure(1, "RC-404", "Lifestyle type not found: luxury")));
+
+        MvcResult result = mockMvc.perform(post("/retirement-plans/reactive/calculate/batch")
+                        .contentType(MediaType.APPLICATION_CBOR)
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .content(cborMapper.writeValueAsBytes(List.of(plan(), plan()))))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        byte[] body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+        List<RetirementBatchResult> results = cborMapper.readValue(body, new TypeReference<>() {});
+        assertEquals(2, results.size());
+        assertEquals("fancy", results.get(0).getResult().getLifestyleType());
+        assertEquals("RC-404", results.get(1).getErrorCode());
+    }
+}
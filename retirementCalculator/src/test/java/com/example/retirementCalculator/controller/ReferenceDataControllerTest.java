@@ -0,0 +1,84 @@
+package com.example.retirementCalculator.controller;
+
+import com.example.retirementCalculator.entity.ImportResult;
+import com.example.retirementCalculator.service.ReferenceDataService;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(ReferenceDataController.class)
+class ReferenceDataControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ReferenceDataService referenceDataService;
+
+    @Test
+    void importDepositsCsv_shouldReturnCounts() throws Exception {
+        ImportResult result = new ImportResult("deposits", "csv");
+        result.setRows(2);
+        result.setImported(1);
+        result.reject("line 3: monthlyDeposit 'abc' is not a number");
+        Mockito.when(referenceDataService.importDepositsCsv(Mockito.any(InputStream.class))).thenReturn(result);
+
+        mockMvc.perform(post("/admin/lifestyles/deposits")
+                        .contentType("text/csv")
+                        .content("lifestyleType,monthlyDeposit\nfancy,3000\nluxury,abc\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1))
+                .andExpect(jsonPath("$.rejected").value(1))
+                .andExpect(jsonPath("$.errors[0]").value("line 3: monthlyDeposit 'abc' is not a number"));
+    }
+
+    @Test
+    void importDepositsXml_shouldUseXmlReader() throws Exception {
+        Mockito.when(referenceDataService.importDepositsXml(Mockito.any(InputStream.class)))
+                .thenReturn(new ImportResult("deposits", "xml"));
+
+        mockMvc.perform(post("/admin/lifestyles/deposits")
+                        .contentType(MediaType.APPLICATION_XML)
+                        .content("<lifestyleDeposits/>"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.format").value("xml"));
+    }
+
+    @Test
+    void exportDeposits_shouldStreamCsvAttachment() throws Exception {
+        Mockito.when(referenceDataService.exportDepositsCsv(Mockito.any(OutputStream.class))).thenAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(0);
+            out.write("lifestyleType,monthlyDeposit\nfancy,3000.00\n".getBytes(StandardCharsets.UTF_8));
+            return 1L;
+        });
+
+        MvcResult started = mockMvc.perform(get("/admin/lifestyles/deposits"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"lifestyle-deposits.csv\""))
+                .andExpect(content().string("lifestyleType,monthlyDeposit\nfancy,3000.00\n"));
+    }
+
+    @Test
+    void exportDeposits_shouldRejectUnknownFormat() throws Exception {
+        mockMvc.perform(get("/admin/lifestyles/deposits").param("format", "json"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -1,8 +1,14 @@
 package com.example.retirementCalculator.controller;
 
+import com.example.retirementCalculator.config.CborMessageConverter;
 import com.example.retirementCalculator.entity.Retirement;
+import com.example.retirementCalculator.entity.RetirementBatchResult;
 import com.example.retirementCalculator.entity.RetirementResult;
+import com.example.retirementCalculator.entity.ScheduleEntry;
+import com.example.retirementCalculator.exception.InvalidInputException;
 import com.example.retirementCalculator.service.RetirementService;
+import com.example.retirementCalculator.service.ScheduleGranularity;
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
@@ -11,9 +17,15 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -29,6 +41,9 @@ class RetirementControllerTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private CborMessageConverter cborConverter;
+
     @Test
     void calculatePlanFancy_shouldReturnResult() throws Exception {
         // Given
@@ -102,5 +117,166 @@ class RetirementControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    void calculatePlans_shouldReturnResultOrErrorPerPlan() throws Exception {
+        // Given
+        Retirement valid = new Retirement(30, 65, 5.0, "fancy");
+        Retirement unknown = new Retirement(30, 65, 5.0, "simple");
+
+        RetirementResult expected = new RetirementResult(
+                30,
+                65,
+                5.0,
+                "fancy",
+                BigDecimal.valueOf(3000),
+                BigDecimal.valueOf(500000)
+        );
+
+        Mockito.when(retirementService.calculatePlans(Mockito.anyList()))
+                .thenReturn(List.of(
+                        RetirementBatchResult.success(0, expected),
+                        RetirementBatchResult.failure(1, "RC-404", "No deposit amount configured for lifestyle type: simple")
+                ));
+
+        // When & Then
+        mockMvc.perform(post("/retirement-plans/calculate/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(valid, unknown))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].index").value(0))
+                .andExpect(jsonPath("$[0].result.lifestyleType").value("fancy"))
+                .andExpect(jsonPath("$[1].index").value(1))
+                .andExpect(jsonPath("$[1].errorCode").value("RC-404"));
+    }
+
+    @Test
+    void calculatePlans_shouldReturnBadRequestWhenBatchTooLarge() throws Exception {
+        Mockito.when(retirementService.calculatePlans(Mockito.anyList()))
+                .thenThrow(new InvalidInputException("Batch", "must not contain more than 1000 plans"));
+
+        mockMvc.perform(post("/retirement-plans/calculate/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(new Retirement(30, 65, 5.0, "fancy")))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("RC-400"));
+    }
+
+    @Test
+    void calculatePlans_shouldRejectOversizedBodyWhileReading() throws Exception {
+        List<Retirement> plans = Collections.nCopies(1001, new Retirement(30, 65, 5.0, "fancy"));
+
+        mockMvc.perform(post("/retirement-plans/calculate/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(plans)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("RC-400"))
+                .andExpect(jsonPath("$.message").value("Invalid Input - Batch must not contain more than 1000 plans"));
+
+        Mockito.verify(retirementService, Mockito.never()).calculatePlans(Mockito.anyList());
+    }
 
+    @Test
+    void calculateSchedule_shouldStreamOneJsonLinePerPeriod() throws Exception {
+        Mockito.when(retirementService.calculateSchedule(Mockito.any(Retirement.class), Mockito.eq(ScheduleGranularity.MONTHLY)))
+                .thenReturn(Stream.of(
+                        new ScheduleEntry(1, 30, new BigDecimal("1000.00"), new BigDecimal("0.00"), new BigDecimal("1000.00")),
+                        new ScheduleEntry(2, 30, new BigDecimal("2000.00"), new BigDecimal("4.17"), new BigDecimal("2004.17"))
+                ));
+
+        MvcResult result = mockMvc.perform(post("/retirement-plans/calculate/schedule")
+                        .param("granularity", "monthly")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new Retirement(30, 65, 5.0, "simple"))))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(
+                        "{\"period\":1,\"age\":30,\"contributions\":1000.00,\"interest\":0.00,\"balance\":1000.00}\n"
+                                + "{\"period\":2,\"age\":30,\"contributions\":2000.00,\"interest\":4.17,\"balance\":2004.17}\n"));
+    }
+
+    @Test
+    void calculateSchedule_shouldReturnBadRequestForUnknownGranularity() throws Exception {
+        mockMvc.perform(post("/retirement-plans/calculate/schedule")
+                        .param("granularity", "weekly")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new Retirement(30, 65, 5.0, "simple"))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("RC-400"));
+    }
+
+    @Test
+    void calculatePlan_shouldAcceptAndReturnCbor() throws Exception {
+        ObjectMapper cborMapper = cborConverter.getObjectMapper();
+        RetirementResult expected = new RetirementResult(30, 65, 5.0, "fancy",
+                new BigDecimal("3000"), new BigDecimal("500000.25"));
+        Mockito.when(retirementService.calculatePlan(Mockito.any(Retirement.class))).thenReturn(expected);
+
+        MvcResult result = mockMvc.perform(post("/retirement-plans/calculate")
+                        .contentType(MediaType.APPLICATION_CBOR)
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .content(cborMapper.writeValueAsBytes(new Retirement(30, 65, 5.0, "fancy"))))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn();
+
+        byte[] body = result.getResponse().getContentAsByteArray();
+        assertEquals(expected, cborMapper.readValue(body, RetirementResult.class));
+        Mockito.verify(retirementService).calculatePlan(Mockito.argThat(plan ->
+                plan.getCurrentAge() == 30 && "fancy".equals(plan.getLifestyleType())));
+    }
+
+    @Test
+    void calculatePlans_shouldReturnCborArray() throws Exception {
+        ObjectMapper cborMapper = cborConverter.getObjectMapper();
+        RetirementResult expected = new RetirementResult(30, 65, 5.0, "fancy",
+                BigDecimal.valueOf(3000), BigDecimal.valueOf(500000));
+        Mockito.when(retirementService.calculatePlans(Mockito.anyList()))
+                .thenReturn(List.of(
+                        RetirementBatchResult.success(0, expected),
+                        RetirementBatchResult.failure(1, "RC-404", "No deposit amount configured for lifestyle type: simple")
+                ));
+
+        MvcResult result = mockMvc.perform(post("/retirement-plans/calculate/batch")
+                        .contentType(MediaType.APPLICATION_CBOR)
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .content(cborMapper.writeValueAsBytes(List.of(new Retirement(30, 65, 5.0, "fancy"),
+                                new Retirement(30, 65, 5.0, "simple")))))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        List<RetirementBatchResult> results = cborMapper.readValue(result.getResponse().getContentAsByteArray(),
+                new TypeReference<>() {});
+        assertEquals(2, results.size());
+        assertEquals("fancy", results.get(0).getResult().getLifestyleType());
+        assertEquals("RC-404", results.get(1).getErrorCode());
+    }
+
+    @Test
+    void calculateSchedule_shouldStreamCborSequence() throws Exception {
+        ObjectMapper cborMapper = cborConverter.getObjectMapper();
+        List<ScheduleEntry> entries = List.of(
+                new ScheduleEntry(1, 30, new BigDecimal("1000.00"), new BigDecimal("0.00"), new BigDecimal("1000.00")),
+                new ScheduleEntry(2, 30, new BigDecimal("2000.00"), new BigDecimal("4.17"), new BigDecimal("2004.17")));
+        Mockito.when(retirementService.calculateSchedule(Mockito.any(Retirement.class), Mockito.eq(ScheduleGranularity.MONTHLY)))
+                .thenReturn(entries.stream());
+
+        MvcResult result = mockMvc.perform(post("/retirement-plans/calculate/schedule")
+                        .param("granularity", "monthly")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(CborMessageConverter.APPLICATION_CBOR_SEQ)
+                        .content(objectMapper.writeValueAsString(new Retirement(30, 65, 5.0, "simple"))))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        byte[] body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(CborMessageConverter.APPLICATION_CBOR_SEQ))
+                .andReturn().getResponse().getContentAsByteArray();
+        assertEquals(entries, cborMapper.readerFor(ScheduleEntry.class).readValues(body).readAll());
+    }
 }
@@ -0,0 +1,86 @@
+package com.example.retirementCalculator.controller;
+
+import com.example.retirementCalculator.entity.SimulationRequest;
+import com.example.retirementCalculator.entity.SimulationResult;
+import com.example.retirementCalculator.exception.InvalidInputException;
+import com.example.retirementCalculator.service.SimulationService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(SimulationController.class)
+class SimulationControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private SimulationService simulationService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private static SimulationRequest request() {
+        return SimulationRequest.builder()
+                .currentAge(30)
+                .retirementAge(65)
+                .lifestyleType("fancy")
+                .paths(10_000)
+                .targetAmount(new BigDecimal("2000000"))
+                .build();
+    }
+
+    @Test
+    void simulate_shouldReturnPercentiles() throws Exception {
+        SimulationResult expected = SimulationResult.builder()
+                .currentAge(30)
+                .retirementAge(65)
+                .lifestyleType("fancy")
+                .paths(10_000)
+                .p5(new BigDecimal("1700000.00"))
+                .p50(new BigDecimal("2900000.00"))
+                .p95(new BigDecimal("5400000.00"))
+                .targetAmount(new BigDecimal("2000000"))
+                .targetProbability(0.85)
+                .build();
+        Mockito.when(simulationService.simulate(Mockito.any(SimulationRequest.class))).thenReturn(expected);
+
+        mockMvc.perform(post("/retirement-plans/simulate")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.paths").value(10_000))
+                .andExpect(jsonPath("$.p50").value(2900000.00))
+                .andExpect(jsonPath("$.targetProbability").value(0.85));
+    }
+
+    @Test
+    void simulate_shouldReturnBadRequestForInvalidInput() throws Exception {
+        mockMvc.perform(post("/retirement-plans/simulate")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new SimulationRequest())))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void simulate_shouldReturnBadRequestWhenTooManyPaths() throws Exception {
+        Mockito.when(simulationService.simulate(Mockito.any(SimulationRequest.class)))
+                .thenThrow(new InvalidInputException("Paths", "must be between 1 and 1000000"));
+
+        mockMvc.perform(post("/retirement-plans/simulate")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request())))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("RC-400"));
+    }
+}
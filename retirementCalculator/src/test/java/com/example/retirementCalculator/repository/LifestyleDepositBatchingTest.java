@@ -0,0 +1,59 @@
+package com.example.retirementCalculator.repository;
+
+import com.example.retirementCalculator.entity.LifestyleDeposit;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class LifestyleDepositBatchingTest {
+
+    private static final int ROWS = 120;
+
+    @Autowired
+    private RetirementRepository repository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void testSaveAll_AllocatesIdsInBlocksAndBatchesInserts() {
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<LifestyleDeposit> saved = repository.saveAll(IntStream.range(0, ROWS)
+                .mapToObj(i -> new LifestyleDeposit("type" + i, new BigDecimal("100.00")))
+                .toList());
+        entityManager.flush();
+
+        assertTrue(saved.stream().allMatch(deposit -> deposit.getId() != null));
+        assertEquals(ROWS, statistics.getEntityInsertCount());
+        // Three sequence calls for 120 ids and one statement per batch of 50 inserts
+        assertTrue(statistics.getPrepareStatementCount() <= 6,
+                "prepared " + statistics.getPrepareStatementCount() + " statements");
+    }
+
+    @Test
+    void testUpsertAll_RunsThroughTheRepository() {
+        repository.save(new LifestyleDeposit("simple", new BigDecimal("1000.00")));
+        entityManager.flush();
+
+        assertEquals(1, repository.upsertAll(Map.of("simple", new BigDecimal("1500.00"), "fancy", new BigDecimal("3000.00"))));
+        entityManager.clear();
+
+        assertEquals(0, new BigDecimal("1500.00").compareTo(repository.findByLifestyleType("simple").orElseThrow().getMonthlyDeposit()));
+        assertTrue(repository.findByLifestyleType("fancy").isPresent());
+    }
+}
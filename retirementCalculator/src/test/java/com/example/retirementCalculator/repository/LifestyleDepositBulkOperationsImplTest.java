@@ -0,0 +1,126 @@
+package com.example.retirementCalculator.repository;
+
+import com.example.retirementCalculator.entity.LifestyleDeposit;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class LifestyleDepositBulkOperationsImplTest {
+
+    private JdbcTemplate jdbcTemplate;
+
+    private final EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+    private final Cache entityCache = mock(Cache.class);
+
+    private LifestyleDepositBulkOperationsImpl bulkOperations;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:bulk-operations;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(dataSource);
+        when(entityManagerFactory.getCache()).thenReturn(entityCache);
+        bulkOperations = new LifestyleDepositBulkOperationsImpl(jdbcTemplate, entityManagerFactory);
+    }
+
+    @Test
+    void testUpsertAll_InsertsNewAndUpdatesExistingTypes() {
+        bulkOperations.upsertAll(Map.of("simple", new BigDecimal("1000.00")));
+
+        Map<String, BigDecimal> deposits = new LinkedHashMap<>();
+        deposits.put("simple", new BigDecimal("1500.00"));
+        deposits.put("fancy", new BigDecimal("3000.00"));
+        deposits.put("luxury", new BigDecimal("9000.00"));
+
+        assertEquals(2, bulkOperations.upsertAll(deposits));
+        assertEquals(List.of(new BigDecimal("1500.00")), jdbcTemplate.queryForList(
+                "SELECT monthly_deposit FROM retirement_staging.lifestyle_deposits WHERE lifestyle_type = 'simple'",
+                BigDecimal.class));
+        assertEquals(3, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM retirement_staging.lifestyle_deposits", Integer.class));
+        verify(entityCache, times(2)).evict(LifestyleDeposit.class);
+    }
+
+    @Test
+    void testSchema_RejectsDuplicateLifestyleTypes() {
+        bulkOperations.upsertAll(Map.of("simple", new BigDecimal("1000.00")));
+
+        assertThrows(DuplicateKeyException.class, () -> jdbcTemplate.update(
+                "INSERT INTO retirement_staging.lifestyle_deposits (lifestyle_type, monthly_deposit) VALUES ('simple', 1)"));
+    }
+
+    @Test
+    void testUpsertAll_IdsComeFromThePooledSequence() {
+        bulkOperations.upsertAll(Map.of("simple", new BigDecimal("1000.00")));
+        bulkOperations.upsertAll(Map.of("fancy", new BigDecimal("3000.00")));
+
+        // Every INSERT through the column default draws a whole block of ids
+        assertEquals(List.of(1L, 51L), jdbcTemplate.queryForList(
+                "SELECT id FROM retirement_staging.lifestyle_deposits ORDER BY id", Long.class));
+    }
+
+    @Test
+    void testUpsertAll_ConcurrentImportsOfTheSameNewType() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            for (int round = 0; round < 20; round++) {
+                String type = "type" + round;
+                CyclicBarrier start = new CyclicBarrier(2);
+                List<Future<Integer>> imports = new ArrayList<>();
+                for (String deposit : List.of("1000.00", "2000.00")) {
+                    imports.add(executor.submit(() -> {
+                        start.await();
+                        return bulkOperations.upsertAll(Map.of(type, new BigDecimal(deposit)));
+                    }));
+                }
+                int inserted = 0;
+                for (Future<Integer> result : imports) {
+                    inserted += result.get(5, TimeUnit.SECONDS); // neither fails on the unique index
+                }
+                assertEquals(1, inserted); // the other import updated the row
+                assertEquals(1, jdbcTemplate.queryForObject(
+                        "SELECT COUNT(*) FROM retirement_staging.lifestyle_deposits WHERE lifestyle_type = ?", Integer.class, type));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testUpsertAll_NormalizesLifestyleTypes() {
+        bulkOperations.upsertAll(Map.of("simple", new BigDecimal("1000.00")));
+
+        Map<String, BigDecimal> deposits = new LinkedHashMap<>();
+        deposits.put(" Simple ", new BigDecimal("1500.00"));
+        deposits.put("FANCY", new BigDecimal("2000.00"));
+        deposits.put("fancy", new BigDecimal("3000.00"));
+
+        assertEquals(1, bulkOperations.upsertAll(deposits));
+        assertEquals(List.of("fancy", "simple"), jdbcTemplate.queryForList(
+                "SELECT lifestyle_type FROM retirement_staging.lifestyle_deposits ORDER BY lifestyle_type", String.class));
+        assertEquals(List.of(new BigDecimal("3000.00"), new BigDecimal("1500.00")), jdbcTemplate.queryForList(
+                "SELECT monthly_deposit FROM retirement_staging.lifestyle_deposits ORDER BY lifestyle_type", BigDecimal.class));
+    }
+
+    @Test
+    void testUpsertAll_Empty() {
+        assertEquals(0, bulkOperations.upsertAll(Map.of()));
+    }
+}
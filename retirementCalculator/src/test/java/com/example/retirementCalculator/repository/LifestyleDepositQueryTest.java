@@ -0,0 +1,126 @@
+package com.example.retirementCalculator.repository;
+
+import com.example.retirementCalculator.entity.LifestyleDeposit;
+import com.example.retirementCalculator.entity.LifestyleDepositRow;
+import com.example.retirementCalculator.entity.LifestyleDepositView;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // Each call reads in its own transaction, through the second-level cache
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class LifestyleDepositQueryTest {
+
+    @Autowired
+    private RetirementRepository repository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        repository.deleteAll();
+        repository.save(new LifestyleDeposit(" Fancy", new BigDecimal("3000.00")));
+        SessionFactory sessionFactory = sessionFactory();
+        sessionFactory.getCache().evictAllRegions();
+        statistics = sessionFactory.getStatistics();
+        statistics.clear();
+    }
+
+    private SessionFactory sessionFactory() {
+        return entityManager.getEntityManagerFactory().unwrap(SessionFactory.class);
+    }
+
+    @Test
+    void testSave_LowercasesTheLifestyleType() {
+        assertEquals(List.of("fancy"), repository.findAllViews().stream().map(LifestyleDepositView::getLifestyleType).toList());
+    }
+
+    @Test
+    void testFindViewByLifestyleType_IsCaseInsensitiveAndReadOnly() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            LifestyleDepositView view = repository.findViewByLifestyleType("  FANCY ").orElseThrow();
+
+            assertEquals("fancy", view.getLifestyleType());
+            assertEquals(0, new BigDecimal("3000.00").compareTo(view.getMonthlyDeposit()));
+            assertEquals(0, entityManager.unwrap(Session.class).getStatistics().getEntityCount());
+        });
+    }
+
+    @Test
+    void testFindRowsByIdGreaterThan_PagesWithoutManagingOrCachingEntities() {
+        repository.save(new LifestyleDeposit("simple", new BigDecimal("1000.00")));
+        repository.save(new LifestyleDeposit("luxury", new BigDecimal("9000.00")));
+        sessionFactory().getCache().evictAllRegions();
+        statistics.clear();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            List<LifestyleDepositRow> first = repository.findRowsByIdGreaterThanOrderByIdAsc(Long.MIN_VALUE, Limit.of(2));
+            List<LifestyleDepositRow> second = repository.findRowsByIdGreaterThanOrderByIdAsc(first.get(1).getId(), Limit.of(2));
+
+            assertEquals(List.of("fancy", "simple", "luxury"),
+                    Stream.concat(first.stream(), second.stream()).map(LifestyleDepositRow::getLifestyleType).toList());
+            assertEquals(0, new BigDecimal("9000.00").compareTo(second.get(0).getMonthlyDeposit()));
+            assertEquals(0, entityManager.unwrap(Session.class).getStatistics().getEntityCount());
+        });
+        assertEquals(0, statistics.getSecondLevelCachePutCount());
+    }
+
+    @Test
+    void testFindViewByLifestyleType_AlwaysQueriesTheDatabase() {
+        repository.findViewByLifestyleType("fancy");
+        repository.findViewByLifestyleType("fancy");
+
+        assertEquals(2, statistics.getQueryExecutionCount());
+        assertEquals(0, statistics.getQueryCacheHitCount());
+    }
+
+    @Test
+    void testUpsertAll_EvictsCachedDeposits() {
+        Long id = repository.findByLifestyleType("fancy").orElseThrow().getId();
+        repository.findById(id);
+        assertEquals(1, statistics.getSecondLevelCacheHitCount());
+
+        repository.upsertAll(Map.of("fancy", new BigDecimal("3500.00")));
+
+        assertEquals(0, new BigDecimal("3500.00").compareTo(repository.findById(id).orElseThrow().getMonthlyDeposit()));
+    }
+
+    @Test
+    void testFindViewByLifestyleType_SeesRowsChangedOutsideHibernate() {
+        assertTrue(repository.findViewByLifestyleType("fancy").isPresent());
+
+        jdbcTemplate.update("UPDATE retirement_staging.lifestyle_deposits SET monthly_deposit = 3500 WHERE lifestyle_type = 'fancy'");
+
+        assertEquals(0, new BigDecimal("3500.00").compareTo(
+                repository.findViewByLifestyleType(" FANCY").orElseThrow().getMonthlyDeposit()));
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.retirementCalculator.service;
+
+import com.example.retirementCalculator.entity.ScheduleEntry;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AccumulationScheduleTest {
+
+    private static final BigDecimal DEPOSIT = new BigDecimal("1000");
+
+    private static List<ScheduleEntry> schedule(String rate, int years, ScheduleGranularity granularity) {
+        return new AccumulationSchedule(30, DEPOSIT, new BigDecimal(rate), years * 12, granularity)
+                .stream()
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    void testYearlySchedule_EndsAtClosedFormFutureValue() {
+        List<ScheduleEntry> entries = schedule("5.0", 35, ScheduleGranularity.YEARLY);
+
+        assertEquals(35, entries.size());
+        ScheduleEntry last = entries.get(34);
+        assertEquals(35, last.getPeriod());
+        assertEquals(65, last.getAge());
+        assertEquals(new BigDecimal("1136092.44"), last.getBalance());
+        assertEquals(new BigDecimal("420000.00"), last.getContributions());
+        assertEquals(last.getBalance().subtract(last.getContributions()), last.getInterest());
+    }
+
+    @Test
+    void testMonthlySchedule_MatchesYearlyAtYearEnds() {
+        List<ScheduleEntry> monthly = schedule("6.5", 10, ScheduleGranularity.MONTHLY);
+        List<ScheduleEntry> yearly = schedule("6.5", 10, ScheduleGranularity.YEARLY);
+
+        assertEquals(120, monthly.size());
+        assertEquals(new BigDecimal("1000.00"), monthly.get(0).getBalance());
+        assertEquals(30, monthly.get(10).getAge());
+        assertEquals(31, monthly.get(11).getAge());
+        for (int year = 1; year <= 10; year++) {
+            assertEquals(yearly.get(year - 1).getBalance(), monthly.get(year * 12 - 1).getBalance());
+        }
+    }
+
+    @Test
+    void testSchedule_MatchesClosedFormForEveryYear() {
+        List<ScheduleEntry> entries = schedule("7.25", 48, ScheduleGranularity.YEARLY);
+
+        for (ScheduleEntry entry : entries) {
+            BigDecimal expected = FutureValueCalculator.exactFutureValue(DEPOSIT, new BigDecimal("7.25"), entry.getPeriod() * 12);
+            assertEquals(expected, entry.getBalance(), "year " + entry.getPeriod());
+        }
+    }
+
+    @Test
+    void testSchedule_ZeroRateHasNoInterest() {
+        ScheduleEntry last = schedule("0", 5, ScheduleGranularity.YEARLY).get(4);
+
+        assertEquals(new BigDecimal("60000.00"), last.getBalance());
+        assertEquals(0, last.getInterest().signum());
+    }
+}
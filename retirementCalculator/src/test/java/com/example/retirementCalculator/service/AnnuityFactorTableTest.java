@@ -0,0 +1,92 @@
+package com.example.retirementCalculator.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AnnuityFactorTableTest {
+
+    private static final int MAX_MONTHS = 996;
+    private static final List<String> RATES = List.of("5.5", "6.5", "0.01", "12", "100");
+    private static final List<BigDecimal> DEPOSITS = List.of(
+            new BigDecimal("1000"), new BigDecimal("3000"), new BigDecimal("1234.56"), new BigDecimal("0.01"));
+
+    private AnnuityFactorTable annuityTable;
+
+    @BeforeEach
+    void setUp() {
+        annuityTable = new AnnuityFactorTable(MAX_MONTHS);
+        annuityTable.rebuild(RATES);
+    }
+
+    @Test
+    void testFutureValue_MatchesExactPathForEveryHorizon() {
+        for (String rate : RATES) {
+            BigDecimal annualRate = new BigDecimal(rate);
+            for (BigDecimal deposit : DEPOSITS) {
+                for (int months = 1; months <= MAX_MONTHS; months++) {
+                    assertEquals(FutureValueCalculator.exactFutureValue(deposit, annualRate, months),
+                            annuityTable.futureValue(CalculationMode.EXACT, deposit, annualRate, months),
+                            "rate " + rate + ", deposit " + deposit + ", months " + months);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testFutureValue_MatchesFastPathForEveryHorizon() {
+        for (String rate : RATES) {
+            BigDecimal annualRate = new BigDecimal(rate);
+            for (BigDecimal deposit : DEPOSITS) {
+                for (int months = 1; months <= MAX_MONTHS; months++) {
+                    assertEquals(FutureValueCalculator.fastFutureValue(deposit.doubleValue(), annualRate.doubleValue(), months),
+                            annuityTable.futureValue(CalculationMode.FAST, deposit, annualRate, months),
+                            "rate " + rate + ", deposit " + deposit + ", months " + months);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testFutureValue_LooksUpRatesIgnoringScale() {
+        assertTrue(annuityTable.contains(new BigDecimal("5.50")));
+        assertTrue(annuityTable.contains(BigDecimal.valueOf(12.0)));
+        assertEquals(FutureValueCalculator.exactFutureValue(new BigDecimal("1000"), new BigDecimal("5.5"), 420),
+                annuityTable.futureValue(CalculationMode.EXACT, new BigDecimal("1000"), BigDecimal.valueOf(5.50), 420));
+    }
+
+    @Test
+    void testFutureValue_FallsBackForUnknownRateAndLongHorizon() {
+        BigDecimal deposit = new BigDecimal("3000");
+
+        assertFalse(annuityTable.contains(new BigDecimal("7.25")));
+        assertEquals(FutureValueCalculator.exactFutureValue(deposit, new BigDecimal("7.25"), 240),
+                annuityTable.futureValue(CalculationMode.EXACT, deposit, new BigDecimal("7.25"), 240));
+        assertEquals(FutureValueCalculator.exactFutureValue(deposit, new BigDecimal("5.5"), MAX_MONTHS + 12),
+                annuityTable.futureValue(CalculationMode.EXACT, deposit, new BigDecimal("5.5"), MAX_MONTHS + 12));
+    }
+
+    @Test
+    void testRebuild_SkipsInvalidAndZeroRates() {
+        annuityTable.rebuild(Arrays.asList("5.5", "5.50", "abc", null, "0", "0.00000001", "-1"));
+
+        assertEquals(1, annuityTable.size());
+        assertTrue(annuityTable.contains(new BigDecimal("5.5")));
+        assertEquals(new BigDecimal("12000.00"),
+                annuityTable.futureValue(CalculationMode.EXACT, new BigDecimal("1000"), BigDecimal.ZERO, 12));
+    }
+
+    @Test
+    void testRebuild_ReplacesPreviousTable() {
+        annuityTable.rebuild(List.of("4.0"));
+
+        assertEquals(1, annuityTable.size());
+        assertTrue(annuityTable.contains(new BigDecimal("4")));
+        assertFalse(annuityTable.contains(new BigDecimal("5.5")));
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.retirementCalculator.service;
+
+import com.example.retirementCalculator.config.RedisKeyspace;
+import com.example.retirementCalculator.entity.LifestyleRates;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+public class CacheInvalidationBusTest {
+
+    private static final String CHANNEL = "retirement:invalidation";
+    private static final String VERSION_KEY = "retirement:invalidation-version";
+    private static final LifestyleRates RATES = new LifestyleRates("1000", "6.5");
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AtomicLong counter = new AtomicLong();
+    private final List<CacheInvalidationBus> subscribers = new ArrayList<>();
+
+    private final RedisKeyspace localKeyspace = new RedisKeyspace("lifestyle:", 100, 500);
+    private final RedisKeyspace remoteKeyspace = new RedisKeyspace("lifestyle:", 100, 500);
+
+    private LifestyleNearCache localCache;
+    private LifestyleNearCache remoteCache;
+    private CacheInvalidationBus local;
+    private CacheInvalidationBus remote;
+
+    /**
+     * In-memory stand-in for Redis: INCR on one shared counter and PUBLISH delivered
+     * synchronously to every subscribed bus.
+     */
+    @SuppressWarnings("unchecked")
+    private StringRedisTemplate redis() {
+        StringRedisTemplate template = mock(StringRedisTemplate.class);
+        ValueOperations<String, String> values = mock(ValueOperations.class);
+        when(template.opsForValue()).thenReturn(values);
+        when(values.increment(VERSION_KEY)).thenAnswer(invocation -> counter.incrementAndGet());
+        when(template.convertAndSend(eq(CHANNEL), anyString())).thenAnswer(invocation -> {
+            deliver(invocation.getArgument(1));
+            return (long) subscribers.size();
+        });
+        return template;
+    }
+
+    private void deliver(String payload) {
+        DefaultMessage message = new DefaultMessage(CHANNEL.getBytes(StandardCharsets.UTF_8), payload.getBytes(StandardCharsets.UTF_8));
+        subscribers.forEach(subscriber -> subscriber.onMessage(message, null));
+    }
+
+    private CacheInvalidationBus bus(StringRedisTemplate template, RedisKeyspace keyspace, LifestyleNearCache nearCache) {
+        CacheInvalidationBus bus = new CacheInvalidationBus(template, keyspace, nearCache, new CalculationResultCache(100),
+                new RetirementMetrics(registry), CHANNEL, VERSION_KEY);
+        subscribers.add(bus);
+        return bus;
+    }
+
+    @BeforeEach
+    void setUp() {
+        localCache = new LifestyleNearCache(100, Duration.ofMinutes(1));
+        remoteCache = new LifestyleNearCache(100, Duration.ofMinutes(1));
+        local = bus(redis(), localKeyspace, localCache);
+        remote = bus(redis(), remoteKeyspace, remoteCache);
+        for (LifestyleNearCache nearCache : List.of(localCache, remoteCache)) {
+            nearCache.put("simple", RATES, nearCache.generation());
+            nearCache.put("fancy", RATES, nearCache.generation());
+        }
+    }
+
+    private double count(String outcome) {
+        return registry.get("retirement.invalidation").tag("outcome", outcome).counter().count();
+    }
+
+    @Test
+    void testInvalidate_EvictsKeyOnEveryInstance() {
+        local.invalidate("simple");
+
+        assertNull(localCache.getIfPresent("simple"));
+        assertNull(remoteCache.getIfPresent("simple"));
+        assertNotNull(remoteCache.getIfPresent("fancy"));
+        assertEquals(1, count("published"));
+        assertEquals(1, count("applied"));
+        assertEquals(1, count("ignored")); // the local echo
+        assertEquals(1, registry.get("retirement.invalidation.lag").timer().count());
+    }
+
+    @Test
+    void testInvalidateAll_EvictsEveryKeyOnEveryInstance() {
+        remote.invalidateAll();
+
+        for (LifestyleNearCache nearCache : List.of(localCache, remoteCache)) {
+            assertNull(nearCache.getIfPresent("simple"));
+            assertNull(nearCache.getIfPresent("fancy"));
+        }
+    }
+
+    @Test
+    void testOnMessage_IgnoresMessagesOlderThanLastApplied() {
+        deliver("5 0\nsimple");
+        remoteCache.put("simple", RATES, remoteCache.generation());
+
+        deliver("4 0\nsimple"); // overtaken by version 5
+        deliver("5 0\nsimple"); // duplicate
+        assertNotNull(remoteCache.getIfPresent("simple"));
+
+        deliver("6 0\n*");
+        remoteCache.put("simple", RATES, remoteCache.generation());
+        deliver("5 0\nfancy"); // older than the last "all"
+        assertNotNull(remoteCache.getIfPresent("simple"));
+
+        deliver("7 0\nsimple");
+        assertNull(remoteCache.getIfPresent("simple"));
+    }
+
+    @Test
+    void testInvalidateAll_MovesEveryInstanceToTheNewTableVersion() {
+        localKeyspace.advanceVersion(3);
+
+        local.invalidateAll();
+
+        assertEquals(3, remoteKeyspace.getVersion());
+        assertEquals("lifestyle:v3:simple", remoteKeyspace.key("simple"));
+        assertNull(remoteCache.getIfPresent("fancy"));
+    }
+
+    @Test
+    void testOnMessage_SwitchesToNewerTableVersionOnAnyMessage() {
+        deliver("5 0 2\nsimple");
+
+        assertEquals(2, remoteKeyspace.getVersion());
+        assertNull(remoteCache.getIfPresent("fancy")); // values of the old version are all evicted
+
+        remoteCache.put("fancy", RATES, remoteCache.generation());
+        deliver("6 0 1\nsimple"); // never moves back to an older version
+        assertEquals(2, remoteKeyspace.getVersion());
+        assertNotNull(remoteCache.getIfPresent("fancy"));
+    }
+
+    @Test
+    void testOnMessage_IgnoresMalformedMessages() {
+        deliver("not-a-version\nsimple");
+
+        assertNotNull(remoteCache.getIfPresent("simple"));
+        assertEquals(2, count("malformed"));
+    }
+
+    @Test
+    void testInvalidate_EvictsLocallyWhenPublishingFails() {
+        StringRedisTemplate down = mock(StringRedisTemplate.class);
+        when(down.opsForValue()).thenThrow(new RedisConnectionFailureException("Unable to connect to Redis"));
+        LifestyleNearCache nearCache = new LifestyleNearCache(100, Duration.ofMinutes(1));
+        nearCache.put("simple", RATES, nearCache.generation());
+        CacheInvalidationBus bus = new CacheInvalidationBus(down, localKeyspace, nearCache, new CalculationResultCache(100),
+                new RetirementMetrics(registry), CHANNEL, VERSION_KEY);
+
+        bus.invalidate("simple");
+
+        assertNull(nearCache.getIfPresent("simple"));
+        assertEquals(1, count("failed"));
+        verify(down, never()).convertAndSend(anyString(), any());
+    }
+}
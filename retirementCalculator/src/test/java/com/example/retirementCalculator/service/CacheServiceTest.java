@@ -1,27 +1,48 @@
 package com.example.retirementCalculator.service;
 
+import com.example.retirementCalculator.config.RedisKeyspace;
+import com.example.retirementCalculator.config.RedisLayout;
 import com.example.retirementCalculator.entity.LifestyleDeposit;
+import com.example.retirementCalculator.entity.LifestyleDepositView;
+import com.example.retirementCalculator.entity.LifestyleRates;
+import com.example.retirementCalculator.entity.Retirement;
+import com.example.retirementCalculator.entity.RetirementResult;
 import com.example.retirementCalculator.exception.CacheUpdateException;
 import com.example.retirementCalculator.exception.RedisCacheAccessException;
 import com.example.retirementCalculator.exception.RedisCacheDeleteException;
 import com.example.retirementCalculator.exception.RedisCacheUpdateException;
 import com.example.retirementCalculator.repository.RetirementRepository;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.InOrder;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.data.redis.connection.RedisConnection;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.ScanOptions;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
 
 
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -34,6 +55,13 @@ public class CacheServiceTest {
     private static final String KEY_UNKNOWN = "unknown";
     private static final String KEY_FANCY = "fancy";
     private static final String CACHE_NAME = "cacheName";
+    private static final String PREFIX = "lifestyle:";
+    private static final String HASH_PREFIX = "lifestyle-hash:";
+    private static final String CHANNEL = "retirement:invalidation";
+    private static final String VERSION_KEY = "retirement:invalidation-version";
+    private static final String TABLE_VERSION_KEY = "lifestyle-version";
+    private static final String TABLE_SEQUENCE_KEY = "lifestyle-version-sequence";
+    private final RetirementMetrics metrics = new RetirementMetrics(new SimpleMeterRegistry());
     private List<LifestyleDeposit> deposits;
 
     @Mock
@@ -57,26 +85,61 @@ public class CacheServiceTest {
     @Mock
     private RedisConnection connection;
 
-    @InjectMocks
+    @Mock
+    private LifestyleNearCache nearCache;
+
+    @Mock
+    private CalculationResultCache resultCache;
+
+    @Mock
+    private AnnuityFactorTable annuityTable;
+
+    @Mock
+    private StringRedisTemplate redisSecondTemplate;
+
+    @Mock
+    private ValueOperations<String, String> secondValueOperations;
+
+    @Mock
+    private LifestyleHashStore hashStore;
+
+    @Spy
+    private RedisKeyspace keyspace = new RedisKeyspace(PREFIX, 100, 2);
+
     private CacheService cacheService;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        cacheService = cacheService(keyspace);
         when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(redisSecondTemplate.opsForValue()).thenReturn(secondValueOperations);
         when(redisTemplate.getConnectionFactory()).thenReturn(connectionFactory);
         when(connectionFactory.getConnection()).thenReturn(connection);
+        when(redisTemplate.execute(any(RedisCallback.class)))
+                .thenAnswer(invocation -> invocation.<RedisCallback<?>>getArgument(0).doInRedis(connection));
+        when(valueOperations.increment(TABLE_SEQUENCE_KEY)).thenReturn(1L);
+        when(redisTemplate.execute(any(RedisScript.class), eq(List.of(TABLE_VERSION_KEY)), any())).thenReturn(1L);
+    }
+
+    private CacheService cacheService(RedisKeyspace keyspace) {
+        return new CacheService(cacheManager, redisTemplate, redisSecondTemplate, null,
+                retirementRepository, nearCache, resultCache, annuityTable, hashStore, keyspace, metrics,
+                new CacheInvalidationBus(redisTemplate, keyspace, nearCache, resultCache, metrics, CHANNEL, VERSION_KEY),
+                new LifestyleTableVersion(redisTemplate, keyspace, nearCache, resultCache, metrics, TABLE_VERSION_KEY, TABLE_SEQUENCE_KEY),
+                Duration.ofSeconds(2));
     }
 
     @Test
     void testGetCacheStatus_RedisCache() {
         when(connection.ping()).thenReturn("PONG");
-        when(redisTemplate.opsForValue().size(CACHE_NAME)).thenReturn(10L);
+        when(redisTemplate.opsForValue().size(PREFIX + CACHE_NAME)).thenReturn(10L);
         when(valueOperations.get(CACHE_NAME)).thenReturn(null); // simulate key not present
 
         String status = cacheService.getCacheStatus(CACHE_NAME);
 
         assertEquals("Redis is UP | Cache key cacheName does NOT exist | Approximate size: 10", status);
+        verify(connectionFactory, never()).getConnection();
     }
 
     @Test
@@ -124,61 +187,184 @@ public class CacheServiceTest {
         deposit.setLifestyleType(KEY_SIMPLE);
         deposit.setMonthlyDeposit(BigDecimal.valueOf(1000.0));
 
-        when(retirementRepository.findByLifestyleType(KEY_SIMPLE)).thenReturn(Optional.of(deposit));
+        when(retirementRepository.findViewByLifestyleType(KEY_SIMPLE)).thenReturn(Optional.of(view(deposit)));
 
-        String expectedValue = "LifestyleType: simple, Amount: 1000.0";
+        String expectedValue = "1000.0";
 
         String result = cacheService.refreshCache(KEY_SIMPLE);
 
-        verify(redisTemplate).delete(KEY_SIMPLE);
-        verify(valueOperations).set(KEY_SIMPLE, expectedValue);
+        // Overwritten in place, so calculations never find the key missing
+        verify(redisTemplate, never()).delete(anyString());
+        verify(valueOperations).set(PREFIX + KEY_SIMPLE, expectedValue);
+        verify(nearCache).invalidate(KEY_SIMPLE);
+        verify(resultCache).invalidateLifestyle(KEY_SIMPLE);
         assertEquals("Cache refreshed for key: simple with value: " + expectedValue, result);
     }
 
+    @Test
+    void testRefreshCache_ValueCanBeCalculatedWith() {
+        Map<String, String> deposits = new HashMap<>();
+        doAnswer(invocation -> deposits.put(invocation.getArgument(0), invocation.getArgument(1)))
+                .when(valueOperations).set(anyString(), anyString());
+        when(valueOperations.get(anyString())).thenAnswer(invocation -> deposits.get(invocation.<String>getArgument(0)));
+        when(secondValueOperations.get(PREFIX + KEY_SIMPLE)).thenReturn("6.5");
+        when(retirementRepository.findViewByLifestyleType(KEY_SIMPLE))
+                .thenReturn(Optional.of(view(new LifestyleDeposit(KEY_SIMPLE, new BigDecimal("1250.00")))));
+        RetirementService retirementService = new RetirementService(redisTemplate, redisSecondTemplate, retirementRepository,
+                new LifestyleNearCache(100, Duration.ofMinutes(1)), new CalculationResultCache(100), new AnnuityFactorTable(996),
+                hashStore, keyspace, metrics, new RedisCircuitBreaker(CircuitBreakerConfig.ofDefaults(), new LifestyleSnapshot(null, null), metrics));
+
+        cacheService.refreshCache(KEY_SIMPLE);
+        RetirementResult result = retirementService.calculatePlan(new Retirement(30, 65, null, KEY_SIMPLE));
+
+        assertEquals(0, new BigDecimal("1250.00").compareTo(result.getMonthlyDeposit()));
+    }
+
+    @Test
+    void testRefreshCache_WritesPlainAmountWithHashLayout() {
+        keyspace = new RedisKeyspace(PREFIX, HASH_PREFIX, RedisLayout.HASH, 100, 2);
+        when(retirementRepository.findViewByLifestyleType(KEY_SIMPLE))
+                .thenReturn(Optional.of(view(new LifestyleDeposit(KEY_SIMPLE, new BigDecimal("1250.00")))));
+
+        cacheService(keyspace).refreshCache(KEY_SIMPLE);
+
+        verify(hashStore).write(LifestyleHashStore.DEPOSIT, Map.of(KEY_SIMPLE, "1250.00"));
+    }
+
     @Test
     void testRefreshCache_NotFound() {
-        when(retirementRepository.findByLifestyleType(KEY_UNKNOWN)).thenReturn(Optional.empty());
+        when(retirementRepository.findViewByLifestyleType(KEY_UNKNOWN)).thenReturn(Optional.empty());
 
         String result = cacheService.refreshCache(KEY_UNKNOWN);
 
         assertTrue(result.contains("Error refreshing cache for key: " + KEY_UNKNOWN));
-        verify(redisTemplate).delete(KEY_UNKNOWN);
+        verify(redisTemplate).delete(PREFIX + KEY_UNKNOWN);
         verify(valueOperations, never()).set(anyString(), anyString());
     }
 
     @Test
     void testRefreshCache_ThrowsCacheUpdateException() {
         String key = "key";
-        doThrow(new RuntimeException("Redis down")).when(redisTemplate).delete(key);
+        doThrow(new RuntimeException("Redis down")).when(redisTemplate).delete(PREFIX + key);
 
         String result = cacheService.refreshCache(key);
 
         assertTrue(result.contains("Error refreshing cache for key: " + key + " - Redis down"));
     }
 
+    @Test
+    void testRefreshCache_ConcurrentRefreshesQueryTheDatabaseOnce() throws Exception {
+        int callers = 8;
+        LifestyleDepositView fresh = view(new LifestyleDeposit(KEY_SIMPLE, new BigDecimal("1000")));
+        // A first reload holds the key while it queries, so the next reload waits before its query
+        CountDownLatch queried = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(retirementRepository.findViewByLifestyleType(KEY_SIMPLE)).thenAnswer(invocation -> {
+            queried.countDown();
+            release.await();
+            return Optional.of(fresh);
+        }).thenReturn(Optional.of(fresh));
+
+        ExecutorService executor = Executors.newFixedThreadPool(callers + 1);
+        try {
+            Future<String> first = executor.submit(() -> cacheService.refreshCache(KEY_SIMPLE));
+            assertTrue(queried.await(5, TimeUnit.SECONDS));
+
+            List<Thread> threads = new CopyOnWriteArrayList<>();
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> {
+                    threads.add(Thread.currentThread());
+                    return cacheService.refreshCache(KEY_SIMPLE);
+                }));
+            }
+            // One caller runs the next reload, waiting for the first; the others are parked waiting for it, not querying
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (threads.size() < callers
+                    || threads.stream().filter(thread -> thread.getState() == Thread.State.TIMED_WAITING).count() < callers - 1
+                    || threads.stream().noneMatch(thread -> thread.getState() == Thread.State.WAITING)) {
+                assertTrue(System.nanoTime() < deadline, "refreshes did not join the reload in flight");
+                Thread.sleep(1);
+            }
+            release.countDown();
+
+            assertEquals("Cache refreshed for key: simple with value: 1000", first.get(5, TimeUnit.SECONDS));
+            for (Future<String> result : results) {
+                assertEquals("Cache refreshed for key: simple with value: 1000",
+                        result.get(5, TimeUnit.SECONDS));
+            }
+            // One query for the first reload and one for all the callers
+            verify(retirementRepository, times(2)).findViewByLifestyleType(KEY_SIMPLE);
+            verify(valueOperations, times(2)).set(eq(PREFIX + KEY_SIMPLE), anyString());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testRefreshCache_AfterTheReloadQueriedSeesTheNewValue() throws Exception {
+        LifestyleDepositView before = view(new LifestyleDeposit(KEY_SIMPLE, new BigDecimal("1000")));
+        LifestyleDepositView after = view(new LifestyleDeposit(KEY_SIMPLE, new BigDecimal("1200")));
+        // The first reload reads the old row, and the row changes before it writes it
+        CountDownLatch queried = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(retirementRepository.findViewByLifestyleType(KEY_SIMPLE)).thenAnswer(invocation -> {
+            queried.countDown();
+            release.await();
+            return Optional.of(before);
+        }).thenReturn(Optional.of(after));
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> first = executor.submit(() -> cacheService.refreshCache(KEY_SIMPLE));
+            assertTrue(queried.await(5, TimeUnit.SECONDS));
+            AtomicReference<Thread> thread = new AtomicReference<>();
+            Future<String> second = executor.submit(() -> {
+                thread.set(Thread.currentThread());
+                return cacheService.refreshCache(KEY_SIMPLE);
+            });
+            // The second refresh starts its own reload, which waits for the first one to write
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (thread.get() == null || thread.get().getState() != Thread.State.WAITING) {
+                assertTrue(System.nanoTime() < deadline, "refresh did not wait for the reload in flight");
+                Thread.sleep(1);
+            }
+            release.countDown();
+
+            assertEquals("Cache refreshed for key: simple with value: 1000", first.get(5, TimeUnit.SECONDS));
+            assertEquals("Cache refreshed for key: simple with value: 1200", second.get(5, TimeUnit.SECONDS));
+            verify(retirementRepository, times(2)).findViewByLifestyleType(KEY_SIMPLE);
+            InOrder writes = inOrder(valueOperations);
+            writes.verify(valueOperations).set(PREFIX + KEY_SIMPLE, "1000");
+            writes.verify(valueOperations).set(PREFIX + KEY_SIMPLE, "1200");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     @Test
     void testFetchFromCache_Found() {
-        when(valueOperations.get("key")).thenReturn("cachedValue");
+        when(valueOperations.get(PREFIX + "key")).thenReturn("cachedValue");
 
         String cachedData = cacheService.fetchFromCache("key");
 
         assertEquals("cachedValue", cachedData);
-        verify(valueOperations).get("key");
+        verify(valueOperations).get(PREFIX + "key");
     }
 
     @Test
     void testFetchFromCache_NotFound() {
-        when(valueOperations.get("key")).thenReturn(null);
+        when(valueOperations.get(PREFIX + "key")).thenReturn(null);
 
         String cachedData = cacheService.fetchFromCache("key");
 
         assertNull(cachedData);
-        verify(valueOperations).get("key");
+        verify(valueOperations).get(PREFIX + "key");
     }
 
     @Test
     void testFetchFromCache_ThrowsRedisCacheAccessException() {
-        when(valueOperations.get("key")).thenThrow(new RedisCacheAccessException("Redis connection error"));
+        when(valueOperations.get(PREFIX + "key")).thenThrow(new RedisCacheAccessException("Redis connection error"));
 
         assertThatThrownBy(() -> cacheService.fetchFromCache("key"))
                 .isInstanceOf(RuntimeException.class)
@@ -187,16 +373,18 @@ public class CacheServiceTest {
 
     @Test
     void testUpdateCache_Success() {
-        doNothing().when(valueOperations).set("key", "newValue");
+        doNothing().when(valueOperations).set(PREFIX + "key", "newValue");
 
         cacheService.updateCache("key", "newValue");
 
-        verify(valueOperations).set("key", "newValue");
+        verify(valueOperations).set(PREFIX + "key", "newValue");
+        verify(nearCache).invalidate("key");
+        verify(resultCache).invalidateLifestyle("key");
     }
 
     @Test
     void testUpdateCache_ThrowsRedisCacheUpdateException() {
-        doThrow(new RedisCacheUpdateException("Redis update error")).when(valueOperations).set("key", "value");
+        doThrow(new RedisCacheUpdateException("Redis update error")).when(valueOperations).set(PREFIX + "key", "value");
 
         assertThatThrownBy(() -> cacheService.updateCache("key", "value"))
                 .isInstanceOf(RuntimeException.class)
@@ -207,12 +395,14 @@ public class CacheServiceTest {
     void testDeleteFromCache_Success() {
         cacheService.deleteFromCache("key");
 
-        verify(redisTemplate).delete("key");
+        verify(redisTemplate).delete(PREFIX + "key");
+        verify(nearCache).invalidate("key");
+        verify(resultCache).invalidateLifestyle("key");
     }
 
     @Test
     void testDeleteFromCache_ThrowsRedisCacheDeleteException() {
-        doThrow(new RedisCacheDeleteException("Redis delete error")).when(redisTemplate).delete("key");
+        doThrow(new RedisCacheDeleteException("Redis delete error")).when(redisTemplate).delete(PREFIX + "key");
 
         assertThatThrownBy(() -> cacheService.deleteFromCache("key"))
                 .isInstanceOf(RuntimeException.class)
@@ -221,13 +411,14 @@ public class CacheServiceTest {
 
     @Test
     void testRefreshAllCache_Success() {
-        when(redisTemplate.keys("*")).thenReturn(Set.of(KEY_SIMPLE, KEY_FANCY));
+        mockScan(redisSecondTemplate, PREFIX + KEY_SIMPLE, PREFIX + KEY_FANCY);
+        when(secondValueOperations.multiGet(List.of(PREFIX + KEY_SIMPLE, PREFIX + KEY_FANCY))).thenReturn(List.of("6.5", "5.5"));
 
         deposits = List.of(
-                new LifestyleDeposit(KEY_SIMPLE, new BigDecimal("1000")),
+                new LifestyleDeposit("Simple", new BigDecimal("1000")),
                 new LifestyleDeposit(KEY_FANCY, new BigDecimal("3000"))
         );
-        when(retirementRepository.findAll()).thenReturn(deposits);
+        when(retirementRepository.findAllViews()).thenReturn(deposits.stream().map(CacheServiceTest::view).toList());
 
         // Act
         String response = cacheService.refreshAllCache();
@@ -235,19 +426,37 @@ public class CacheServiceTest {
         // Assert
         assertEquals("Cache successfully refreshed for all LifestyleDeposit entries.", response);
 
-        verify(redisTemplate).delete(Set.of(KEY_SIMPLE, KEY_FANCY));
-        verify(redisTemplate.opsForValue(), times(2)).set(anyString(), anyString());
+        verify(valueOperations).multiSet(Map.of(PREFIX + "v1:" + KEY_SIMPLE, "1000", PREFIX + "v1:" + KEY_FANCY, "3000"));
+        verify(secondValueOperations).multiSet(Map.of(PREFIX + "v1:" + KEY_SIMPLE, "6.5", PREFIX + "v1:" + KEY_FANCY, "5.5"));
+        verify(redisTemplate).execute(any(RedisScript.class), eq(List.of(TABLE_VERSION_KEY)), eq("1"));
+        assertEquals(1, keyspace.getVersion());
+        assertEquals(PREFIX + "v1:" + KEY_SIMPLE, keyspace.key(KEY_SIMPLE));
+        verify(redisTemplate, never()).delete(anyList());
+        verify(redisTemplate, never()).keys(anyString());
+        verify(nearCache).invalidateAll();
+        verify(resultCache).invalidateAll();
     }
 
-
+    @Test
+    void testRefreshAllCache_WritesTheNewVersionBeforeSwitching() {
+        mockScan(redisSecondTemplate);
+        when(retirementRepository.findAllViews()).thenReturn(List.of(view(new LifestyleDeposit(KEY_SIMPLE, new BigDecimal("1000")))));
+        doAnswer(invocation -> {
+            // Readers still resolve the complete current version while the new one is written
+            assertEquals(PREFIX + KEY_SIMPLE, keyspace.key(KEY_SIMPLE));
+            return null;
+        }).when(valueOperations).multiSet(anyMap());
+
+        cacheService.refreshAllCache();
+
+        verify(valueOperations).multiSet(Map.of(PREFIX + "v1:" + KEY_SIMPLE, "1000"));
+        assertEquals(PREFIX + "v1:" + KEY_SIMPLE, keyspace.key(KEY_SIMPLE));
+    }
 
     @Test
     void testRefreshAllCache_NotFound() {
-        // Mock Redis keys present
-        when(redisTemplate.keys("*")).thenReturn(Set.of(KEY_SIMPLE, KEY_FANCY));
-
         // Mock DB returns empty list (no deposits)
-        when(retirementRepository.findAll()).thenReturn(List.of());
+        when(retirementRepository.findAllViews()).thenReturn(List.of());
 
         // Act
         String response = cacheService.refreshAllCache();
@@ -255,17 +464,18 @@ public class CacheServiceTest {
         // Assert
         assertEquals("No LifestyleDeposit records found in the database.", response);
 
-        verify(redisTemplate).delete(Set.of(KEY_SIMPLE, KEY_FANCY));
-        verify(redisTemplate.opsForValue(), never()).set(anyString(), anyString());
+        assertEquals(0, keyspace.getVersion());
+        verify(valueOperations, never()).increment(anyString());
+        verify(valueOperations, never()).multiSet(anyMap());
+        verify(redisTemplate, never()).delete(anyList());
     }
 
     @Test
     void testRefreshAllCache_Exception() {
-        // Simulate Redis keys fetch returns some keys
-        when(redisTemplate.keys("*")).thenReturn(Set.of(KEY_SIMPLE));
+        when(retirementRepository.findAllViews()).thenReturn(List.of(view(new LifestyleDeposit(KEY_SIMPLE, new BigDecimal("1000")))));
 
-        // Simulate delete throws a runtime exception (e.g. Redis down)
-        doThrow(new RuntimeException("Redis down")).when(redisTemplate).delete(Set.of(KEY_SIMPLE));
+        // Simulate the write of the new version failing (e.g. Redis down)
+        doThrow(new RuntimeException("Redis down")).when(valueOperations).multiSet(anyMap());
 
         // Act
         String response = cacheService.refreshAllCache();
@@ -273,7 +483,252 @@ public class CacheServiceTest {
         // Assert
         assertTrue(response.contains("Error refreshing all cache entries: Redis down"));
 
-        verify(redisTemplate).delete(Set.of(KEY_SIMPLE));
-        verify(redisTemplate.opsForValue(), never()).set(anyString(), anyString());
+        assertEquals(0, keyspace.getVersion());
+        verify(redisTemplate, never()).execute(any(RedisScript.class), anyList(), any());
+        verify(nearCache, never()).invalidateAll();
+    }
+
+    @Test
+    void testRefreshAllCache_DeletesVersionsOlderThanThePreviousOne() {
+        keyspace.advanceVersion(2);
+        when(valueOperations.increment(TABLE_SEQUENCE_KEY)).thenReturn(4L);
+        String[] keys = { PREFIX + KEY_SIMPLE, PREFIX + "v1:" + KEY_SIMPLE, PREFIX + "v2:" + KEY_SIMPLE, PREFIX + "v3:" + KEY_SIMPLE };
+        mockScan(redisTemplate, keys);
+        mockScan(redisSecondTemplate, keys);
+        when(secondValueOperations.multiGet(List.of(PREFIX + "v2:" + KEY_SIMPLE))).thenReturn(List.of("6.5"));
+        when(retirementRepository.findAllViews()).thenReturn(List.of(view(new LifestyleDeposit(KEY_SIMPLE, new BigDecimal("1000")))));
+
+        cacheService.refreshAllCache();
+
+        assertEquals(4, keyspace.getVersion());
+        verify(secondValueOperations).multiSet(Map.of(PREFIX + "v4:" + KEY_SIMPLE, "6.5"));
+        // The previous version stays for instances that have not switched yet, v3 may be in the making
+        verify(redisTemplate).delete(List.of(PREFIX + KEY_SIMPLE, PREFIX + "v1:" + KEY_SIMPLE));
+        verify(redisSecondTemplate).delete(List.of(PREFIX + KEY_SIMPLE, PREFIX + "v1:" + KEY_SIMPLE));
+    }
+
+    @Test
+    void testRefreshAllCache_SupersededByNewerVersion() {
+        mockScan(redisSecondTemplate);
+        when(retirementRepository.findAllViews()).thenReturn(List.of(view(new LifestyleDeposit(KEY_SIMPLE, new BigDecimal("1000")))));
+        when(redisTemplate.execute(any(RedisScript.class), eq(List.of(TABLE_VERSION_KEY)), any())).thenReturn(0L);
+
+        String response = cacheService.refreshAllCache();
+
+        assertEquals("Cache successfully refreshed for all LifestyleDeposit entries.", response);
+        assertEquals(0, keyspace.getVersion());
+        verify(nearCache, never()).invalidateAll();
+        verify(redisTemplate, never()).scan(any(ScanOptions.class));
+    }
+
+    @Test
+    void testFetchAllCache_ScansAndReadsInChunks() {
+        mockScan(redisTemplate, PREFIX + KEY_SIMPLE, PREFIX + KEY_FANCY, PREFIX + "luxury");
+        when(valueOperations.multiGet(List.of(PREFIX + KEY_SIMPLE, PREFIX + KEY_FANCY))).thenReturn(List.of("1000", "3000"));
+        when(secondValueOperations.multiGet(List.of(PREFIX + KEY_SIMPLE, PREFIX + KEY_FANCY))).thenReturn(List.of("6.5", "5.5"));
+        when(valueOperations.multiGet(List.of(PREFIX + "luxury"))).thenReturn(List.of("9000"));
+        when(secondValueOperations.multiGet(List.of(PREFIX + "luxury"))).thenReturn(Arrays.asList((String) null));
+
+        Map<String, String> cacheData = cacheService.fetchAllCache();
+
+        assertEquals("1000", cacheData.get("simple:deposit"));
+        assertEquals("5.5", cacheData.get("fancy:interest"));
+        assertEquals("9000", cacheData.get("luxury:deposit"));
+        assertNull(cacheData.get("luxury:interest"));
+        assertEquals(6, cacheData.size());
+        verify(redisTemplate, never()).keys(anyString());
+    }
+
+    @Test
+    void testFetchAllCache_SkipsKeysOfOtherVersions() {
+        mockScan(redisTemplate, PREFIX + KEY_SIMPLE, PREFIX + "v1:" + KEY_FANCY, PREFIX + "v2:luxury");
+        when(valueOperations.multiGet(List.of(PREFIX + KEY_SIMPLE))).thenReturn(List.of("1000"));
+        when(secondValueOperations.multiGet(List.of(PREFIX + KEY_SIMPLE))).thenReturn(List.of("6.5"));
+
+        assertEquals(Map.of("simple:deposit", "1000", "simple:interest", "6.5"), cacheService.fetchAllCache());
+    }
+
+    @Test
+    void testFetchAllCache_Empty() {
+        mockScan(redisTemplate);
+
+        assertTrue(cacheService.fetchAllCache().isEmpty());
+        verify(valueOperations, never()).multiGet(any());
+    }
+
+    @Test
+    void testRefreshAnnuityTable_RebuildsFromCachedRates() {
+        mockScan(redisSecondTemplate, PREFIX + KEY_SIMPLE, PREFIX + KEY_FANCY, PREFIX + "luxury");
+        when(secondValueOperations.multiGet(List.of(PREFIX + KEY_SIMPLE, PREFIX + KEY_FANCY))).thenReturn(List.of("6.5", "5.5"));
+        when(secondValueOperations.multiGet(List.of(PREFIX + "luxury"))).thenReturn(List.of("5.5"));
+        when(annuityTable.size()).thenReturn(2);
+
+        assertEquals(2, cacheService.refreshAnnuityTable());
+        verify(annuityTable).rebuild(Set.of("6.5", "5.5"));
+    }
+
+    @Test
+    void testRefreshAnnuityTable_Exception() {
+        when(redisSecondTemplate.scan(any(ScanOptions.class))).thenThrow(new RuntimeException("Redis down"));
+
+        assertThrows(CacheUpdateException.class, () -> cacheService.refreshAnnuityTable());
+        verify(annuityTable, never()).rebuild(any());
+    }
+
+    @Test
+    void testMigrateToHashLayout_CopiesBothDatabasesInChunks() {
+        mockScan(redisTemplate, PREFIX + KEY_SIMPLE, PREFIX + KEY_FANCY, PREFIX + "luxury");
+        mockScan(redisSecondTemplate, PREFIX + KEY_SIMPLE, PREFIX + KEY_FANCY);
+        when(valueOperations.multiGet(List.of(PREFIX + KEY_SIMPLE, PREFIX + KEY_FANCY))).thenReturn(List.of("1000", "3000"));
+        when(valueOperations.multiGet(List.of(PREFIX + "luxury"))).thenReturn(Arrays.asList((String) null));
+        when(secondValueOperations.multiGet(List.of(PREFIX + KEY_SIMPLE, PREFIX + KEY_FANCY))).thenReturn(List.of("6.5", "5.5"));
+        when(hashStore.write(eq(LifestyleHashStore.DEPOSIT), anyMap())).thenAnswer(invocation -> (long) ((Map<?, ?>) invocation.getArgument(1)).size());
+        when(hashStore.write(eq(LifestyleHashStore.RATE), anyMap())).thenAnswer(invocation -> (long) ((Map<?, ?>) invocation.getArgument(1)).size());
+
+        Map<String, Long> copied = cacheService.migrateToHashLayout();
+
+        assertEquals(Map.of("deposits", 2L, "rates", 2L), copied);
+        verify(hashStore).write(LifestyleHashStore.DEPOSIT, Map.of(KEY_SIMPLE, "1000", KEY_FANCY, "3000"));
+        verify(hashStore, times(1)).write(eq(LifestyleHashStore.DEPOSIT), anyMap());
+        verify(hashStore).write(LifestyleHashStore.RATE, Map.of(KEY_SIMPLE, "6.5", KEY_FANCY, "5.5"));
+        verify(redisTemplate, never()).delete(anyList());
+    }
+
+    @Test
+    void testMigrateToHashLayout_Exception() {
+        when(redisTemplate.scan(any(ScanOptions.class))).thenThrow(new RuntimeException("Redis down"));
+
+        assertThrows(CacheUpdateException.class, () -> cacheService.migrateToHashLayout());
+    }
+
+    @Test
+    void testHashLayout_UpdateAndDeleteTouchOnlyTheDepositField() {
+        useHashLayout();
+
+        cacheService.updateCache(KEY_SIMPLE, "1500");
+        cacheService.deleteFromCache(KEY_FANCY);
+
+        verify(hashStore).write(LifestyleHashStore.DEPOSIT, Map.of(KEY_SIMPLE, "1500"));
+        verify(hashStore).remove(LifestyleHashStore.DEPOSIT, List.of(KEY_FANCY));
+        verify(valueOperations, never()).set(anyString(), anyString());
+        verify(redisTemplate, never()).delete(anyString());
+        verify(nearCache).invalidate(KEY_SIMPLE);
+        verify(resultCache).invalidateLifestyle(KEY_FANCY);
+    }
+
+    @Test
+    void testHashLayout_FetchFromCacheReadsTheHash() {
+        useHashLayout();
+        when(hashStore.read(KEY_SIMPLE)).thenReturn(new LifestyleRates("1000", "6.5"));
+
+        assertEquals("1000", cacheService.fetchFromCache(KEY_SIMPLE));
+        verify(valueOperations, never()).get(anyString());
+    }
+
+    @Test
+    void testHashLayout_FetchAllCacheReadsHashesInChunks() {
+        useHashLayout();
+        mockScan(redisTemplate, HASH_PREFIX + KEY_SIMPLE, HASH_PREFIX + KEY_FANCY, HASH_PREFIX + "luxury");
+        when(hashStore.readAll(List.of(KEY_SIMPLE, KEY_FANCY))).thenReturn(Map.of(
+                KEY_SIMPLE, new LifestyleRates("1000", "6.5"), KEY_FANCY, new LifestyleRates("3000", "5.5")));
+        when(hashStore.readAll(List.of("luxury"))).thenReturn(Map.of("luxury", new LifestyleRates("9000", null)));
+
+        Map<String, String> cacheData = cacheService.fetchAllCache();
+
+        assertEquals(6, cacheData.size());
+        assertEquals("3000", cacheData.get("fancy:deposit"));
+        assertEquals("6.5", cacheData.get("simple:interest"));
+        assertNull(cacheData.get("luxury:interest"));
+        verify(secondValueOperations, never()).multiGet(any());
+    }
+
+    @Test
+    void testHashLayout_RefreshAllCacheWritesNewVersionOfTheHashes() {
+        useHashLayout();
+        mockScan(redisTemplate, HASH_PREFIX + KEY_SIMPLE, HASH_PREFIX + KEY_FANCY);
+        when(hashStore.readAll(List.of(KEY_SIMPLE, KEY_FANCY))).thenReturn(Map.of(
+                KEY_SIMPLE, new LifestyleRates("900", "6.5"), KEY_FANCY, new LifestyleRates("3000", null)));
+        when(retirementRepository.findAllViews()).thenReturn(List.of(view(new LifestyleDeposit(KEY_SIMPLE, new BigDecimal("1000")))));
+
+        String response = cacheService.refreshAllCache();
+
+        assertEquals("Cache successfully refreshed for all LifestyleDeposit entries.", response);
+        verify(hashStore).write(LifestyleHashStore.DEPOSIT, Map.of(KEY_SIMPLE, "1000"), 1);
+        verify(hashStore).write(LifestyleHashStore.RATE, Map.of(KEY_SIMPLE, "6.5"), 1);
+        verify(hashStore, never()).remove(anyString(), anyCollection());
+        assertEquals(HASH_PREFIX + "v1:" + KEY_SIMPLE, keyspace.hashKey(KEY_SIMPLE));
+        verify(redisTemplate, never()).delete(anyList());
+    }
+
+    @Test
+    void testHashLayout_RefreshAnnuityTableReadsRatesFromHashes() {
+        useHashLayout();
+        mockScan(redisTemplate, HASH_PREFIX + KEY_SIMPLE, HASH_PREFIX + KEY_FANCY);
+        when(hashStore.readAll(List.of(KEY_SIMPLE, KEY_FANCY))).thenReturn(Map.of(
+                KEY_SIMPLE, new LifestyleRates("1000", "6.5"), KEY_FANCY, new LifestyleRates("3000", "5.5")));
+
+        cacheService.refreshAnnuityTable();
+
+        verify(annuityTable).rebuild(Set.of("6.5", "5.5"));
+        verify(redisSecondTemplate, never()).scan(any(ScanOptions.class));
+    }
+
+    @Test
+    void testWriteDeposits_OneMsetAndInvalidatesAffectedTypes() {
+        cacheService.writeDeposits(Map.of(KEY_SIMPLE, "1500.00"));
+
+        verify(valueOperations).multiSet(Map.of(PREFIX + KEY_SIMPLE, "1500.00"));
+        verify(nearCache).invalidate(KEY_SIMPLE);
+        verify(resultCache).invalidateLifestyles(Set.of(KEY_SIMPLE));
+    }
+
+    @Test
+    void testWriteRates_FailureStillInvalidates() {
+        doThrow(new RuntimeException("Redis down")).when(secondValueOperations).multiSet(anyMap());
+
+        assertThrows(CacheUpdateException.class, () -> cacheService.writeRates(Map.of(KEY_FANCY, "5.5")));
+        verify(nearCache).invalidate(KEY_FANCY);
+    }
+
+    @Test
+    void testForEachInterestRateChunk_ReadsOneChunkPerMget() {
+        mockScan(redisSecondTemplate, PREFIX + KEY_SIMPLE, PREFIX + KEY_FANCY, PREFIX + "luxury");
+        when(secondValueOperations.multiGet(List.of(PREFIX + KEY_SIMPLE, PREFIX + KEY_FANCY))).thenReturn(List.of("6.5", "5.5"));
+        when(secondValueOperations.multiGet(List.of(PREFIX + "luxury"))).thenReturn(Arrays.asList((String) null));
+        List<Map<String, String>> chunks = new ArrayList<>();
+
+        cacheService.forEachInterestRateChunk(chunks::add);
+
+        assertEquals(List.of(Map.of(KEY_SIMPLE, "6.5", KEY_FANCY, "5.5"), Map.of()), chunks);
+    }
+
+    private void useHashLayout() {
+        keyspace = new RedisKeyspace(PREFIX, HASH_PREFIX, RedisLayout.HASH, 100, 2);
+        cacheService = cacheService(keyspace);
+    }
+
+    private static LifestyleDepositView view(LifestyleDeposit deposit) {
+        return new LifestyleDepositView() {
+            @Override
+            public String getLifestyleType() {
+                return deposit.getLifestyleType();
+            }
+
+            @Override
+            public BigDecimal getMonthlyDeposit() {
+                return deposit.getMonthlyDeposit();
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void mockScan(StringRedisTemplate template, String... keys) {
+        when(template.scan(any(ScanOptions.class))).thenAnswer(invocation -> {
+            Iterator<String> iterator = List.of(keys).iterator();
+            Cursor<String> cursor = mock(Cursor.class);
+            when(cursor.hasNext()).thenAnswer(hasNext -> iterator.hasNext());
+            when(cursor.next()).thenAnswer(next -> iterator.next());
+            return cursor;
+        });
     }
 }
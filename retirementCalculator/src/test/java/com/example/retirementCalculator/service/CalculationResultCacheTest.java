@@ -0,0 +1,113 @@
+package com.example.retirementCalculator.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CalculationResultCacheTest {
+
+    private static final String KEY_SIMPLE = "simple";
+    private static final String KEY_FANCY = "fancy";
+    private static final BigDecimal FUTURE_VALUE = new BigDecimal("123456.78");
+
+    private final AtomicInteger calculations = new AtomicInteger();
+
+    private CalculationResultCache resultCache;
+
+    @BeforeEach
+    void setUp() {
+        resultCache = new CalculationResultCache(100);
+    }
+
+    private BigDecimal calculate() {
+        calculations.incrementAndGet();
+        return FUTURE_VALUE;
+    }
+
+    private BigDecimal futureValue(String lifestyleType, String rate, String deposit) {
+        return resultCache.futureValue(30, 65, new BigDecimal(rate), lifestyleType, new BigDecimal(deposit), this::calculate);
+    }
+
+    @Test
+    void testFutureValue_HitsCacheForIdenticalPlan() {
+        futureValue(KEY_SIMPLE, "6.5", "1000");
+        BigDecimal result = futureValue(KEY_SIMPLE, "6.5", "1000");
+
+        assertEquals(FUTURE_VALUE, result);
+        assertEquals(1, calculations.get());
+        assertEquals(1L, resultCache.stats().get("hitCount"));
+        assertEquals(1L, resultCache.stats().get("missCount"));
+    }
+
+    @Test
+    void testFutureValue_NormalizesScaleAndCase() {
+        futureValue(KEY_SIMPLE, "6.5", "1000");
+        futureValue("Simple", "6.50", "1000.00");
+        futureValue("SIMPLE", "6.500", "1E+3");
+
+        assertEquals(1, calculations.get());
+    }
+
+    @Test
+    void testFutureValue_CalculatesDistinctPlansSeparately() {
+        futureValue(KEY_SIMPLE, "6.5", "1000");
+        futureValue(KEY_SIMPLE, "7.0", "1000");
+        futureValue(KEY_SIMPLE, "6.5", "2000");
+        futureValue(KEY_FANCY, "6.5", "1000");
+        resultCache.futureValue(31, 65, new BigDecimal("6.5"), KEY_SIMPLE, new BigDecimal("1000"), this::calculate);
+        resultCache.futureValue(30, 66, new BigDecimal("6.5"), KEY_SIMPLE, new BigDecimal("1000"), this::calculate);
+
+        assertEquals(6, calculations.get());
+    }
+
+    @Test
+    void testInvalidateLifestyle_RemovesOnlyThatLifestyle() {
+        futureValue(KEY_SIMPLE, "6.5", "1000");
+        futureValue(KEY_SIMPLE, "7.0", "1000");
+        futureValue(KEY_FANCY, "5.5", "3000");
+
+        resultCache.invalidateLifestyle(KEY_SIMPLE);
+        futureValue(KEY_SIMPLE, "6.5", "1000");
+        futureValue(KEY_FANCY, "5.5", "3000");
+
+        assertEquals(4, calculations.get());
+    }
+
+    @Test
+    void testInvalidateAll_RemovesEveryResult() {
+        futureValue(KEY_SIMPLE, "6.5", "1000");
+        futureValue(KEY_FANCY, "5.5", "3000");
+
+        resultCache.invalidateAll();
+
+        assertEquals(0L, resultCache.stats().get("size"));
+    }
+
+    @Test
+    void testFutureValue_EvictsBeyondMaxSize() {
+        resultCache = new CalculationResultCache(2);
+        for (int deposit = 1000; deposit < 1005; deposit++) {
+            futureValue(KEY_SIMPLE, "6.5", String.valueOf(deposit));
+        }
+
+        assertEquals(2L, resultCache.stats().get("size"));
+        assertEquals(3L, resultCache.stats().get("evictionCount"));
+    }
+
+    @Test
+    void testBindTo_PublishesHitsAndMisses() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        resultCache.bindTo(registry);
+
+        futureValue(KEY_SIMPLE, "6.5", "1000");
+        futureValue(KEY_SIMPLE, "6.5", "1000");
+
+        assertEquals(1, registry.get("cache.gets").tag("cache", "calculation").tag("result", "hit").functionCounter().count());
+        assertEquals(1, registry.get("cache.gets").tag("cache", "calculation").tag("result", "miss").functionCounter().count());
+    }
+}
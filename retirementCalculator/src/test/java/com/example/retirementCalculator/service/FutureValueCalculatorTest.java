@@ -0,0 +1,66 @@
+package com.example.retirementCalculator.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class FutureValueCalculatorTest {
+
+    private static final int MIN_AGE = 17;
+    private static final int MAX_AGE = 100;
+    private static final BigDecimal ONE_CENT = new BigDecimal("0.01");
+    private static final BigDecimal RELATIVE_BOUND = new BigDecimal("1e-12");
+
+    @Test
+    void testExactFutureValue_KnownValue() {
+        BigDecimal futureValue = FutureValueCalculator.exactFutureValue(new BigDecimal("1000"), new BigDecimal("5.0"), 35 * 12);
+
+        assertEquals(new BigDecimal("1136092.44"), futureValue);
+    }
+
+    @Test
+    void testFutureValue_ZeroRate() {
+        BigDecimal exact = FutureValueCalculator.futureValue(CalculationMode.EXACT, new BigDecimal("3000"), BigDecimal.ZERO, 420);
+        BigDecimal fast = FutureValueCalculator.futureValue(CalculationMode.FAST, new BigDecimal("3000"), BigDecimal.ZERO, 420);
+
+        assertThat(exact).isEqualByComparingTo("1260000.00");
+        assertThat(fast).isEqualByComparingTo("1260000.00");
+    }
+
+    @Test
+    void testMonthlyRate_MatchesExactRounding() {
+        for (int tenths = 0; tenths <= 1000; tenths++) {
+            BigDecimal annualRate = BigDecimal.valueOf(tenths, 1);
+            BigDecimal expected = annualRate.divide(BigDecimal.valueOf(1200), FutureValueCalculator.RATE_SCALE, RoundingMode.HALF_UP);
+
+            assertEquals(expected.doubleValue(), FutureValueCalculator.monthlyRate(annualRate.doubleValue()), "rate " + annualRate);
+        }
+    }
+
+    @Test
+    void testFastFutureValue_WithinErrorBoundOfExactAcrossValidGrid() {
+        // Only the horizon (retirementAge - currentAge) affects the result, so every valid
+        // age pair is covered by the horizons 1 to MAX_AGE - MIN_AGE years. Rates step by
+        // 0.5% up to 20% and by 5% up to 100%.
+        BigDecimal[] deposits = { new BigDecimal("1000"), new BigDecimal("3000") };
+        for (int years = 1; years <= MAX_AGE - MIN_AGE; years++) {
+            int months = years * 12;
+            for (int tenths = 0; tenths <= 1000; tenths += tenths < 200 ? 5 : 50) {
+                BigDecimal annualRate = BigDecimal.valueOf(tenths, 1);
+                for (BigDecimal deposit : deposits) {
+                    BigDecimal exact = FutureValueCalculator.futureValue(CalculationMode.EXACT, deposit, annualRate, months);
+                    BigDecimal fast = FutureValueCalculator.futureValue(CalculationMode.FAST, deposit, annualRate, months);
+
+                    BigDecimal bound = ONE_CENT.max(exact.multiply(RELATIVE_BOUND));
+                    assertThat(fast.subtract(exact).abs())
+                            .as("deposit %s, rate %s, %d months", deposit, annualRate, months)
+                            .isLessThanOrEqualTo(bound);
+                }
+            }
+        }
+    }
+}
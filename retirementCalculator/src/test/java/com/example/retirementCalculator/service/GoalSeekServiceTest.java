@@ -0,0 +1,167 @@
+package com.example.retirementCalculator.service;
+
+import com.example.retirementCalculator.config.RedisKeyspace;
+import com.example.retirementCalculator.entity.GoalSeekBatchResult;
+import com.example.retirementCalculator.entity.GoalSeekRequest;
+import com.example.retirementCalculator.entity.GoalSeekResult;
+import com.example.retirementCalculator.entity.Retirement;
+import com.example.retirementCalculator.exception.InvalidInputException;
+import com.example.retirementCalculator.exception.LifestyleNotFoundException;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+public class GoalSeekServiceTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private StringRedisTemplate redisSecondTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    @Mock
+    private ValueOperations<String, String> secondValueOperations;
+
+    private RetirementService retirementService;
+    private GoalSeekService goalSeekService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(redisSecondTemplate.opsForValue()).thenReturn(secondValueOperations);
+        when(valueOperations.get("lifestyle:fancy")).thenReturn("3000");
+        when(secondValueOperations.get("lifestyle:fancy")).thenReturn("5.5");
+        when(valueOperations.multiGet(anyList())).thenReturn(Arrays.asList("3000", null));
+        when(secondValueOperations.multiGet(anyList())).thenReturn(Arrays.asList("5.5", null));
+
+        RetirementMetrics metrics = new RetirementMetrics(new SimpleMeterRegistry());
+        retirementService = new RetirementService(redisTemplate, redisSecondTemplate, null,
+                new LifestyleNearCache(100, Duration.ofMinutes(1)), new CalculationResultCache(100), new AnnuityFactorTable(996), null, new RedisKeyspace("lifestyle:", 100, 500), metrics,
+                new RedisCircuitBreaker(CircuitBreakerConfig.ofDefaults(), new LifestyleSnapshot(null, null), metrics));
+        goalSeekService = new GoalSeekService(retirementService, metrics);
+    }
+
+    private static GoalSeekRequest.GoalSeekRequestBuilder request() {
+        return GoalSeekRequest.builder()
+                .currentAge(30)
+                .retirementAge(65)
+                .lifestyleType("Fancy")
+                .targetAmount(new BigDecimal("2000000"));
+    }
+
+    @Test
+    void testSolve_DepositIsSmallestReachingTarget() {
+        GoalSeekResult result = goalSeekService.solve(request().build());
+
+        assertEquals("deposit", result.getSolvedFor());
+        assertEquals(5.5, result.getInterestRate());
+        assertEquals(new BigDecimal("1573.66"), result.getMonthlyDeposit());
+        assertEquals(new BigDecimal("2000001.36"), result.getFutureValue());
+        assertThat(FutureValueCalculator.exactFutureValue(new BigDecimal("1573.65"), new BigDecimal("5.5"), 420))
+                .isLessThan(new BigDecimal("2000000"));
+    }
+
+    @Test
+    void testSolve_DepositWithRequestedRate() {
+        GoalSeekResult result = goalSeekService.solve(request().interestRate(0.0).targetAmount(new BigDecimal("420000")).build());
+
+        assertEquals(new BigDecimal("1000.00"), result.getMonthlyDeposit());
+        assertEquals(new BigDecimal("420000.00"), result.getFutureValue());
+    }
+
+    @Test
+    void testSolve_InterestRate() {
+        GoalSeekResult result = goalSeekService.solve(request().solveFor("interest_rate")
+                .monthlyDeposit(new BigDecimal("1000")).targetAmount(new BigDecimal("1136092.44")).build());
+
+        assertEquals("interest_rate", result.getSolvedFor());
+        assertEquals(5.0, result.getInterestRate());
+        assertEquals(new BigDecimal("1136092.44"), result.getFutureValue());
+    }
+
+    @Test
+    void testSolve_InterestRateUnreachable() {
+        InvalidInputException e = assertThrows(InvalidInputException.class, () -> goalSeekService.solve(
+                request().solveFor("interest_rate").retirementAge(31).targetAmount(new BigDecimal("1e9")).build()));
+
+        assertTrue(e.getMessage().contains("cannot be reached"));
+    }
+
+    @Test
+    void testSolve_RetirementAgeUsesLifestyleDeposit() {
+        GoalSeekResult result = goalSeekService.solve(request().retirementAge(null).solveFor("RETIREMENT_AGE").build());
+
+        assertEquals("retirement_age", result.getSolvedFor());
+        assertThat(result.getFutureValue()).isGreaterThanOrEqualTo(new BigDecimal("2000000"));
+        BigDecimal yearEarlier = retirementService.calculatePlan(
+                new Retirement(30, result.getRetirementAge() - 1, null, "fancy")).getFutureValue();
+        assertThat(yearEarlier).isLessThan(new BigDecimal("2000000"));
+    }
+
+    @Test
+    void testSolve_RetirementAgeUnreachable() {
+        assertThrows(InvalidInputException.class, () -> goalSeekService.solve(
+                request().solveFor("retirement_age").currentAge(99).targetAmount(new BigDecimal("1e9")).build()));
+        assertThrows(InvalidInputException.class, () -> goalSeekService.solve(
+                request().solveFor("retirement_age").currentAge(100).build()));
+    }
+
+    @Test
+    void testSolve_InvalidInput() {
+        assertThrows(InvalidInputException.class, () -> goalSeekService.solve(request().retirementAge(30).build()));
+        assertThrows(InvalidInputException.class, () -> goalSeekService.solve(request().targetAmount(BigDecimal.ZERO).build()));
+        assertThrows(InvalidInputException.class, () -> goalSeekService.solve(request().solveFor("age").build()));
+        assertThrows(InvalidInputException.class, () -> goalSeekService.solve(
+                request().solveFor("interest_rate").monthlyDeposit(BigDecimal.ZERO).build()));
+    }
+
+    @Test
+    void testSolve_LifestyleNotFound() {
+        assertThrows(LifestyleNotFoundException.class, () -> goalSeekService.solve(request().lifestyleType("simple").build()));
+    }
+
+    @Test
+    void testSolveAll_ResolvesLifestylesOnceAndIsolatesFailures() {
+        List<GoalSeekBatchResult> results = goalSeekService.solveAll(Arrays.asList(
+                request().build(),
+                request().lifestyleType("simple").build(),
+                null,
+                request().solveFor("retirement_age").build()));
+
+        assertEquals(4, results.size());
+        assertEquals(goalSeekService.solve(request().build()), results.get(0).getResult());
+        assertEquals("RC-404", results.get(1).getErrorCode());
+        assertEquals("RC-400", results.get(2).getErrorCode());
+        assertEquals(3, results.get(3).getIndex());
+        assertNotNull(results.get(3).getResult());
+        verify(valueOperations, times(1)).multiGet(anyList());
+        verify(secondValueOperations, times(1)).multiGet(anyList());
+    }
+
+    @Test
+    void testSolveAll_RejectsOversizedBatch() {
+        List<GoalSeekRequest> requests = Collections.nCopies(1001, request().build());
+
+        assertThrows(InvalidInputException.class, () -> goalSeekService.solveAll(requests));
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.retirementCalculator.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class GoalSeekSolverTest {
+
+    private static final BigDecimal ONE_CENT = new BigDecimal("0.01");
+
+    @Test
+    void testRequiredDeposit_IsSmallestDepositReachingTarget() {
+        BigDecimal target = new BigDecimal("2000000.00");
+        for (int years = 1; years <= 83; years += 7) {
+            for (int tenths = 0; tenths <= 200; tenths += 15) {
+                BigDecimal annualRate = BigDecimal.valueOf(tenths, 1);
+                int months = years * 12;
+
+                BigDecimal deposit = BigDecimal.valueOf(GoalSeekSolver.requiredDepositCents(target.doubleValue(),
+                        FutureValueCalculator.monthlyRate(annualRate.doubleValue()), months), 2);
+
+                assertThat(fastFutureValue(deposit, annualRate, months))
+                        .as("rate %s, %d months", annualRate, months).isGreaterThanOrEqualTo(target);
+                assertThat(fastFutureValue(deposit.subtract(ONE_CENT), annualRate, months))
+                        .as("rate %s, %d months", annualRate, months).isLessThan(target);
+            }
+        }
+    }
+
+    @Test
+    void testRequiredDeposit_ZeroRate() {
+        assertEquals(100_000, GoalSeekSolver.requiredDepositCents(420_000, 0, 420));
+        assertEquals(23_810, GoalSeekSolver.requiredDepositCents(1_000_000, 0, 4200));
+    }
+
+    @Test
+    void testRequiredAnnualRate_IsSmallestRateReachingTarget() {
+        BigDecimal deposit = new BigDecimal("1000");
+        BigDecimal target = new BigDecimal("1136092.44");
+
+        double annualRate = GoalSeekSolver.requiredAnnualRate(deposit.doubleValue(), target.doubleValue(), 420);
+
+        assertEquals(5.0, annualRate);
+        assertThat(fastFutureValue(deposit, new BigDecimal("4.9999"), 420)).isLessThan(target);
+    }
+
+    @Test
+    void testRequiredAnnualRate_AcrossTargets() {
+        for (int months = 12; months <= 996; months += 84) {
+            for (double multiple = 1.01; multiple < 50; multiple *= 1.7) {
+                BigDecimal target = BigDecimal.valueOf(Math.round(1000 * months * multiple), 0);
+
+                double annualRate = GoalSeekSolver.requiredAnnualRate(1000, target.doubleValue(), months);
+                if (Double.isNaN(annualRate)) {
+                    assertThat(fastFutureValue(BigDecimal.valueOf(1000), BigDecimal.valueOf(100), months)).isLessThan(target);
+                    continue;
+                }
+                BigDecimal rate = BigDecimal.valueOf(annualRate);
+
+                assertThat(rate.scale()).isLessThanOrEqualTo(4);
+                assertThat(fastFutureValue(BigDecimal.valueOf(1000), rate, months))
+                        .as("target %s, %d months", target, months).isGreaterThanOrEqualTo(target);
+                assertThat(fastFutureValue(BigDecimal.valueOf(1000), rate.subtract(BigDecimal.valueOf(1, 4)), months))
+                        .as("target %s, %d months", target, months).isLessThan(target);
+            }
+        }
+    }
+
+    @Test
+    void testRequiredAnnualRate_DepositsAloneReachTarget() {
+        assertEquals(0.0, GoalSeekSolver.requiredAnnualRate(1000, 400_000, 420));
+    }
+
+    @Test
+    void testRequiredAnnualRate_Unreachable() {
+        assertTrue(Double.isNaN(GoalSeekSolver.requiredAnnualRate(1000, 1e12, 120)));
+        assertTrue(Double.isNaN(GoalSeekSolver.requiredAnnualRate(1000, 2000, 1)));
+    }
+
+    @Test
+    void testRequiredMonthlyRate_ConvergesToRoot() {
+        double monthlyRate = GoalSeekSolver.requiredMonthlyRate(1000, 1_136_092.44, 420);
+
+        assertEquals(1_136_092.44, FutureValueCalculator.rawFutureValue(1000, monthlyRate, 420), 1e-6);
+        assertEquals(FutureValueCalculator.monthlyRate(5.0), monthlyRate, 1e-10);
+    }
+
+    @Test
+    void testRequiredYears_IsSmallestHorizonReachingTarget() {
+        double monthlyRate = FutureValueCalculator.monthlyRate(5.0);
+
+        int years = GoalSeekSolver.requiredYears(1000, monthlyRate, 1_136_092.44, 83);
+
+        assertEquals(35, years);
+        assertEquals(36, GoalSeekSolver.requiredYears(1000, monthlyRate, 1_136_092.45, 83));
+        assertEquals(1, GoalSeekSolver.requiredYears(1000, monthlyRate, 5, 83));
+        assertEquals(10, GoalSeekSolver.requiredYears(1000, 0, 120_000, 83));
+    }
+
+    @Test
+    void testRequiredYears_Unreachable() {
+        assertEquals(-1, GoalSeekSolver.requiredYears(1000, 0, 120_000.01, 10));
+        assertEquals(-1, GoalSeekSolver.requiredYears(1000, FutureValueCalculator.monthlyRate(5.0), 1e12, 83));
+        assertEquals(-1, GoalSeekSolver.requiredYears(1000, 0, 1000, 0));
+    }
+
+    private static BigDecimal fastFutureValue(BigDecimal deposit, BigDecimal annualRate, int months) {
+        return FutureValueCalculator.futureValue(CalculationMode.FAST, deposit, annualRate, months);
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.retirementCalculator.service;
+
+import com.example.retirementCalculator.config.RedisKeyspace;
+import com.example.retirementCalculator.config.RedisLayout;
+import com.example.retirementCalculator.entity.LifestyleRates;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class LifestyleHashStoreTest {
+
+    private static final String HASH_PREFIX = "lifestyle-hash:";
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private HashOperations<String, Object, Object> hashOperations;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private LifestyleHashStore hashStore;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(redisTemplate.opsForHash()).thenReturn(hashOperations);
+        hashStore = new LifestyleHashStore(redisTemplate,
+                new RedisKeyspace("lifestyle:", HASH_PREFIX, RedisLayout.HASH, 100, 500),
+                new RetirementMetrics(registry));
+    }
+
+    @Test
+    void testRead_UsesOneHmget() {
+        when(hashOperations.multiGet(HASH_PREFIX + "fancy", List.of("deposit", "rate"))).thenReturn(List.of("3000", "5.5"));
+
+        LifestyleRates rates = hashStore.read("fancy");
+
+        assertEquals("3000", rates.getMonthlyDeposit());
+        assertEquals("5.5", rates.getInterestRate());
+        assertEquals(1, registry.get("retirement.redis").tag("database", "db0").tag("command", "hmget").timer().count());
+    }
+
+    @Test
+    void testRead_MissingFields() {
+        when(hashOperations.multiGet(HASH_PREFIX + "luxury", List.of("deposit", "rate"))).thenReturn(Arrays.asList(null, "4.0"));
+
+        LifestyleRates rates = hashStore.read("luxury");
+
+        assertNull(rates.getMonthlyDeposit());
+        assertFalse(rates.isComplete());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testReadAll_PairsTheFlatScriptResult() {
+        List<String> keys = List.of(HASH_PREFIX + "fancy", HASH_PREFIX + "luxury");
+        when(redisTemplate.execute(any(RedisScript.class), eq(keys))).thenReturn(Arrays.asList("3000", "5.5", null, "4.0"));
+
+        Map<String, LifestyleRates> rates = hashStore.readAll(List.of("fancy", "luxury"));
+
+        assertEquals("5.5", rates.get("fancy").getInterestRate());
+        assertNull(rates.get("luxury").getMonthlyDeposit());
+        assertEquals("4.0", rates.get("luxury").getInterestRate());
+        verify(redisTemplate, times(1)).execute(any(RedisScript.class), anyList());
+    }
+
+    @Test
+    void testReadAll_Empty() {
+        assertTrue(hashStore.readAll(List.of()).isEmpty());
+        verifyNoInteractions(redisTemplate);
+    }
+
+    @Test
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    void testWrite_SendsFieldTimestampAndValuesInKeyOrder() {
+        Map<String, String> values = new LinkedHashMap<>();
+        values.put("simple", "1000");
+        values.put("fancy", null);
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class))).thenReturn(2L);
+
+        assertEquals(2, hashStore.write(LifestyleHashStore.DEPOSIT, values));
+
+        ArgumentCaptor<RedisScript> script = ArgumentCaptor.forClass(RedisScript.class);
+        verify(redisTemplate).execute(script.capture(), eq(List.of(HASH_PREFIX + "simple", HASH_PREFIX + "fancy")),
+                eq("deposit"), argThat(updatedAt -> Instant.parse((String) updatedAt) != null), eq("1000"), eq(""));
+        assertTrue(script.getValue().getScriptAsString().contains("HINCRBY"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testRemove_SendsEmptyValues() {
+        hashStore.remove(LifestyleHashStore.RATE, List.of("fancy"));
+
+        verify(redisTemplate).execute(any(RedisScript.class), eq(List.of(HASH_PREFIX + "fancy")),
+                eq("rate"), anyString(), eq(""));
+    }
+
+    @Test
+    void testWrite_EmptyBatchSkipsRedis() {
+        assertEquals(0, hashStore.write(LifestyleHashStore.RATE, Map.of()));
+        verifyNoInteractions(redisTemplate);
+    }
+
+    @Test
+    void testKeyspace_RejectsOverlappingPrefixes() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new RedisKeyspace("lifestyle:", "lifestyle:hash:", RedisLayout.HASH, 100, 500));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testWrite_IntoGivenTableVersion() {
+        hashStore.write(LifestyleHashStore.RATE, Map.of("fancy", "5.5"), 7);
+
+        verify(redisTemplate).execute(any(RedisScript.class), eq(List.of(HASH_PREFIX + "v7:fancy")),
+                eq("rate"), anyString(), eq("5.5"));
+    }
+
+    @Test
+    void testKeyspace_ResolvesKeysThroughTheCurrentVersion() {
+        RedisKeyspace keyspace = new RedisKeyspace("lifestyle:", HASH_PREFIX, RedisLayout.HASH, 100, 500);
+        assertEquals("lifestyle:simple", keyspace.key("simple"));
+        assertEquals("lifestyle:*", keyspace.pattern());
+
+        assertTrue(keyspace.advanceVersion(7));
+        assertFalse(keyspace.advanceVersion(6));
+
+        assertEquals("lifestyle:v7:simple", keyspace.key("simple"));
+        assertEquals(HASH_PREFIX + "v7:simple", keyspace.hashKey("simple"));
+        assertEquals("lifestyle:v7:*", keyspace.pattern());
+        assertEquals(HASH_PREFIX + "v7:*", keyspace.hashPattern());
+        assertEquals("simple", keyspace.lifestyleType(HASH_PREFIX + "v7:simple"));
+        assertEquals("simple", keyspace.lifestyleType("lifestyle:simple"));
+        assertEquals(7, keyspace.version("lifestyle:v7:simple"));
+        assertEquals(7, keyspace.version(keyspace.pattern()));
+        assertEquals(0, keyspace.version("lifestyle:simple"));
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.retirementCalculator.service;
+
+import com.example.retirementCalculator.entity.LifestyleRates;
+import com.github.benmanes.caffeine.cache.Ticker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LifestyleNearCacheTest {
+
+    private static final String KEY_SIMPLE = "simple";
+    private static final String KEY_FANCY = "fancy";
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final Ticker ticker = nanos::get;
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private LifestyleNearCache nearCache;
+
+    @BeforeEach
+    void setUp() {
+        nearCache = new LifestyleNearCache(100, Duration.ofSeconds(30), Duration.ofSeconds(2), ticker);
+    }
+
+    private LifestyleRates load(String key) {
+        loads.incrementAndGet();
+        return new LifestyleRates("1000", "6.5");
+    }
+
+    @Test
+    void testGet_HitsCacheAfterFirstLoad() {
+        nearCache.get(KEY_SIMPLE, this::load);
+        LifestyleRates rates = nearCache.get(KEY_SIMPLE, this::load);
+
+        assertEquals("1000", rates.getMonthlyDeposit());
+        assertEquals(1, loads.get());
+        assertEquals(1L, nearCache.stats().get("hitCount"));
+        assertEquals(1L, nearCache.stats().get("missCount"));
+    }
+
+    @Test
+    void testGet_ConcurrentMissesLoadOnce() throws Exception {
+        int callers = 16;
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<LifestyleRates>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> nearCache.get(KEY_SIMPLE, key -> {
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return load(key);
+                })));
+            }
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while ((long) nearCache.stats().get("coalescedLoads") < callers - 1) {
+                assertTrue(System.nanoTime() < deadline, "misses did not join the load in flight");
+                Thread.sleep(1);
+            }
+            release.countDown();
+
+            for (Future<LifestyleRates> result : results) {
+                assertEquals("1000", result.get(5, TimeUnit.SECONDS).getMonthlyDeposit());
+            }
+            assertEquals(1, loads.get());
+            assertSame(nearCache.getIfPresent(KEY_SIMPLE), results.get(0).get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testGet_DropsValueLoadedDuringInvalidation() {
+        nearCache.get(KEY_SIMPLE, key -> {
+            LifestyleRates stale = load(key);
+            nearCache.invalidate(KEY_FANCY); // e.g. a message from another instance
+            return stale;
+        });
+        nearCache.get(KEY_SIMPLE, this::load);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testPut_IgnoresValueOlderThanLastInvalidation() {
+        long generation = nearCache.generation();
+        nearCache.invalidateAll();
+
+        nearCache.put(KEY_SIMPLE, new LifestyleRates("1000", "6.5"), generation);
+        assertNull(nearCache.getIfPresent(KEY_SIMPLE));
+
+        nearCache.put(KEY_SIMPLE, new LifestyleRates("1000", "6.5"), nearCache.generation());
+        assertNotNull(nearCache.getIfPresent(KEY_SIMPLE));
+    }
+
+    @Test
+    void testGet_DoesNotCacheIncompleteValues() {
+        nearCache.get(KEY_SIMPLE, key -> {
+            loads.incrementAndGet();
+            return new LifestyleRates(null, "6.5");
+        });
+        nearCache.get(KEY_SIMPLE, this::load);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testGet_ReloadsAfterTtl() {
+        nearCache.get(KEY_SIMPLE, this::load);
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(31));
+
+        assertEquals(1L, nearCache.stats().get("evictionCount"));
+
+        nearCache.get(KEY_SIMPLE, this::load);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testInvalidate_ForcesReload() {
+        nearCache.get(KEY_SIMPLE, this::load);
+        nearCache.invalidate(KEY_SIMPLE);
+        nearCache.get(KEY_SIMPLE, this::load);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testInvalidateAll_ForcesReload() {
+        nearCache.get(KEY_SIMPLE, this::load);
+        nearCache.get(KEY_FANCY, this::load);
+        nearCache.invalidateAll();
+        nearCache.get(KEY_FANCY, this::load);
+
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void testGetAll_LoadsOnlyMissingKeys() {
+        nearCache.get(KEY_SIMPLE, this::load);
+
+        Map<String, LifestyleRates> rates = nearCache.getAll(List.of(KEY_SIMPLE, KEY_FANCY), keys -> {
+            assertEquals(List.of(KEY_FANCY), keys);
+            Map<String, LifestyleRates> loaded = new HashMap<>();
+            keys.forEach(key -> loaded.put(key, load(key)));
+            return loaded;
+        });
+
+        assertEquals(2, rates.size());
+        assertEquals(2, loads.get());
+    }
+}
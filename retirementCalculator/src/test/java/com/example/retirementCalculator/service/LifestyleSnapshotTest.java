@@ -0,0 +1,138 @@
+package com.example.retirementCalculator.service;
+
+import com.example.retirementCalculator.entity.LifestyleDepositView;
+import com.example.retirementCalculator.entity.LifestyleRates;
+import com.example.retirementCalculator.repository.RetirementRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class LifestyleSnapshotTest {
+
+    private static final String CSV = "lifestyleType,interestRate\nFancy,5.5\nSimple,6.5\nLuxury,7.0\n";
+
+    private RetirementRepository repository;
+    private MutableClock clock;
+    private LifestyleSnapshot snapshot;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(RetirementRepository.class);
+        clock = new MutableClock(Instant.parse("2026-01-01T00:00:00Z"));
+        snapshot = new LifestyleSnapshot(repository, new ByteArrayResource(CSV.getBytes(StandardCharsets.UTF_8)), clock);
+    }
+
+    private static LifestyleDepositView view(String lifestyleType, String monthlyDeposit) {
+        LifestyleDepositView view = mock(LifestyleDepositView.class);
+        when(view.getLifestyleType()).thenReturn(lifestyleType);
+        when(view.getMonthlyDeposit()).thenReturn(new BigDecimal(monthlyDeposit));
+        return view;
+    }
+
+    @Test
+    void testRefresh_JoinsDepositsAndRates() {
+        List<LifestyleDepositView> deposits = List.of(view("fancy", "3000"), view("simple", "1000.50"));
+        when(repository.findAllViews()).thenReturn(deposits);
+
+        snapshot.refresh();
+
+        assertTrue(snapshot.isLoaded());
+        assertEquals(3, snapshot.size());
+        assertEquals("3000", snapshot.get("fancy").getMonthlyDeposit());
+        assertEquals("5.5", snapshot.get("fancy").getInterestRate());
+        assertEquals("1000.50", snapshot.get("simple").getMonthlyDeposit());
+        assertEquals("6.5", snapshot.get("simple").getInterestRate());
+        assertNull(snapshot.get("luxury").getMonthlyDeposit());
+        assertEquals("7.0", snapshot.get("luxury").getInterestRate());
+        assertNull(snapshot.get("unknown").getMonthlyDeposit());
+        assertNull(snapshot.get("unknown").getInterestRate());
+    }
+
+    @Test
+    void testGetAll_ReturnsEveryRequestedKey() {
+        List<LifestyleDepositView> deposits = List.of(view("fancy", "3000"));
+        when(repository.findAllViews()).thenReturn(deposits);
+        snapshot.refresh();
+
+        Map<String, LifestyleRates> rates = snapshot.getAll(List.of("fancy", "unknown"));
+
+        assertEquals(2, rates.size());
+        assertEquals("3000", rates.get("fancy").getMonthlyDeposit());
+        assertNull(rates.get("unknown").getMonthlyDeposit());
+    }
+
+    @Test
+    void testRefresh_KeepsPreviousSnapshotOnFailure() {
+        List<LifestyleDepositView> deposits = List.of(view("fancy", "3000"));
+        when(repository.findAllViews()).thenReturn(deposits);
+        snapshot.refresh();
+        clock.advance(Duration.ofMinutes(5));
+
+        when(repository.findAllViews()).thenThrow(new DataAccessResourceFailureException("database down"));
+        snapshot.refresh();
+
+        assertEquals("3000", snapshot.get("fancy").getMonthlyDeposit());
+        assertEquals(Duration.ofMinutes(5), snapshot.age());
+    }
+
+    @Test
+    void testBindTo_PublishesSizeAndAge() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        snapshot.bindTo(registry);
+
+        assertFalse(snapshot.isLoaded());
+        assertTrue(Double.isNaN(registry.get("retirement.snapshot.age").gauge().value()));
+
+        List<LifestyleDepositView> deposits = List.of(view("fancy", "3000"));
+        when(repository.findAllViews()).thenReturn(deposits);
+        snapshot.refresh();
+        clock.advance(Duration.ofSeconds(90));
+
+        assertEquals(3, registry.get("retirement.snapshot.size").gauge().value());
+        assertEquals(90, registry.get("retirement.snapshot.age").gauge().value());
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.retirementCalculator.service;
+
+import com.example.retirementCalculator.config.RedisKeyspace;
+import com.example.retirementCalculator.entity.LifestyleRates;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class LifestyleTableVersionTest {
+
+    private static final String VERSION_KEY = "lifestyle-version";
+    private static final String SEQUENCE_KEY = "lifestyle-version-sequence";
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final RedisKeyspace keyspace = new RedisKeyspace("lifestyle:", 100, 500);
+    private final LifestyleNearCache nearCache = new LifestyleNearCache(100, Duration.ofMinutes(1));
+
+    private LifestyleTableVersion tableVersion;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        tableVersion = new LifestyleTableVersion(redisTemplate, keyspace, nearCache, new CalculationResultCache(100),
+                new RetirementMetrics(registry), VERSION_KEY, SEQUENCE_KEY);
+        tableVersion.bindTo(registry);
+        nearCache.put("simple", new LifestyleRates("1000", "6.5"), nearCache.generation());
+    }
+
+    @Test
+    void testAllocate_IncrementsTheSequence() {
+        when(valueOperations.increment(SEQUENCE_KEY)).thenReturn(5L);
+
+        assertEquals(5, tableVersion.allocate());
+        assertEquals(0, keyspace.getVersion());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testActivate_SwitchesOnceThePointerIsSet() {
+        when(redisTemplate.execute(any(RedisScript.class), eq(List.of(VERSION_KEY)), eq("5"))).thenReturn(1L);
+
+        assertTrue(tableVersion.activate(5));
+
+        assertEquals(5, keyspace.getVersion());
+        assertEquals(5, registry.get("retirement.lifestyle.version").gauge().value());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testActivate_KeepsVersionWhenANewerOneIsActive() {
+        when(redisTemplate.execute(any(RedisScript.class), eq(List.of(VERSION_KEY)), eq("5"))).thenReturn(0L);
+
+        assertFalse(tableVersion.activate(5));
+
+        assertEquals(0, keyspace.getVersion());
+    }
+
+    @Test
+    void testSync_PicksUpNewerVersionAndClearsLocalCopies() {
+        when(valueOperations.get(VERSION_KEY)).thenReturn("3");
+
+        assertEquals(3, tableVersion.sync());
+
+        assertEquals("lifestyle:v3:simple", keyspace.key("simple"));
+        assertNull(nearCache.getIfPresent("simple"));
+    }
+
+    @Test
+    void testSync_KeepsCurrentVersionWithoutPointer() {
+        assertEquals(0, tableVersion.sync());
+
+        assertNotNull(nearCache.getIfPresent("simple"));
+    }
+
+    @Test
+    void testSync_KeepsCurrentVersionWhenRedisIsDown() {
+        keyspace.advanceVersion(2);
+        when(valueOperations.get(VERSION_KEY)).thenThrow(new RedisConnectionFailureException("Unable to connect to Redis"));
+
+        assertEquals(2, tableVersion.sync());
+
+        assertNotNull(nearCache.getIfPresent("simple"));
+    }
+}
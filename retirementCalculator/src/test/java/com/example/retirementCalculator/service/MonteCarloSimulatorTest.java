@@ -0,0 +1,65 @@
+package com.example.retirementCalculator.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MonteCarloSimulatorTest {
+
+    private static final ForkJoinPool POOL = new ForkJoinPool(4);
+
+    @Test
+    void testZeroVolatility_MatchesDeterministicFutureValue() {
+        double expected = FutureValueCalculator.exactFutureValue(new BigDecimal("1000"), new BigDecimal("5.0"), 420).doubleValue();
+
+        MonteCarloSimulator.Summary summary = MonteCarloSimulator.simulate(1000, 5.0, 0, 420, 5000, Double.NaN, 1, POOL);
+
+        assertEquals(5000, summary.getPaths());
+        assertEquals(expected, summary.getMean(), 0.01);
+        assertEquals(expected, summary.quantile(0.05), expected * QuantileSketch.RELATIVE_ACCURACY);
+        assertEquals(expected, summary.quantile(0.95), expected * QuantileSketch.RELATIVE_ACCURACY);
+    }
+
+    @Test
+    void testSameSeed_GivesSameResult() {
+        MonteCarloSimulator.Summary first = MonteCarloSimulator.simulate(3000, 5.5, 15, 240, 20_000, 1_000_000, 42, POOL);
+        MonteCarloSimulator.Summary second = MonteCarloSimulator.simulate(3000, 5.5, 15, 240, 20_000, 1_000_000, 42, POOL);
+
+        assertEquals(first.quantile(0.05), second.quantile(0.05));
+        assertEquals(first.quantile(0.5), second.quantile(0.5));
+        assertEquals(first.getMean(), second.getMean(), first.getMean() * 1e-12);
+        assertEquals(first.getTargetProbability(), second.getTargetProbability());
+    }
+
+    @Test
+    void testVolatility_SpreadsOutcomesAroundExpectedValue() {
+        double deterministic = FutureValueCalculator.exactFutureValue(new BigDecimal("1000"), new BigDecimal("6.0"), 360).doubleValue();
+
+        MonteCarloSimulator.Summary summary = MonteCarloSimulator.simulate(1000, 6.0, 15, 360, 50_000, deterministic, 3, POOL);
+
+        assertTrue(summary.quantile(0.05) < summary.quantile(0.5));
+        assertTrue(summary.quantile(0.5) < summary.quantile(0.95));
+        // the expected monthly growth equals the deterministic rate, so the mean stays close to it
+        assertEquals(deterministic, summary.getMean(), deterministic * 0.02);
+        // the distribution is right-skewed: the median is below the mean, so fewer than half reach it
+        assertTrue(summary.getTargetProbability() > 0.2 && summary.getTargetProbability() < 0.5);
+    }
+
+    @Test
+    void testSimulate_RunsOnTheGivenPoolWhateverItsSize() {
+        ForkJoinPool single = new ForkJoinPool(1);
+        try {
+            MonteCarloSimulator.Summary first = MonteCarloSimulator.simulate(3000, 5.5, 15, 120, 50_000, Double.NaN, 7, single);
+            MonteCarloSimulator.Summary second = MonteCarloSimulator.simulate(3000, 5.5, 15, 120, 50_000, Double.NaN, 7, POOL);
+
+            assertEquals(1, single.getPoolSize());
+            assertEquals(first.quantile(0.05), second.quantile(0.05));
+            assertEquals(first.quantile(0.95), second.quantile(0.95));
+        } finally {
+            single.shutdown();
+        }
+    }
+}
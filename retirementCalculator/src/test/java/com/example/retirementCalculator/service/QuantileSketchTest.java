@@ -0,0 +1,73 @@
+package com.example.retirementCalculator.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class QuantileSketchTest {
+
+    private static double exactQuantile(double[] sorted, double q) {
+        return sorted[(int) Math.max(0, Math.ceil(q * sorted.length) - 1)];
+    }
+
+    @Test
+    void testQuantile_WithinRelativeAccuracy() {
+        SplittableRandom random = new SplittableRandom(7);
+        double[] values = new double[100_000];
+        QuantileSketch sketch = new QuantileSketch();
+        for (int i = 0; i < values.length; i++) {
+            values[i] = Math.exp(12 + 1.5 * random.nextGaussian());
+            sketch.add(values[i]);
+        }
+        Arrays.sort(values);
+
+        for (double q : new double[] { 0.01, 0.05, 0.5, 0.95, 0.99 }) {
+            double exact = exactQuantile(values, q);
+            assertEquals(exact, sketch.quantile(q), exact * QuantileSketch.RELATIVE_ACCURACY, "q=" + q);
+        }
+        assertEquals(values[0], sketch.quantile(0));
+        assertEquals(values[values.length - 1], sketch.quantile(1));
+    }
+
+    @Test
+    void testMerge_EqualsSingleSketch() {
+        QuantileSketch all = new QuantileSketch();
+        QuantileSketch first = new QuantileSketch();
+        QuantileSketch second = new QuantileSketch();
+        for (int i = 1; i <= 1000; i++) {
+            all.add(i * 37.5);
+            (i % 2 == 0 ? first : second).add(i * 37.5);
+        }
+        first.merge(second);
+
+        assertEquals(all.getCount(), first.getCount());
+        assertEquals(all.getMean(), first.getMean(), 1e-9);
+        assertEquals(all.quantile(0.05), first.quantile(0.05));
+        assertEquals(all.quantile(0.5), first.quantile(0.5));
+        assertEquals(all.quantile(0.95), first.quantile(0.95));
+    }
+
+    @Test
+    void testOutOfRangeValues_ReportMinAndMax() {
+        QuantileSketch sketch = new QuantileSketch();
+        sketch.add(0.25);
+        sketch.add(500);
+        sketch.add(2e15);
+
+        assertEquals(0.25, sketch.quantile(0.1));
+        assertEquals(500, sketch.quantile(0.5), 500 * QuantileSketch.RELATIVE_ACCURACY);
+        assertEquals(2e15, sketch.quantile(0.9));
+    }
+
+    @Test
+    void testEmptySketch() {
+        QuantileSketch sketch = new QuantileSketch();
+
+        assertEquals(0, sketch.getCount());
+        assertTrue(Double.isNaN(sketch.quantile(0.5)));
+        assertTrue(Double.isNaN(sketch.getMean()));
+    }
+}
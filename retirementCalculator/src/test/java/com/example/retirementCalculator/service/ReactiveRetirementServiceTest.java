@@ -0,0 +1,209 @@
+package com.example.retirementCalculator.service;
+
+import com.example.retirementCalculator.config.RedisKeyspace;
+import com.example.retirementCalculator.config.RedisLayout;
+import com.example.retirementCalculator.entity.Retirement;
+import com.example.retirementCalculator.entity.RetirementBatchResult;
+import com.example.retirementCalculator.entity.RetirementResult;
+import com.example.retirementCalculator.exception.CalculationException;
+import com.example.retirementCalculator.exception.InvalidInputException;
+import com.example.retirementCalculator.exception.LifestyleNotFoundException;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.redis.core.ReactiveHashOperations;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.ReactiveValueOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+public class ReactiveRetirementServiceTest {
+
+    private static final String PREFIX = "lifestyle:";
+
+    @Mock
+    private ReactiveStringRedisTemplate redisTemplate;
+
+    @Mock
+    private ReactiveStringRedisTemplate redisSecondTemplate;
+
+    @Mock
+    private ReactiveValueOperations<String, String> valueOperations;
+
+    @Mock
+    private ReactiveValueOperations<String, String> secondValueOperations;
+
+    @Mock
+    private ReactiveHashOperations<String, Object, Object> hashOperations;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private ReactiveRetirementService service;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(redisSecondTemplate.opsForValue()).thenReturn(secondValueOperations);
+
+        RedisKeyspace keyspace = new RedisKeyspace(PREFIX, 100, 500);
+        RetirementMetrics metrics = new RetirementMetrics(registry);
+        RedisCircuitBreaker circuitBreaker =
+                new RedisCircuitBreaker(CircuitBreakerConfig.ofDefaults(), new LifestyleSnapshot(null, null), metrics);
+        LifestyleNearCache nearCache = new LifestyleNearCache(100, Duration.ofMinutes(1));
+        RetirementService retirementService = new RetirementService(null, null, null, nearCache,
+                new CalculationResultCache(100), new AnnuityFactorTable(996), null, keyspace, metrics, circuitBreaker);
+        service = new ReactiveRetirementService(redisTemplate, redisSecondTemplate, retirementService,
+                nearCache, keyspace, metrics, circuitBreaker);
+
+        when(valueOperations.get(PREFIX + "fancy")).thenReturn(Mono.just("3000"));
+        when(secondValueOperations.get(PREFIX + "fancy")).thenReturn(Mono.just("5.5"));
+        when(valueOperations.get(PREFIX + "simple")).thenReturn(Mono.just("1000"));
+        when(secondValueOperations.get(PREFIX + "simple")).thenReturn(Mono.just("6.5"));
+        when(valueOperations.get(PREFIX + "luxury")).thenReturn(Mono.empty());
+        when(secondValueOperations.get(PREFIX + "luxury")).thenReturn(Mono.just("4.0"));
+    }
+
+    @Test
+    void testCalculatePlan_ReturnsSameResultAsBlockingPath() {
+        RetirementResult result = service.calculatePlan(new Retirement(30, 65, null, "Fancy")).block();
+
+        assertNotNull(result);
+        assertEquals(new BigDecimal("3000"), result.getMonthlyDeposit());
+        assertEquals(5.5, result.getInterestRate());
+        assertEquals(FutureValueCalculator.exactFutureValue(new BigDecimal("3000"), new BigDecimal("5.5"), 420),
+                result.getFutureValue());
+        assertEquals(1, registry.get("retirement.calculation")
+                .tag("operation", "reactive-plan").tag("outcome", "success").timer().count());
+    }
+
+    @Test
+    void testCalculatePlan_IssuesBothLookupsBeforeEitherCompletes() throws Exception {
+        Sinks.One<String> deposit = Sinks.one();
+        Sinks.One<String> interest = Sinks.one();
+        List<String> subscribed = Collections.synchronizedList(new ArrayList<>());
+        when(valueOperations.get(PREFIX + "fancy"))
+                .thenReturn(deposit.asMono().doOnSubscribe(s -> subscribed.add("db0")));
+        when(secondValueOperations.get(PREFIX + "fancy"))
+                .thenReturn(interest.asMono().doOnSubscribe(s -> subscribed.add("db1")));
+
+        CompletableFuture<RetirementResult> result = service.calculatePlan(new Retirement(30, 65, null, "fancy")).toFuture();
+
+        assertEquals(List.of("db0", "db1"), subscribed);
+        assertFalse(result.isDone());
+
+        interest.tryEmitValue("5.5");
+        deposit.tryEmitValue("3000");
+        assertEquals(new BigDecimal("3000"), result.get().getMonthlyDeposit());
+    }
+
+    @Test
+    void testCalculatePlan_UsesNearCacheOnSecondCall() {
+        service.calculatePlan(new Retirement(30, 65, null, "fancy")).block();
+        service.calculatePlan(new Retirement(40, 65, null, "fancy")).block();
+
+        verify(valueOperations, times(1)).get(PREFIX + "fancy");
+        verify(secondValueOperations, times(1)).get(PREFIX + "fancy");
+    }
+
+    @Test
+    void testCalculatePlan_MissingDeposit() {
+        Mono<RetirementResult> result = service.calculatePlan(new Retirement(30, 65, null, "luxury"));
+
+        assertThrows(LifestyleNotFoundException.class, result::block);
+        assertEquals(1, registry.get("retirement.errors").tag("code", "RC-404").counter().count());
+    }
+
+    @Test
+    void testCalculatePlan_InvalidInputSkipsRedis() {
+        Mono<RetirementResult> result = service.calculatePlan(new Retirement(30, 25, null, "fancy"));
+
+        assertThrows(InvalidInputException.class, result::block);
+        verify(valueOperations, never()).get(anyString());
+    }
+
+    @Test
+    void testCalculatePlan_RedisFailure() {
+        when(valueOperations.get(PREFIX + "fancy")).thenReturn(Mono.error(new IllegalStateException("Redis down")));
+
+        Mono<RetirementResult> result = service.calculatePlan(new Retirement(30, 65, null, "fancy"));
+
+        assertThrows(CalculationException.class, result::block);
+    }
+
+    @Test
+    void testCalculatePlans_KeepsOrderAndIsolatesFailures() {
+        List<Retirement> plans = Arrays.asList(
+                new Retirement(30, 65, null, "fancy"),
+                null,
+                new Retirement(30, 65, null, "luxury"),
+                new Retirement(30, 20, null, "simple"),
+                new Retirement(45, 60, 4.0, "simple"));
+
+        List<RetirementBatchResult> results = service.calculatePlans(plans).collectList().block();
+
+        assertNotNull(results);
+        assertEquals(5, results.size());
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(i, results.get(i).getIndex());
+        }
+        assertNotNull(results.get(0).getResult());
+        assertEquals("RC-400", results.get(1).getErrorCode());
+        assertEquals("RC-404", results.get(2).getErrorCode());
+        assertEquals("RC-400", results.get(3).getErrorCode());
+        assertEquals(4.0, results.get(4).getResult().getInterestRate());
+    }
+
+    @Test
+    void testCalculatePlans_RejectsOversizedBatchBeforeStreaming() {
+        ReflectionTestUtils.setField(service, "maxBatchSize", 2);
+        List<Retirement> plans = List.of(
+                new Retirement(30, 65, null, "fancy"),
+                new Retirement(30, 65, null, "fancy"),
+                new Retirement(30, 65, null, "fancy"));
+
+        assertThrows(InvalidInputException.class, () -> service.calculatePlans(plans));
+        verify(valueOperations, never()).get(anyString());
+    }
+
+    @Test
+    void testCalculatePlan_HashLayoutReadsBothValuesWithOneCommand() {
+        RedisKeyspace keyspace = new RedisKeyspace(PREFIX, "lifestyle-hash:", RedisLayout.HASH, 100, 500);
+        RetirementMetrics metrics = new RetirementMetrics(registry);
+        RedisCircuitBreaker circuitBreaker =
+                new RedisCircuitBreaker(CircuitBreakerConfig.ofDefaults(), new LifestyleSnapshot(null, null), metrics);
+        LifestyleNearCache nearCache = new LifestyleNearCache(100, Duration.ofMinutes(1));
+        RetirementService retirementService = new RetirementService(null, null, null, nearCache,
+                new CalculationResultCache(100), new AnnuityFactorTable(996), null, keyspace, metrics, circuitBreaker);
+        ReactiveRetirementService hashService = new ReactiveRetirementService(redisTemplate, redisSecondTemplate,
+                retirementService, nearCache, keyspace, metrics, circuitBreaker);
+        when(redisTemplate.opsForHash()).thenReturn(hashOperations);
+        when(hashOperations.multiGet("lifestyle-hash:fancy", List.of("deposit", "rate")))
+                .thenReturn(Mono.just(List.of("3000", "5.5")));
+
+        RetirementResult result = hashService.calculatePlan(new Retirement(30, 65, null, "fancy")).block();
+
+        assertNotNull(result);
+        assertEquals(FutureValueCalculator.exactFutureValue(new BigDecimal("3000"), new BigDecimal("5.5"), 420),
+                result.getFutureValue());
+        verify(valueOperations, never()).get(anyString());
+        verify(secondValueOperations, never()).get(anyString());
+        assertEquals(1, registry.get("retirement.redis").tag("database", "db0").tag("command", "hmget").timer().count());
+    }
+}
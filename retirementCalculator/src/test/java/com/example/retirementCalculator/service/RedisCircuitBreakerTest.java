@@ -0,0 +1,134 @@
+package com.example.retirementCalculator.service;
+
+import com.example.retirementCalculator.entity.LifestyleRates;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RedisCircuitBreakerTest {
+
+    private static final CircuitBreakerConfig CONFIG = CircuitBreakerConfig.custom()
+            .slidingWindowSize(4)
+            .minimumNumberOfCalls(4)
+            .failureRateThreshold(50)
+            .waitDurationInOpenState(Duration.ofMillis(50))
+            .permittedNumberOfCallsInHalfOpenState(2)
+            .recordExceptions(DataAccessException.class)
+            .build();
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AtomicInteger redisCalls = new AtomicInteger();
+    private LifestyleSnapshot snapshot;
+    private RedisCircuitBreaker circuitBreaker;
+
+    @BeforeEach
+    void setUp() {
+        snapshot = new LifestyleSnapshot(null, null);
+        snapshot.replace(Map.of("fancy", new LifestyleRates("3000", "5.5")));
+        circuitBreaker = new RedisCircuitBreaker(CONFIG, snapshot, new RetirementMetrics(registry));
+        circuitBreaker.bindTo(registry);
+    }
+
+    private final Function<String, LifestyleRates> redisDown = key -> {
+        redisCalls.incrementAndGet();
+        throw new RedisConnectionFailureException("Unable to connect to Redis");
+    };
+
+    private final Function<String, LifestyleRates> redisUp = key -> {
+        redisCalls.incrementAndGet();
+        return new LifestyleRates("3100", "5.6");
+    };
+
+    @Test
+    void testRead_ReturnsRedisValuesWhileClosed() {
+        LifestyleRates rates = circuitBreaker.read("fancy", redisUp);
+
+        assertEquals("3100", rates.getMonthlyDeposit());
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        assertTrue(registry.find("retirement.redis.fallback").timers().isEmpty());
+    }
+
+    @Test
+    void testRead_FallsBackToSnapshotOnRedisError() {
+        LifestyleRates rates = circuitBreaker.read("fancy", redisDown);
+
+        assertEquals("3000", rates.getMonthlyDeposit());
+        assertEquals("5.5", rates.getInterestRate());
+        assertEquals(1, registry.get("retirement.redis.fallback").tag("cause", RedisCircuitBreaker.REDIS_ERROR).timer().count());
+    }
+
+    @Test
+    void testRead_OpensAndSkipsRedisAfterRepeatedFailures() {
+        for (int i = 0; i < 4; i++) {
+            circuitBreaker.read("fancy", redisDown);
+        }
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+
+        LifestyleRates rates = circuitBreaker.read("fancy", redisDown);
+
+        assertEquals("3000", rates.getMonthlyDeposit());
+        assertEquals(4, redisCalls.get());
+        assertEquals(1, registry.get("retirement.redis.fallback").tag("cause", RedisCircuitBreaker.CIRCUIT_OPEN).timer().count());
+        assertEquals(1, registry.get("resilience4j.circuitbreaker.state").tag("name", RedisCircuitBreaker.NAME).tag("state", "open").gauge().value());
+    }
+
+    @Test
+    void testRead_RecoversOnceRedisIsBack() throws InterruptedException {
+        for (int i = 0; i < 4; i++) {
+            circuitBreaker.read("fancy", redisDown);
+        }
+        Thread.sleep(100);
+
+        circuitBreaker.read("fancy", redisUp);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+        LifestyleRates rates = circuitBreaker.read("fancy", redisUp);
+
+        assertEquals("3100", rates.getMonthlyDeposit());
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    void testReadAll_FallsBackToSnapshotOnRedisError() {
+        Map<String, LifestyleRates> rates = circuitBreaker.readAll(List.of("fancy", "unknown"), keys -> {
+            throw new RedisConnectionFailureException("Unable to connect to Redis");
+        });
+
+        assertEquals("3000", rates.get("fancy").getMonthlyDeposit());
+        assertNull(rates.get("unknown").getMonthlyDeposit());
+    }
+
+    @Test
+    void testRead_RethrowsUntilSnapshotIsLoaded() {
+        RedisCircuitBreaker withoutSnapshot = new RedisCircuitBreaker(CONFIG, new LifestyleSnapshot(null, null), new RetirementMetrics(registry));
+
+        assertThrows(RedisConnectionFailureException.class, () -> withoutSnapshot.read("fancy", redisDown));
+        for (int i = 0; i < 3; i++) {
+            assertThrows(RedisConnectionFailureException.class, () -> withoutSnapshot.read("fancy", redisDown));
+        }
+        assertThrows(CallNotPermittedException.class, () -> withoutSnapshot.read("fancy", redisDown));
+    }
+
+    @Test
+    void testReadReactive_FallsBackToSnapshotOnRedisError() {
+        LifestyleRates rates = circuitBreaker.read("fancy",
+                Mono.<LifestyleRates>error(new RedisConnectionFailureException("Unable to connect to Redis"))).block();
+
+        assertNotNull(rates);
+        assertEquals("3000", rates.getMonthlyDeposit());
+        assertEquals(1, registry.get("retirement.redis.fallback").tag("cause", RedisCircuitBreaker.REDIS_ERROR).timer().count());
+    }
+}
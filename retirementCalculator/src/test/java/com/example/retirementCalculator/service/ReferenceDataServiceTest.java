@@ -0,0 +1,247 @@
+package com.example.retirementCalculator.service;
+
+import com.example.retirementCalculator.config.XmlConfig;
+import com.example.retirementCalculator.entity.ImportResult;
+import com.example.retirementCalculator.entity.LifestyleDeposit;
+import com.example.retirementCalculator.entity.LifestyleDepositRow;
+import com.example.retirementCalculator.exception.CacheUpdateException;
+import com.example.retirementCalculator.exception.InvalidInputException;
+import com.example.retirementCalculator.repository.LifestyleDepositBulkOperationsImpl;
+import com.example.retirementCalculator.repository.RetirementRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class ReferenceDataServiceTest {
+
+    @Mock
+    private RetirementRepository retirementRepository;
+
+    @Mock
+    private CacheService cacheService;
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private JdbcTemplate jdbcTemplate;
+
+    private ReferenceDataService service;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        DriverManagerDataSource dataSource =
+                new DriverManagerDataSource("jdbc:h2:mem:reference-data;MODE=PostgreSQL;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE SCHEMA IF NOT EXISTS retirement_staging");
+        jdbcTemplate.execute("DROP TABLE IF EXISTS retirement_staging.lifestyle_deposits");
+        jdbcTemplate.execute("CREATE TABLE retirement_staging.lifestyle_deposits ("
+                + "id SERIAL PRIMARY KEY, "
+                + "lifestyle_type VARCHAR(20) NOT NULL, "
+                + "monthly_deposit NUMERIC(10,2) NOT NULL)");
+        jdbcTemplate.update("INSERT INTO retirement_staging.lifestyle_deposits (lifestyle_type, monthly_deposit) VALUES ('simple', 1000)");
+
+        when(entityManagerFactory.getCache()).thenReturn(mock(Cache.class));
+        when(entityManagerFactory.unwrap(SessionFactory.class)).thenReturn(mock(SessionFactory.class, RETURNS_DEEP_STUBS));
+        LifestyleDepositBulkOperationsImpl bulkOperations = new LifestyleDepositBulkOperationsImpl(jdbcTemplate, entityManagerFactory);
+        when(retirementRepository.upsertAll(anyMap())).thenAnswer(invocation -> bulkOperations.upsertAll(invocation.getArgument(0)));
+
+        service = new ReferenceDataService(retirementRepository, cacheService, new XmlConfig(2),
+                new RetirementMetrics(registry), 2);
+    }
+
+    @Test
+    void testImportDepositsCsv_UpsertsInChunks() {
+        ImportResult result = service.importDepositsCsv(csv(
+                "lifestyleType,monthlyDeposit",
+                "Simple,1500",
+                "fancy,3000.555",
+                "luxury,9000"));
+
+        assertEquals(3, result.getRows());
+        assertEquals(3, result.getImported());
+        assertEquals(2, result.getInserted());
+        assertEquals(1, result.getUpdated());
+        assertEquals(2, result.getBatches());
+        assertEquals(0, result.getRejected());
+        assertEquals(new BigDecimal("1500.00"), deposit("simple"));
+        assertEquals(new BigDecimal("3000.56"), deposit("fancy"));
+        assertEquals(3, count());
+        verify(cacheService).writeDeposits(Map.of("simple", "1500.00", "fancy", "3000.56"));
+        verify(cacheService).writeDeposits(Map.of("luxury", "9000.00"));
+        assertEquals(3, registry.get("retirement.import.rows").tag("dataset", "deposits").tag("outcome", "imported")
+                .counter().count());
+    }
+
+    @Test
+    void testImportDepositsCsv_RejectsInvalidRows() {
+        ImportResult result = service.importDepositsCsv(csv(
+                "monthlyDeposit,lifestyleType",
+                "abc,fancy",
+                "-5,luxury",
+                "100,",
+                "100,averyveryverylongtypename",
+                "12345678901,huge",
+                "2000"));
+
+        assertEquals(6, result.getRows());
+        assertEquals(0, result.getImported());
+        assertEquals(6, result.getRejected());
+        assertEquals("line 2: monthlyDeposit 'abc' is not a number", result.getErrors().get(0));
+        assertTrue(result.getErrors().get(2).endsWith("lifestyleType is empty"));
+        assertEquals(1, count());
+        verify(cacheService, never()).writeDeposits(anyMap());
+    }
+
+    @Test
+    void testImportDepositsCsv_MissingHeader() {
+        assertThrows(InvalidInputException.class, () -> service.importDepositsCsv(csv("simple,1000")));
+        verifyNoInteractions(cacheService);
+    }
+
+    @Test
+    void testImportDepositsCsv_RedisFailureKeepsCommittedChunk() {
+        doThrow(new CacheUpdateException("Redis down", null)).when(cacheService).writeDeposits(anyMap());
+
+        assertThrows(CacheUpdateException.class, () -> service.importDepositsCsv(csv(
+                "lifestyleType,monthlyDeposit", "fancy,3000", "luxury,9000", "grand,12000")));
+        assertEquals(3, count());
+    }
+
+    @Test
+    void testImportDepositsXml() {
+        String xml = "<lifestyleDeposits>"
+                + "<lifestyleDeposit><lifestyleType>fancy</lifestyleType><monthlyDeposit>3000</monthlyDeposit></lifestyleDeposit>"
+                + "<lifestyleDeposit><lifestyleType>luxury</lifestyleType></lifestyleDeposit>"
+                + "</lifestyleDeposits>";
+
+        ImportResult result = service.importDepositsXml(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals("xml", result.getFormat());
+        assertEquals(1, result.getImported());
+        assertEquals(List.of("deposit 2: value is empty"), result.getErrors());
+        assertEquals(new BigDecimal("3000.00"), deposit("fancy"));
+    }
+
+    @Test
+    void testImportDepositsXml_Malformed() {
+        assertThrows(InvalidInputException.class, () -> service.importDepositsXml(
+                new ByteArrayInputStream("<lifestyleDeposits><lifestyleDeposit>".getBytes(StandardCharsets.UTF_8))));
+    }
+
+    @Test
+    void testImportRatesCsv_WritesRedisOnlyAndRebuildsAnnuityTable() {
+        ImportResult result = service.importRatesCsv(csv(
+                "lifestyleType,interestRate", "simple,6.5", "fancy, 5.5 ", "luxury,x"));
+
+        assertEquals(2, result.getImported());
+        assertEquals(1, result.getRejected());
+        verify(cacheService).writeRates(Map.of("simple", "6.5", "fancy", "5.5"));
+        verify(cacheService).refreshAnnuityTable();
+        assertEquals(new BigDecimal("1000.00"), deposit("simple"));
+    }
+
+    @Test
+    void testExportDepositsCsv_PagesThroughTheTable() throws Exception {
+        when(retirementRepository.findRowsByIdGreaterThanOrderByIdAsc(Long.MIN_VALUE, Limit.of(2)))
+                .thenReturn(List.of(row(1L, "simple", "1000.00"), row(2L, "fancy", "3000.00")));
+        when(retirementRepository.findRowsByIdGreaterThanOrderByIdAsc(2L, Limit.of(2)))
+                .thenReturn(List.of(row(5L, "luxury", "9000.00")));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertEquals(3, service.exportDepositsCsv(out));
+
+        assertEquals("lifestyleType,monthlyDeposit\nsimple,1000.00\nfancy,3000.00\nluxury,9000.00\n",
+                out.toString(StandardCharsets.UTF_8));
+        verify(retirementRepository, times(2)).findRowsByIdGreaterThanOrderByIdAsc(anyLong(), any(Limit.class));
+        verify(retirementRepository, never()).findByIdGreaterThanOrderByIdAsc(any(), any());
+    }
+
+    @Test
+    void testExportDepositsXml_CanBeImportedAgain() throws Exception {
+        when(retirementRepository.findRowsByIdGreaterThanOrderByIdAsc(Long.MIN_VALUE, Limit.of(2)))
+                .thenReturn(List.of(row(1L, "fancy", "3000.00")));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertEquals(1, service.exportDepositsXml(out));
+        ImportResult result = service.importDepositsXml(new ByteArrayInputStream(out.toByteArray()));
+
+        assertEquals(1, result.getImported());
+        assertEquals(new BigDecimal("3000.00"), deposit("fancy"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testExportRatesCsv() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<Map<String, String>> action = invocation.getArgument(0);
+            action.accept(Map.of("simple", "6.5"));
+            action.accept(Map.of("fancy", "5.5"));
+            return null;
+        }).when(cacheService).forEachInterestRateChunk(any(Consumer.class));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertEquals(2, service.exportRatesCsv(out));
+
+        assertEquals("lifestyleType,interestRate\nsimple,6.5\nfancy,5.5\n", out.toString(StandardCharsets.UTF_8));
+    }
+
+    private static InputStream csv(String... lines) {
+        return new ByteArrayInputStream((String.join("\n", lines) + "\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static LifestyleDepositRow row(long id, String lifestyleType, String deposit) {
+        return new LifestyleDepositRow() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getLifestyleType() {
+                return lifestyleType;
+            }
+
+            @Override
+            public BigDecimal getMonthlyDeposit() {
+                return new BigDecimal(deposit);
+            }
+        };
+    }
+
+    private BigDecimal deposit(String lifestyleType) {
+        List<BigDecimal> deposits = new ArrayList<>(jdbcTemplate.queryForList(
+                "SELECT monthly_deposit FROM retirement_staging.lifestyle_deposits WHERE lifestyle_type = ?",
+                BigDecimal.class, lifestyleType));
+        assertEquals(1, deposits.size());
+        return deposits.get(0);
+    }
+
+    private int count() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM retirement_staging.lifestyle_deposits", Integer.class);
+    }
+}
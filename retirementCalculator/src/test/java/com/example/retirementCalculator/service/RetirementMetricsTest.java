@@ -0,0 +1,71 @@
+package com.example.retirementCalculator.service;
+
+import com.example.retirementCalculator.entity.LifestyleRates;
+import com.example.retirementCalculator.exception.LifestyleNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RetirementMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final RetirementMetrics metrics = new RetirementMetrics(registry);
+
+    @Test
+    void testRecordCalculation_TagsOutcome() {
+        assertEquals("ok", metrics.recordCalculation("plan", () -> "ok"));
+        assertThrows(LifestyleNotFoundException.class, () -> metrics.recordCalculation("plan", () -> {
+            throw new LifestyleNotFoundException("luxury");
+        }));
+
+        assertEquals(1, registry.get("retirement.calculation").tag("operation", "plan").tag("outcome", "success").timer().count());
+        assertEquals(1, registry.get("retirement.calculation").tag("operation", "plan").tag("outcome", "error").timer().count());
+        assertEquals(1, registry.get("retirement.errors").tag("exception", "LifestyleNotFoundException").tag("code", "RC-404").counter().count());
+    }
+
+    @Test
+    void testRecordStreamedCalculation_TimesUntilTheStreamIsClosed() {
+        Stream<Integer> consumed = metrics.recordStreamedCalculation("schedule", () -> Stream.of(1, 2, 3));
+        assertEquals(0, registry.find("retirement.calculation").timers().size()); // nothing produced yet
+        try (consumed) {
+            assertEquals(List.of(1, 2, 3), consumed.toList());
+        }
+        try (Stream<Integer> abandoned = metrics.recordStreamedCalculation("schedule", () -> Stream.of(1, 2, 3))) {
+            assertEquals(1, abandoned.iterator().next()); // e.g. the client went away mid-response
+        }
+        assertThrows(LifestyleNotFoundException.class, () -> metrics.recordStreamedCalculation("schedule", () -> {
+            throw new LifestyleNotFoundException("luxury");
+        }));
+
+        assertEquals(1, registry.get("retirement.calculation").tag("operation", "schedule").tag("outcome", "success").timer().count());
+        assertEquals(2, registry.get("retirement.calculation").tag("operation", "schedule").tag("outcome", "error").timer().count());
+        assertEquals(1, registry.get("retirement.errors").tag("code", "RC-404").counter().count());
+    }
+
+    @Test
+    void testRecordRedis_TimesEachCommandPerDatabase() {
+        metrics.recordRedis(RetirementMetrics.DB0, "get", () -> "1000");
+        metrics.recordRedis(RetirementMetrics.DB0, "get", () -> "3000");
+        metrics.recordRedis(RetirementMetrics.DB1, "set", () -> { });
+
+        assertEquals(2, registry.get("retirement.redis").tag("database", "db0").tag("command", "get").timer().count());
+        assertEquals(1, registry.get("retirement.redis").tag("database", "db1").tag("command", "set").timer().count());
+    }
+
+    @Test
+    void testNearCache_PublishesHitsAndMisses() {
+        LifestyleNearCache nearCache = new LifestyleNearCache(100, Duration.ofMinutes(1));
+        nearCache.bindTo(registry);
+
+        nearCache.get("simple", key -> new LifestyleRates("1000", "6.5"));
+        nearCache.get("simple", key -> new LifestyleRates("1000", "6.5"));
+
+        assertEquals(1, registry.get("cache.gets").tag("cache", "lifestyle").tag("result", "hit").functionCounter().count());
+        assertEquals(1, registry.get("cache.gets").tag("cache", "lifestyle").tag("result", "miss").functionCounter().count());
+    }
+}
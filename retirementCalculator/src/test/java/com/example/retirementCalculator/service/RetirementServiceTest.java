@@ -1,12 +1,17 @@
 package com.example.retirementCalculator.service;
 
+import com.example.retirementCalculator.config.RedisKeyspace;
 import com.example.retirementCalculator.entity.LifestyleDeposit;
 import com.example.retirementCalculator.entity.Retirement;
+import com.example.retirementCalculator.entity.RetirementBatchResult;
 import com.example.retirementCalculator.entity.RetirementResult;
+import com.example.retirementCalculator.entity.ScheduleEntry;
 import com.example.retirementCalculator.exception.CalculationException;
 import com.example.retirementCalculator.exception.InvalidInputException;
 import com.example.retirementCalculator.exception.LifestyleNotFoundException;
 import com.example.retirementCalculator.repository.RetirementRepository;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -20,6 +25,11 @@ import org.springframework.test.context.ActiveProfiles;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -41,12 +51,16 @@ public class RetirementServiceTest {
 
     private static final String TEST_LIFESTYLE_TYPE = "fancy";
     private static final String TEST_DEPOSIT_VALUE = "3000";
+    private static final RedisKeyspace KEYSPACE = new RedisKeyspace("lifestyle:", 100, 500);
+    private static final RetirementMetrics METRICS = new RetirementMetrics(new SimpleMeterRegistry());
+    private static final RedisCircuitBreaker CIRCUIT_BREAKER =
+            new RedisCircuitBreaker(CircuitBreakerConfig.ofDefaults(), new LifestyleSnapshot(null, null), METRICS);
 
     @BeforeEach
     void setUp() {
         // Clear DB and Redis for clean state
         repository.deleteAll();
-        redisTemplate.delete(TEST_LIFESTYLE_TYPE);
+        redisTemplate.delete(KEYSPACE.key(TEST_LIFESTYLE_TYPE));
 
         // Save lifestyle deposit in DB
         LifestyleDeposit deposit = new LifestyleDeposit();
@@ -55,7 +69,7 @@ public class RetirementServiceTest {
         repository.save(deposit);
 
         // Save in Redis
-        redisTemplate.opsForValue().set(TEST_LIFESTYLE_TYPE, TEST_DEPOSIT_VALUE);
+        redisTemplate.opsForValue().set(KEYSPACE.key(TEST_LIFESTYLE_TYPE), TEST_DEPOSIT_VALUE);
     }
 
 
@@ -146,7 +160,7 @@ public class RetirementServiceTest {
         org.mockito.Mockito.when(opsMock.get(org.mockito.Mockito.anyString()))
                 .thenThrow(new RuntimeException("Redis down"));
 
-        RetirementService serviceWithMock = new RetirementService(redisMock, repository);
+        RetirementService serviceWithMock = new RetirementService(redisMock, redisMock, repository, new LifestyleNearCache(100, Duration.ofMinutes(1)), new CalculationResultCache(100), new AnnuityFactorTable(996), null, KEYSPACE, METRICS, CIRCUIT_BREAKER);
 
         Retirement input = new Retirement();
         input.setCurrentAge(30);
@@ -156,4 +170,63 @@ public class RetirementServiceTest {
 
         assertThrows(CalculationException.class, () -> serviceWithMock.calculatePlan(input));
     }
+
+    @Test
+    void shouldCalculateBatchWithOneLookupPerDistinctLifestyle() {
+        var depositMock = org.mockito.Mockito.mock(StringRedisTemplate.class);
+        var rateMock = org.mockito.Mockito.mock(StringRedisTemplate.class);
+        var depositOps = org.mockito.Mockito.mock(org.springframework.data.redis.core.ValueOperations.class);
+        var rateOps = org.mockito.Mockito.mock(org.springframework.data.redis.core.ValueOperations.class);
+        org.mockito.Mockito.when(depositMock.opsForValue()).thenReturn(depositOps);
+        org.mockito.Mockito.when(rateMock.opsForValue()).thenReturn(rateOps);
+        org.mockito.Mockito.when(depositOps.multiGet(List.of("lifestyle:fancy", "lifestyle:unknown"))).thenReturn(Arrays.asList(TEST_DEPOSIT_VALUE, null));
+        org.mockito.Mockito.when(rateOps.multiGet(List.of("lifestyle:fancy", "lifestyle:unknown"))).thenReturn(Arrays.asList("5.5", null));
+
+        RetirementService serviceWithMock = new RetirementService(depositMock, rateMock, repository, new LifestyleNearCache(100, Duration.ofMinutes(1)), new CalculationResultCache(100), new AnnuityFactorTable(996), null, KEYSPACE, METRICS, CIRCUIT_BREAKER);
+
+        List<RetirementBatchResult> results = serviceWithMock.calculatePlans(List.of(
+                new Retirement(30, 65, null, "fancy"),
+                new Retirement(40, 65, 5.0, "FANCY"),
+                new Retirement(30, 65, 5.0, "unknown"),
+                new Retirement(65, 65, 5.0, "fancy")
+        ));
+
+        assertThat(results).hasSize(4);
+        assertThat(results.get(0).getResult().getInterestRate()).isEqualTo(5.5);
+        assertThat(results.get(1).getResult().getMonthlyDeposit()).isEqualTo(new BigDecimal(TEST_DEPOSIT_VALUE));
+        assertThat(results.get(2).getErrorCode()).isEqualTo("RC-404");
+        assertThat(results.get(3).getErrorCode()).isEqualTo("RC-400");
+        org.mockito.Mockito.verify(depositOps, org.mockito.Mockito.times(1)).multiGet(org.mockito.Mockito.anyCollection());
+        org.mockito.Mockito.verify(depositOps, org.mockito.Mockito.never()).get(org.mockito.Mockito.any());
+    }
+
+    @Test
+    void shouldStreamScheduleEndingAtFutureValue() {
+        var redisMock = org.mockito.Mockito.mock(StringRedisTemplate.class);
+        var opsMock = org.mockito.Mockito.mock(org.springframework.data.redis.core.ValueOperations.class);
+        org.mockito.Mockito.when(redisMock.opsForValue()).thenReturn(opsMock);
+        org.mockito.Mockito.when(opsMock.get(KEYSPACE.key(TEST_LIFESTYLE_TYPE))).thenReturn(TEST_DEPOSIT_VALUE);
+
+        RetirementService serviceWithMock = new RetirementService(redisMock, redisMock, repository, new LifestyleNearCache(100, Duration.ofMinutes(1)), new CalculationResultCache(100), new AnnuityFactorTable(996), null, KEYSPACE, METRICS, CIRCUIT_BREAKER);
+        Retirement input = new Retirement(30, 65, 5.0, TEST_LIFESTYLE_TYPE);
+
+        List<ScheduleEntry> schedule = serviceWithMock.calculateSchedule(input, ScheduleGranularity.YEARLY).collect(Collectors.toList());
+
+        assertThat(schedule).hasSize(35);
+        assertThat(schedule.get(34).getBalance()).isEqualTo(serviceWithMock.calculatePlan(input).getFutureValue());
+    }
+
+    @Test
+    void shouldRejectScheduleForUnknownLifestyleBeforeStreaming() {
+        Retirement input = new Retirement(30, 65, 5.0, "unknown");
+
+        assertThrows(LifestyleNotFoundException.class, () -> service.calculateSchedule(input, ScheduleGranularity.MONTHLY));
+    }
+
+    @Test
+    void shouldRejectBatchLargerThanMaximumSize() {
+        List<Retirement> plans = Collections.nCopies(1001, new Retirement(30, 65, 5.0, TEST_LIFESTYLE_TYPE));
+
+        assertThrows(InvalidInputException.class, () -> service.calculatePlans(plans));
+    }
 }
@@ -0,0 +1,182 @@
+package com.example.retirementCalculator.service;
+
+import com.example.retirementCalculator.config.RedisKeyspace;
+import com.example.retirementCalculator.config.SimulationProperties;
+import com.example.retirementCalculator.entity.SimulationRequest;
+import com.example.retirementCalculator.entity.SimulationResult;
+import com.example.retirementCalculator.exception.InvalidInputException;
+import com.example.retirementCalculator.exception.LifestyleNotFoundException;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+public class SimulationServiceTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private StringRedisTemplate redisSecondTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    @Mock
+    private ValueOperations<String, String> secondValueOperations;
+
+    private SimulationProperties properties;
+    private SimulationService simulationService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(redisSecondTemplate.opsForValue()).thenReturn(secondValueOperations);
+        when(valueOperations.get("lifestyle:fancy")).thenReturn("3000");
+        when(secondValueOperations.get("lifestyle:fancy")).thenReturn("5.5");
+
+        RetirementMetrics metrics = new RetirementMetrics(new SimpleMeterRegistry());
+        properties = new SimulationProperties();
+        properties.setMaxPaths(50_000);
+        properties.setVolatility(Map.of("fancy", 15.0));
+
+        RetirementService retirementService = new RetirementService(redisTemplate, redisSecondTemplate, null,
+                new LifestyleNearCache(100, Duration.ofMinutes(1)), new CalculationResultCache(100), new AnnuityFactorTable(996), null, new RedisKeyspace("lifestyle:", 100, 500), metrics,
+                new RedisCircuitBreaker(CircuitBreakerConfig.ofDefaults(), new LifestyleSnapshot(null, null), metrics));
+        simulationService = new SimulationService(retirementService, properties, metrics);
+    }
+
+    @AfterEach
+    void tearDown() {
+        simulationService.shutdown();
+    }
+
+    private static SimulationRequest request() {
+        return SimulationRequest.builder()
+                .currentAge(30)
+                .retirementAge(65)
+                .lifestyleType("Fancy")
+                .paths(20_000)
+                .seed(42L)
+                .build();
+    }
+
+    @Test
+    void testSimulate_UsesLifestyleDefaults() {
+        SimulationResult result = simulationService.simulate(request());
+
+        assertEquals(new BigDecimal("3000"), result.getMonthlyDeposit());
+        assertEquals(5.5, result.getExpectedReturn());
+        assertEquals(15.0, result.getVolatility());
+        assertEquals(20_000, result.getPaths());
+        assertTrue(result.getP5().compareTo(result.getP50()) < 0);
+        assertTrue(result.getP50().compareTo(result.getP95()) < 0);
+        assertNull(result.getTargetProbability());
+    }
+
+    @Test
+    void testSimulate_ReportsTargetProbability() {
+        SimulationRequest request = request();
+        request.setTargetAmount(BigDecimal.ONE);
+
+        SimulationResult result = simulationService.simulate(request);
+
+        assertEquals(1.0, result.getTargetProbability());
+    }
+
+    @Test
+    void testSimulate_ZeroVolatilityMatchesCalculatePlan() {
+        SimulationRequest request = request();
+        request.setVolatility(0.0);
+        request.setExpectedReturn(5.0);
+
+        SimulationResult result = simulationService.simulate(request);
+
+        BigDecimal expected = FutureValueCalculator.exactFutureValue(new BigDecimal("3000"), new BigDecimal("5.0"), 420);
+        assertEquals(expected.doubleValue(), result.getMean().doubleValue(), 0.05);
+    }
+
+    @Test
+    void testSimulate_RejectsTooManyPaths() {
+        SimulationRequest request = request();
+        request.setPaths(50_001);
+
+        assertThrows(InvalidInputException.class, () -> simulationService.simulate(request));
+    }
+
+    @Test
+    void testSimulate_RejectsInvalidAges() {
+        SimulationRequest request = request();
+        request.setRetirementAge(30);
+
+        assertThrows(InvalidInputException.class, () -> simulationService.simulate(request));
+    }
+
+    @Test
+    void testSimulate_UnknownLifestyle() {
+        SimulationRequest request = request();
+        request.setLifestyleType("simple");
+
+        assertThrows(LifestyleNotFoundException.class, () -> simulationService.simulate(request));
+    }
+
+    @Test
+    void testSimulate_RejectsNonFiniteOrExcessiveVolatility() {
+        for (double volatility : new double[] { Double.NaN, Double.POSITIVE_INFINITY, 100.1, -1 }) {
+            SimulationRequest request = request();
+            request.setVolatility(volatility);
+
+            assertThrows(InvalidInputException.class, () -> simulationService.simulate(request), "volatility " + volatility);
+        }
+    }
+
+    @Test
+    void testSimulate_RejectsNonFiniteOrExcessiveExpectedReturn() {
+        for (double expectedReturn : new double[] { Double.NaN, Double.POSITIVE_INFINITY, 1e300 }) {
+            SimulationRequest request = request();
+            request.setExpectedReturn(expectedReturn);
+
+            assertThrows(InvalidInputException.class, () -> simulationService.simulate(request), "return " + expectedReturn);
+        }
+    }
+
+    @Test
+    void testSimulate_RejectsTooManyPathMonths() {
+        properties.setMaxPathMonths(20_000L * 420 - 1);
+
+        assertThrows(InvalidInputException.class, () -> simulationService.simulate(request()));
+    }
+
+    @Test
+    void testSimulate_RejectsUnboundedHorizon() {
+        SimulationRequest request = request();
+        request.setPaths(1);
+        request.setRetirementAge(Integer.MAX_VALUE);
+
+        assertThrows(InvalidInputException.class, () -> simulationService.simulate(request));
+    }
+
+    @Test
+    void testSimulate_RejectsBalancesThatOverflow() {
+        properties.setMaxExpectedReturn(Double.MAX_VALUE);
+        SimulationRequest request = request();
+        request.setExpectedReturn(1e300);
+        request.setVolatility(0.0);
+
+        InvalidInputException e = assertThrows(InvalidInputException.class, () -> simulationService.simulate(request));
+        assertTrue(e.getMessage().contains("too large"));
+    }
+}
@@ -0,0 +1,206 @@
+package com.example.retirementCalculator.service;
+
+import com.example.retirementCalculator.exception.CacheLoadTimeoutException;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SingleFlightTest {
+
+    private static final String KEY = "simple";
+
+    private final SingleFlight<String, String> singleFlight = new SingleFlight<>(Duration.ofSeconds(5));
+    private final AtomicInteger loads = new AtomicInteger();
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    /**
+     * Loads a value once {@link #release} is counted down, so callers can join the load.
+     */
+    private String blockingLoad(String key) {
+        loads.incrementAndGet();
+        try {
+            release.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return key + "-" + loads.get();
+    }
+
+    /**
+     * Waits until the given number of callers joined a load in flight.
+     */
+    static void awaitJoined(SingleFlight<?, ?> singleFlight, long joined) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (singleFlight.joinedCount() < joined) {
+            assertTrue(System.nanoTime() < deadline, "callers did not join the load in flight");
+            Thread.sleep(1);
+        }
+    }
+
+    @Test
+    void testLoad_ConcurrentCallersShareOneLoad() throws Exception {
+        int callers = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> singleFlight.load(KEY, this::blockingLoad)));
+            }
+            awaitJoined(singleFlight, callers - 1);
+            release.countDown();
+
+            for (Future<String> result : results) {
+                assertEquals("simple-1", result.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, loads.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testLoad_LoadsAgainOnceTheLoadCompleted() {
+        release.countDown();
+
+        singleFlight.load(KEY, this::blockingLoad);
+        String second = singleFlight.load(KEY, this::blockingLoad);
+
+        assertEquals("simple-2", second);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testLoad_FailureIsPropagatedToJoinedCallers() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            CountDownLatch started = new CountDownLatch(1);
+            Future<String> leader = executor.submit(() -> singleFlight.load(KEY, key -> {
+                started.countDown();
+                blockingLoad(key);
+                throw new IllegalStateException("Redis down");
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            Future<String> follower = executor.submit(() -> singleFlight.load(KEY, this::blockingLoad));
+            awaitJoined(singleFlight, 1);
+            release.countDown();
+
+            for (Future<String> caller : List.of(leader, follower)) {
+                ExecutionException e = assertThrows(ExecutionException.class, () -> caller.get(5, TimeUnit.SECONDS));
+                assertInstanceOf(IllegalStateException.class, e.getCause());
+                assertEquals("Redis down", e.getCause().getMessage());
+            }
+            assertEquals(1, loads.get());
+            assertEquals("simple-2", singleFlight.load(KEY, this::blockingLoad)); // the next miss loads again
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testLoad_JoinedCallerTimesOut() throws Exception {
+        SingleFlight<String, String> shortFlight = new SingleFlight<>(Duration.ofMillis(50));
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            CountDownLatch started = new CountDownLatch(1);
+            Future<String> leader = executor.submit(() -> shortFlight.load(KEY, key -> {
+                started.countDown();
+                return blockingLoad(key);
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            assertThrows(CacheLoadTimeoutException.class, () -> shortFlight.load(KEY, this::blockingLoad));
+
+            release.countDown();
+            assertEquals("simple-1", leader.get(5, TimeUnit.SECONDS)); // the load itself is not bounded
+            assertEquals(1, loads.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testForget_NextCallerStartsANewLoad() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            CountDownLatch started = new CountDownLatch(1);
+            Future<String> leader = executor.submit(() -> singleFlight.load(KEY, key -> {
+                started.countDown();
+                return blockingLoad(key);
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            singleFlight.forget(KEY);
+            String fresh = singleFlight.load(KEY, key -> "fresh");
+            release.countDown();
+
+            assertEquals("fresh", fresh);
+            assertEquals("simple-1", leader.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testLoadAll_JoinsKeysInFlightAndLoadsTheOthers() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            CountDownLatch started = new CountDownLatch(1);
+            Future<String> leader = executor.submit(() -> singleFlight.load(KEY, key -> {
+                started.countDown();
+                return blockingLoad(key);
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            List<List<String>> batches = new ArrayList<>();
+            Future<Map<String, String>> all = executor.submit(() ->
+                    singleFlight.loadAll(List.of(KEY, "fancy"), keys -> {
+                        batches.add(keys);
+                        return Map.of("fancy", "fancy-loaded");
+                    }));
+            awaitJoined(singleFlight, 1);
+            release.countDown();
+
+            assertEquals(Map.of(KEY, "simple-1", "fancy", "fancy-loaded"), all.get(5, TimeUnit.SECONDS));
+            assertEquals(List.of(List.of("fancy")), batches);
+            assertEquals("simple-1", leader.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testLoadReactive_ConcurrentSubscribersShareOneSubscription() {
+        AtomicInteger subscriptions = new AtomicInteger();
+        Sinks.One<String> value = Sinks.one();
+        Mono<String> loader = value.asMono().doOnSubscribe(subscription -> subscriptions.incrementAndGet());
+
+        CompletableFuture<String> first = singleFlight.load(KEY, loader).toFuture();
+        CompletableFuture<String> second = singleFlight.load(KEY, loader).toFuture();
+        value.tryEmitValue("loaded");
+
+        assertEquals("loaded", first.join());
+        assertEquals("loaded", second.join());
+        assertEquals(1, subscriptions.get());
+        assertEquals(1, singleFlight.joinedCount());
+    }
+
+    @Test
+    void testLoadReactive_JoinedSubscriberTimesOut() {
+        SingleFlight<String, String> shortFlight = new SingleFlight<>(Duration.ofMillis(50));
+        Sinks.One<String> value = Sinks.one();
+
+        CompletableFuture<String> first = shortFlight.load(KEY, value.asMono()).toFuture();
+        Mono<String> second = shortFlight.load(KEY, value.asMono());
+
+        assertThrows(CacheLoadTimeoutException.class, second::block);
+        value.tryEmitValue("loaded");
+        assertEquals("loaded", first.join());
+    }
+}